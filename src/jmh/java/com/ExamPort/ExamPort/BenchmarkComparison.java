@@ -0,0 +1,178 @@
+package com.ExamPort.ExamPort;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and prints each benchmark's time and
+ * allocation per operation side by side. Exits with status 1 when any benchmark got slower, or
+ * allocates more, than the threshold allows, so a CI step can fail on it:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.ExamPort.ExamPort.BenchmarkComparison \
+ *     -Djmh.args="src/jmh/baselines/jmh-baseline.json target/jmh-result.json 10"
+ * </pre>
+ * The last argument is the allowed regression in percent (default 10). A change only counts when
+ * it is above the threshold and the 99.9% confidence intervals of the two runs do not overlap, so
+ * noisy benchmarks are not flagged for differences within their own error.
+ * <p>
+ * To store a run as the new baseline, without the host-specific JVM path and version fields:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.ExamPort.ExamPort.BenchmarkComparison \
+ *     -Djmh.args="--write-baseline target/jmh-result.json src/jmh/baselines/jmh-baseline.json"
+ * </pre>
+ * Baselines only compare meaningfully with results from the same machine class and JMH settings.
+ */
+public final class BenchmarkComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    // Describe the machine that ran the benchmarks rather than the benchmarks themselves
+    private static final List<String> HOST_FIELDS = List.of("jvm", "jvmArgs", "jdkVersion", "vmName", "vmVersion");
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && "--write-baseline".equals(args[0])) {
+            writeBaseline(new File(args[1]), new File(args[2]));
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <result.json> [threshold-percent]");
+            System.err.println("       BenchmarkComparison --write-baseline <result.json> <baseline.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        int regressions = 0;
+        System.out.printf("%-90s %24s %24s %8s %16s %16s %8s%n",
+                "Benchmark", "baseline", "current", "time", "B/op base", "B/op now", "alloc");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            Metric time = Metric.of(now.path("primaryMetric"));
+            Metric allocated = Metric.of(now.path("secondaryMetrics").path(ALLOCATION));
+            if (before == null) {
+                System.out.printf("%-90s %24s %24s %8s %16s %16s %8s%n",
+                        entry.getKey(), "-", time.format(unit), "new", "-", allocated.format(""), "new");
+                continue;
+            }
+            Metric baseTime = Metric.of(before.path("primaryMetric"));
+            Metric baseAllocated = Metric.of(before.path("secondaryMetrics").path(ALLOCATION));
+
+            // Throughput modes regress when the score drops; time modes when it rises
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double timeChange = percentChange(baseTime.score, time.score) * (higherIsBetter ? -1 : 1);
+            double allocationChange = percentChange(baseAllocated.score, allocated.score);
+            boolean slower = timeChange > threshold
+                    && (higherIsBetter ? time.upper < baseTime.lower : time.lower > baseTime.upper);
+            boolean allocatesMore = allocationChange > threshold
+                    && allocated.score - baseAllocated.score > 16
+                    && allocated.lower > baseAllocated.upper;
+            if (slower || allocatesMore) {
+                regressions++;
+            }
+            System.out.printf("%-90s %24s %24s %+7.1f%% %16s %16s %+7.1f%%%s%n",
+                    entry.getKey(), baseTime.format(unit), time.format(unit), timeChange,
+                    baseAllocated.format(""), allocated.format(""), allocationChange,
+                    slower || allocatesMore ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d benchmark(s) regressed by more than %.0f%% beyond their error margin%n",
+                regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Copy a result file without the host fields, so the committed baseline carries no local paths.
+     */
+    private static void writeBaseline(File result, File baseline) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ArrayNode results = (ArrayNode) mapper.readTree(result);
+        for (JsonNode node : results) {
+            ((ObjectNode) node).remove(HOST_FIELDS);
+        }
+        mapper.writeValue(baseline, results);
+        System.out.printf("Wrote %d benchmark(s) to %s%n", results.size(), baseline);
+    }
+
+    /**
+     * Results keyed by benchmark method and parameter values.
+     */
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.ExamPort.ExamPort.", ""));
+            JsonNode params = result.path("params");
+            for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double percentChange(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return (after - before) / before * 100;
+    }
+
+    /**
+     * A score with its confidence interval; NaN everywhere when the metric is missing.
+     */
+    private static final class Metric {
+        final double score;
+        final double error;
+        final double lower;
+        final double upper;
+
+        private Metric(double score, double error, double lower, double upper) {
+            this.score = score;
+            this.error = error;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        static Metric of(JsonNode metric) {
+            double score = metric.path("score").asDouble(Double.NaN);
+            // JMH reports NaN error for single-iteration runs; treat the score as exact then
+            double error = metric.path("scoreError").asDouble(Double.NaN);
+            if (Double.isNaN(error)) {
+                error = 0;
+            }
+            JsonNode confidence = metric.path("scoreConfidence");
+            double lower = confidence.path(0).asDouble(Double.NaN);
+            double upper = confidence.path(1).asDouble(Double.NaN);
+            if (Double.isNaN(lower) || Double.isNaN(upper)) {
+                lower = score - error;
+                upper = score + error;
+            }
+            return new Metric(score, error, lower, upper);
+        }
+
+        String format(String unit) {
+            if (Double.isNaN(score)) {
+                return "-";
+            }
+            String value = unit.isEmpty() ? String.format("%.0f", score) : String.format("%.3f", score);
+            String margin = unit.isEmpty() ? String.format("%.0f", error) : String.format("%.3f", error);
+            return value + " +- " + margin + (unit.isEmpty() ? "" : " " + unit);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ExamPort.ExamPort.Controller;
+
+import com.ExamPort.ExamPort.Entity.Exam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The date and time helpers called several times per exam in every exam list: display
+ * formatting of the stored yyyy-MM-dd / HH:mm strings and the status derived from them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExamDateFormattingBenchmark {
+
+    private ApiExamController controller;
+    private Exam exam;
+
+    @Setup
+    public void setUp() {
+        controller = SyntheticExams.controller();
+        exam = SyntheticExams.exam(10);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return controller.formatDate(exam.getEndDate());
+    }
+
+    @Benchmark
+    public String formatTime() {
+        return controller.formatTime(exam.getEndTime());
+    }
+
+    @Benchmark
+    public String determineExamStatus() {
+        return controller.determineExamStatus(exam);
+    }
+}
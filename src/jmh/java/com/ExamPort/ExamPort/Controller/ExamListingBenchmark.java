@@ -0,0 +1,46 @@
+package com.ExamPort.ExamPort.Controller;
+
+import com.ExamPort.ExamPort.Entity.Exam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the per-exam map returned by the instructor and student exam lists, once per exam in
+ * every list response. Enrollment counts and the submission lookup are answered from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExamListingBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int questions;
+
+    private ApiExamController controller;
+    private Exam exam;
+
+    @Setup
+    public void setUp() {
+        controller = SyntheticExams.controller();
+        exam = SyntheticExams.exam(questions);
+    }
+
+    @Benchmark
+    public Map<String, Object> enhanceExamData() {
+        return controller.enhanceExamData(exam);
+    }
+
+    @Benchmark
+    public Map<String, Object> enhanceExamDataForStudent() {
+        return controller.enhanceExamDataForStudent(exam, 42L);
+    }
+}
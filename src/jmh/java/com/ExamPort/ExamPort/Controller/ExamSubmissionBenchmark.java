@@ -0,0 +1,48 @@
+package com.ExamPort.ExamPort.Controller;
+
+import com.ExamPort.ExamPort.Entity.Exam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU work of one exam submission before the result insert: grading the answers and
+ * serializing them for the result row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExamSubmissionBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int questions;
+
+    private ApiExamController controller;
+    private Exam exam;
+    private Map<String, String> answers;
+
+    @Setup
+    public void setUp() {
+        controller = SyntheticExams.controller();
+        exam = SyntheticExams.exam(questions);
+        answers = SyntheticExams.answers(exam);
+    }
+
+    @Benchmark
+    public double calculateScore() {
+        return controller.calculateScore(exam, answers);
+    }
+
+    @Benchmark
+    public String convertAnswersToJson() {
+        return controller.convertAnswersToJson(answers);
+    }
+}
@@ -0,0 +1,146 @@
+package com.ExamPort.ExamPort.Controller;
+
+import com.ExamPort.ExamPort.Entity.Course;
+import com.ExamPort.ExamPort.Entity.CourseVisibility;
+import com.ExamPort.ExamPort.Entity.Exam;
+import com.ExamPort.ExamPort.Entity.ExamOption;
+import com.ExamPort.ExamPort.Entity.Question;
+import com.ExamPort.ExamPort.Entity.User;
+import com.ExamPort.ExamPort.Repository.ResultRepository;
+import com.ExamPort.ExamPort.Service.CourseAllowListService;
+import com.ExamPort.ExamPort.Service.EnrollmentService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Exams shaped like production ones for the controller benchmarks: 70% single-choice, 20%
+ * multiple-choice and 10% text questions with four options each, a student who answers 90% of
+ * them, and an exam window open around the current time. Seeded, so every run builds the same data.
+ */
+final class SyntheticExams {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private SyntheticExams() {
+    }
+
+    static Exam exam(int questionCount) {
+        Random random = new Random(questionCount);
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 1; i <= questionCount; i++) {
+            List<ExamOption> options = new ArrayList<>(4);
+            for (int o = 0; o < 4; o++) {
+                options.add(new ExamOption(i * 10L + o, o + 1, "Option " + (char) ('A' + o) + " for question " + i));
+            }
+            int kind = random.nextInt(10);
+            Question question = new Question();
+            question.setQue_id(i);
+            question.setQuestion("Which of the following statements about topic " + i + " is correct?");
+            question.setOptions(options);
+            question.setMarks(kind < 7 ? 2 : 4);
+            if (kind < 7) {
+                question.setType("mcq");
+                question.setCorrect_options(List.of(random.nextInt(4)));
+            } else if (kind < 9) {
+                question.setType("multiple");
+                question.setCorrect_options(List.of(0, 2));
+            } else {
+                question.setType("text");
+                question.setCorrect_options(List.of());
+            }
+            questions.add(question);
+        }
+
+        User instructor = new User();
+        instructor.setId(7L);
+        instructor.setUsername("instructor1");
+        instructor.setFullName("Dr. Instructor");
+        instructor.setEmail("instructor1@example.com");
+        Course course = new Course();
+        course.setId(11L);
+        course.setName("Data Structures");
+        course.setVisibility(CourseVisibility.PUBLIC);
+        course.setInstructor(instructor);
+
+        LocalDateTime now = LocalDateTime.now();
+        Exam exam = new Exam();
+        exam.setExam_id(1000L + questionCount);
+        exam.setTitle("Data Structures Midterm (" + questionCount + " questions)");
+        exam.setDescription("Covers arrays, lists, trees, graphs and hashing.");
+        exam.setInstructions("Answer every question; multiple-choice questions may have more than one answer.");
+        exam.setDuration(Math.max(10, questionCount));
+        exam.setStartDate(now.minusMinutes(10).format(DATE));
+        exam.setStartTime(now.minusMinutes(10).format(TIME));
+        exam.setEndDate(now.plusMinutes(50).format(DATE));
+        exam.setEndTime(now.plusMinutes(50).format(TIME));
+        exam.setIsactive(true);
+        exam.setCreatedAt(now.minusDays(3));
+        exam.setCourse(course);
+        exam.setQuestions(questions);
+        return exam;
+    }
+
+    /**
+     * A student's answers keyed by question ID as the exam page submits them: option text for
+     * single-choice, comma-separated option texts for multiple-choice, free text otherwise.
+     */
+    static Map<String, String> answers(Exam exam) {
+        Random random = new Random(exam.getQuestions().size() * 31L);
+        Map<String, String> answers = new HashMap<>();
+        for (Question question : exam.getQuestions()) {
+            if (random.nextInt(10) == 0) {
+                continue;
+            }
+            List<ExamOption> options = question.getOptions();
+            String answer;
+            if ("mcq".equals(question.getType())) {
+                answer = options.get(random.nextInt(options.size())).getAvailableOption();
+            } else if ("multiple".equals(question.getType())) {
+                answer = options.get(0).getAvailableOption() + ", " + options.get(1 + random.nextInt(3)).getAvailableOption();
+            } else {
+                answer = "A balanced tree keeps lookups at O(log n) because its height is \"bounded\".";
+            }
+            answers.put(String.valueOf(question.getQue_id()), answer);
+        }
+        return answers;
+    }
+
+    /**
+     * A controller whose enrollment count, allow-list count and submission lookup answer from
+     * memory, so the benchmarks measure the controller's own work.
+     */
+    static ApiExamController controller() {
+        ApiExamController controller = new ApiExamController();
+        ReflectionTestUtils.setField(controller, "enrollmentService", new EnrollmentService() {
+            @Override
+            public long getEnrollmentCountByCourse(Long courseId) {
+                return 120;
+            }
+        });
+        ReflectionTestUtils.setField(controller, "courseAllowListService", new CourseAllowListService() {
+            @Override
+            public long countAllowed(Long courseId) {
+                return 40;
+            }
+        });
+        ReflectionTestUtils.setField(controller, "resultRepository", Proxy.newProxyInstance(
+                ResultRepository.class.getClassLoader(), new Class<?>[] {ResultRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByUserIdAndExamExamId".equals(method.getName())) {
+                        return Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+        return controller;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ExamPort.ExamPort.Security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter} on an authenticated API call.
+ * cacheEntries=0 measures full signature verification on every request; a positive
+ * value measures the steady state where the same bearer token is seen repeatedly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String BENCHMARK_KEYS = "bench:" + Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Param({"0", "10000"})
+    public int cacheEntries;
+
+    private JwtAuthenticationFilter filter;
+    private String bearer;
+
+    @Setup
+    public void setUp() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(cacheEntries);
+        JwtKeyRing keyRing = new JwtKeyRing(BENCHMARK_KEYS, "", false, Duration.ofDays(1), Duration.ofHours(6), 60000, cache);
+        keyRing.init();
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCache", cache);
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        bearer = "Bearer " + jwtUtil.generateToken("student1", "student");
+    }
+
+    @Benchmark
+    public Object filterAuthenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/exams");
+        request.addHeader("Authorization", bearer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.ContactMessage;
+import com.ExamPort.ExamPort.Entity.ContactMessageStatus;
+import com.ExamPort.ExamPort.Entity.Course;
+import com.ExamPort.ExamPort.Entity.Exam;
+import com.ExamPort.ExamPort.Entity.ExamOption;
+import com.ExamPort.ExamPort.Entity.Question;
+import com.ExamPort.ExamPort.Entity.Result;
+import com.ExamPort.ExamPort.Entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render cost of one HTML email per type, from domain objects to the finished body that goes
+ * into the outbox. Run with {@code -prof gc} to see bytes allocated per email.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmailRenderingBenchmark {
+
+    private EmailService emailService;
+    private User student;
+    private Exam exam;
+    private Result result;
+    private Map<String, String> answers;
+    private Course course;
+    private ContactMessage contactMessage;
+
+    @Setup
+    public void setUp() {
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer();
+        renderer.init();
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "templateRenderer", renderer);
+
+        student = new User();
+        student.setUsername("student1");
+        student.setFullName("Student One");
+        student.setEmail("student1@example.com");
+
+        List<Question> questions = new ArrayList<>();
+        answers = new HashMap<>();
+        for (int i = 1; i <= 20; i++) {
+            Question question = new Question();
+            question.setQue_id(i);
+            question.setQuestion("Which of the following statements about topic " + i + " is correct?");
+            question.setType("mcq");
+            question.setMarks(5);
+            question.setOptions(List.of(new ExamOption("A"), new ExamOption("B"), new ExamOption("C"), new ExamOption("D")));
+            question.setCorrect_options(List.of(i % 4));
+            questions.add(question);
+            answers.put(String.valueOf(i), i % 3 == 0 ? "A" : String.valueOf((char) ('A' + i % 4)));
+        }
+        exam = new Exam();
+        exam.setTitle("Data Structures Midterm");
+        exam.setQuestions(questions);
+
+        result = new Result();
+        result.setScore(72.5);
+        result.setPassed(true);
+        result.setTimeTaken(2745);
+        result.setAttemptDate(LocalDateTime.now());
+        result.setFeedback("Good work on trees; revisit hashing & amortised analysis.");
+
+        User instructor = new User();
+        instructor.setUsername("instructor1");
+        instructor.setFullName("Dr. Instructor");
+        course = new Course();
+        course.setName("Data Structures");
+        course.setDescription("Arrays, lists, trees, graphs and hashing with an emphasis on complexity analysis and practical trade-offs.");
+        course.setInstructor(instructor);
+
+        contactMessage = new ContactMessage();
+        contactMessage.setName("Visitor <script>");
+        contactMessage.setEmail("visitor@example.com");
+        contactMessage.setSubject("Question about pricing");
+        contactMessage.setMessage("Hello,\nIs there a discount for students?\nThanks");
+        contactMessage.setReferenceNumber("CNT-20250101-0001");
+        contactMessage.setSubmittedAt(LocalDateTime.now());
+        contactMessage.setStatus(ContactMessageStatus.REPLIED);
+        contactMessage.setAdminResponse("Yes, use code STUDENT at checkout.");
+    }
+
+    @Benchmark
+    public String examResult() {
+        return emailService.buildHtmlEmailBody(student, exam, result, answers);
+    }
+
+    @Benchmark
+    public String emailVerification() {
+        return emailService.buildVerificationEmailBody(student.getEmail(), "http://localhost:5173/verify-email?token=3f1c2a9e-5d7b-4c1e-9a8f-2b6d0e4c7a11");
+    }
+
+    @Benchmark
+    public String passwordReset() {
+        return emailService.buildPasswordResetEmailBody(student.getEmail(), "http://localhost:5173/reset-password?token=3f1c2a9e-5d7b-4c1e-9a8f-2b6d0e4c7a11");
+    }
+
+    @Benchmark
+    public String paymentReceipt() {
+        return emailService.buildPaymentReceiptEmailBody(student, course, "pay_N8x2Lq4ZbY7Kc1", "order_N8x1Vt5RmQ2Wd9", new BigDecimal("499.00"));
+    }
+
+    @Benchmark
+    public String contactNotification() {
+        return emailService.buildContactFormNotificationEmailBody(contactMessage);
+    }
+
+    @Benchmark
+    public String contactConfirmation() {
+        return emailService.buildContactFormConfirmationEmailBody(contactMessage);
+    }
+
+    @Benchmark
+    public String contactStatusUpdate() {
+        return emailService.buildContactStatusUpdateEmailBody(contactMessage, ContactMessageStatus.PENDING);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ExamPort.ExamPort.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-model HTTP driver on the JDK's asynchronous client: requests are scheduled at fixed
+ * offsets and sent whether or not earlier ones have finished, up to maxInFlight outstanding
+ * requests. When that cap is hit the scheduler waits, and the wait is charged to the requests
+ * it delays because latency is measured from their scheduled start.
+ */
+final class LoadClient implements AutoCloseable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final ExecutorService responseExecutor;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+    private final Semaphore inFlight;
+
+    LoadClient(String baseUrl, int maxInFlight) {
+        this.baseUrl = baseUrl;
+        this.responseExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), daemon("loadtest-http"));
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(responseExecutor)
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("loadtest-scheduler"));
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Sends the request after delay and completes with the parsed response body, or a missing
+     * node when the request failed. Failures are recorded against the endpoint, never thrown.
+     */
+    CompletableFuture<JsonNode> send(Phase.Endpoint endpoint, Duration delay, HttpRequest.Builder request) {
+        CompletableFuture<JsonNode> body = new CompletableFuture<>();
+        long scheduledStart = System.nanoTime() + delay.toNanos();
+        scheduler.schedule(() -> {
+            inFlight.acquireUninterruptibly();
+            http.sendAsync(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        inFlight.release();
+                        long latency = System.nanoTime() - scheduledStart;
+                        JsonNode json = MissingNode.getInstance();
+                        String error;
+                        if (failure != null) {
+                            error = failure.getClass().getSimpleName();
+                        } else {
+                            json = parse(response.body());
+                            error = errorOf(response.statusCode(), json);
+                        }
+                        endpoint.record(latency, error);
+                        body.complete(error == null ? json : MissingNode.getInstance());
+                    });
+        }, delay.toNanos(), TimeUnit.NANOSECONDS);
+        return body;
+    }
+
+    HttpRequest.Builder get(String path, String token) {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), token);
+    }
+
+    HttpRequest.Builder post(String path, Object json, String token) {
+        try {
+            return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(json))), token);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cannot serialize request body for " + path, e);
+        }
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder request, String token) {
+        return token == null ? request : request.header("Authorization", "Bearer " + token);
+    }
+
+    private JsonNode parse(String body) {
+        if (body == null || body.isEmpty() || (body.charAt(0) != '{' && body.charAt(0) != '[')) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    /**
+     * Most controllers answer failures with 200 and an "error" field, so both count as errors.
+     */
+    private static String errorOf(int status, JsonNode json) {
+        if (status >= 400) {
+            return "HTTP " + status;
+        }
+        if (json.has("error")) {
+            return json.get("error").asText();
+        }
+        return null;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        responseExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ExamPort.ExamPort.LoadTest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes report.md with a latency table per phase and endpoint, and one HdrHistogram percentile
+ * distribution (.hgrm, in milliseconds) per endpoint that can be plotted with the HdrHistogram
+ * plotter or compared between runs.
+ */
+final class LoadReport {
+
+    private LoadReport() {
+    }
+
+    static Path write(Path directory, LoadTestOptions options, String baseUrl, int loggedIn, List<Phase> phases) throws IOException {
+        Files.createDirectories(directory);
+        StringBuilder report = new StringBuilder();
+        report.append("# ExamPort load test\n\n");
+        report.append("- Date: ").append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append('\n');
+        report.append("- Target: ").append(baseUrl).append('\n');
+        report.append("- Students: ").append(options.students).append(" (").append(loggedIn).append(" logged in)\n");
+        report.append("- Questions per exam: ").append(options.questions).append('\n');
+        report.append("- Windows: login ").append(options.loginWindow.getSeconds())
+                .append("s, start ").append(options.startWindow.getSeconds())
+                .append("s, autosave ").append(options.autosaveDuration.getSeconds())
+                .append("s every ").append(options.autosaveInterval.getSeconds())
+                .append("s, submit ").append(options.submitWindow.getSeconds())
+                .append("s, dashboard ").append(options.dashboardWindow.getSeconds()).append("s\n");
+        report.append("- Latency is measured from each request's scheduled start, in milliseconds\n\n");
+        report.append("| Phase | Endpoint | Requests | Errors | Req/s | p50 | p90 | p99 | p99.9 | Max |\n");
+        report.append("|---|---|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        StringBuilder errors = new StringBuilder();
+        for (Phase phase : phases) {
+            for (Phase.Endpoint endpoint : phase.getEndpoints()) {
+                Histogram histogram = endpoint.getLatencyMicros();
+                long count = histogram.getTotalCount();
+                report.append(String.format("| %s | %s | %d | %d | %.1f | %s | %s | %s | %s | %s |%n",
+                        phase.getName(), endpoint.getLabel(), count, endpoint.getErrors(),
+                        count / Math.max(phase.getElapsedSeconds(), 0.001),
+                        millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                        millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                        millis(histogram.getMaxValue())));
+                for (Map.Entry<String, AtomicLong> reason : endpoint.getErrorReasons().entrySet()) {
+                    errors.append("- ").append(phase.getName()).append(' ').append(endpoint.getLabel())
+                            .append(": ").append(reason.getValue().get()).append(" x ").append(reason.getKey()).append('\n');
+                }
+                writeHistogram(directory.resolve(fileName(phase, endpoint)), histogram);
+            }
+        }
+        if (errors.length() > 0) {
+            report.append("\n## Errors\n\n").append(errors);
+        }
+        Path file = directory.resolve("report.md");
+        Files.writeString(file, report.toString());
+        System.out.println();
+        System.out.print(report);
+        return file;
+    }
+
+    private static void writeHistogram(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String fileName(Phase phase, Phase.Endpoint endpoint) {
+        return phase.getName() + "-" + endpoint.getLabel().toLowerCase()
+                .replaceAll("[{}]", "").replaceAll("[^a-z0-9]+", "-").replaceAll("-+$", "") + ".hgrm";
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,228 @@
+package com.ExamPort.ExamPort.LoadTest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds one instructor, one public course with an exam that is open now, and the students enrolled
+ * in it, straight over JDBC into a database the application has already migrated. Every run uses
+ * a fresh run ID in usernames and the course name so it can be repeated against the same database.
+ */
+final class LoadTestData {
+
+    static final String PASSWORD = "LoadTest#2024";
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int BATCH_SIZE = 500;
+
+    final String runId = Long.toString(System.currentTimeMillis(), 36);
+    final List<String> studentUsernames = new ArrayList<>();
+    /** Option texts of each question by question ID, in option order */
+    final Map<Long, List<String>> questionOptions = new LinkedHashMap<>();
+    /** Question types by question ID: mcq, multiple or text */
+    final Map<Long, String> questionTypes = new LinkedHashMap<>();
+    long examId;
+
+    static LoadTestData seed(String jdbcUrl, String user, String password, int students, int questions,
+                             int bcryptStrength, long seed) throws SQLException {
+        LoadTestData data = new LoadTestData();
+        String passwordHash = new BCryptPasswordEncoder(bcryptStrength).encode(PASSWORD);
+        Random random = new Random(seed);
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            connection.setAutoCommit(false);
+            long instructorId = insertUser(connection, "lt-" + data.runId + "-instructor", "instructor", passwordHash);
+            long courseId = insertCourse(connection, "Load test " + data.runId, instructorId);
+            data.insertStudents(connection, students, passwordHash, courseId);
+            data.examId = insertExam(connection, courseId, questions);
+            data.insertQuestions(connection, questions, random);
+            connection.commit();
+        }
+        return data;
+    }
+
+    private static long insertUser(Connection connection, String username, String role, String passwordHash) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (username, email, password, role, full_name, email_verified) VALUES (?, ?, ?, ?, ?, 1)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, username);
+            statement.setString(2, username + "@loadtest.example.com");
+            statement.setString(3, passwordHash);
+            statement.setString(4, role);
+            statement.setString(5, "Load Test " + role);
+            statement.executeUpdate();
+            return generatedKey(statement);
+        }
+    }
+
+    private static long insertCourse(Connection connection, String name, long instructorId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO courses (name, instructor_id, visibility, pricing, description) VALUES (?, ?, 'PUBLIC', 'FREE', ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, name);
+            statement.setLong(2, instructorId);
+            statement.setString(3, "Seeded by the load test harness");
+            statement.executeUpdate();
+            return generatedKey(statement);
+        }
+    }
+
+    private void insertStudents(Connection connection, int students, String passwordHash, long courseId) throws SQLException {
+        List<Long> studentIds = new ArrayList<>(students);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (username, email, password, role, full_name, email_verified) VALUES (?, ?, ?, 'student', ?, 1)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 1; i <= students; i++) {
+                String username = "lt-" + runId + "-s" + i;
+                studentUsernames.add(username);
+                statement.setString(1, username);
+                statement.setString(2, username + "@loadtest.example.com");
+                statement.setString(3, passwordHash);
+                statement.setString(4, "Student " + i);
+                statement.addBatch();
+                if (i % BATCH_SIZE == 0 || i == students) {
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            studentIds.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO enrollments (student_id, course_id, status) VALUES (?, ?, 'ENROLLED')")) {
+            for (int i = 0; i < studentIds.size(); i++) {
+                statement.setLong(1, studentIds.get(i));
+                statement.setLong(2, courseId);
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == studentIds.size() - 1) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * The exam opened five minutes ago and stays open for three hours, long enough for any run.
+     */
+    private static long insertExam(Connection connection, long courseId, int questions) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = now.minusMinutes(5);
+        LocalDateTime end = now.plusHours(3);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO exam (course_id, title, description, start_date, start_time, end_date, end_time, instructions, "
+                        + "total_marks, created_at, duration, isactive) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, 1)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            statement.setLong(1, courseId);
+            statement.setString(2, "Load test exam (" + questions + " questions)");
+            statement.setString(3, "Seeded by the load test harness");
+            statement.setString(4, start.format(DATE));
+            statement.setString(5, start.format(TIME));
+            statement.setString(6, end.format(DATE));
+            statement.setString(7, end.format(TIME));
+            statement.setString(8, "Answer every question.");
+            statement.setTimestamp(9, Timestamp.valueOf(now));
+            statement.setInt(10, Math.max(30, questions));
+            statement.executeUpdate();
+            return generatedKey(statement);
+        }
+    }
+
+    /**
+     * 70% single-choice, 20% multiple-choice and 10% text questions with four options each, the
+     * same mix as the controller benchmarks.
+     */
+    private void insertQuestions(Connection connection, int questions, Random random) throws SQLException {
+        try (PreparedStatement question = connection.prepareStatement(
+                "INSERT INTO question (question, type, marks, ex_id) VALUES (?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement option = connection.prepareStatement(
+                     "INSERT INTO exam_option (option_number, available_option, qid) VALUES (?, ?, ?)");
+             PreparedStatement correct = connection.prepareStatement(
+                     "INSERT INTO question_correct_options (question_que_id, correct_option_index) VALUES (?, ?)")) {
+            for (int i = 1; i <= questions; i++) {
+                int kind = random.nextInt(10);
+                String type = kind < 7 ? "mcq" : kind < 9 ? "multiple" : "text";
+                question.setString(1, "Which of the following statements about topic " + i + " is correct?");
+                question.setString(2, type);
+                question.setInt(3, kind < 7 ? 2 : 4);
+                question.setLong(4, examId);
+                question.executeUpdate();
+                long questionId = generatedKey(question);
+
+                List<String> options = new ArrayList<>(4);
+                for (int o = 0; o < 4; o++) {
+                    String text = "Option " + (char) ('A' + o) + " for question " + i;
+                    options.add(text);
+                    option.setInt(1, o + 1);
+                    option.setString(2, text);
+                    option.setLong(3, questionId);
+                    option.addBatch();
+                }
+                if ("mcq".equals(type)) {
+                    correct.setLong(1, questionId);
+                    correct.setInt(2, random.nextInt(4));
+                    correct.addBatch();
+                } else if ("multiple".equals(type)) {
+                    for (int index : new int[] {0, 2}) {
+                        correct.setLong(1, questionId);
+                        correct.setInt(2, index);
+                        correct.addBatch();
+                    }
+                }
+                questionOptions.put(questionId, options);
+                questionTypes.put(questionId, type);
+            }
+            option.executeBatch();
+            correct.executeBatch();
+        }
+    }
+
+    /**
+     * A student's answers keyed by question ID as the exam page submits them: 90% of questions
+     * answered, option text for single-choice, comma-separated option texts for multiple-choice.
+     */
+    Map<String, String> answers(Random random) {
+        Map<String, String> answers = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<String>> entry : questionOptions.entrySet()) {
+            if (random.nextInt(10) == 0) {
+                continue;
+            }
+            List<String> options = entry.getValue();
+            String type = questionTypes.get(entry.getKey());
+            String answer;
+            if ("mcq".equals(type)) {
+                answer = options.get(random.nextInt(options.size()));
+            } else if ("multiple".equals(type)) {
+                answer = options.get(0) + ", " + options.get(1 + random.nextInt(3));
+            } else {
+                answer = "A balanced tree keeps lookups at O(log n) because its height is bounded.";
+            }
+            answers.put(String.valueOf(entry.getKey()), answer);
+        }
+        return answers;
+    }
+
+    private static long generatedKey(Statement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("No generated key returned");
+            }
+            return keys.getLong(1);
+        }
+    }
+}
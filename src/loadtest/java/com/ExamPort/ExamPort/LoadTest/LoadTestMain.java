@@ -0,0 +1,148 @@
+package com.ExamPort.ExamPort.LoadTest;
+
+import com.ExamPort.ExamPort.ExamPortApplication;
+import com.ExamPort.ExamPort.TestDatabase;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Replays an exam sitting against ExamPort: a login burst, students opening the exam, periodic
+ * exam page traffic, the submit storm when the exam closes and the dashboard refresh after it.
+ * By default it starts an embedded MariaDB, boots the application on a random port against it
+ * and seeds the course, exam and students; with --base-url it loads an already running instance
+ * instead (seeding through --jdbc-url; run that instance with LOGIN_RATE_LIMIT_PER_IP at least
+ * the student count, as every simulated student signs in from one address). Run it with:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--students 500 --questions 50 --submit-window 60"
+ * </pre>
+ * The report and per-endpoint histograms are written to target/loadtest.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.usage());
+            System.exit(2);
+            return;
+        }
+
+        ConfigurableApplicationContext application = null;
+        int status = 0;
+        try {
+            String baseUrl = options.baseUrl;
+            String jdbcUrl = options.jdbcUrl;
+            String jdbcUser = options.jdbcUser;
+            String jdbcPassword = options.jdbcPassword;
+            int bcryptStrength = 10;
+            if (baseUrl == null) {
+                if (jdbcUrl == null) {
+                    log("Starting embedded MariaDB");
+                    // The test suite's server; it stops itself when the JVM exits
+                    TestDatabase database = TestDatabase.get();
+                    jdbcUrl = database.createSchema("examport_loadtest");
+                    jdbcUser = database.getUsername();
+                    jdbcPassword = database.getPassword();
+                }
+                log("Booting ExamPort against " + jdbcUrl);
+                application = boot(options, jdbcUrl, jdbcUser, jdbcPassword);
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+                bcryptStrength = application.getEnvironment().getProperty("app.security.bcrypt.strength", Integer.class, 10);
+            }
+
+            log("Seeding " + options.students + " students and an exam with " + options.questions + " questions");
+            LoadTestData data = LoadTestData.seed(jdbcUrl, jdbcUser, jdbcPassword,
+                    options.students, options.questions, bcryptStrength, options.seed);
+
+            List<Phase> phases = new ArrayList<>();
+            Scenarios scenarios;
+            try (LoadClient client = new LoadClient(baseUrl, options.maxInFlight)) {
+                scenarios = new Scenarios(client, data, options);
+                phases.add(run("login burst", scenarios::loginBurst));
+                if (options.scenarios.contains("start")) {
+                    phases.add(run("exam start", scenarios::examStart));
+                }
+                if (options.scenarios.contains("autosave")) {
+                    phases.add(run("autosave chatter", scenarios::autosaveChatter));
+                }
+                if (options.scenarios.contains("submit")) {
+                    phases.add(run("submit storm", scenarios::submitStorm));
+                }
+                if (options.scenarios.contains("dashboard")) {
+                    phases.add(run("dashboard refresh", scenarios::dashboardRefresh));
+                }
+            }
+            Path report = LoadReport.write(options.output, options, baseUrl, scenarios.getLoggedInStudents(), phases);
+            log("Report written to " + report.toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("Load test failed");
+            e.printStackTrace();
+            status = 1;
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        // MariaDB4j and the application leave non-daemon threads behind
+        System.exit(status);
+    }
+
+    /**
+     * Boots the application in this JVM. Rate limits stay on, with only the per-address sign-in
+     * ceiling raised to the student count because every simulated student shares one client IP;
+     * mail goes to a closed local port so result emails are still queued in the outbox (as in
+     * production) without being delivered.
+     */
+    private static ConfigurableApplicationContext boot(LoadTestOptions options, String jdbcUrl, String user, String password) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", user);
+        properties.put("spring.datasource.password", password);
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "-1");
+        properties.put("app.rate-limit.rules.login-ip.capacity", String.valueOf(options.students));
+        properties.put("app.payment.gateway", "stub");
+        properties.put("razorpay.key.id", "loadtest");
+        properties.put("razorpay.key.secret", "loadtest");
+        properties.put("spring.mail.host", "127.0.0.1");
+        properties.put("spring.mail.port", "1");
+        properties.put("spring.mail.username", "loadtest");
+        properties.put("spring.mail.password", "loadtest");
+        properties.put("app.email.admin", "admin@loadtest.example.com");
+        properties.put("app.email.outbox.initial-backoff", "PT1H");
+        properties.put("logging.level.com.ExamPort.ExamPort", "WARN");
+        // Anything passed on the command line overrides the defaults above
+        for (String arg : options.applicationArgs) {
+            int equals = arg.indexOf('=');
+            properties.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        List<String> args = new ArrayList<>();
+        properties.forEach((name, value) -> args.add("--" + name + "=" + value));
+        return SpringApplication.run(ExamPortApplication.class, args.toArray(new String[0]));
+    }
+
+    private static Phase run(String description, Supplier<Phase> phase) {
+        log("Running " + description);
+        Phase result = phase.get();
+        log(String.format("Finished %s in %.1fs", description, result.getElapsedSeconds()));
+        return result;
+    }
+
+    private static void log(String message) {
+        System.out.println("[loadtest] " + message);
+    }
+}
@@ -0,0 +1,140 @@
+package com.ExamPort.ExamPort.LoadTest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Command line options of {@link LoadTestMain}. Windows are given in seconds; arguments the
+ * harness does not know (for example --logging.level.root=INFO) are passed on to the application.
+ */
+final class LoadTestOptions {
+
+    static final List<String> SCENARIOS = List.of("login", "start", "autosave", "submit", "dashboard");
+
+    int students = 200;
+    int questions = 50;
+    Set<String> scenarios = new LinkedHashSet<>(SCENARIOS);
+
+    Duration loginWindow = Duration.ofSeconds(20);
+    Duration startWindow = Duration.ofSeconds(30);
+    Duration autosaveDuration = Duration.ofSeconds(60);
+    Duration autosaveInterval = Duration.ofSeconds(15);
+    Duration submitWindow = Duration.ofSeconds(60);
+    Duration dashboardWindow = Duration.ofSeconds(30);
+    int maxInFlight = 512;
+    long seed = 42;
+
+    /** An already running instance to load instead of booting one; needs jdbcUrl for seeding. */
+    String baseUrl;
+    String jdbcUrl;
+    String jdbcUser = "root";
+    String jdbcPassword = "";
+
+    Path output = Paths.get("target", "loadtest");
+    List<String> applicationArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String name = arg.substring(2);
+            if (name.contains("=")) {
+                options.applicationArgs.add(arg);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "students":
+                    options.students = positive(name, value);
+                    break;
+                case "questions":
+                    options.questions = positive(name, value);
+                    break;
+                case "scenarios":
+                    options.scenarios = new LinkedHashSet<>(Arrays.asList(value.split(",")));
+                    if (!SCENARIOS.containsAll(options.scenarios)) {
+                        throw new IllegalArgumentException("Scenarios must be among " + SCENARIOS + ": " + value);
+                    }
+                    break;
+                case "login-window":
+                    options.loginWindow = seconds(name, value);
+                    break;
+                case "start-window":
+                    options.startWindow = seconds(name, value);
+                    break;
+                case "autosave-duration":
+                    options.autosaveDuration = seconds(name, value);
+                    break;
+                case "autosave-interval":
+                    options.autosaveInterval = seconds(name, value);
+                    break;
+                case "submit-window":
+                    options.submitWindow = seconds(name, value);
+                    break;
+                case "dashboard-window":
+                    options.dashboardWindow = seconds(name, value);
+                    break;
+                case "max-in-flight":
+                    options.maxInFlight = positive(name, value);
+                    break;
+                case "seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                case "base-url":
+                    options.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "jdbc-url":
+                    options.jdbcUrl = value;
+                    break;
+                case "jdbc-user":
+                    options.jdbcUser = value;
+                    break;
+                case "jdbc-password":
+                    options.jdbcPassword = value;
+                    break;
+                case "output":
+                    options.output = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (options.baseUrl != null && options.jdbcUrl == null) {
+            throw new IllegalArgumentException("--base-url needs --jdbc-url so the test data can be seeded");
+        }
+        return options;
+    }
+
+    static String usage() {
+        return "Usage: LoadTestMain [--students 200] [--questions 50] [--scenarios " + String.join(",", SCENARIOS) + "]\n"
+                + "                   [--login-window 20] [--start-window 30] [--autosave-duration 60] [--autosave-interval 15]\n"
+                + "                   [--submit-window 60] [--dashboard-window 30] [--max-in-flight 512] [--seed 42]\n"
+                + "                   [--base-url http://host:port --jdbc-url jdbc:mysql://... --jdbc-user u --jdbc-password p]\n"
+                + "                   [--output target/loadtest] [--spring.property=value ...]\n"
+                + "Students always log in first; --scenarios selects which of the later phases run.";
+    }
+
+    private static int positive(String name, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive: " + value);
+        }
+        return parsed;
+    }
+
+    private static Duration seconds(String name, String value) {
+        return Duration.ofSeconds(positive(name, value));
+    }
+}
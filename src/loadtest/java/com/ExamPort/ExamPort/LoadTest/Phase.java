@@ -0,0 +1,99 @@
+package com.ExamPort.ExamPort.LoadTest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One scripted phase of the run with a latency histogram per endpoint. Latencies are recorded in
+ * microseconds from the moment a request was scheduled to start, not from when it was sent, so
+ * time spent waiting behind a slow server is counted (no coordinated omission).
+ */
+final class Phase {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int MAX_ERROR_REASONS = 20;
+
+    private final String name;
+    private final Map<String, Endpoint> endpoints = Collections.synchronizedMap(new LinkedHashMap<>());
+    private long startNanos;
+    private long endNanos;
+
+    Phase(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    double getElapsedSeconds() {
+        return (endNanos - startNanos) / 1e9;
+    }
+
+    Endpoint endpoint(String label) {
+        return endpoints.computeIfAbsent(label, Endpoint::new);
+    }
+
+    List<Endpoint> getEndpoints() {
+        synchronized (endpoints) {
+            return new ArrayList<>(endpoints.values());
+        }
+    }
+
+    static final class Endpoint {
+
+        private final String label;
+        private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final Map<String, AtomicLong> errorReasons = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+
+        void record(long latencyNanos, String errorReason) {
+            latencyMicros.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, latencyNanos / 1000)));
+            if (errorReason != null) {
+                errors.incrementAndGet();
+                synchronized (errorReasons) {
+                    String key = errorReasons.containsKey(errorReason) || errorReasons.size() < MAX_ERROR_REASONS ? errorReason : "other";
+                    errorReasons.computeIfAbsent(key, reason -> new AtomicLong()).incrementAndGet();
+                }
+            }
+        }
+
+        String getLabel() {
+            return label;
+        }
+
+        Histogram getLatencyMicros() {
+            return latencyMicros;
+        }
+
+        long getErrors() {
+            return errors.get();
+        }
+
+        Map<String, AtomicLong> getErrorReasons() {
+            synchronized (errorReasons) {
+                return new LinkedHashMap<>(errorReasons);
+            }
+        }
+    }
+}
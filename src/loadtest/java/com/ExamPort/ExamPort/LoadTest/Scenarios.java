@@ -0,0 +1,150 @@
+package com.ExamPort.ExamPort.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The phases of one exam sitting. Each student's first request in a phase is scheduled at a
+ * random offset inside the phase window, so the window sets the arrival rate: N students in a
+ * 60 second submit window is the exam-close storm.
+ */
+final class Scenarios {
+
+    private final LoadClient client;
+    private final LoadTestData data;
+    private final LoadTestOptions options;
+    private final Random random;
+    /** JWT per student, filled by the login burst; students whose login failed sit out later phases */
+    private final Map<String, String> tokens = new HashMap<>();
+
+    Scenarios(LoadClient client, LoadTestData data, LoadTestOptions options) {
+        this.client = client;
+        this.data = data;
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    /**
+     * Every student logs in once; the bcrypt check makes this the most CPU-bound phase.
+     */
+    Phase loginBurst() {
+        Phase phase = new Phase("login");
+        Phase.Endpoint login = phase.endpoint("POST /api/auth/login");
+        Map<String, CompletableFuture<JsonNode>> responses = new HashMap<>();
+        phase.start();
+        for (String username : data.studentUsernames) {
+            Map<String, String> credentials = Map.of("username", username, "password", LoadTestData.PASSWORD);
+            responses.put(username, client.send(login, offset(options.loginWindow), client.post("/api/auth/login", credentials, null)));
+        }
+        CompletableFuture.allOf(responses.values().toArray(new CompletableFuture[0])).join();
+        phase.finish();
+        responses.forEach((username, response) -> {
+            JsonNode token = response.join().path("token");
+            if (token.isTextual()) {
+                tokens.put(username, token.asText());
+            }
+        });
+        return phase;
+    }
+
+    /**
+     * Students open the exam when it starts: the access check, then the exam with its questions.
+     */
+    Phase examStart() {
+        Phase phase = new Phase("start");
+        Phase.Endpoint access = phase.endpoint("GET /api/exams/{id}/access");
+        Phase.Endpoint exam = phase.endpoint("GET /api/exams/{id}");
+        String examPath = "/api/exams/" + data.examId;
+        List<CompletableFuture<?>> sessions = new ArrayList<>();
+        phase.start();
+        for (String token : tokens.values()) {
+            sessions.add(client.send(access, offset(options.startWindow), client.get(examPath + "/access", token))
+                    .thenCompose(response -> client.send(exam, Duration.ZERO, client.get(examPath, token))));
+        }
+        awaitAll(sessions);
+        phase.finish();
+        return phase;
+    }
+
+    /**
+     * Periodic traffic from open exam pages. The application has no autosave endpoint (answers are
+     * only sent on submit), so the exam page's access re-check stands in for it.
+     */
+    Phase autosaveChatter() {
+        Phase phase = new Phase("autosave");
+        Phase.Endpoint access = phase.endpoint("GET /api/exams/{id}/access");
+        String path = "/api/exams/" + data.examId + "/access";
+        long interval = options.autosaveInterval.toMillis();
+        long duration = options.autosaveDuration.toMillis();
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        phase.start();
+        for (String token : tokens.values()) {
+            for (long at = (long) (random.nextDouble() * interval); at < duration; at += interval) {
+                requests.add(client.send(access, Duration.ofMillis(at), client.get(path, token)));
+            }
+        }
+        awaitAll(requests);
+        phase.finish();
+        return phase;
+    }
+
+    /**
+     * Every student submits once inside the submit window, as when an exam closes.
+     */
+    Phase submitStorm() {
+        Phase phase = new Phase("submit");
+        Phase.Endpoint submit = phase.endpoint("POST /api/exams/{id}/submit");
+        String path = "/api/exams/" + data.examId + "/submit";
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        phase.start();
+        for (String token : tokens.values()) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("answers", data.answers(random));
+            body.put("timeTaken", 600 + random.nextInt(1800));
+            requests.add(client.send(submit, offset(options.submitWindow), client.post(path, body, token)));
+        }
+        awaitAll(requests);
+        phase.finish();
+        return phase;
+    }
+
+    /**
+     * Students land back on their dashboard after submitting and it loads its three panels.
+     */
+    Phase dashboardRefresh() {
+        Phase phase = new Phase("dashboard");
+        Phase.Endpoint studentDashboard = phase.endpoint("GET /api/student/dashboard");
+        Phase.Endpoint dashboardData = phase.endpoint("GET /api/dashboard/student");
+        Phase.Endpoint enrolledExams = phase.endpoint("GET /api/exams/student/enrolled");
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        phase.start();
+        for (String token : tokens.values()) {
+            Duration at = offset(options.dashboardWindow);
+            requests.add(client.send(studentDashboard, at, client.get("/api/student/dashboard", token)));
+            requests.add(client.send(dashboardData, at, client.get("/api/dashboard/student", token)));
+            requests.add(client.send(enrolledExams, at, client.get("/api/exams/student/enrolled", token)));
+        }
+        awaitAll(requests);
+        phase.finish();
+        return phase;
+    }
+
+    int getLoggedInStudents() {
+        return tokens.size();
+    }
+
+    private Duration offset(Duration window) {
+        return Duration.ofMillis((long) (random.nextDouble() * window.toMillis()));
+    }
+
+    private static void awaitAll(List<CompletableFuture<?>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+}
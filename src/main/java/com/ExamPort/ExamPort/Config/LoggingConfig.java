@@ -2,20 +2,72 @@ package com.ExamPort.ExamPort.Config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
 
 @Configuration
 public class LoggingConfig implements WebMvcConfigurer {
 
+    // Request latency is measured by the http.server.requests timers; these lines are for debugging
+    @Value("${app.request-logging.enabled:false}")
+    private boolean requestLoggingEnabled;
+
+    // First filter, so the metrics, security and SQL statement filters log with the request ID
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Picked up by the application task executor, so async continuations (e.g. the login response
+    // after password hashing) keep the request ID of the request that scheduled them
+    @Bean
+    public TaskDecorator requestIdTaskDecorator() {
+        return task -> {
+            Map<String, String> logContext = MDC.getCopyOfContextMap();
+            return () -> {
+                if (logContext != null) {
+                    MDC.setContextMap(logContext);
+                }
+                try {
+                    task.run();
+                } finally {
+                    MDC.clear();
+                }
+            };
+        };
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RequestLoggingInterceptor());
+        if (requestLoggingEnabled) {
+            registry.addInterceptor(new RequestLoggingInterceptor());
+        }
+    }
+
+    /**
+     * Resolve the originating client address. Forwarded headers are not read here: any client can
+     * send them. Tomcat's RemoteIpValve (server.forward-headers-strategy=native) replaces the
+     * remote address with the forwarded one only when the request came through a trusted proxy.
+     */
+    public static String getClientIpAddress(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        return "127.0.0.1".equals(remoteAddr) || "0:0:0:0:0:0:0:1".equals(remoteAddr) ? "localhost" : remoteAddr;
     }
 
     public static class RequestLoggingInterceptor implements HandlerInterceptor {
@@ -23,6 +75,10 @@ public class LoggingConfig implements WebMvcConfigurer {
 
         @Override
         public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // Async handlers (e.g. login) re-enter preHandle on dispatch; keep the original start time
+            if (request.getAttribute("startTime") != null) {
+                return true;
+            }
             long startTime = System.currentTimeMillis();
             request.setAttribute("startTime", startTime);
             
@@ -43,19 +99,6 @@ public class LoggingConfig implements WebMvcConfigurer {
             return true;
         }
         
-        private String getClientIpAddress(HttpServletRequest request) {
-            String xForwardedFor = request.getHeader("X-Forwarded-For");
-            if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-                return xForwardedFor.split(",")[0].trim();
-            }
-            String xRealIp = request.getHeader("X-Real-IP");
-            if (xRealIp != null && !xRealIp.isEmpty()) {
-                return xRealIp;
-            }
-            String remoteAddr = request.getRemoteAddr();
-            return "127.0.0.1".equals(remoteAddr) || "0:0:0:0:0:0:0:1".equals(remoteAddr) ? "localhost" : remoteAddr;
-        }
-
         @Override
         public void afterCompletion(HttpServletRequest request, HttpServletResponse response, 
                                   Object handler, Exception ex) {
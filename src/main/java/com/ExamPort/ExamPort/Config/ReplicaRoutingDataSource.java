@@ -0,0 +1,234 @@
+package com.ExamPort.ExamPort.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * Reads stay on the primary when the replica is down or lags more than {@code max-lag}, and for
+ * {@code sticky-window} after the current user commits a read-write transaction, so users see
+ * their own writes. Spring Data repository reads run read-only by default, so plain
+ * {@code findById}/{@code count} calls outside a service transaction use the replica.
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the connection is picked after
+ * the transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final int STICKY_PRUNE_SIZE = 10_000;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Duration stickyWindow;
+    private final boolean lagCheckEnabled;
+
+    private volatile boolean replicaHealthy = true;
+    private volatile Long replicaLagSeconds;
+    private volatile String replicaError;
+
+    // Username to System.nanoTime() until which their reads stay on the primary
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder unhealthyFallbacks = new LongAdder();
+    private final LongAdder stickyFallbacks = new LongAdder();
+    private final LongAdder connectionFailures = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag,
+                                    Duration stickyWindow, boolean lagCheckEnabled) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.stickyWindow = stickyWindow;
+        this.lagCheckEnabled = lagCheckEnabled;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markStickyAfterCommit();
+            return PRIMARY;
+        }
+        if (!replicaHealthy) {
+            unhealthyFallbacks.increment();
+            return PRIMARY;
+        }
+        String username = currentUsername();
+        if (username != null) {
+            Long until = stickyUntil.get(username);
+            if (until != null) {
+                if (System.nanoTime() - until < 0) {
+                    stickyFallbacks.increment();
+                    return PRIMARY;
+                }
+                stickyUntil.remove(username, until);
+            }
+        }
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == PRIMARY) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            // Serve the read from the primary and keep off the replica until the next health check
+            connectionFailures.increment();
+            markReplicaDown("Connection failed: " + e.getMessage());
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Check that the replica is reachable and, when enabled, that it is within {@code max-lag} of
+     * the primary. Reads go back to the replica as soon as a check passes.
+     */
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            Long lag = lagCheckEnabled ? readReplicationLag(connection) : Long.valueOf(0L);
+            replicaLagSeconds = lag;
+            if (lag == null) {
+                markReplicaDown("Replication is not running");
+            } else if (lag > maxLag.getSeconds()) {
+                markReplicaDown("Replica is " + lag + "s behind");
+            } else {
+                if (!replicaHealthy) {
+                    logger.info("Replica is back ({}s behind), routing reads to it again", lag);
+                }
+                replicaHealthy = true;
+                replicaError = null;
+            }
+        } catch (SQLException e) {
+            replicaLagSeconds = null;
+            markReplicaDown("Health check failed: " + e.getMessage());
+        }
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaHealthy", replicaHealthy);
+        stats.put("replicaLagSeconds", replicaLagSeconds);
+        stats.put("replicaError", replicaError);
+        stats.put("primaryConnections", primaryConnections.sum());
+        stats.put("replicaConnections", replicaConnections.sum());
+        stats.put("unhealthyFallbacks", unhealthyFallbacks.sum());
+        stats.put("stickyFallbacks", stickyFallbacks.sum());
+        stats.put("connectionFailures", connectionFailures.sum());
+        stats.put("stickyUsers", stickyUntil.size());
+        stats.put("primaryPool", poolStats(primary));
+        stats.put("replicaPool", poolStats(replica));
+        return stats;
+    }
+
+    /**
+     * Seconds behind the source, or null if replication is stopped. A server that is not a replica
+     * (no status row) counts as up to date.
+     */
+    private Long readReplicationLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            ResultSet rs;
+            String column;
+            try {
+                rs = statement.executeQuery("SHOW REPLICA STATUS");
+                column = "Seconds_Behind_Source";
+            } catch (SQLException e) {
+                // MySQL before 8.0.22
+                rs = statement.executeQuery("SHOW SLAVE STATUS");
+                column = "Seconds_Behind_Master";
+            }
+            try (ResultSet status = rs) {
+                if (!status.next()) {
+                    return 0L;
+                }
+                long lag = status.getLong(column);
+                return status.wasNull() ? null : lag;
+            }
+        }
+    }
+
+    private void markReplicaDown(String reason) {
+        if (replicaHealthy) {
+            logger.warn("Routing reads to the primary: {}", reason);
+        }
+        replicaHealthy = false;
+        replicaError = reason;
+    }
+
+    private void markStickyAfterCommit() {
+        if (stickyWindow.isZero() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (stickyUntil.size() > STICKY_PRUNE_SIZE) {
+                    long now = System.nanoTime();
+                    stickyUntil.values().removeIf(until -> now - until >= 0);
+                }
+                stickyUntil.put(username, System.nanoTime() + stickyWindow.toNanos());
+            }
+        });
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    private static Map<String, Object> poolStats(DataSource dataSource) {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        if (dataSource instanceof HikariDataSource) {
+            HikariPoolMXBean bean = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            if (bean != null) {
+                pool.put("active", bean.getActiveConnections());
+                pool.put("idle", bean.getIdleConnections());
+                pool.put("total", bean.getTotalConnections());
+                pool.put("waiting", bean.getThreadsAwaitingConnection());
+            }
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ExamPort.ExamPort.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (JWT key ring refresh and similar housekeeping).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,108 @@
+package com.ExamPort.ExamPort.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements of each request and publishes them per route, next to the
+ * {@code http.server.requests} timers with the same {@code method} and {@code uri} tags:
+ * {@code examport.sql.statements} (statements per request), {@code examport.sql.time} (database
+ * time per request) and {@code examport.sql.repeated} (requests where one statement shape ran
+ * {@code repeat-threshold} times or more, the signature of an N+1 loop). The first time a route
+ * repeats a shape it is also logged at WARN with the statement.
+ *
+ * Async requests (login) keep their stats on the request and resume counting on the async dispatch.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    static final String STATS_ATTRIBUTE = SqlStatementFilter.class.getName() + ".stats";
+
+    // Bounds the memory spent remembering which repeats were already logged
+    private static final int MAX_REPORTED = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public SqlStatementFilter(MeterRegistry meterRegistry, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = new SqlStatementStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        SqlStatementStats.attach(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.detach(stats);
+            if (!request.isAsyncStarted()) {
+                publish(request, stats);
+            }
+        }
+    }
+
+    private void publish(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("examport.sql.statements")
+                .description("SQL statements per HTTP request")
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(1, 5, 10, 25, 50, 100)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        Timer.builder("examport.sql.time")
+                .description("Time spent executing SQL statements per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getMaxRepeats() < repeatThreshold) {
+            return;
+        }
+        Counter.builder("examport.sql.repeated")
+                .description("HTTP requests that ran one SQL statement shape repeatedly (likely N+1)")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .increment();
+        for (Map.Entry<String, Integer> entry : stats.getRepeatedShapes(repeatThreshold).entrySet()) {
+            String key = method + " " + uri + " " + entry.getKey();
+            if (reported.size() < MAX_REPORTED && reported.add(key)) {
+                logger.warn("Likely N+1 query on {} {}: ran {} times in one request ({} statements, {} ms total): {}",
+                            method, uri, entry.getValue(), stats.getStatementCount(), stats.getTotalMillis(),
+                            entry.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ExamPort.ExamPort.Config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's SQL statement count, database time and most repeated statement count as
+ * {@code X-SQL-Statements}, {@code X-SQL-Time-Ms} and {@code X-SQL-Max-Repeats} response headers,
+ * for development and for asserting query budgets on {@code MockMvc} results. Statements run while
+ * the body is serialized (lazy loading) are not included. Off unless
+ * {@code app.sql-stats.response-headers=true}; not meant for production.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.sql-stats.response-headers", havingValue = "true")
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            response.getHeaders().set("X-SQL-Statements", String.valueOf(stats.getStatementCount()));
+            response.getHeaders().set("X-SQL-Time-Ms", String.valueOf(stats.getTotalMillis()));
+            response.getHeaders().set("X-SQL-Max-Repeats", String.valueOf(stats.getMaxRepeats()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ExamPort.ExamPort.Config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts of the SQL statements run on one thread while attached, with their total execution
+ * time and how often each statement shape repeated.
+ *
+ * A shape is the statement with literals replaced by {@code ?} and {@code IN} lists collapsed, so
+ * the same query run once per row of an earlier result (an N+1 pattern) shows up as one shape
+ * with a high count. {@link SqlStatementFilter} attaches one per HTTP request; tests attach their
+ * own through {@code SqlStatementScope} to hold an endpoint to a query budget.
+ * Statements are counted by {@link StatementCountingDataSource}; execution time excludes
+ * fetching rows from streamed result sets.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    // Per-request bounds; statements beyond them are still counted and timed
+    static final int MAX_SHAPES = 256;
+    static final int MAX_SHAPE_LENGTH = 1000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private int statementCount;
+    private long totalNanos;
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+
+    // Enclosing stats on this thread while attached; they count the same statements
+    private SqlStatementStats parent;
+
+    SqlStatementStats() {
+    }
+
+    /**
+     * The innermost stats counting on this thread, or null.
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    static void attach(SqlStatementStats stats) {
+        stats.parent = CURRENT.get();
+        CURRENT.set(stats);
+    }
+
+    static void detach(SqlStatementStats stats) {
+        if (CURRENT.get() == stats) {
+            if (stats.parent != null) {
+                CURRENT.set(stats.parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        stats.parent = null;
+    }
+
+    /**
+     * Whether anything on this thread is counting, checked before timing a statement.
+     */
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void recordStatement(String sql, long nanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        String shape = shape(sql);
+        for (; stats != null; stats = stats.parent) {
+            stats.record(shape, nanos);
+        }
+    }
+
+    private void record(String shape, long nanos) {
+        statementCount++;
+        totalNanos += nanos;
+        if (shapeCounts.size() < MAX_SHAPES || shapeCounts.containsKey(shape)) {
+            shapeCounts.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * The statement with string and number literals replaced by {@code ?}, lists of parameters
+     * collapsed to {@code (?)} and whitespace collapsed.
+     */
+    static String shape(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) : shape;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getTotalMillis() {
+        return totalNanos / 1_000_000;
+    }
+
+    /**
+     * How many times the most repeated statement shape ran; 1 means no statement repeated.
+     */
+    public int getMaxRepeats() {
+        int max = 0;
+        for (int count : shapeCounts.values()) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * Shapes that ran at least {@code threshold} times, most repeated first.
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapeCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    public Map<String, Integer> getShapeCounts() {
+        return Collections.unmodifiableMap(shapeCounts);
+    }
+}
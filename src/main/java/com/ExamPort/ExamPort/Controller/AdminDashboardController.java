@@ -1,12 +1,29 @@
 package com.ExamPort.ExamPort.Controller;
 
+import com.ExamPort.ExamPort.Config.ReplicaRoutingDataSource;
 import com.ExamPort.ExamPort.Repository.UserRepository;
 import com.ExamPort.ExamPort.Repository.Exam_repo;
 import com.ExamPort.ExamPort.Repository.ResultRepository;
+import com.ExamPort.ExamPort.Security.RateLimiter;
+import com.ExamPort.ExamPort.Service.EmailOutboxWorker;
+import com.ExamPort.ExamPort.Service.ExamNotificationService;
+import com.ExamPort.ExamPort.Service.FlightRecorderService;
+import com.ExamPort.ExamPort.Service.EnrollmentIndex;
+import com.ExamPort.ExamPort.Service.PaymentGatewayClient;
+import com.ExamPort.ExamPort.Service.PaymentReconciliationService;
+import com.ExamPort.ExamPort.Service.PaymentWebhookService;
+import com.ExamPort.ExamPort.Service.PaymentWebhookWorker;
+import com.ExamPort.ExamPort.Service.PasswordHashingService;
+import com.ExamPort.ExamPort.Service.ResultArchivalService;
+import com.ExamPort.ExamPort.Service.SearchIndexService;
+import com.ExamPort.ExamPort.Service.UserDirectoryIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
@@ -17,6 +34,8 @@ import java.util.ArrayList;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class AdminDashboardController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AdminDashboardController.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -26,6 +45,315 @@ public class AdminDashboardController {
     @Autowired
     private ResultRepository resultRepository;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    /**
+     * Hash latency and queue depth of the password hashing pool
+     */
+    @GetMapping("/password-hashing/stats")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    /**
+     * Allowed/rejected counts per rate-limit rule
+     */
+    @GetMapping("/rate-limits/stats")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+
+    @Autowired
+    private EmailOutboxWorker emailOutboxWorker;
+
+    /**
+     * Email outbox depth by status and delivery counters
+     */
+    @GetMapping("/email-outbox/stats")
+    public ResponseEntity<Map<String, Object>> getEmailOutboxStats() {
+        return ResponseEntity.ok(emailOutboxWorker.getStats());
+    }
+
+    /**
+     * Move a DEAD outbox email back to PENDING for another delivery attempt
+     */
+    @PostMapping("/email-outbox/{id}/retry")
+    public ResponseEntity<Map<String, Object>> retryOutboxEmail(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        boolean requeued = emailOutboxWorker.requeue(id);
+        response.put("success", requeued);
+        response.put("message", requeued ? "Email requeued for delivery" : "No dead email found with ID: " + id);
+        return requeued ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    @Autowired
+    private ExamNotificationService examNotificationService;
+
+    /**
+     * Recent exam publish notification jobs with their progress, plus overall counters
+     */
+    @GetMapping("/exam-notifications")
+    public ResponseEntity<Map<String, Object>> getExamNotificationJobs(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("stats", examNotificationService.getStats());
+        response.put("jobs", examNotificationService.getRecentJobs(limit));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Resume a FAILED notification job from its last checkpoint
+     */
+    @PostMapping("/exam-notifications/{id}/resume")
+    public ResponseEntity<Map<String, Object>> resumeExamNotificationJob(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        boolean resumed = examNotificationService.resume(id);
+        response.put("success", resumed);
+        response.put("message", resumed ? "Notification job queued to resume" : "No failed notification job found with ID: " + id);
+        return resumed ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    /**
+     * Payment gateway latency, error rate, bulkhead usage and circuit breaker state
+     */
+    @GetMapping("/payment-gateway/stats")
+    public ResponseEntity<Map<String, Object>> getPaymentGatewayStats() {
+        return ResponseEntity.ok(paymentGatewayClient.getStats());
+    }
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @Autowired
+    private PaymentWebhookWorker paymentWebhookWorker;
+
+    /**
+     * Webhook inbox depth by status, plus ingestion and processing counters
+     */
+    @GetMapping("/payment-webhooks/stats")
+    public ResponseEntity<Map<String, Object>> getPaymentWebhookStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("ingestion", paymentWebhookService.getStats());
+        response.put("processing", paymentWebhookWorker.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Move a DEAD webhook event back to PENDING for another attempt
+     */
+    @PostMapping("/payment-webhooks/{id}/retry")
+    public ResponseEntity<Map<String, Object>> retryPaymentWebhook(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        boolean requeued = paymentWebhookWorker.requeue(id);
+        response.put("success", requeued);
+        response.put("message", requeued ? "Webhook event requeued" : "No dead webhook event found with ID: " + id);
+        return requeued ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    @Autowired
+    private PaymentReconciliationService paymentReconciliationService;
+
+    /**
+     * Last reconciliation sweep and settled/expired counters
+     */
+    @GetMapping("/payment-reconciliation/stats")
+    public ResponseEntity<Map<String, Object>> getPaymentReconciliationStats() {
+        return ResponseEntity.ok(paymentReconciliationService.getStats());
+    }
+
+    /**
+     * Start a reconciliation sweep now instead of waiting for the schedule
+     */
+    @PostMapping("/payment-reconciliation/run")
+    public ResponseEntity<Map<String, Object>> runPaymentReconciliation() {
+        Map<String, Object> response = new HashMap<>();
+        boolean started = paymentReconciliationService.startSweep();
+        response.put("success", started);
+        response.put("message", started ? "Reconciliation sweep started" : "A reconciliation sweep is already running");
+        return started ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    /**
+     * Size, heap footprint and hit counters of the in-memory enrollment index
+     */
+    @GetMapping("/enrollment-index/stats")
+    public ResponseEntity<Map<String, Object>> getEnrollmentIndexStats() {
+        return ResponseEntity.ok(enrollmentIndex.getStats());
+    }
+
+    /**
+     * Reload the enrollment index from the database, e.g. after editing enrollments by hand
+     */
+    @PostMapping("/enrollment-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildEnrollmentIndex() {
+        Map<String, Object> response = new HashMap<>();
+        boolean started = enrollmentIndex.startRebuild();
+        response.put("success", started);
+        response.put("message", started ? "Enrollment index rebuild started" : "An enrollment index rebuild is already running");
+        return started ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    @Autowired
+    private ResultArchivalService resultArchivalService;
+
+    /**
+     * Hot and archived result counts and the last archival run
+     */
+    @GetMapping("/results-archive/stats")
+    public ResponseEntity<Map<String, Object>> getResultArchiveStats() {
+        return ResponseEntity.ok(resultArchivalService.getStats());
+    }
+
+    /**
+     * Archive results of long-closed exams now instead of waiting for the nightly run
+     */
+    @PostMapping("/results-archive/run")
+    public ResponseEntity<Map<String, Object>> runResultArchival() {
+        Map<String, Object> response = new HashMap<>();
+        String jobId = resultArchivalService.startArchival();
+        response.put("success", jobId != null);
+        response.put("jobId", jobId);
+        response.put("message", jobId != null ? "Result archival started" : "A result archival run is already in progress");
+        return jobId != null ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    // Only present when app.datasource.replica.enabled=true
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    /**
+     * Replica health and lag, primary/replica routing counters and pool usage
+     */
+    @GetMapping("/datasource/stats")
+    public ResponseEntity<Map<String, Object>> getDataSourceStats() {
+        if (replicaRoutingDataSource == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("replicaEnabled", false);
+            return ResponseEntity.ok(response);
+        }
+        Map<String, Object> stats = new java.util.LinkedHashMap<>();
+        stats.put("replicaEnabled", true);
+        stats.putAll(replicaRoutingDataSource.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    /**
+     * Size, readiness and hit counters of the review and contact message search indexes
+     */
+    @GetMapping("/search-index/stats")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(searchIndexService.getStats());
+    }
+
+    /**
+     * Reload the search indexes from the database, e.g. after editing reviews or messages by hand
+     */
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        Map<String, Object> response = new HashMap<>();
+        boolean started = searchIndexService.startRebuild();
+        response.put("success", started);
+        response.put("message", started ? "Search index rebuild started" : "A search index rebuild is already running");
+        return started ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+
+    /**
+     * Size, readiness and search counters of the in-memory user directory
+     */
+    @GetMapping("/user-directory/stats")
+    public ResponseEntity<Map<String, Object>> getUserDirectoryStats() {
+        return ResponseEntity.ok(userDirectoryIndex.getStats());
+    }
+
+    /**
+     * Reload the user directory from the database, e.g. after editing users by hand
+     */
+    @PostMapping("/user-directory/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildUserDirectory() {
+        Map<String, Object> response = new HashMap<>();
+        boolean started = userDirectoryIndex.startRebuild();
+        response.put("success", started);
+        response.put("message", started ? "User directory rebuild started" : "A user directory rebuild is already running");
+        return started ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    /**
+     * Whether the flight recording is running, its bounds and the last dump file
+     */
+    @GetMapping("/jfr/stats")
+    public ResponseEntity<Map<String, Object>> getFlightRecordingStats() {
+        return ResponseEntity.ok(flightRecorderService.getStats());
+    }
+
+    /**
+     * Start the bounded flight recording, e.g. shortly before an exam closes
+     */
+    @PostMapping("/jfr/start")
+    public ResponseEntity<Map<String, Object>> startFlightRecording() {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            boolean started = flightRecorderService.start();
+            response.put("success", started);
+            response.put("message", started ? "Flight recording started" : "A flight recording is already running");
+            return started ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Failed to start flight recording", e);
+            response.put("success", false);
+            response.put("message", "Failed to start flight recording: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    /**
+     * Write the recording so far to a file on this node and keep recording
+     */
+    @PostMapping("/jfr/dump")
+    public ResponseEntity<Map<String, Object>> dumpFlightRecording() {
+        return finishFlightRecording(false);
+    }
+
+    /**
+     * Write the recording to a file on this node and stop it
+     */
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<Map<String, Object>> stopFlightRecording() {
+        return finishFlightRecording(true);
+    }
+
+    private ResponseEntity<Map<String, Object>> finishFlightRecording(boolean stop) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Path file = stop ? flightRecorderService.stop() : flightRecorderService.dump();
+            response.put("success", file != null);
+            response.put("message", file != null ? "Flight recording written" : "No flight recording is running");
+            response.put("file", file != null ? file.toString() : null);
+            return file != null ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Failed to write flight recording", e);
+            response.put("success", false);
+            response.put("message", "Failed to write flight recording: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     @GetMapping("/test")
     public ResponseEntity<String> testAdmin() {
         return ResponseEntity.ok("Admin controller is working!");
@@ -33,8 +361,6 @@ public class AdminDashboardController {
 
     @GetMapping("/simple-dashboard")
     public ResponseEntity<Map<String, Object>> getSimpleDashboard() {
-        System.out.println("Simple admin dashboard called");
-        
         Map<String, Object> response = new HashMap<>();
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalExams", 25L);
@@ -59,17 +385,15 @@ public class AdminDashboardController {
 
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getAdminDashboard() {
-        System.out.println("AdminDashboardController: getAdminDashboard called");
-        
         Map<String, Object> response = new HashMap<>();
         
         try {
             // Get real data from database
             long totalUsers = userRepository != null ? userRepository.count() : 0;
             long totalExams = examRepository != null ? examRepository.count() : 0;
-            long totalAttempts = resultRepository != null ? resultRepository.count() : 0;
+            long totalAttempts = resultRepository != null ? resultRepository.countIncludingArchive() : 0;
             
-            System.out.println("Database counts - Users: " + totalUsers + ", Exams: " + totalExams + ", Attempts: " + totalAttempts);
+            logger.debug("Database counts - Users: {}, Exams: {}, Attempts: {}", totalUsers, totalExams, totalAttempts);
             
             // Calculate average score
             double averageScore = 0.0;
@@ -83,7 +407,7 @@ public class AdminDashboardController {
                             .orElse(0.0);
                     }
                 } catch (Exception e) {
-                    System.err.println("Error calculating average score: " + e.getMessage());
+                    logger.warn("Error calculating average score: {}", e.getMessage());
                 }
             }
             
@@ -109,7 +433,7 @@ public class AdminDashboardController {
                         ));
                     }
                 } catch (Exception e) {
-                    System.err.println("Error getting users by role: " + e.getMessage());
+                    logger.warn("Error getting users by role: {}", e.getMessage());
                     // Add default distribution
                     usersByRole.add(Map.of("name", "Students", "value", Math.max(0L, totalUsers - 2), "color", "#8B5CF6"));
                     usersByRole.add(Map.of("name", "Instructors", "value", 1L, "color", "#06B6D4"));
@@ -136,12 +460,10 @@ public class AdminDashboardController {
             response.put("recentResults", new ArrayList<>());
             response.put("performanceData", new ArrayList<>());
             
-            System.out.println("Admin dashboard response: " + response);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            System.err.println("Error in getAdminDashboard: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error in getAdminDashboard: {}", e.getMessage(), e);
             
             // Return sample data in case of error
             Map<String, Object> stats = new HashMap<>();
@@ -3,6 +3,7 @@ package com.ExamPort.ExamPort.Controller;
 import com.ExamPort.ExamPort.Entity.Exam;
 import com.ExamPort.ExamPort.Entity.Question;
 import com.ExamPort.ExamPort.Entity.ExamOption;
+import com.ExamPort.ExamPort.Service.FlightRecorderEvents;
 import com.ExamPort.ExamPort.Service.TaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,15 @@ public class ApiExamController {
     @Autowired
     private com.ExamPort.ExamPort.Service.EmailService emailService;
 
+    @Autowired
+    private com.ExamPort.ExamPort.Service.ApplicationMetrics applicationMetrics;
+
+    @Autowired
+    private com.ExamPort.ExamPort.Service.CourseAllowListService courseAllowListService;
+
+    @org.springframework.beans.factory.annotation.Value("${app.exam.submission-grace:PT2M}")
+    private java.time.Duration submissionGrace;
+
     @PostMapping
     public void addExam(@RequestBody Exam e) {
         logger.info("Adding new exam: {}", e.getTitle());
@@ -59,7 +69,7 @@ public class ApiExamController {
     @GetMapping("/instructor")
     public List<Map<String, Object>> getExamsForInstructor(org.springframework.security.core.Authentication authentication) {
         String username = authentication.getName();
-        logger.info("Fetching exams for instructor: {}", username);
+        logger.debug("Fetching exams for instructor: {}", username);
         
         try {
             com.ExamPort.ExamPort.Entity.User instructor = userRepository.findByUsername(username).orElse(null);
@@ -78,7 +88,7 @@ public class ApiExamController {
         }
     }
 
-    private Map<String, Object> enhanceExamData(Exam exam) {
+    Map<String, Object> enhanceExamData(Exam exam) {
         Map<String, Object> examData = new HashMap<>();
         
         // Basic exam info
@@ -113,12 +123,12 @@ public class ApiExamController {
         // 3. Number of students (from course enrollment and allowed emails) with formatted display
         int studentCount = 0;
         if (exam.getCourse() != null) {
-            if ("PUBLIC".equals(exam.getCourse().getVisibility())) {
+            if (exam.getCourse().getVisibility() == com.ExamPort.ExamPort.Entity.CourseVisibility.PUBLIC) {
                 // For public courses, count enrolled students
                 studentCount = (int) enrollmentService.getEnrollmentCountByCourse(exam.getCourse().getId());
-            } else if ("PRIVATE".equals(exam.getCourse().getVisibility()) && exam.getCourse().getAllowedEmails() != null) {
+            } else if (exam.getCourse().getVisibility() == com.ExamPort.ExamPort.Entity.CourseVisibility.PRIVATE) {
                 // For private courses, count allowed emails (backward compatibility)
-                studentCount = exam.getCourse().getAllowedEmails().size();
+                studentCount = (int) courseAllowListService.countAllowed(exam.getCourse().getId());
             }
         }
         examData.put("studentCount", studentCount);
@@ -217,7 +227,7 @@ public class ApiExamController {
         return dateTimeInfo;
     }
 
-    private String formatDate(String dateStr) {
+    String formatDate(String dateStr) {
         try {
             // Convert from yyyy-MM-dd to more readable format
             String[] parts = dateStr.split("-");
@@ -233,7 +243,7 @@ public class ApiExamController {
         }
     }
 
-    private String formatTime(String timeStr) {
+    String formatTime(String timeStr) {
         try {
             // Convert from HH:mm to 12-hour format
             String[] parts = timeStr.split(":");
@@ -370,7 +380,7 @@ public class ApiExamController {
         return timeInfo;
     }
 
-    private String determineExamStatus(Exam exam) {
+    String determineExamStatus(Exam exam) {
         try {
             LocalDateTime now = LocalDateTime.now();
             
@@ -409,7 +419,7 @@ public class ApiExamController {
 
     @GetMapping("/{id}")
     public Map<String, Object> getExamById(@PathVariable Long id) {
-        logger.info("Fetching exam by ID: {}", id);
+        logger.debug("Fetching exam by ID: {}", id);
         
         try {
             Exam exam = examRepo.findById(id).orElse(null);
@@ -421,12 +431,12 @@ public class ApiExamController {
             // Force loading of questions if they're lazy loaded
             if (exam.getQuestions() != null) {
                 exam.getQuestions().size(); // This triggers lazy loading
-                logger.info("Found exam: {} with {} questions", exam.getTitle(), exam.getQuestions().size());
+                logger.debug("Found exam: {} with {} questions", exam.getTitle(), exam.getQuestions().size());
                 
                 // Log each question for debugging
                 for (int i = 0; i < exam.getQuestions().size(); i++) {
                     Question q = exam.getQuestions().get(i);
-                    logger.info("Question {}: ID={}, Text={}, Type={}, Options={}, CorrectOptions={}", 
+                    logger.debug("Question {}: ID={}, Text={}, Type={}, Options={}, CorrectOptions={}", 
                                i+1, q.getQue_id(), q.getQuestion(), q.getType(), 
                                q.getOptions() != null ? q.getOptions().size() : 0,
                                q.getCorrect_options());
@@ -442,8 +452,8 @@ public class ApiExamController {
             enhancedData.put("completedStudents", completedStudents);
             enhancedData.put("completedStudentsCount", completedStudents.size());
 
-            logger.info("Returning enhanced exam data with {} fields and {} completed students", 
-                       enhancedData.size(), completedStudents.size());
+            logger.info("Returning exam {} with {} questions and {} completed students", id,
+                       exam.getQuestions() != null ? exam.getQuestions().size() : 0, completedStudents.size());
             
             return enhancedData;
         } catch (Exception e) {
@@ -496,7 +506,7 @@ public class ApiExamController {
                 return dateB.compareTo(dateA);
             });
 
-            logger.info("Found {} completed students for exam {}", completedStudents.size(), examId);
+            logger.debug("Found {} completed students for exam {}", completedStudents.size(), examId);
             return completedStudents;
         } catch (Exception e) {
             logger.error("Error fetching completed students for exam: {}", examId, e);
@@ -531,7 +541,7 @@ public class ApiExamController {
     public Map<String, Object> checkExamAccess(@PathVariable Long examId, 
                                               org.springframework.security.core.Authentication authentication) {
         String username = authentication.getName();
-        logger.info("Checking exam access for user: {} and exam: {}", username, examId);
+        logger.debug("Checking exam access for user: {} and exam: {}", username, examId);
         
         try {
             // Get user by username
@@ -564,7 +574,7 @@ public class ApiExamController {
             }
 
             // Check if already submitted
-            boolean hasSubmitted = resultRepository.findByUserIdAndExamExamId(user.getId(), examId).isPresent();
+            boolean hasSubmitted = resultRepository.existsByUserIdAndExamIdIncludingArchive(user.getId(), examId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("hasAccess", hasAccess);
@@ -587,7 +597,7 @@ public class ApiExamController {
 
     @GetMapping("/allowed/{email}")
     public List<Map<String, Object>> getAllowedExams(@PathVariable String email) {
-        logger.info("Fetching allowed exams for email: {}", email);
+        logger.debug("Fetching allowed exams for email: {}", email);
         
         try {
             // Get user by email
@@ -607,32 +617,31 @@ public class ApiExamController {
 
             // Log detailed information about exam access
             if (allowedExams.isEmpty()) {
-                logger.info("No exams found for user {}. Checking enrollment and course access:", email);
+                logger.debug("No exams found for user {}. Checking enrollment and course access:", email);
                 
                 // Check enrolled courses
                 List<com.ExamPort.ExamPort.Entity.Enrollment> enrollments = enrollmentService.getEnrollmentsByStudent(userId);
-                logger.info("User {} has {} enrollments", email, enrollments.size());
+                logger.debug("User {} has {} enrollments", email, enrollments.size());
                 
                 for (com.ExamPort.ExamPort.Entity.Enrollment enrollment : enrollments) {
                     com.ExamPort.ExamPort.Entity.Course course = enrollment.getCourse();
-                    logger.info("Enrolled in course: {} (ID: {}, Visibility: {})", 
+                    logger.debug("Enrolled in course: {} (ID: {}, Visibility: {})", 
                                course.getName(), course.getId(), course.getVisibility());
                     
                     // Check if course has exams
                     List<Exam> courseExams = allExams.stream()
                         .filter(exam -> exam.getCourse() != null && exam.getCourse().getId().equals(course.getId()))
                         .toList();
-                    logger.info("Course {} has {} exams", course.getName(), courseExams.size());
+                    logger.debug("Course {} has {} exams", course.getName(), courseExams.size());
                 }
 
                 // Check private course access
                 List<Exam> privateExams = allExams.stream()
                     .filter(exam -> exam.getCourse() != null && 
-                                  "PRIVATE".equals(exam.getCourse().getVisibility()) &&
-                                  exam.getCourse().getAllowedEmails() != null &&
-                                  exam.getCourse().getAllowedEmails().contains(email))
+                                  exam.getCourse().getVisibility() == com.ExamPort.ExamPort.Entity.CourseVisibility.PRIVATE &&
+                                  courseAllowListService.isAllowed(exam.getCourse().getId(), email))
                     .toList();
-                logger.info("User {} has access to {} private course exams", email, privateExams.size());
+                logger.debug("User {} has access to {} private course exams", email, privateExams.size());
             }
 
             return allowedExams.stream()
@@ -650,7 +659,7 @@ public class ApiExamController {
     @GetMapping("/student/enrolled")
     public List<Map<String, Object>> getExamsForEnrolledCourses(org.springframework.security.core.Authentication authentication) {
         String username = authentication.getName();
-        logger.info("Fetching exams for enrolled courses for student: {}", username);
+        logger.debug("Fetching exams for enrolled courses for student: {}", username);
         
         try {
             // Get user by username
@@ -662,25 +671,25 @@ public class ApiExamController {
 
             // Get enrolled courses
             List<com.ExamPort.ExamPort.Entity.Enrollment> enrollments = enrollmentService.getEnrollmentsByStudent(user.getId());
-            logger.info("Found {} enrollments for student: {}", enrollments.size(), username);
+            logger.debug("Found {} enrollments for student: {}", enrollments.size(), username);
 
             List<Exam> enrolledExams = new ArrayList<>();
             for (com.ExamPort.ExamPort.Entity.Enrollment enrollment : enrollments) {
                 com.ExamPort.ExamPort.Entity.Course course = enrollment.getCourse();
-                logger.info("Processing course: {} (ID: {})", course.getName(), course.getId());
+                logger.debug("Processing course: {} (ID: {})", course.getName(), course.getId());
                 
                 // Get exams for this course
                 List<Exam> courseExams = examRepo.findByCourse_Id(course.getId());
-                logger.info("Found {} exams for course: {}", courseExams.size(), course.getName());
+                logger.debug("Found {} exams for course: {}", courseExams.size(), course.getName());
                 
                 enrolledExams.addAll(courseExams);
             }
 
-            logger.info("Total exams from enrolled courses: {}", enrolledExams.size());
-            
-            return enrolledExams.stream()
+            List<Map<String, Object>> exams = enrolledExams.stream()
                 .map(exam -> enhanceExamDataForStudent(exam, user.getId()))
                 .collect(Collectors.toList());
+            logger.info("Returning {} exams from {} enrolled courses for student: {}", exams.size(), enrollments.size(), username);
+            return exams;
         } catch (Exception e) {
             logger.error("Error fetching exams for enrolled courses for student: {}", username, e);
             return List.of();
@@ -692,7 +701,7 @@ public class ApiExamController {
      */
     @GetMapping("/course/{courseId}")
     public List<Map<String, Object>> getExamsByCourse(@PathVariable Long courseId) {
-        logger.info("Fetching exams for course: {}", courseId);
+        logger.debug("Fetching exams for course: {}", courseId);
         
         try {
             List<Exam> courseExams = examRepo.findByCourse_Id(courseId);
@@ -721,24 +730,24 @@ public class ApiExamController {
         Long userId = user.getId();
 
         // Check course visibility and access
-        if ("PRIVATE".equals(course.getVisibility())) {
+        if (course.getVisibility() == com.ExamPort.ExamPort.Entity.CourseVisibility.PRIVATE) {
             // For private courses, check if user is in allowed emails list (backward compatibility)
-            boolean isInAllowedEmails = course.getAllowedEmails() != null && course.getAllowedEmails().contains(email);
+            boolean isInAllowedEmails = courseAllowListService.isAllowed(course.getId(), email);
             if (isInAllowedEmails) {
-                logger.info("User {} has access to private course {} via allowed emails", email, course.getName());
+                logger.debug("User {} has access to private course {} via allowed emails", email, course.getName());
                 return true;
             } else {
-                logger.info("User {} does not have access to private course {} - not in allowed emails", email, course.getName());
+                logger.debug("User {} does not have access to private course {} - not in allowed emails", email, course.getName());
                 return false;
             }
-        } else if ("PUBLIC".equals(course.getVisibility())) {
+        } else if (course.getVisibility() == com.ExamPort.ExamPort.Entity.CourseVisibility.PUBLIC) {
             // For public courses, check enrollment status
             boolean isEnrolled = enrollmentService.isStudentEnrolledInCourse(userId, course.getId());
             if (isEnrolled) {
-                logger.info("User {} has access to public course {} via enrollment", email, course.getName());
+                logger.debug("User {} has access to public course {} via enrollment", email, course.getName());
                 return true;
             } else {
-                logger.info("User {} does not have access to public course {} - not enrolled", email, course.getName());
+                logger.debug("User {} does not have access to public course {} - not enrolled", email, course.getName());
                 return false;
             }
         }
@@ -747,7 +756,7 @@ public class ApiExamController {
         return false;
     }
 
-    private Map<String, Object> enhanceExamDataForStudent(Exam exam, Long userId) {
+    Map<String, Object> enhanceExamDataForStudent(Exam exam, Long userId) {
         Map<String, Object> examData = enhanceExamData(exam);
         
         // Create a mutable copy of the exam data
@@ -756,8 +765,8 @@ public class ApiExamController {
         // Check if student has already submitted this exam
         boolean hasSubmitted = false;
         if (userId != null) {
-            hasSubmitted = resultRepository.findByUserIdAndExamExamId(userId, exam.getExam_id()).isPresent();
-            logger.info("Checking submission for user {} and exam {}: hasSubmitted = {}", 
+            hasSubmitted = resultRepository.existsByUserIdAndExamIdIncludingArchive(userId, exam.getExam_id());
+            logger.debug("Checking submission for user {} and exam {}: hasSubmitted = {}", 
                        userId, exam.getExam_id(), hasSubmitted);
         }
 
@@ -814,7 +823,7 @@ public class ApiExamController {
             mutableExamData.put("actions", mutableActions);
         }
 
-        logger.info("Exam {} - hasSubmitted: {}, status: {} for user: {}, endDate: {}, endTime: {}", 
+        logger.debug("Exam {} - hasSubmitted: {}, status: {} for user: {}, endDate: {}, endTime: {}", 
                    exam.getTitle(), hasSubmitted, studentExamStatus, userId, exam.getEndDate(), exam.getEndTime());
         
         return mutableExamData;
@@ -823,12 +832,12 @@ public class ApiExamController {
     private String determineStudentExamStatus(Exam exam, boolean hasSubmitted) {
         try {
             LocalDateTime now = LocalDateTime.now();
-            logger.info("Determining status for exam: {}, hasSubmitted: {}, current time: {}", 
+            logger.debug("Determining status for exam: {}, hasSubmitted: {}, current time: {}", 
                        exam.getTitle(), hasSubmitted, now);
 
             // If already submitted, it's completed
             if (hasSubmitted) {
-                logger.info("Exam {} marked as completed - student has submitted", exam.getTitle());
+                logger.debug("Exam {} marked as completed - student has submitted", exam.getTitle());
                 return "completed";
             }
 
@@ -850,12 +859,12 @@ public class ApiExamController {
                 DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
                 LocalDateTime endDateTime = LocalDateTime.parse(endDateTimeStr, formatter);
                 
-                logger.info("Exam {} end time: {}, current time: {}, is after end: {}", 
+                logger.debug("Exam {} end time: {}, current time: {}, is after end: {}", 
                            exam.getTitle(), endDateTime, now, now.isAfter(endDateTime));
                 
                 // If current time is after end time and not submitted, it's missed
                 if (now.isAfter(endDateTime)) {
-                    logger.info("Exam {} marked as missed - current time is after end time", exam.getTitle());
+                    logger.debug("Exam {} marked as missed - current time is after end time", exam.getTitle());
                     return "missed";
                 }
             }
@@ -878,7 +887,7 @@ public class ApiExamController {
                         LocalDateTime examEndDate = LocalDateTime.of(year, month, day, 23, 59);
                         
                         if (now.isAfter(examEndDate) && !hasSubmitted) {
-                            logger.info("Exam {} marked as missed via fallback logic", exam.getTitle());
+                            logger.debug("Exam {} marked as missed via fallback logic", exam.getTitle());
                             return "missed";
                         }
                     }
@@ -891,12 +900,30 @@ public class ApiExamController {
         }
     }
 
+    /**
+     * End of the exam window, or null when the exam has no (parseable) end date and time.
+     */
+    private LocalDateTime parseExamEnd(Exam exam) {
+        if (exam.getEndDate() == null || exam.getEndTime() == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(exam.getEndDate() + " " + exam.getEndTime(), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        } catch (java.time.format.DateTimeParseException e) {
+            logger.warn("Unparseable end date/time for exam {}: {} {}", exam.getExam_id(), exam.getEndDate(), exam.getEndTime());
+            return null;
+        }
+    }
+
     // Submit exam endpoint
     @PostMapping("/{id}/submit")
     @org.springframework.transaction.annotation.Transactional
     public Map<String, Object> submitExam(@PathVariable Long id, @RequestBody Map<String, Object> requestBody, 
                                          org.springframework.security.core.Authentication authentication) {
-        logger.info("Submitting exam: {} with request body: {}", id, requestBody);
+        logger.debug("Submitting exam: {}", id);
+        FlightRecorderEvents.ExamSubmissionEvent submission = new FlightRecorderEvents.ExamSubmissionEvent();
+        submission.begin();
+        submission.examId = id;
         
         // Extract answers and time taken from the request body
         @SuppressWarnings("unchecked")
@@ -910,14 +937,16 @@ public class ApiExamController {
             timeTaken = 0;
         }
 
-        logger.info("Extracted {} answers for exam {} with time taken: {} seconds", 
+        logger.debug("Extracted {} answers for exam {} with time taken: {} seconds", 
                    answers.size(), id, timeTaken);
+        submission.answerCount = answers.size();
 
         try {
             // Get exam
             Exam exam = examRepo.findById(id).orElse(null);
             if (exam == null) {
                 logger.warn("Exam not found for submission: {}", id);
+                finishSubmission(submission, com.ExamPort.ExamPort.Service.ApplicationMetrics.SubmissionOutcome.REJECTED);
                 return Map.of("error", "Exam not found");
             }
 
@@ -926,17 +955,27 @@ public class ApiExamController {
             com.ExamPort.ExamPort.Entity.User user = userRepository.findByUsername(username).orElse(null);
             if (user == null) {
                 logger.warn("User not found for submission: {}", username);
+                finishSubmission(submission, com.ExamPort.ExamPort.Service.ApplicationMetrics.SubmissionOutcome.REJECTED);
                 return Map.of("error", "User not found");
             }
 
-            // Check if user already submitted this exam
-            if (resultRepository.findByUserIdAndExamExamId(user.getId(), id).isPresent()) {
+            // Reject submissions once the exam has closed (plus a short grace for in-flight submits)
+            LocalDateTime examEnd = parseExamEnd(exam);
+            if (examEnd != null && LocalDateTime.now().isAfter(examEnd.plus(submissionGrace))) {
+                logger.warn("User {} submitted exam {} after it closed at {}", username, id, examEnd);
+                finishSubmission(submission, com.ExamPort.ExamPort.Service.ApplicationMetrics.SubmissionOutcome.REJECTED);
+                return Map.of("error", "Exam has ended");
+            }
+
+            // Check if user already submitted this exam, including results moved to the archive
+            if (resultRepository.existsByUserIdAndExamIdIncludingArchive(user.getId(), id)) {
                 logger.warn("User {} already submitted exam {}", username, id);
+                finishSubmission(submission, com.ExamPort.ExamPort.Service.ApplicationMetrics.SubmissionOutcome.DUPLICATE);
                 return Map.of("error", "Exam already submitted");
             }
 
             // Log the submitted answers
-            logger.info("Submitted answers for exam {}: {}", exam.getTitle(), answers);
+            logger.debug("Submitted answers for exam {}: {}", exam.getTitle(), answers);
 
             // Calculate score
             double score = calculateScore(exam, answers);
@@ -970,6 +1009,9 @@ public class ApiExamController {
             result.setFeedback(feedback);
 
             // Save result using native SQL to avoid Hibernate issues
+            FlightRecorderEvents.ResultPersistedEvent persisted = new FlightRecorderEvents.ResultPersistedEvent();
+            persisted.begin();
+            persisted.examId = id;
             try {
                 String sql = "INSERT INTO result (id, answers, attempt_date, exam_exam_id, feedback, passed, score, time_taken, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
                 int rowsAffected = entityManager.createNativeQuery(sql)
@@ -985,13 +1027,14 @@ public class ApiExamController {
                     .executeUpdate();
 
                 if (rowsAffected > 0) {
-                    logger.info("Successfully saved result with ID: {}", resultId);
+                    logger.debug("Successfully saved result with ID: {}", resultId);
                     result.setId(resultId); // Set the ID for response
                 } else {
                     throw new RuntimeException("Failed to insert result");
                 }
             } catch (Exception e) {
                 logger.error("Error saving result with ID {}, trying alternative ID", resultId, e);
+                persisted.retries = 1;
                 
                 // Try with a different ID if there's a conflict
                 resultId = System.currentTimeMillis() + (user.getId() * 10000) + (id * 100);
@@ -1017,11 +1060,16 @@ public class ApiExamController {
                     }
                 } catch (Exception e2) {
                     logger.error("Failed to save result even with alternative ID", e2);
+                    persisted.commit();
                     throw new RuntimeException("Failed to save exam result", e2);
                 }
             }
 
-            logger.info("Saved exam result: {} for user: {} with score: {}/{}", 
+            persisted.resultId = result.getId();
+            persisted.saved = true;
+            persisted.commit();
+
+            logger.debug("Saved exam result: {} for user: {} with score: {}/{}", 
                        result.getId(), username, score, totalMarks);
 
             // Calculate completion stats
@@ -1054,28 +1102,39 @@ public class ApiExamController {
 
             // Send email notification to student
             try {
-                logger.info("Sending exam result email to student: {}", user.getEmail());
+                logger.debug("Sending exam result email to student: {}", user.getEmail());
                 emailService.sendExamResultNotificationHtml(user, exam, result, answers);
-                logger.info("Exam result email sent successfully to: {}", user.getEmail());
+                logger.debug("Exam result email sent successfully to: {}", user.getEmail());
             } catch (Exception emailError) {
                 logger.error("Failed to send exam result email to: {} - {}", user.getEmail(), emailError.getMessage());
                 // Don't fail the exam submission if email fails
             }
 
+            finishSubmission(submission, com.ExamPort.ExamPort.Service.ApplicationMetrics.SubmissionOutcome.SUCCESS);
             return response;
         } catch (Exception e) {
             logger.error("Error submitting exam: {}", id, e);
+            finishSubmission(submission, com.ExamPort.ExamPort.Service.ApplicationMetrics.SubmissionOutcome.ERROR);
             return Map.of("error", "Error submitting exam: " + e.getMessage());
         }
     }
 
-    private double calculateScore(Exam exam, Map<String, String> answers) {
+    private void finishSubmission(FlightRecorderEvents.ExamSubmissionEvent submission,
+                                  com.ExamPort.ExamPort.Service.ApplicationMetrics.SubmissionOutcome outcome) {
+        applicationMetrics.recordSubmission(outcome);
+        submission.outcome = outcome.name();
+        submission.commit();
+    }
+
+    double calculateScore(Exam exam, Map<String, String> answers) {
         if (exam.getQuestions() == null || exam.getQuestions().isEmpty()) {
             return 0.0;
         }
+        FlightRecorderEvents.GradingEvent grading = new FlightRecorderEvents.GradingEvent();
+        grading.begin();
 
         double totalScore = 0.0;
-        logger.info("Starting score calculation for exam: {} with {} questions", 
+        logger.debug("Starting score calculation for exam: {} with {} questions", 
                    exam.getTitle(), exam.getQuestions().size());
 
         for (com.ExamPort.ExamPort.Entity.Question question : exam.getQuestions()) {
@@ -1117,9 +1176,9 @@ public class ApiExamController {
 
                             if (isCorrectByText || isCorrectByIndex || isCorrectByOptionId) {
                                 questionScore = questionMarks;
-                                logger.info("Question {}: CORRECT! Awarded {} marks", question.getQue_id(), questionMarks);
+                                logger.debug("Question {}: CORRECT! Awarded {} marks", question.getQue_id(), questionMarks);
                             } else {
-                                logger.info("Question {}: INCORRECT. User: '{}', Correct: '{}'", 
+                                logger.debug("Question {}: INCORRECT. User: '{}', Correct: '{}'", 
                                            question.getQue_id(), userAnswer, correctAnswer);
                             }
                         }
@@ -1156,14 +1215,14 @@ public class ApiExamController {
                             questionScore = (partialScore / correctAnswers.size()) * questionMarks;
                         }
 
-                        logger.info("Question {}: Multiple choice - Correct: {}, Incorrect: {}, Score: {}/{}", 
+                        logger.debug("Question {}: Multiple choice - Correct: {}, Incorrect: {}, Score: {}/{}", 
                                    question.getQue_id(), correctSelections, incorrectSelections, questionScore, questionMarks);
                     }
                 }
             } else {
                 // For text questions, give full marks if answered (manual grading needed)
                 questionScore = questionMarks;
-                logger.info("Question {}: Text question - Awarded full marks: {}", question.getQue_id(), questionMarks);
+                logger.debug("Question {}: Text question - Awarded full marks: {}", question.getQue_id(), questionMarks);
             }
 
             totalScore += questionScore;
@@ -1171,11 +1230,16 @@ public class ApiExamController {
                         question.getQue_id(), questionScore, questionMarks, totalScore);
         }
 
-        logger.info("Final score calculation completed: {}/{} total marks", totalScore, exam.getTotalMarks());
-        return Math.round(totalScore * 100.0) / 100.0;
+        logger.debug("Final score calculation completed: {}/{} total marks", totalScore, exam.getTotalMarks());
+        double finalScore = Math.round(totalScore * 100.0) / 100.0;
+        grading.examId = exam.getExam_id();
+        grading.questionCount = exam.getQuestions().size();
+        grading.score = finalScore;
+        grading.commit();
+        return finalScore;
     }
 
-    private String convertAnswersToJson(Map<String, String> answers) {
+    String convertAnswersToJson(Map<String, String> answers) {
         try {
             // Simple JSON conversion
             StringBuilder json = new StringBuilder("{");
@@ -1234,6 +1298,8 @@ public class ApiExamController {
                 logger.warn("Exam not found for update: {}", id);
                 return Map.of("error", "Exam not found");
             }
+            // Captured before anything is copied onto the exam, so publishing is detected reliably
+            boolean wasActive = existingExam.isIsactive();
 
             // Verify user has permission to update this exam
             String username = authentication.getName();
@@ -1259,7 +1325,7 @@ public class ApiExamController {
             }
 
             // Update the exam using TaskService
-            Exam savedExam = task.updateExam(examData);
+            Exam savedExam = task.updateExam(examData, wasActive);
 
             logger.info("Successfully updated exam: {} with {} questions", 
                        savedExam.getTitle(), savedExam.getQuestions() != null ? savedExam.getQuestions().size() : 0);
@@ -2,17 +2,25 @@ package com.ExamPort.ExamPort.Controller;
 
 import com.ExamPort.ExamPort.Entity.User;
 import com.ExamPort.ExamPort.Repository.UserRepository;
+import com.ExamPort.ExamPort.Service.ApplicationMetrics;
+import com.ExamPort.ExamPort.Service.ApplicationMetrics.LoginOutcome;
 import com.ExamPort.ExamPort.Service.AuthService;
+import com.ExamPort.ExamPort.Service.PasswordHashingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -26,10 +34,20 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private ApplicationMetrics applicationMetrics;
+
+    // Continues registration (DB save, verification email) and login (token, response) off the
+    // CPU-bound hashing pool
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody User user) {
         logger.info("Registration attempt for username: {}", user.getUsername());
         
         try {
@@ -39,7 +57,7 @@ public class AuthController {
                 logger.warn("Registration failed - Admin role not allowed for public registration: {}", user.getUsername());
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Admin accounts cannot be created through public registration. Please contact system administrator.");
-                return ResponseEntity.badRequest().body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
             }
             
             // Ensure role is either student or instructor
@@ -47,68 +65,82 @@ public class AuthController {
                 logger.warn("Registration failed - Invalid role: {} for username: {}", role, user.getUsername());
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Invalid role. Only 'student' and 'instructor' roles are allowed for registration.");
-                return ResponseEntity.badRequest().body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
             }
             
             if (userRepository.existsByUsername(user.getUsername())) {
                 logger.warn("Registration failed - Username already exists: {}", user.getUsername());
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Username already exists");
-                return ResponseEntity.badRequest().body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
             }
             if (userRepository.existsByEmail(user.getEmail())) {
                 logger.warn("Registration failed - Email already exists: {}", user.getEmail());
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Email already exists");
-                return ResponseEntity.badRequest().body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
             }
             if (userRepository.existsByPhoneNumber(user.getPhoneNumber())) {
                 logger.warn("Registration failed - Phone number already exists: {}", user.getPhoneNumber());
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Phone number already exists");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
-            user.setRole(role); // Use validated role
-            user.setEmailVerified(false); // Set as not verified - user must verify email to login
-            
-            // Save user with fallback for AUTO_INCREMENT issues
-            User savedUser = saveUserWithFallback(user);
-            
-            // Send email verification - required for login
-            boolean emailSent = false;
-            try {
-                emailSent = authService.sendEmailVerification(savedUser);
-                logger.info("Email verification sent successfully to: {}", savedUser.getEmail());
-            } catch (Exception e) {
-                logger.error("Failed to send email verification to: {}", savedUser.getEmail(), e);
-                // Still allow registration but inform user about email issue
-                emailSent = false;
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
             }
             
-            logger.info("User registered successfully: {} with role: {}", user.getUsername(), user.getRole());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("username", user.getUsername());
-            response.put("role", user.getRole());
-            response.put("fullName", user.getFullName());
-            response.put("avatarUrl", user.getAvatarUrl());
-            response.put("gender", user.getGender());
-            response.put("phoneNumber", user.getPhoneNumber());
-            response.put("emailVerified", user.isEmailVerified());
-            response.put("verificationEmailSent", emailSent);
-            response.put("message", emailSent ? 
-                "Registration successful! Please check your email to verify your account before logging in." :
-                "Registration successful! However, verification email could not be sent. Please contact support to verify your account.");
-            
-            return ResponseEntity.ok(response);
+            return passwordHashingService.encodeAsync(user.getPassword())
+                    .<ResponseEntity<?>>thenApplyAsync(hash -> completeRegistration(user, role, hash), taskExecutor)
+                    .exceptionally(e -> registrationFailed(user, e));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(registrationFailed(user, e));
+        }
+    }
+
+    private ResponseEntity<?> completeRegistration(User user, String role, String passwordHash) {
+        user.setPassword(passwordHash);
+        user.setRole(role); // Use validated role
+        user.setEmailVerified(false); // Set as not verified - user must verify email to login
+        
+        // Save user with fallback for AUTO_INCREMENT issues
+        User savedUser = saveUserWithFallback(user);
+        
+        // Send email verification - required for login
+        boolean emailSent = false;
+        try {
+            emailSent = authService.sendEmailVerification(savedUser);
+            logger.info("Email verification sent successfully to: {}", savedUser.getEmail());
         } catch (Exception e) {
-            logger.error("Error during user registration for username: {}", user.getUsername(), e);
-            Map<String, String> error = new HashMap<>();
-error.put("error", "Registration failed due to server error");
-return ResponseEntity.internalServerError().body(error);
+            logger.error("Failed to send email verification to: {}", savedUser.getEmail(), e);
+            // Still allow registration but inform user about email issue
+            emailSent = false;
+        }
+        
+        logger.info("User registered successfully: {} with role: {}", user.getUsername(), user.getRole());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("username", user.getUsername());
+        response.put("role", user.getRole());
+        response.put("fullName", user.getFullName());
+        response.put("avatarUrl", user.getAvatarUrl());
+        response.put("gender", user.getGender());
+        response.put("phoneNumber", user.getPhoneNumber());
+        response.put("emailVerified", user.isEmailVerified());
+        response.put("verificationEmailSent", emailSent);
+        response.put("message", emailSent ? 
+            "Registration successful! Please check your email to verify your account before logging in." :
+            "Registration successful! However, verification email could not be sent. Please contact support to verify your account.");
+        
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> registrationFailed(User user, Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof RejectedExecutionException) {
+            return hashingUnavailable();
         }
+        logger.error("Error during user registration for username: {}", user.getUsername(), cause);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Registration failed due to server error");
+        return ResponseEntity.internalServerError().body(error);
     }
 
     @Autowired
@@ -117,7 +149,6 @@ return ResponseEntity.internalServerError().body(error);
     // Health check endpoint for testing
     @GetMapping("/health")
     public ResponseEntity<?> health() {
-        logger.info("Health check endpoint called");
         Map<String, Object> response = new HashMap<>();
         response.put("status", "OK");
         response.put("timestamp", System.currentTimeMillis());
@@ -126,17 +157,13 @@ return ResponseEntity.internalServerError().body(error);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody User loginRequest) {
-        logger.info("=== LOGIN REQUEST RECEIVED ===");
-        logger.info("Login identifier: {}", loginRequest.getUsername());
-        logger.info("Request URI: /api/auth/login");
-        logger.info("Request Method: POST");
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody User loginRequest) {
+        logger.debug("Login request for: {}", loginRequest.getUsername());
         
         try {
             String loginIdentifier = loginRequest.getUsername();
             
             // Check if user exists by username or email
-            logger.info("Checking if user exists in database by username or email...");
             Optional<User> userOpt = Optional.empty();
             
             // First try to find by username
@@ -152,62 +179,92 @@ return ResponseEntity.internalServerError().body(error);
             
             if (userOpt.isEmpty()) {
                 logger.warn("Login failed - User not found with identifier: {}", loginIdentifier);
+                applicationMetrics.recordLogin(LoginOutcome.BAD_CREDENTIALS);
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "User not found. Please check your username/email and try again.");
                 errorResponse.put("timestamp", System.currentTimeMillis());
-                return ResponseEntity.status(401).body(errorResponse);
+                return CompletableFuture.completedFuture(ResponseEntity.status(401).body(errorResponse));
             }
             
             User user = userOpt.get();
-            logger.info("User found: {} with role: {}", user.getUsername(), user.getRole());
+            logger.debug("User found: {} with role: {}", user.getUsername(), user.getRole());
             
-            // Check password
-            logger.info("Verifying password...");
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                logger.warn("Login failed - Invalid password for username: {}", loginRequest.getUsername());
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "Invalid password");
-                errorResponse.put("timestamp", System.currentTimeMillis());
-                return ResponseEntity.status(401).body(errorResponse);
-            }
-            
-            // Check email verification - mandatory for login
-            if (!user.isEmailVerified()) {
-                logger.warn("Login failed - Email not verified for username: {}", user.getUsername());
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "Please verify your email address before logging in. Check your inbox for the verification link.");
-                errorResponse.put("emailVerified", false);
-                errorResponse.put("email", user.getEmail());
-                errorResponse.put("timestamp", System.currentTimeMillis());
-                return ResponseEntity.status(403).body(errorResponse); // 403 Forbidden - account exists but not verified
-            }
-            
-            // Generate JWT token
-            logger.info("Generating JWT token...");
-            String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
-            logger.info("User logged in successfully: {} with role: {}", user.getUsername(), user.getRole());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
-            response.put("username", user.getUsername());
-            response.put("role", user.getRole());
-            response.put("fullName", user.getFullName());
-            response.put("avatarUrl", user.getAvatarUrl());
-            response.put("gender", user.getGender());
-            response.put("emailVerified", user.isEmailVerified());
-            response.put("timestamp", System.currentTimeMillis());
-            
-            logger.info("=== LOGIN SUCCESSFUL ===");
-            return ResponseEntity.ok(response);
+            // Check password on the hashing pool; the request thread is released meanwhile
+            String rawPassword = loginRequest.getPassword();
+            return passwordHashingService.matchesAsync(rawPassword, user.getPassword())
+                    .<ResponseEntity<?>>thenApplyAsync(matches -> completeLogin(user, rawPassword, matches), taskExecutor)
+                    .exceptionally(e -> loginFailed(loginRequest, e));
         } catch (Exception e) {
-            logger.error("=== LOGIN ERROR ===");
-            logger.error("Error during login for username: {}", loginRequest.getUsername(), e);
+            return CompletableFuture.completedFuture(loginFailed(loginRequest, e));
+        }
+    }
+
+    private ResponseEntity<?> completeLogin(User user, String rawPassword, boolean passwordMatches) {
+        if (!passwordMatches) {
+            logger.warn("Login failed - Invalid password for username: {}", user.getUsername());
+            applicationMetrics.recordLogin(LoginOutcome.BAD_CREDENTIALS);
             Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Login failed due to server error");
-            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "Invalid password");
             errorResponse.put("timestamp", System.currentTimeMillis());
-            return ResponseEntity.internalServerError().body(errorResponse);
+            return ResponseEntity.status(401).body(errorResponse);
         }
+        
+        // Check email verification - mandatory for login
+        if (!user.isEmailVerified()) {
+            logger.warn("Login failed - Email not verified for username: {}", user.getUsername());
+            applicationMetrics.recordLogin(LoginOutcome.UNVERIFIED);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Please verify your email address before logging in. Check your inbox for the verification link.");
+            errorResponse.put("emailVerified", false);
+            errorResponse.put("email", user.getEmail());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.status(403).body(errorResponse); // 403 Forbidden - account exists but not verified
+        }
+        
+        // Re-hash in the background if the stored hash predates the current cost factor
+        authService.upgradePasswordHashIfNeeded(user, rawPassword);
+        
+        // Generate JWT token
+        String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+        logger.info("User logged in successfully: {} with role: {}", user.getUsername(), user.getRole());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", token);
+        response.put("username", user.getUsername());
+        response.put("role", user.getRole());
+        response.put("fullName", user.getFullName());
+        response.put("avatarUrl", user.getAvatarUrl());
+        response.put("gender", user.getGender());
+        response.put("emailVerified", user.isEmailVerified());
+        response.put("timestamp", System.currentTimeMillis());
+        
+        applicationMetrics.recordLogin(LoginOutcome.SUCCESS);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> loginFailed(User loginRequest, Throwable e) {
+        applicationMetrics.recordLogin(LoginOutcome.ERROR);
+        Throwable cause = unwrap(e);
+        if (cause instanceof RejectedExecutionException) {
+            return hashingUnavailable();
+        }
+        logger.error("Error during login for username: {}", loginRequest.getUsername(), cause);
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Login failed due to server error");
+        errorResponse.put("message", cause.getMessage());
+        errorResponse.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.internalServerError().body(errorResponse);
+    }
+
+    private ResponseEntity<?> hashingUnavailable() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Server is busy. Please try again in a moment.");
+        errorResponse.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(errorResponse);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
     
     /**
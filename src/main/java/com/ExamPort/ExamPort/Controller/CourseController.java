@@ -4,6 +4,12 @@ import com.ExamPort.ExamPort.Entity.*;
 import com.ExamPort.ExamPort.Repository.CourseRepository;
 import com.ExamPort.ExamPort.Repository.UserRepository;
 import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import com.ExamPort.ExamPort.Repository.Exam_repo;
+import com.ExamPort.ExamPort.Service.BackgroundJobService;
+import com.ExamPort.ExamPort.Service.BulkDeletionService;
+import com.ExamPort.ExamPort.Service.CourseAllowListService;
+import com.ExamPort.ExamPort.Service.CourseRosterService;
+import com.ExamPort.ExamPort.Service.EnrollmentIndex;
 import com.ExamPort.ExamPort.Service.PaymentService;
 import com.ExamPort.ExamPort.Service.ValidationService;
 import com.ExamPort.ExamPort.Exception.ValidationException;
@@ -14,6 +20,7 @@ import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -50,6 +57,24 @@ public class CourseController {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private CourseRosterService courseRosterService;
+
+    @Autowired
+    private CourseAllowListService courseAllowListService;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+    
+    @Autowired
+    private Exam_repo examRepo;
+    
+    @Autowired
+    private BulkDeletionService bulkDeletionService;
+    
+    @Autowired
+    private BackgroundJobService backgroundJobService;
+
     @PostMapping("/create")
     @Transactional
     public ResponseEntity<?> createCourse(@RequestParam("name") String name,
@@ -149,30 +174,16 @@ public class CourseController {
             
             // Auto-enroll students for private courses
             int autoEnrolledCount = 0;
+            int unconfirmedEnrollments = 0;
+            String rosterJobId = null;
             if (visibility == CourseVisibility.PRIVATE && allowedEmails != null && !allowedEmails.isEmpty()) {
-                logger.info("Auto-enrolling students in private course: {}", name);
-                for (String email : allowedEmails) {
-                    try {
-                        Optional<User> studentOpt = userRepository.findByEmail(email);
-                        if (studentOpt.isPresent()) {
-                            User student = studentOpt.get();
-                            
-                            // Check if student is not already enrolled
-                            Optional<Enrollment> existingEnrollment = enrollmentRepository.findByStudent_IdAndCourse_Id(student.getId(), savedCourse.getId());
-                            if (existingEnrollment.isEmpty()) {
-                                Enrollment enrollment = new Enrollment(student, savedCourse, EnrollmentStatus.ENROLLED);
-                                enrollmentRepository.save(enrollment);
-                                autoEnrolledCount++;
-                                logger.debug("Auto-enrolled student: {} in private course: {}", email, name);
-                            }
-                        } else {
-                            logger.debug("Student with email {} not found in system for auto-enrollment", email);
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Failed to auto-enroll student with email: {} in course: {} - {}", email, name, e.getMessage());
-                    }
+                if (courseRosterService.isLargeRoster(allowedEmails)) {
+                    rosterJobId = courseRosterService.submitRosterJob(savedCourse.getId(), allowedEmails, CourseRosterService.Mode.MERGE, false);
+                } else {
+                    Map<String, Object> roster = courseRosterService.enrollRoster(savedCourse.getId(), allowedEmails);
+                    autoEnrolledCount = (Integer) roster.get("added");
+                    unconfirmedEnrollments = (Integer) roster.get("addedUnconfirmed");
                 }
-                logger.info("Auto-enrolled {} students in private course: {}", autoEnrolledCount, name);
             }
             
             logger.info("Course created successfully: {} by instructor: {} with visibility: {}, pricing: {}", 
@@ -192,10 +203,18 @@ public class CourseController {
                 "fullName", instructor.getFullName() != null ? instructor.getFullName() : instructor.getUsername()
             ));
             response.put("message", "Course created successfully");
+            if (rosterJobId != null) {
+                response.put("rosterJobId", rosterJobId);
+                response.put("enrollmentMessage", "Enrolling " + allowedEmails.size() + " students in the background");
+            }
             if (visibility == CourseVisibility.PRIVATE && autoEnrolledCount > 0) {
                 response.put("autoEnrolledStudents", autoEnrolledCount);
                 response.put("enrollmentMessage", "Automatically enrolled " + autoEnrolledCount + " students");
             }
+            if (visibility == CourseVisibility.PRIVATE && unconfirmedEnrollments > 0) {
+                // The driver did not report per-row counts, so this is an upper bound
+                response.put("enrollmentMessage", "Automatically enrolled up to " + (autoEnrolledCount + unconfirmedEnrollments) + " students");
+            }
             
             return ResponseEntity.ok(response);
             
@@ -230,6 +249,8 @@ public class CourseController {
             
             User instructor = instructorOpt.get();
             List<Course> courses = courseRepository.findByInstructor_Id(instructor.getId());
+            Map<Long, Long> allowedEmailCounts = courseAllowListService.countAllowed(
+                    courses.stream().map(Course::getId).collect(java.util.stream.Collectors.toList()));
             
             // Create response with enrollment counts and exam counts
             List<Map<String, Object>> coursesWithStats = new ArrayList<>();
@@ -251,14 +272,14 @@ public class CourseController {
                 Long enrollmentCount = 0L;
                 if (course.getVisibility() == CourseVisibility.PRIVATE) {
                     // For private courses, count actual enrollments but also show allowed emails count
-                    enrollmentCount = enrollmentRepository.countEnrolledStudentsByCourseId(course.getId());
-                    int allowedEmailsCount = course.getAllowedEmails() != null ? course.getAllowedEmails().size() : 0;
+                    enrollmentCount = enrollmentIndex.countEnrolled(course.getId());
+                    long allowedEmailsCount = allowedEmailCounts.getOrDefault(course.getId(), 0L);
                     courseData.put("allowedEmailsCount", allowedEmailsCount);
                     logger.debug("Private course {} - Enrolled: {}, Allowed emails: {}", 
                                course.getName(), enrollmentCount, allowedEmailsCount);
                 } else {
                     // For public courses, count actual enrollments
-                    enrollmentCount = enrollmentRepository.countEnrolledStudentsByCourseId(course.getId());
+                    enrollmentCount = enrollmentIndex.countEnrolled(course.getId());
                 }
                 courseData.put("enrollmentCount", enrollmentCount);
                 
@@ -321,7 +342,7 @@ public class CourseController {
                 ));
                 
                 // Add enrollment count
-                Long enrollmentCount = enrollmentRepository.countEnrolledStudentsByCourseId(course.getId());
+                Long enrollmentCount = enrollmentIndex.countEnrolled(course.getId());
                 courseData.put("enrollmentCount", enrollmentCount);
                 
                 coursesWithStats.add(courseData);
@@ -438,7 +459,13 @@ public class CourseController {
                        username, course.getName(), paymentOrder.getOrderId());
             
             return ResponseEntity.ok(paymentOrder);
-            
+
+        } catch (PaymentException e) {
+            if (e.isRetryable()) {
+                // Gateway busy, failing or circuit open - tell the client to retry rather than fix the request
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").body("Error: " + e.getMessage());
+            }
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
             logger.error("Error initiating purchase for student: {} course: {}", username, courseId, e);
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
@@ -619,20 +646,18 @@ public class CourseController {
             
             if (course.getVisibility() == CourseVisibility.PUBLIC) {
                 // For public courses, check if user is enrolled
-                Optional<Enrollment> enrollment = enrollmentRepository.findByStudent_IdAndCourse_Id(user.getId(), courseId);
-                if (enrollment.isPresent() && enrollment.get().getStatus() == EnrollmentStatus.ENROLLED) {
+                if (enrollmentIndex.isEnrolled(user.getId(), courseId)) {
                     hasAccess = true;
                     accessType = "enrolled";
                 }
             } else if (course.getVisibility() == CourseVisibility.PRIVATE) {
                 // For private courses, check if user's email is in allowed emails
-                if (course.getAllowedEmails() != null && course.getAllowedEmails().contains(user.getEmail())) {
+                if (courseAllowListService.isAllowed(courseId, user.getEmail())) {
                     hasAccess = true;
                     accessType = "allowed";
                     
                     // Also check if they're enrolled
-                    Optional<Enrollment> enrollment = enrollmentRepository.findByStudent_IdAndCourse_Id(user.getId(), courseId);
-                    if (enrollment.isPresent() && enrollment.get().getStatus() == EnrollmentStatus.ENROLLED) {
+                    if (enrollmentIndex.isEnrolled(user.getId(), courseId)) {
                         accessType = "enrolled";
                     }
                 }
@@ -764,32 +789,19 @@ public class CourseController {
             
             // Save updated course
             Course updatedCourse = courseRepository.save(course);
+            courseAllowListService.invalidate(updatedCourse.getId());
             
             // Auto-enroll new students for private courses if new emails were added
             int newAutoEnrolledCount = 0;
+            int unconfirmedEnrollments = 0;
+            String rosterJobId = null;
             if (visibility == CourseVisibility.PRIVATE && allowedEmails != null && !allowedEmails.isEmpty()) {
-                logger.info("Auto-enrolling new students in updated private course: {}", name);
-                for (String email : allowedEmails) {
-                    try {
-                        Optional<User> studentOpt = userRepository.findByEmail(email);
-                        if (studentOpt.isPresent()) {
-                            User student = studentOpt.get();
-                            
-                            // Check if student is not already enrolled
-                            Optional<Enrollment> existingEnrollment = enrollmentRepository.findByStudent_IdAndCourse_Id(student.getId(), updatedCourse.getId());
-                            if (existingEnrollment.isEmpty()) {
-                                Enrollment enrollment = new Enrollment(student, updatedCourse, EnrollmentStatus.ENROLLED);
-                                enrollmentRepository.save(enrollment);
-                                newAutoEnrolledCount++;
-                                logger.debug("Auto-enrolled new student: {} in updated private course: {}", email, name);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Failed to auto-enroll student with email: {} in updated course: {} - {}", email, name, e.getMessage());
-                    }
-                }
-                if (newAutoEnrolledCount > 0) {
-                    logger.info("Auto-enrolled {} new students in updated private course: {}", newAutoEnrolledCount, name);
+                if (courseRosterService.isLargeRoster(allowedEmails)) {
+                    rosterJobId = courseRosterService.submitRosterJob(updatedCourse.getId(), allowedEmails, CourseRosterService.Mode.MERGE, false);
+                } else {
+                    Map<String, Object> roster = courseRosterService.enrollRoster(updatedCourse.getId(), allowedEmails);
+                    newAutoEnrolledCount = (Integer) roster.get("added");
+                    unconfirmedEnrollments = (Integer) roster.get("addedUnconfirmed");
                 }
             }
             
@@ -809,10 +821,18 @@ public class CourseController {
                 "fullName", instructor.getFullName() != null ? instructor.getFullName() : instructor.getUsername()
             ));
             response.put("message", "Course updated successfully");
+            if (rosterJobId != null) {
+                response.put("rosterJobId", rosterJobId);
+                response.put("enrollmentMessage", "Enrolling " + allowedEmails.size() + " students in the background");
+            }
             if (newAutoEnrolledCount > 0) {
                 response.put("newAutoEnrolledStudents", newAutoEnrolledCount);
                 response.put("enrollmentMessage", "Automatically enrolled " + newAutoEnrolledCount + " new students");
             }
+            if (unconfirmedEnrollments > 0) {
+                // The driver did not report per-row counts, so this is an upper bound
+                response.put("enrollmentMessage", "Automatically enrolled up to " + (newAutoEnrolledCount + unconfirmedEnrollments) + " new students");
+            }
             
             return ResponseEntity.ok(response);
             
@@ -864,22 +884,23 @@ public class CourseController {
                 return ResponseEntity.badRequest().body(Map.of("error", "You can only delete your own courses"));
             }
             
-            // Check if course has any exams
-            if (course.getExams() != null && !course.getExams().isEmpty()) {
-                logger.warn("Course deletion failed - Course {} has {} exams", courseId, course.getExams().size());
+            // Check if course has any exams (counted, not loaded)
+            long examCount = examRepo.countByCourse_Id(courseId);
+            if (examCount > 0) {
+                logger.warn("Course deletion failed - Course {} has {} exams", courseId, examCount);
                 return ResponseEntity.status(409).body(Map.of(
                     "error", "Cannot delete course that has exams. Please delete all exams first.",
-                    "examCount", course.getExams().size()
+                    "examCount", examCount
                 ));
             }
             
-            // Check if course has any enrollments using EnrollmentRepository
-            List<com.ExamPort.ExamPort.Entity.Enrollment> enrollments = enrollmentRepository.findByCourse_Id(courseId);
-            if (!enrollments.isEmpty()) {
-                logger.warn("Course deletion failed - Course {} has {} enrollments", courseId, enrollments.size());
+            // Check if course has any enrollments
+            long enrollmentCount = enrollmentRepository.countByCourse_Id(courseId);
+            if (enrollmentCount > 0) {
+                logger.warn("Course deletion failed - Course {} has {} enrollments", courseId, enrollmentCount);
                 return ResponseEntity.status(409).body(Map.of(
                     "error", "Cannot delete course that has student enrollments. Please remove all enrollments first.",
-                    "enrollmentCount", enrollments.size()
+                    "enrollmentCount", enrollmentCount
                 ));
             }
             
@@ -888,6 +909,7 @@ public class CourseController {
             try {
                 // Delete the course
                 courseRepository.delete(course);
+                courseAllowListService.invalidate(courseId);
             } catch (org.springframework.dao.DataIntegrityViolationException e) {
                 logger.error("Data integrity violation when deleting course: {}", courseId, e);
                 return ResponseEntity.status(409).body(Map.of(
@@ -910,8 +932,12 @@ public class CourseController {
         }
     }
     
+    /**
+     * Remove every enrollment of a course with chunked set-based deletes. Courses with more than
+     * {@code app.bulk-delete.async-threshold} enrollments are cleared in the background and return
+     * a job ID to poll.
+     */
     @PostMapping("/{courseId}/unenroll-all")
-    @Transactional
     public ResponseEntity<?> unenrollAllStudents(@PathVariable Long courseId, Authentication authentication) {
         String username = authentication.getName();
         logger.info("Unenroll all students request by instructor: {} for course: {}", username, courseId);
@@ -941,10 +967,9 @@ public class CourseController {
                 return ResponseEntity.badRequest().body(Map.of("error", "You can only manage enrollments for your own courses"));
             }
             
-            // Get all enrollments for this course
-            List<com.ExamPort.ExamPort.Entity.Enrollment> enrollments = enrollmentRepository.findByCourse_Id(courseId);
+            long enrollmentCount = enrollmentRepository.countByCourse_Id(courseId);
             
-            if (enrollments.isEmpty()) {
+            if (enrollmentCount == 0) {
                 logger.info("No enrollments found for course: {}", courseId);
                 return ResponseEntity.ok(Map.of(
                     "message", "No students are currently enrolled in this course",
@@ -952,22 +977,131 @@ public class CourseController {
                 ));
             }
             
+            if (bulkDeletionService.isLargeDelete(enrollmentCount)) {
+                String jobId = bulkDeletionService.submitCourseEnrollmentDeletion(courseId, enrollmentCount);
+                logger.info("Queued unenroll-all job {} for {} enrollments of course: {}", jobId, enrollmentCount, courseId);
+                return ResponseEntity.accepted().body(backgroundJobService.getJob(jobId));
+            }
+            
             // Delete all enrollments
-            enrollmentRepository.deleteAll(enrollments);
+            long unenrolledCount = bulkDeletionService.deleteCourseEnrollments(courseId, null);
             
             logger.info("Successfully unenrolled {} students from course: {} by instructor: {}", 
-                       enrollments.size(), courseId, username);
+                       unenrolledCount, courseId, username);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "All students have been unenrolled successfully");
-            response.put("unenrolledCount", enrollments.size());
+            response.put("unenrolledCount", unenrolledCount);
             response.put("courseName", course.getName());
             
             return ResponseEntity.ok(response);
             
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            logger.warn("Unenroll all for course {} rejected: {}", courseId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30")
+                    .body(Map.of("error", "Too many background jobs are running. Please try again shortly."));
         } catch (Exception e) {
             logger.error("Error unenrolling all students from course: {} by instructor: {}", courseId, username, e);
             return ResponseEntity.internalServerError().body(Map.of("error", "An unexpected error occurred: " + e.getMessage()));
         }
     }
+    /**
+     * Apply an uploaded email roster (one email per line) to a private course. MERGE adds the new
+     * emails; REPLACE also drops emails and free enrollments that are no longer on the roster.
+     * Large rosters are processed in the background and return a job ID to poll.
+     */
+    @PostMapping("/{courseId}/roster")
+    public ResponseEntity<?> uploadRoster(@PathVariable Long courseId,
+                                          @RequestParam("file") MultipartFile file,
+                                          @RequestParam(value = "mode", defaultValue = "MERGE") String modeStr,
+                                          Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Roster upload by instructor: {} for course: {} (mode {})", username, courseId, modeStr);
+        
+        try {
+            ResponseEntity<?> denied = checkCourseOwner(courseId, username);
+            if (denied != null) {
+                return denied;
+            }
+            Course course = courseRepository.findById(courseId).get();
+            if (course.getVisibility() != CourseVisibility.PRIVATE) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Rosters can only be uploaded for private courses"));
+            }
+            
+            CourseRosterService.Mode mode;
+            try {
+                mode = CourseRosterService.Mode.valueOf(modeStr.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid mode. Must be MERGE or REPLACE"));
+            }
+            
+            if (file == null || file.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Email file is required"));
+            }
+            List<String> emails = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                int lineNum = 1;
+                while ((line = reader.readLine()) != null) {
+                    String email = line.trim();
+                    if (!email.isEmpty()) {
+                        if (email.length() > 100 || !validationService.isValidEmail(email)) {
+                            return ResponseEntity.badRequest().body(Map.of("error", "Invalid email at line " + lineNum + ": " + email));
+                        }
+                        emails.add(email);
+                    }
+                    lineNum++;
+                }
+            }
+            if (emails.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Email file contains no emails"));
+            }
+            
+            if (courseRosterService.isLargeRoster(emails)) {
+                String jobId = courseRosterService.submitRosterJob(courseId, emails, mode, true);
+                return ResponseEntity.accepted().body(backgroundJobService.getJob(jobId));
+            }
+            return ResponseEntity.ok(courseRosterService.applyRoster(courseId, emails, mode));
+            
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            logger.warn("Roster upload for course {} rejected: {}", courseId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30")
+                    .body(Map.of("error", "Too many rosters are being processed. Please try again shortly."));
+        } catch (Exception e) {
+            logger.error("Error applying roster to course: {} by instructor: {}", courseId, username, e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "An unexpected error occurred: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Status and progress of a background job (roster upload, unenroll-all) on the course.
+     */
+    @GetMapping({"/{courseId}/jobs/{jobId}", "/{courseId}/roster/jobs/{jobId}"})
+    public ResponseEntity<?> getCourseJob(@PathVariable Long courseId, @PathVariable String jobId, Authentication authentication) {
+        ResponseEntity<?> denied = checkCourseOwner(courseId, authentication.getName());
+        if (denied != null) {
+            return denied;
+        }
+        Map<String, Object> job = backgroundJobService.getJob(jobId);
+        if (job == null || !courseId.equals(job.get("courseId"))) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found"));
+        }
+        return ResponseEntity.ok(job);
+    }
+    
+    private ResponseEntity<?> checkCourseOwner(Long courseId, String username) {
+        Optional<User> instructorOpt = userRepository.findByUsername(username);
+        if (instructorOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Instructor not found"));
+        }
+        Optional<Course> courseOpt = courseRepository.findById(courseId);
+        if (courseOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Course not found"));
+        }
+        if (!courseOpt.get().getInstructor().getId().equals(instructorOpt.get().getId())) {
+            logger.warn("Roster access denied - Instructor {} does not own course {}", username, courseId);
+            return ResponseEntity.badRequest().body(Map.of("error", "You can only manage enrollments for your own courses"));
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.ExamPort.ExamPort.Entity.User;
 import com.ExamPort.ExamPort.Repository.ResultRepository;
 import com.ExamPort.ExamPort.Repository.Exam_repo;
 import com.ExamPort.ExamPort.Repository.UserRepository;
+import com.ExamPort.ExamPort.Service.CourseAllowListService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +31,8 @@ public class DashboardController {
     private Exam_repo examRepository;
     @Autowired
     private ResultRepository resultRepository;
+    @Autowired
+    private CourseAllowListService courseAllowListService;
     
 
     @GetMapping
@@ -46,7 +49,7 @@ public class DashboardController {
             logger.debug("Total exams: {}", totalExams);
 
             // 3. Total Attempts
-            long totalAttempts = resultRepository.count();
+            long totalAttempts = resultRepository.countIncludingArchive();
             logger.debug("Total attempts: {}", totalAttempts);
 
             // 4. Average Score
@@ -128,8 +131,7 @@ public class DashboardController {
             List<Exam> allExams = examRepository.findAll();
             List<Exam> allowedExams = allExams.stream()
                 .filter(exam -> exam.getCourse() != null && 
-                              exam.getCourse().getAllowedEmails() != null && 
-                              exam.getCourse().getAllowedEmails().contains(user.getEmail()))
+                              courseAllowListService.isAllowed(exam.getCourse().getId(), user.getEmail()))
                 .toList();
             
             // Get submitted exam IDs
@@ -0,0 +1,41 @@
+package com.ExamPort.ExamPort.Controller;
+
+import com.ExamPort.ExamPort.Service.PaymentWebhookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Razorpay webhook receiver. Unauthenticated; requests are trusted only after the
+ * X-Razorpay-Signature HMAC checks out against the webhook secret.
+ */
+@RestController
+@RequestMapping("/api/payments")
+public class PaymentWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWebhookController.class);
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Map<String, Object>> receiveWebhook(@RequestBody String payload,
+                                                              @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+                                                              @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        try {
+            PaymentWebhookService.Result result = paymentWebhookService.receive(payload, signature, eventId);
+            if (result == PaymentWebhookService.Result.INVALID_SIGNATURE) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid webhook signature"));
+            }
+            return ResponseEntity.ok(Map.of("status", result.name()));
+        } catch (Exception e) {
+            // Non-2xx makes Razorpay redeliver later
+            logger.error("Error storing payment webhook {}", eventId, e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Webhook could not be stored"));
+        }
+    }
+}
@@ -34,9 +34,10 @@ public class ResultController {
     @Autowired
     private Exam_repo examRepository;
     
-    // Get results for the authenticated user
+    // Get results for the authenticated user; history=true includes archived results of long-closed exams
     @GetMapping("/me")
-    public ResponseEntity<?> getMyResults(Principal principal) {
+    public ResponseEntity<?> getMyResults(Principal principal,
+                                          @RequestParam(value = "history", defaultValue = "false") boolean history) {
         if (principal == null) {
             logger.warn("Unauthorized access attempt to /me endpoint");
             return ResponseEntity.status(401).body("Unauthorized");
@@ -52,7 +53,9 @@ public class ResultController {
                 return ResponseEntity.status(404).body("User not found");
             }
             
-            List<Result> results = resultRepository.findByUserIdOrderByAttemptDateDesc(user.getId());
+            List<Result> results = history
+                    ? resultRepository.findHistoryByUserIdOrderByAttemptDateDesc(user.getId())
+                    : resultRepository.findByUserIdOrderByAttemptDateDesc(user.getId());
             logger.info("Found {} results for user: {}", results.size(), username);
             
             List<Map<String, Object>> enhancedResults = results.stream()
@@ -69,13 +72,15 @@ public class ResultController {
     
     // Alias endpoint for my-results (for compatibility)
     @GetMapping("/my-results")
-    public ResponseEntity<?> getMyResultsAlias(Principal principal) {
-        return getMyResults(principal);
+    public ResponseEntity<?> getMyResultsAlias(Principal principal,
+                                               @RequestParam(value = "history", defaultValue = "false") boolean history) {
+        return getMyResults(principal, history);
     }
     
-    // Get results for a specific exam (instructor only)
+    // Get results for a specific exam (instructor only); history=true includes archived results
     @GetMapping("/exam/{examId}")
-    public ResponseEntity<?> getExamResults(@PathVariable Long examId, Principal principal) {
+    public ResponseEntity<?> getExamResults(@PathVariable Long examId, Principal principal,
+                                            @RequestParam(value = "history", defaultValue = "false") boolean history) {
         if (principal == null) {
             logger.warn("Unauthorized access attempt to exam results endpoint");
             return ResponseEntity.status(401).body("Unauthorized");
@@ -86,7 +91,9 @@ public class ResultController {
         
         try {
             // TODO: Add instructor authorization check
-            List<Result> results = resultRepository.findByExamExamIdOrderByScoreDesc(examId);
+            List<Result> results = history
+                    ? resultRepository.findHistoryByExamIdOrderByScoreDesc(examId)
+                    : resultRepository.findByExamExamIdOrderByScoreDesc(examId);
             logger.info("Found {} results for exam: {}", results.size(), examId);
             
             List<Map<String, Object>> enhancedResults = results.stream()
@@ -101,7 +108,7 @@ public class ResultController {
         }
     }
     
-    // Get specific result by ID
+    // Get specific result by ID (looked up in the archive if it has been archived)
     @GetMapping("/{id}")
     public ResponseEntity<?> getResultById(@PathVariable Long id, Principal principal) {
         if (principal == null) {
@@ -113,7 +120,9 @@ public class ResultController {
         logger.info("Fetching result: {} for user: {}", id, username);
         
         try {
-            Result result = resultRepository.findById(id).orElse(null);
+            Result result = resultRepository.findById(id)
+                    .or(() -> resultRepository.findArchivedById(id))
+                    .orElse(null);
             if (result == null) {
                 logger.warn("Result not found: {}", id);
                 return ResponseEntity.status(404).body("Result not found");
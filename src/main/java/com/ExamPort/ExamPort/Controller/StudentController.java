@@ -103,7 +103,7 @@ public class StudentController {
                 // Check if student has access to this exam (through course enrollment)
                 if (hasAccessToExam(student, exam)) {
                     // Check if student hasn't submitted this exam yet
-                    boolean hasSubmitted = resultRepository.findByUserIdAndExamExamId(student.getId(), exam.getExam_id()).isPresent();
+                    boolean hasSubmitted = resultRepository.existsByUserIdAndExamIdIncludingArchive(student.getId(), exam.getExam_id());
                     
                     if (!hasSubmitted) {
                         Map<String, Object> examData = new HashMap<>();
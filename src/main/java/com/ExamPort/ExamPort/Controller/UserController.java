@@ -2,6 +2,7 @@ package com.ExamPort.ExamPort.Controller;
 
 import com.ExamPort.ExamPort.Entity.User;
 import com.ExamPort.ExamPort.Repository.UserRepository;
+import com.ExamPort.ExamPort.Service.PasswordHashingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(java.security.Principal principal) {
         if (principal == null) {
@@ -183,10 +187,9 @@ public class UserController {
             // Password update logic
             if (update.currentPassword != null && update.newPassword != null && !update.newPassword.isBlank()) {
                 logger.info("Password change request for user: {}", username);
-                org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder encoder = new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
                 
                 // Check if current password is correct
-                if (!encoder.matches(update.currentPassword, user.getPassword())) {
+                if (!passwordHashingService.matches(update.currentPassword, user.getPassword())) {
                     logger.warn("Invalid current password provided for user: {}", username);
                     java.util.Map<String, String> error = new java.util.HashMap<>();
                     error.put("error", "Current password is incorrect");
@@ -194,14 +197,14 @@ public class UserController {
                 }
                 
                 // Check if new password is same as current password
-                if (encoder.matches(update.newPassword, user.getPassword())) {
+                if (passwordHashingService.matches(update.newPassword, user.getPassword())) {
                     logger.warn("New password is same as current password for user: {}", username);
                     java.util.Map<String, String> error = new java.util.HashMap<>();
                     error.put("error", "New password cannot be the same as current password");
                     return ResponseEntity.status(400).body(error);
                 }
                 
-                user.setPassword(encoder.encode(update.newPassword));
+                user.setPassword(passwordHashingService.encode(update.newPassword));
                 passwordChanged = true;
                 logger.info("Password updated successfully for user: {}", username);
             }
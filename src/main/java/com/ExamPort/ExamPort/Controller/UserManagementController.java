@@ -2,10 +2,12 @@ package com.ExamPort.ExamPort.Controller;
 
 import com.ExamPort.ExamPort.Entity.User;
 import com.ExamPort.ExamPort.Repository.UserRepository;
+import com.ExamPort.ExamPort.Service.UserDirectoryIndex;
 import com.ExamPort.ExamPort.Service.UserManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,19 +23,22 @@ public class UserManagementController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserManagementController.class);
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private UserManagementService userManagementService;
 
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> getAllUsers() {
         try {
-            System.out.println("UserManagementController: getAllUsers called");
-            
             List<User> users = userRepository.findAll();
-            System.out.println("Found " + users.size() + " users");
+            logger.debug("Found {} users", users.size());
             
             List<Map<String, Object>> userList = users.stream()
                 .map(this::mapUserToResponse)
@@ -41,17 +46,48 @@ public class UserManagementController {
             
             return ResponseEntity.ok(userList);
         } catch (Exception e) {
-            System.err.println("Error fetching users: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error fetching users: {}", e.getMessage(), e);
             return ResponseEntity.ok(List.of()); // Return empty list on error
         }
     }
 
+    /**
+     * Paged prefix search over username, email and full name, ordered by username.
+     * Also backs the admin autocomplete with a small page size.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+            Page<UserDirectoryIndex.Entry> users = userDirectoryIndex.search(q, role, Math.max(page, 0), pageSize);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("users", users.getContent().stream()
+                .map(this::mapEntryToResponse)
+                .collect(Collectors.toList()));
+            response.put("totalElements", users.getTotalElements());
+            response.put("totalPages", users.getTotalPages());
+            response.put("currentPage", users.getNumber());
+            response.put("size", users.getSize());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error searching users for '{}': {}", q, e.getMessage(), e);
+            
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Failed to search users: " + e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getUserStats() {
         try {
-            System.out.println("UserManagementController: getUserStats called");
-            
             long totalUsers = userRepository.count();
             
             // Count users by role
@@ -73,11 +109,10 @@ public class UserManagementController {
             stats.put("instructorCount", roleStats.get("instructor"));
             stats.put("studentCount", roleStats.get("student"));
             
-            System.out.println("User stats: " + stats);
+            logger.debug("User stats: {}", stats);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
-            System.err.println("Error fetching user stats: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error fetching user stats: {}", e.getMessage(), e);
             
             // Return default stats on error
             Map<String, Object> defaultStats = new HashMap<>();
@@ -196,4 +231,17 @@ public class UserManagementController {
         
         return userMap;
     }
+
+    private Map<String, Object> mapEntryToResponse(UserDirectoryIndex.Entry user) {
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("id", user.getId().toString());
+        userMap.put("username", user.getUsername());
+        userMap.put("email", user.getEmail());
+        userMap.put("role", user.getRole() != null ? user.getRole().toLowerCase() : null);
+        userMap.put("fullName", user.getFullName());
+        userMap.put("phoneNumber", user.getPhoneNumber());
+        userMap.put("status", user.isEmailVerified() ? "active" : "inactive");
+        
+        return userMap;
+    }
 }
\ No newline at end of file
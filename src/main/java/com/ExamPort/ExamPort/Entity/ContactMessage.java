@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "contact_message")
+@EntityListeners(com.ExamPort.ExamPort.Service.SearchIndexListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -10,7 +10,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
 @Table(name = "courses")
-@JsonIgnoreProperties({"exams", "hibernateLazyInitializer", "handler"})
+@JsonIgnoreProperties({"exams", "allowedEmails", "hibernateLazyInitializer", "handler"})
 public class Course {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,8 +21,10 @@ public class Course {
     @Size(min = 3, max = 100, message = "Course name must be between 3 and 100 characters")
     private String name;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "course_allowed_emails", joinColumns = @JoinColumn(name = "course_id"))
+    // Loaded only when edited; membership and counts go through CourseAllowListService
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "course_allowed_emails", joinColumns = @JoinColumn(name = "course_id"),
+                     indexes = @Index(name = "idx_course_allowed_emails_course_email", columnList = "course_id, email"))
     @Column(name = "email")
     private List<String> allowedEmails = new ArrayList<>();
 
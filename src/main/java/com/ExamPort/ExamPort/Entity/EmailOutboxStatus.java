@@ -0,0 +1,8 @@
+package com.ExamPort.ExamPort.Entity;
+
+public enum EmailOutboxStatus {
+    PENDING,  // waiting for (re)delivery at nextAttemptAt
+    SENDING,  // claimed by a worker
+    SENT,
+    DEAD      // gave up after max attempts or a permanent failure
+}
@@ -10,7 +10,12 @@ import java.time.LocalDateTime;
  * Tracks enrollment status and payment information for paid courses
  */
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", indexes = {
+    @Index(name = "idx_enrollments_payment_order_id", columnList = "payment_order_id"),
+    @Index(name = "idx_enrollments_status_updated_at", columnList = "status, updated_at"),
+    @Index(name = "idx_enrollments_course_status", columnList = "course_id, status")
+})
+@EntityListeners(com.ExamPort.ExamPort.Service.EnrollmentIndexListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Enrollment {
     
@@ -39,6 +44,10 @@ public class Enrollment {
     @Column(name = "payment_transaction_id")
     private String paymentTransactionId;
     
+    // Gateway order the student is currently paying; lets webhooks find the enrollment
+    @Column(name = "payment_order_id", length = 64)
+    private String paymentOrderId;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -120,6 +129,14 @@ public class Enrollment {
         this.paymentTransactionId = paymentTransactionId;
     }
     
+    public String getPaymentOrderId() {
+        return paymentOrderId;
+    }
+    
+    public void setPaymentOrderId(String paymentOrderId) {
+        this.paymentOrderId = paymentOrderId;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,103 @@
+package com.ExamPort.ExamPort.Entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the "new exam published" fan-out for one exam. Recipients are enrolled students
+ * (walked by enrollment id) followed by the course's allowed emails (walked by position in the
+ * sorted list), so the two cursors are enough to resume after a restart.
+ */
+@Entity
+@Table(name = "exam_notification_job", indexes = {
+    @Index(name = "idx_exam_notification_job_status", columnList = "status, heartbeat_at")
+})
+public class ExamNotificationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "exam_id", nullable = false, unique = true)
+    private Long examId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationJobStatus status = NotificationJobStatus.PENDING;
+
+    @Column(name = "last_enrollment_id", nullable = false)
+    private long lastEnrollmentId = 0;
+
+    @Column(name = "allowed_email_offset", nullable = false)
+    private int allowedEmailOffset = 0;
+
+    @Column(name = "sent_count", nullable = false)
+    private int sentCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount = 0;
+
+    @Column(name = "skipped_count", nullable = false)
+    private int skippedCount = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public ExamNotificationJob() {}
+
+    public ExamNotificationJob(Long examId, Long courseId) {
+        this.examId = examId;
+        this.courseId = courseId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getExamId() { return examId; }
+    public void setExamId(Long examId) { this.examId = examId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public NotificationJobStatus getStatus() { return status; }
+    public void setStatus(NotificationJobStatus status) { this.status = status; }
+
+    public long getLastEnrollmentId() { return lastEnrollmentId; }
+    public void setLastEnrollmentId(long lastEnrollmentId) { this.lastEnrollmentId = lastEnrollmentId; }
+
+    public int getAllowedEmailOffset() { return allowedEmailOffset; }
+    public void setAllowedEmailOffset(int allowedEmailOffset) { this.allowedEmailOffset = allowedEmailOffset; }
+
+    public int getSentCount() { return sentCount; }
+    public void setSentCount(int sentCount) { this.sentCount = sentCount; }
+
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+
+    public int getSkippedCount() { return skippedCount; }
+    public void setSkippedCount(int skippedCount) { this.skippedCount = skippedCount; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
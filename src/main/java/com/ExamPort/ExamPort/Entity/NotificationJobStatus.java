@@ -0,0 +1,26 @@
+package com.ExamPort.ExamPort.Entity;
+
+/**
+ * Lifecycle of a bulk notification job
+ */
+public enum NotificationJobStatus {
+    /**
+     * Waiting to be picked up by a node
+     */
+    PENDING,
+
+    /**
+     * Being sent; a node that stops heartbeating loses the job to another
+     */
+    RUNNING,
+
+    /**
+     * Every recipient has been attempted
+     */
+    COMPLETED,
+
+    /**
+     * Stopped on an unexpected error; can be resumed from the saved cursor
+     */
+    FAILED
+}
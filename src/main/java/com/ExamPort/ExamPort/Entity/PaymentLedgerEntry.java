@@ -0,0 +1,93 @@
+package com.ExamPort.ExamPort.Entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One settled payment. Written in the same transaction that completes the enrollment, so revenue
+ * is a sum over this table rather than enrollment counts times the current course price.
+ */
+@Entity
+@Table(name = "payment_ledger", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payment_ledger_payment", columnNames = "payment_id")
+}, indexes = {
+    @Index(name = "idx_payment_ledger_course", columnList = "course_id")
+})
+public class PaymentLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false, length = 64)
+    private String paymentId;
+
+    @Column(name = "order_id", length = 64)
+    private String orderId;
+
+    @Column(name = "enrollment_id", nullable = false)
+    private Long enrollmentId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "amount_paise", nullable = false)
+    private long amountPaise;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentSource source;
+
+    @Column(name = "settled_at", nullable = false)
+    private LocalDateTime settledAt;
+
+    public PaymentLedgerEntry() {}
+
+    public PaymentLedgerEntry(String paymentId, String orderId, Long enrollmentId, Long courseId, Long studentId,
+                              long amountPaise, String currency, PaymentSource source) {
+        this.paymentId = paymentId;
+        this.orderId = orderId;
+        this.enrollmentId = enrollmentId;
+        this.courseId = courseId;
+        this.studentId = studentId;
+        this.amountPaise = amountPaise;
+        this.currency = currency;
+        this.source = source;
+        this.settledAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getPaymentId() { return paymentId; }
+    public void setPaymentId(String paymentId) { this.paymentId = paymentId; }
+
+    public String getOrderId() { return orderId; }
+    public void setOrderId(String orderId) { this.orderId = orderId; }
+
+    public Long getEnrollmentId() { return enrollmentId; }
+    public void setEnrollmentId(Long enrollmentId) { this.enrollmentId = enrollmentId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(long amountPaise) { this.amountPaise = amountPaise; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public PaymentSource getSource() { return source; }
+    public void setSource(PaymentSource source) { this.source = source; }
+
+    public LocalDateTime getSettledAt() { return settledAt; }
+    public void setSettledAt(LocalDateTime settledAt) { this.settledAt = settledAt; }
+}
@@ -0,0 +1,11 @@
+package com.ExamPort.ExamPort.Entity;
+
+/**
+ * Which path settled a payment into the ledger
+ */
+public enum PaymentSource {
+    CHECKOUT,        // browser signature verification
+    WEBHOOK,
+    RECONCILIATION,
+    BACKFILL         // enrollments paid before the ledger existed
+}
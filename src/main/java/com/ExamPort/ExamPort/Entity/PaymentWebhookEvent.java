@@ -0,0 +1,138 @@
+package com.ExamPort.ExamPort.Entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Verified Razorpay webhook waiting to be applied to its enrollment. At most one row per payment:
+ * provider retries and the overlapping payment.captured / order.paid events collapse on the
+ * unique payment ID. Drained by PaymentWebhookWorker.
+ */
+@Entity
+@Table(name = "payment_webhook_inbox", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payment_webhook_inbox_payment", columnNames = "payment_id")
+}, indexes = {
+    @Index(name = "idx_payment_webhook_inbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class PaymentWebhookEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "payment_id", nullable = false, length = 64)
+    private String paymentId;
+
+    @Column(name = "order_id", nullable = false, length = 64)
+    private String orderId;
+
+    // From the order notes; fallback when the enrollment has since moved to a newer order
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(nullable = false)
+    private boolean captured;
+
+    @Column(name = "amount_paise")
+    private Long amountPaise;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentWebhookStatus status = PaymentWebhookStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public PaymentWebhookEvent() {}
+
+    public PaymentWebhookEvent(String eventId, String eventType, String paymentId, String orderId,
+                               boolean captured, Long amountPaise, String payload) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.paymentId = paymentId;
+        this.orderId = orderId;
+        this.captured = captured;
+        this.amountPaise = amountPaise;
+        this.payload = payload;
+        this.receivedAt = LocalDateTime.now();
+        this.nextAttemptAt = this.receivedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getPaymentId() { return paymentId; }
+    public void setPaymentId(String paymentId) { this.paymentId = paymentId; }
+
+    public String getOrderId() { return orderId; }
+    public void setOrderId(String orderId) { this.orderId = orderId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public boolean isCaptured() { return captured; }
+    public void setCaptured(boolean captured) { this.captured = captured; }
+
+    public Long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(Long amountPaise) { this.amountPaise = amountPaise; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public PaymentWebhookStatus getStatus() { return status; }
+    public void setStatus(PaymentWebhookStatus status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getLockedAt() { return lockedAt; }
+    public void setLockedAt(LocalDateTime lockedAt) { this.lockedAt = lockedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
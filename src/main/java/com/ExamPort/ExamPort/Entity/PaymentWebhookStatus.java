@@ -0,0 +1,8 @@
+package com.ExamPort.ExamPort.Entity;
+
+public enum PaymentWebhookStatus {
+    PENDING,     // waiting to be applied at nextAttemptAt
+    PROCESSING,  // claimed by a worker
+    PROCESSED,
+    DEAD         // gave up after max attempts
+}
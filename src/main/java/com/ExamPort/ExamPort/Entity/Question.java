@@ -12,6 +12,8 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
 
+import org.hibernate.annotations.BatchSize;
+
 @Entity
 public class Question {
 	@Id
@@ -26,6 +28,8 @@ public class Question {
 	@Column(nullable=false)
 @OneToMany(cascade = CascadeType.ALL)
 @JoinColumn(name="QId")
+// Loads the options of up to 100 questions per query instead of one query per question
+@BatchSize(size = 100)
 private List<ExamOption> options = new ArrayList<>();
 
 	@Column(nullable = false)
@@ -41,6 +45,7 @@ private List<ExamOption> options = new ArrayList<>();
 		joinColumns = @javax.persistence.JoinColumn(name = "question_que_id")
 	)
 	@javax.persistence.Column(name = "correct_option_index")
+	@BatchSize(size = 100)
 	private List<Integer> correct_options = new ArrayList<>();
 
 	public Question() {
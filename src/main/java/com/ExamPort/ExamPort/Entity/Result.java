@@ -4,7 +4,10 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "result")
+@Table(name = "result", indexes = {
+    @Index(name = "idx_result_user_exam", columnList = "user_id, exam_exam_id"),
+    @Index(name = "idx_result_exam_score", columnList = "exam_exam_id, score")
+})
 public class Result {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "reviews")
+@EntityListeners(com.ExamPort.ExamPort.Service.SearchIndexListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Review {
     @Id
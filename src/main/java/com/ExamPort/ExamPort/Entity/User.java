@@ -6,6 +6,7 @@ import javax.validation.constraints.Pattern;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(com.ExamPort.ExamPort.Service.UserDirectoryIndexListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
     @Id
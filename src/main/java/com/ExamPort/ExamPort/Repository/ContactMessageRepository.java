@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,6 +46,23 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
         Pageable pageable
     );
     
+    // Same filters over search index matches instead of the text search
+    @Query("SELECT cm FROM ContactMessage cm WHERE cm.id IN :ids AND " +
+           "(:email IS NULL OR LOWER(cm.email) LIKE LOWER(CONCAT('%', :email, '%'))) AND " +
+           "(:status IS NULL OR cm.status = :status) AND " +
+           "(:startDate IS NULL OR cm.submittedAt >= :startDate) AND " +
+           "(:endDate IS NULL OR cm.submittedAt <= :endDate) AND " +
+           "(:referenceNumber IS NULL OR LOWER(cm.referenceNumber) LIKE LOWER(CONCAT('%', :referenceNumber, '%')))")
+    Page<ContactMessage> findWithFiltersByIdIn(
+        @Param("ids") Collection<Long> ids,
+        @Param("email") String email,
+        @Param("status") ContactMessageStatus status,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("referenceNumber") String referenceNumber,
+        Pageable pageable
+    );
+    
     // Count by status
     long countByStatus(ContactMessageStatus status);
     
@@ -123,6 +123,39 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT COUNT(DISTINCT c) FROM Course c JOIN Enrollment e ON c.id = e.course.id WHERE c.instructor = :instructor AND e.status = 'ENROLLED'")
     long countCoursesWithEnrollmentsByInstructor(@Param("instructor") com.ExamPort.ExamPort.Entity.User instructor);
     
+    /**
+     * Check whether an email is on a course's allow-list
+     * @param courseId The course ID
+     * @param email The student's email
+     * @return true if the email is allowed
+     */
+    @Query("SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END FROM Course c JOIN c.allowedEmails e WHERE c.id = :courseId AND e = :email")
+    boolean isEmailAllowed(@Param("courseId") Long courseId, @Param("email") String email);
+    
+    /**
+     * Find the allow-list of a course without loading the course
+     * @param courseId The course ID
+     * @return Allowed emails
+     */
+    @Query("SELECT e FROM Course c JOIN c.allowedEmails e WHERE c.id = :courseId")
+    List<String> findAllowedEmailsByCourseId(@Param("courseId") Long courseId);
+    
+    /**
+     * Count allowed emails of a course
+     * @param courseId The course ID
+     * @return Number of allowed emails
+     */
+    @Query("SELECT COUNT(e) FROM Course c JOIN c.allowedEmails e WHERE c.id = :courseId")
+    long countAllowedEmailsByCourseId(@Param("courseId") Long courseId);
+    
+    /**
+     * Count allowed emails for several courses at once
+     * @param courseIds The course IDs
+     * @return Rows of [courseId, count]; courses without allowed emails are absent
+     */
+    @Query("SELECT c.id, COUNT(e) FROM Course c JOIN c.allowedEmails e WHERE c.id IN :courseIds GROUP BY c.id")
+    List<Object[]> countAllowedEmailsByCourseIds(@Param("courseIds") java.util.Collection<Long> courseIds);
+    
     /**
      * Update instructor to null for courses by instructor (for safe user deletion)
      * @param instructor The instructor User object
@@ -132,4 +165,13 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @org.springframework.transaction.annotation.Transactional
     @Query("UPDATE Course c SET c.instructor = NULL WHERE c.instructor = :instructor")
     int updateInstructorToNull(@Param("instructor") com.ExamPort.ExamPort.Entity.User instructor);
+    
+    /**
+     * Update instructor to null for courses by instructor ID, without loading the instructor
+     * @param instructorId The instructor's user ID
+     * @return Number of updated courses
+     */
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE Course c SET c.instructor = NULL WHERE c.instructor.id = :instructorId")
+    int updateInstructorToNullByInstructorId(@Param("instructorId") Long instructorId);
 }
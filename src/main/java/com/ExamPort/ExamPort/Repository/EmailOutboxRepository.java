@@ -0,0 +1,59 @@
+package com.ExamPort.ExamPort.Repository;
+
+import com.ExamPort.ExamPort.Entity.EmailOutbox;
+import com.ExamPort.ExamPort.Entity.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("status") EmailOutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim a row for delivery; returns 0 when another worker or node claimed it first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :sending, e.lockedAt = :now WHERE e.id = :id AND e.status = :pending")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now,
+              @Param("pending") EmailOutboxStatus pending, @Param("sending") EmailOutboxStatus sending);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.sentAt = :now, e.attempts = e.attempts + 1, e.lockedAt = null, e.lastError = null WHERE e.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("status") EmailOutboxStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, e.lockedAt = null, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") EmailOutboxStatus status, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Return rows left in SENDING by a crashed node to the queue.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :pending, e.lockedAt = null WHERE e.status = :sending AND e.lockedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff,
+                     @Param("pending") EmailOutboxStatus pending, @Param("sending") EmailOutboxStatus sending);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :pending, e.attempts = 0, e.nextAttemptAt = :now, e.lastError = null WHERE e.id = :id AND e.status = :dead")
+    int requeueDead(@Param("id") Long id, @Param("now") LocalDateTime now,
+                    @Param("pending") EmailOutboxStatus pending, @Param("dead") EmailOutboxStatus dead);
+
+    @Query("SELECT e.status, COUNT(e) FROM EmailOutbox e GROUP BY e.status")
+    List<Object[]> countByStatus();
+}
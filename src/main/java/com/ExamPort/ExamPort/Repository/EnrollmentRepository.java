@@ -80,6 +80,34 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     Page<Enrollment> findByCourse_Id(Long courseId, Pageable pageable);
     
+    /**
+     * Keyset page of ENROLLED students for a course as [enrollmentId, email, fullName, username],
+     * used by bulk notifications so a job can resume from the last enrollment id it processed
+     * @param courseId The course ID
+     * @param afterId Only enrollments with a greater id are returned
+     * @param pageable Page size (page number is always 0)
+     * @return Rows ordered by enrollment id
+     */
+    @Query("SELECT e.id, s.email, s.fullName, s.username FROM Enrollment e JOIN e.student s " +
+           "WHERE e.course.id = :courseId AND e.status = 'ENROLLED' AND e.id > :afterId ORDER BY e.id")
+    List<Object[]> findEnrolledRecipientsAfter(@Param("courseId") Long courseId, @Param("afterId") long afterId, Pageable pageable);
+    
+    /**
+     * Student ID and email of every enrollment in the course, any status (roster diff)
+     */
+    @Query("SELECT s.id, s.email FROM Enrollment e JOIN e.student s WHERE e.course.id = :courseId")
+    List<Object[]> findStudentIdsAndEmailsByCourseId(@Param("courseId") Long courseId);
+    
+    /**
+     * Which of the given emails belong to students already ENROLLED in the course
+     * @param courseId The course ID
+     * @param emails Lower-cased emails to check
+     * @return The matching emails, lower-cased
+     */
+    @Query("SELECT LOWER(s.email) FROM Enrollment e JOIN e.student s " +
+           "WHERE e.course.id = :courseId AND e.status = 'ENROLLED' AND LOWER(s.email) IN :emails")
+    List<String> findEnrolledEmailsIn(@Param("courseId") Long courseId, @Param("emails") java.util.Collection<String> emails);
+    
     /**
      * Find enrollments by status
      * @param status The enrollment status
@@ -102,6 +130,45 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     Optional<Enrollment> findByPaymentTransactionId(String paymentTransactionId);
     
+    /**
+     * Find enrollment by the gateway order it is waiting on
+     * @param paymentOrderId The Razorpay order ID
+     * @return Optional enrollment if exists
+     */
+    Optional<Enrollment> findByPaymentOrderId(String paymentOrderId);
+    
+    /**
+     * Complete a paid enrollment. Conditional on the current status so that when the browser
+     * and the webhook race, exactly one caller sees 1 and performs the side effects.
+     * @return 1 if this call made the transition, 0 if the enrollment was already enrolled
+     */
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE Enrollment e SET e.status = :enrolled, e.paymentTransactionId = :paymentId, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.status <> :enrolled")
+    int markPaid(@Param("id") Long id, @Param("paymentId") String paymentId,
+                 @Param("enrolled") EnrollmentStatus enrolled, @Param("now") java.time.LocalDateTime now);
+    
+    /**
+     * Cancel an abandoned checkout if it is still pending on the given order
+     * (a null order ID matches enrollments created before orders were recorded)
+     */
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE Enrollment e SET e.status = :cancelled, e.updatedAt = :now WHERE e.id = :id AND e.status = :pending " +
+           "AND (e.paymentOrderId = :orderId OR (:orderId IS NULL AND e.paymentOrderId IS NULL))")
+    int expirePending(@Param("id") Long id, @Param("orderId") String orderId, @Param("pending") EnrollmentStatus pending,
+                      @Param("cancelled") EnrollmentStatus cancelled, @Param("now") java.time.LocalDateTime now);
+    
+    /**
+     * Pending checkouts older than the cutoff, oldest first. Keyset-paged on (updatedAt, id)
+     * so rows that stay pending are not read twice in one sweep.
+     */
+    @Query("SELECT e.id, e.paymentOrderId, e.updatedAt FROM Enrollment e WHERE e.status = :pending AND e.updatedAt < :cutoff " +
+           "AND (e.updatedAt > :afterUpdatedAt OR (e.updatedAt = :afterUpdatedAt AND e.id > :afterId)) " +
+           "ORDER BY e.updatedAt, e.id")
+    List<Object[]> findPendingPaymentsAfter(@Param("pending") EnrollmentStatus pending, @Param("cutoff") java.time.LocalDateTime cutoff,
+                                            @Param("afterUpdatedAt") java.time.LocalDateTime afterUpdatedAt, @Param("afterId") long afterId,
+                                            Pageable pageable);
+    
     /**
      * Check if a student is enrolled in a course (regardless of status)
      * @param studentId The student's user ID
@@ -110,6 +177,13 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     boolean existsByStudent_IdAndCourse_Id(Long studentId, Long courseId);
     
+    /**
+     * Count enrollments in a course in any status
+     * @param courseId The course ID
+     * @return Number of enrollment rows for the course
+     */
+    long countByCourse_Id(Long courseId);
+    
     /**
      * Check if a student is successfully enrolled in a course (ENROLLED status only)
      * @param studentId The student's user ID
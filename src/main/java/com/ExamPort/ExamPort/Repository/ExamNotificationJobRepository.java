@@ -0,0 +1,70 @@
+package com.ExamPort.ExamPort.Repository;
+
+import com.ExamPort.ExamPort.Entity.ExamNotificationJob;
+import com.ExamPort.ExamPort.Entity.NotificationJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExamNotificationJobRepository extends JpaRepository<ExamNotificationJob, Long> {
+
+    boolean existsByExamId(Long examId);
+
+    List<ExamNotificationJob> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * PENDING jobs, plus RUNNING jobs whose node stopped heartbeating (crash or restart).
+     */
+    @Query("SELECT j.id FROM ExamNotificationJob j WHERE j.status = :pending " +
+           "OR (j.status = :running AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)) ORDER BY j.id")
+    List<Long> findRunnableIds(@Param("pending") NotificationJobStatus pending, @Param("running") NotificationJobStatus running,
+                               @Param("staleBefore") LocalDateTime staleBefore, Pageable pageable);
+
+    /**
+     * Take ownership of a runnable job; returns 0 when another node claimed it first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExamNotificationJob j SET j.status = :running, j.heartbeatAt = :now WHERE j.id = :id " +
+           "AND (j.status = :pending OR (j.status = :running AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("pending") NotificationJobStatus pending, @Param("running") NotificationJobStatus running);
+
+    /**
+     * Checkpoint after a page of recipients: advances the cursors, adds the page's counts and heartbeats.
+     * The caller passes the latest error it knows of (or the one already stored) so it is not cleared.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExamNotificationJob j SET j.lastEnrollmentId = :lastEnrollmentId, j.allowedEmailOffset = :allowedEmailOffset, " +
+           "j.sentCount = j.sentCount + :sent, j.failedCount = j.failedCount + :failed, j.skippedCount = j.skippedCount + :skipped, " +
+           "j.lastError = :error, j.heartbeatAt = :now WHERE j.id = :id")
+    int saveProgress(@Param("id") Long id, @Param("lastEnrollmentId") long lastEnrollmentId,
+                     @Param("allowedEmailOffset") int allowedEmailOffset, @Param("sent") int sent,
+                     @Param("failed") int failed, @Param("skipped") int skipped,
+                     @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExamNotificationJob j SET j.status = :status, j.completedAt = :now, j.heartbeatAt = :now, " +
+           "j.lastError = :error WHERE j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") NotificationJobStatus status,
+               @Param("now") LocalDateTime now, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExamNotificationJob j SET j.status = :pending, j.completedAt = null WHERE j.id = :id AND j.status = :failed")
+    int resumeFailed(@Param("id") Long id, @Param("pending") NotificationJobStatus pending,
+                     @Param("failed") NotificationJobStatus failed);
+
+    @Query("SELECT j.status, COUNT(j) FROM ExamNotificationJob j GROUP BY j.status")
+    List<Object[]> countByStatus();
+}
@@ -15,4 +15,7 @@ public interface Exam_repo extends JpaRepository<Exam, Long>{
     
     // Find exams by course id (alternative naming)
     List<Exam> findByCourseId(Long courseId);
+    
+    // Count exams in a course without loading them
+    long countByCourse_Id(Long courseId);
 }
@@ -0,0 +1,20 @@
+package com.ExamPort.ExamPort.Repository;
+
+import com.ExamPort.ExamPort.Entity.PaymentLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentLedgerRepository extends JpaRepository<PaymentLedgerEntry, Long> {
+
+    /**
+     * Settled revenue per course in paise, one row per course that has any payments
+     */
+    @Query("SELECT l.courseId, SUM(l.amountPaise) FROM PaymentLedgerEntry l WHERE l.courseId IN :courseIds GROUP BY l.courseId")
+    List<Object[]> sumAmountByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+}
@@ -0,0 +1,62 @@
+package com.ExamPort.ExamPort.Repository;
+
+import com.ExamPort.ExamPort.Entity.PaymentWebhookEvent;
+import com.ExamPort.ExamPort.Entity.PaymentWebhookStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    boolean existsByPaymentId(String paymentId);
+
+    // Ordered by arrival so events for the same order are applied in the order they were received
+    @Query("SELECT w.id FROM PaymentWebhookEvent w WHERE w.status = :status AND w.nextAttemptAt <= :now ORDER BY w.id")
+    List<Long> findDueIds(@Param("status") PaymentWebhookStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim a row for processing; returns 0 when another worker or node claimed it first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentWebhookEvent w SET w.status = :processing, w.lockedAt = :now WHERE w.id = :id AND w.status = :pending")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now,
+              @Param("pending") PaymentWebhookStatus pending, @Param("processing") PaymentWebhookStatus processing);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentWebhookEvent w SET w.status = :status, w.processedAt = :now, w.attempts = w.attempts + 1, w.lockedAt = null, w.lastError = null WHERE w.id = :id")
+    int markProcessed(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("status") PaymentWebhookStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentWebhookEvent w SET w.status = :status, w.attempts = :attempts, w.nextAttemptAt = :nextAttemptAt, w.lockedAt = null, w.lastError = :error WHERE w.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") PaymentWebhookStatus status, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Return rows left in PROCESSING by a crashed node to the queue.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentWebhookEvent w SET w.status = :pending, w.lockedAt = null WHERE w.status = :processing AND w.lockedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff,
+                     @Param("pending") PaymentWebhookStatus pending, @Param("processing") PaymentWebhookStatus processing);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentWebhookEvent w SET w.status = :pending, w.attempts = 0, w.nextAttemptAt = :now, w.lastError = null WHERE w.id = :id AND w.status = :dead")
+    int requeueDead(@Param("id") Long id, @Param("now") LocalDateTime now,
+                    @Param("pending") PaymentWebhookStatus pending, @Param("dead") PaymentWebhookStatus dead);
+
+    @Query("SELECT w.status, COUNT(w) FROM PaymentWebhookEvent w GROUP BY w.status")
+    List<Object[]> countByStatus();
+}
@@ -9,6 +9,9 @@ import java.util.Optional;
 
 public interface ResultRepository extends JpaRepository<Result, Long> {
     
+    // Columns shared by result and result_archive, in entity order
+    String HISTORY_COLUMNS = "id, answers, attempt_date, feedback, passed, score, time_taken, user_rank, exam_exam_id, user_id";
+    
     // Find results by user ID
     List<Result> findByUserId(Long userId);
     
@@ -40,4 +43,37 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     
     // Count results for a specific user
     long countByUserId(Long userId);
+    
+    // History reads: the hot table plus result_archive (results of long-closed exams).
+    // Only for callers that ask for history; everything else reads the hot table alone.
+    
+    // All results of a user, newest first, including archived ones
+    @Query(value = "SELECT " + HISTORY_COLUMNS + " FROM result WHERE user_id = :userId " +
+                   "UNION ALL SELECT " + HISTORY_COLUMNS + " FROM result_archive WHERE user_id = :userId " +
+                   "ORDER BY attempt_date DESC", nativeQuery = true)
+    List<Result> findHistoryByUserIdOrderByAttemptDateDesc(@Param("userId") Long userId);
+    
+    // All results of an exam by score, including archived ones
+    @Query(value = "SELECT " + HISTORY_COLUMNS + " FROM result WHERE exam_exam_id = :examId " +
+                   "UNION ALL SELECT " + HISTORY_COLUMNS + " FROM result_archive WHERE exam_exam_id = :examId " +
+                   "ORDER BY score DESC", nativeQuery = true)
+    List<Result> findHistoryByExamIdOrderByScoreDesc(@Param("examId") Long examId);
+    
+    // An archived result by ID
+    @Query(value = "SELECT " + HISTORY_COLUMNS + " FROM result_archive WHERE id = :id", nativeQuery = true)
+    Optional<Result> findArchivedById(@Param("id") Long id);
+    
+    // Results of a user for an exam in either table. The one-attempt rule and "attempted" flags
+    // must use this: once ResultArchivalService moves the result, the hot table no longer has it.
+    @Query(value = "SELECT (SELECT COUNT(*) FROM result WHERE user_id = :userId AND exam_exam_id = :examId) + " +
+                   "(SELECT COUNT(*) FROM result_archive WHERE user_id = :userId AND exam_exam_id = :examId)", nativeQuery = true)
+    long countByUserIdAndExamIdIncludingArchive(@Param("userId") Long userId, @Param("examId") Long examId);
+    
+    default boolean existsByUserIdAndExamIdIncludingArchive(Long userId, Long examId) {
+        return countByUserIdAndExamIdIncludingArchive(userId, examId) > 0;
+    }
+    
+    // Attempts across the hot table and the archive, for totals
+    @Query(value = "SELECT (SELECT COUNT(*) FROM result) + (SELECT COUNT(*) FROM result_archive)", nativeQuery = true)
+    long countIncludingArchive();
 }
\ No newline at end of file
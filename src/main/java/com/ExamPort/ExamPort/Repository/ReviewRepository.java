@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -94,6 +95,12 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r FROM Review r WHERE r.isActive = true AND r.isApproved = true AND LOWER(r.content) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY r.createdAt DESC")
     List<Review> searchReviewsByContent(@Param("searchTerm") String searchTerm);
     
+    /**
+     * Approved, active reviews among the given IDs (search index matches)
+     */
+    @Query("SELECT r FROM Review r WHERE r.id IN :ids AND r.isActive = true AND r.isApproved = true ORDER BY r.createdAt DESC")
+    List<Review> findApprovedByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Find reviews by user role
      */
@@ -1,8 +1,13 @@
 package com.ExamPort.ExamPort.Repository;
 
 import com.ExamPort.ExamPort.Entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,8 +19,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    
+    @Query("SELECT u.id, u.email FROM User u WHERE u.email IN :emails")
+    java.util.List<Object[]> findIdAndEmailByEmailIn(@Param("emails") java.util.Collection<String> emails);
+    
+    // Prefix search for the admin user list while the in-memory directory is loading
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR LOWER(u.role) = :role) AND " +
+           "(:prefix = '' OR LOWER(u.username) LIKE CONCAT(:prefix, '%') OR LOWER(u.email) LIKE CONCAT(:prefix, '%') OR " +
+           "LOWER(u.fullName) LIKE CONCAT(:prefix, '%'))")
+    Page<User> searchByPrefix(@Param("prefix") String prefix, @Param("role") String role, Pageable pageable);
+    
     Optional<User> findByPhoneNumber(String phoneNumber);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByPhoneNumber(String phoneNumber);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
+    // Bulk delete by ID so the user row is removed without loading the entity
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
 }
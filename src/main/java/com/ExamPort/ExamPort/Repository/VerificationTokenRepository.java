@@ -45,5 +45,9 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
     @Query("SELECT COUNT(vt) FROM VerificationToken vt WHERE vt.user = :user")
     long countByUser(@Param("user") User user);
     
+    @Modifying
+    @Query("DELETE FROM VerificationToken vt WHERE vt.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+    
     boolean existsByUserAndTokenTypeAndUsedFalse(User user, String tokenType);
 }
\ No newline at end of file
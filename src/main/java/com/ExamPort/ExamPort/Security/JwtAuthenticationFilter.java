@@ -1,13 +1,7 @@
 package com.ExamPort.ExamPort.Security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import java.util.List;
-import java.util.ArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -51,14 +45,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("Processing request: {} {}", method, requestURI);
         
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
+        VerifiedToken verified = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-                logger.debug("JWT token found for user: {}", username);
+                // Single verification per request; repeat tokens are served from the verified-token cache
+                verified = jwtUtil.verify(jwt);
+                logger.debug("JWT token found for user: {}", verified.getUsername());
             } catch (Exception e) {
                 logger.warn("Invalid JWT token in request to {}: {}", requestURI, e.getMessage());
             }
@@ -66,23 +60,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             logger.debug("No Bearer token found in request to: {}", requestURI);
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (verified != null && verified.getUsername() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String username = verified.getUsername();
             try {
-                // Extract roles array from JWT
-                Claims claims = Jwts.parserBuilder().setSigningKey(jwtUtil.getKey()).build().parseClaimsJws(jwt).getBody();
-                List<String> roles = claims.get("roles", List.class);
-                List<GrantedAuthority> authorities = new ArrayList<>();
-                if (roles != null) {
-                    for (String role : roles) {
-                        authorities.add(new SimpleGrantedAuthority(role));
-                    }
-                    logger.debug("User {} authenticated with roles: {}", username, roles);
-                } else {
+                if (verified.getRoles().isEmpty()) {
                     logger.warn("No roles found in JWT for user: {}", username);
+                } else {
+                    logger.debug("User {} authenticated with roles: {}", username, verified.getRoles());
                 }
                 
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
+                        new UsernamePasswordAuthenticationToken(username, null, verified.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
                 
@@ -0,0 +1,297 @@
+package com.ExamPort.ExamPort.Security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared HMAC signing keys for JWTs, identified by the {@code kid} header.
+ *
+ * Keys come from {@code app.jwt.keys} (env, {@code kid:base64Secret[:notBeforeEpochSeconds]}
+ * separated by commas) and from the key ring file at {@code app.jwt.keyring.path}, which holds
+ * one such entry per line. Every node loading the same keys can validate every other node's
+ * tokens. New tokens are signed with the newest key whose not-before time has passed; older keys
+ * keep verifying until the newer key has been active for the overlap window, which should be at
+ * least the token lifetime.
+ *
+ * Exactly one node should set {@code app.jwt.keyring.rotation-enabled=true}. That node appends a
+ * fresh key to the file every rotation interval, dated a few reload intervals in the future so the
+ * other nodes pick it up before it signs anything, and prunes keys past their overlap window.
+ * All nodes re-read the file on the reload interval.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final String inlineKeys;
+    private final String keyRingPath;
+    private final boolean rotationEnabled;
+    private final Duration rotationInterval;
+    private final Duration overlap;
+    private final long reloadIntervalMs;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    // Immutable snapshots swapped atomically on reload
+    private volatile Map<String, SigningKey> verificationKeys = Collections.emptyMap();
+    private volatile SigningKey signingKey;
+
+    public JwtKeyRing(@Value("${app.jwt.keys:}") String inlineKeys,
+                      @Value("${app.jwt.keyring.path:}") String keyRingPath,
+                      @Value("${app.jwt.keyring.rotation-enabled:false}") boolean rotationEnabled,
+                      @Value("${app.jwt.keyring.rotation-interval:P1D}") Duration rotationInterval,
+                      @Value("${app.jwt.keyring.overlap:PT6H}") Duration overlap,
+                      @Value("${app.jwt.keyring.reload-interval-ms:60000}") long reloadIntervalMs,
+                      VerifiedTokenCache verifiedTokenCache) {
+        this.inlineKeys = inlineKeys;
+        this.keyRingPath = keyRingPath;
+        this.rotationEnabled = rotationEnabled;
+        this.rotationInterval = rotationInterval;
+        this.overlap = overlap;
+        this.reloadIntervalMs = reloadIntervalMs;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (rotationEnabled && hasKeyRingFile()) {
+            rotateIfDue();
+        }
+        reload();
+        if (verificationKeys.isEmpty()) {
+            // Development fallback: tokens will not survive a restart or validate on other nodes
+            SigningKey ephemeral = new SigningKey("ephemeral-" + UUID.randomUUID(),
+                    Keys.secretKeyFor(SignatureAlgorithm.HS256), Instant.EPOCH);
+            verificationKeys = Collections.singletonMap(ephemeral.getKid(), ephemeral);
+            signingKey = ephemeral;
+            logger.warn("No JWT keys configured (app.jwt.keys / app.jwt.keyring.path) - using an ephemeral key for this node only");
+        }
+        logger.info("JWT key ring loaded with {} key(s), signing with kid {}", verificationKeys.size(), signingKey.getKid());
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.keyring.reload-interval-ms:60000}",
+               initialDelayString = "${app.jwt.keyring.reload-interval-ms:60000}")
+    public void refresh() {
+        try {
+            if (rotationEnabled && hasKeyRingFile()) {
+                rotateIfDue();
+            }
+            reload();
+        } catch (Exception e) {
+            logger.error("Failed to refresh JWT key ring, keeping current keys", e);
+        }
+    }
+
+    public SigningKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Looks up the verification key for a token's {@code kid}; unknown or retired ids are rejected.
+     */
+    public Key getVerificationKey(String kid) {
+        SigningKey key = kid != null ? verificationKeys.get(kid) : null;
+        if (key == null) {
+            throw new JwtException("Unknown JWT key id: " + kid);
+        }
+        return key.getKey();
+    }
+
+    private synchronized void reload() {
+        List<SigningKey> all = new ArrayList<>(parseEntries(inlineKeys, "app.jwt.keys"));
+        if (hasKeyRingFile()) {
+            all.addAll(readKeyRingFile());
+        }
+        if (all.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<SigningKey> live = liveKeys(all, now);
+        SigningKey newestActive = live.stream()
+                .filter(k -> !k.getNotBefore().isAfter(now))
+                .max(Comparator.comparing(SigningKey::getNotBefore))
+                .orElse(null);
+        if (newestActive == null) {
+            logger.warn("No JWT key is active yet; keeping current signing key");
+            if (signingKey == null) {
+                newestActive = live.get(0);
+            } else {
+                newestActive = signingKey;
+            }
+        }
+
+        Map<String, SigningKey> byKid = new HashMap<>();
+        for (SigningKey key : live) {
+            byKid.put(key.getKid(), key);
+        }
+        boolean retiredAny = !verificationKeys.isEmpty() && !byKid.keySet().containsAll(verificationKeys.keySet());
+
+        verificationKeys = Collections.unmodifiableMap(byKid);
+        if (signingKey == null || !signingKey.getKid().equals(newestActive.getKid())) {
+            logger.info("JWT signing key is now kid {}", newestActive.getKid());
+        }
+        signingKey = newestActive;
+
+        if (retiredAny) {
+            // Tokens signed with a retired key must not keep passing via the verified-token cache
+            verifiedTokenCache.clear();
+            logger.info("Retired JWT key(s); {} key(s) remain valid for verification", byKid.size());
+        }
+    }
+
+    /**
+     * Drops keys superseded by a newer key that has been active for longer than the overlap window.
+     */
+    private List<SigningKey> liveKeys(List<SigningKey> all, Instant now) {
+        List<SigningKey> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparing(SigningKey::getNotBefore).reversed());
+        List<SigningKey> live = new ArrayList<>();
+        Instant supersededAt = null;
+        for (SigningKey key : sorted) {
+            if (supersededAt == null || supersededAt.plus(overlap).isAfter(now)) {
+                live.add(key);
+            }
+            if (!key.getNotBefore().isAfter(now) && (supersededAt == null || key.getNotBefore().isBefore(supersededAt))) {
+                supersededAt = key.getNotBefore();
+            }
+        }
+        return live;
+    }
+
+    private void rotateIfDue() {
+        List<SigningKey> fileKeys = readKeyRingFile();
+        Instant now = Instant.now();
+        Instant newest = fileKeys.stream().map(SigningKey::getNotBefore).max(Comparator.naturalOrder()).orElse(null);
+
+        List<SigningKey> kept = liveKeys(fileKeys, now);
+        boolean changed = kept.size() != fileKeys.size();
+
+        if (newest == null || !newest.plus(rotationInterval).isAfter(now)) {
+            // First key is usable immediately; later ones wait until other nodes have reloaded
+            Instant notBefore = newest == null ? now : now.plusMillis(reloadIntervalMs * 2);
+            SigningKey generated = new SigningKey(newKid(now), Keys.secretKeyFor(SignatureAlgorithm.HS256), notBefore);
+            kept.add(generated);
+            changed = true;
+            logger.info("Generated JWT key {} (active from {})", generated.getKid(), notBefore);
+        }
+
+        if (changed) {
+            writeKeyRingFile(kept);
+        }
+    }
+
+    private boolean hasKeyRingFile() {
+        return keyRingPath != null && !keyRingPath.isBlank();
+    }
+
+    private List<SigningKey> readKeyRingFile() {
+        Path path = Paths.get(keyRingPath);
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+        try {
+            String content = String.join(",", Files.readAllLines(path, StandardCharsets.UTF_8));
+            return parseEntries(content, path.toString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT key ring file " + path, e);
+        }
+    }
+
+    private void writeKeyRingFile(List<SigningKey> keys) {
+        Path path = Paths.get(keyRingPath).toAbsolutePath();
+        StringBuilder content = new StringBuilder("# JWT signing keys: kid:base64Secret:notBeforeEpochSeconds\n");
+        for (SigningKey key : keys) {
+            content.append(key.getKid()).append(':')
+                   .append(Base64.getEncoder().encodeToString(key.getKey().getEncoded())).append(':')
+                   .append(key.getNotBefore().getEpochSecond()).append('\n');
+        }
+        try {
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), ".jwt-keyring", ".tmp");
+            try {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                logger.debug("Key ring file system does not support POSIX permissions");
+            }
+            Files.write(tmp, content.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write JWT key ring file " + path, e);
+        }
+    }
+
+    private static List<SigningKey> parseEntries(String value, String source) {
+        List<SigningKey> keys = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return keys;
+        }
+        for (String raw : value.split(",")) {
+            String entry = raw.trim();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalStateException("Malformed JWT key entry in " + source + " (expected kid:base64Secret[:notBefore])");
+            }
+            Instant notBefore = parts.length == 3 ? Instant.ofEpochSecond(Long.parseLong(parts[2].trim())) : Instant.EPOCH;
+            Key key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(parts[1].trim()));
+            keys.add(new SigningKey(parts[0].trim(), key, notBefore));
+        }
+        return keys;
+    }
+
+    private static String newKid(Instant now) {
+        return "k" + now.getEpochSecond() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public static final class SigningKey {
+        private final String kid;
+        private final Key key;
+        private final Instant notBefore;
+
+        SigningKey(String kid, Key key, Instant notBefore) {
+            this.kid = kid;
+            this.key = key;
+            this.notBefore = notBefore;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public Key getKey() {
+            return key;
+        }
+
+        public Instant getNotBefore() {
+            return notBefore;
+        }
+    }
+}
@@ -1,27 +1,44 @@
 package com.ExamPort.ExamPort.Security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
 public class JwtUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
-    public Key getKey() {
-        return key;
-    }
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // JwtParser is immutable and thread-safe, so one instance serves every request;
+    // the verification key is looked up per token by its kid header
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return keyRing.getVerificationKey(header.getKeyId());
+                }
+            })
+            .build();
     private final long EXPIRATION_TIME = 1000 * 60 * 60 * 5; // 5 hours
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     public String generateToken(String username, String role) {
         logger.debug("Generating JWT token for user: {} with role: {}", username, role);
         
@@ -31,12 +48,14 @@ public class JwtUtil {
             String springRole = role.startsWith("ROLE_") ? role : ("ROLE_" + role.toUpperCase());
             claims.put("roles", java.util.Arrays.asList(springRole));
             
+            JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
             String token = Jwts.builder()
+                    .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
                     .setClaims(claims)
                     .setSubject(username)
                     .setIssuedAt(new Date(System.currentTimeMillis()))
                     .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                    .signWith(key)
+                    .signWith(signingKey.getKey())
                     .compact();
             
             logger.info("JWT token generated successfully for user: {}", username);
@@ -47,9 +66,32 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Verifies the token once and returns its subject and roles. Tokens verified
+     * recently are answered from {@link VerifiedTokenCache} without re-checking
+     * the signature; invalid or expired tokens throw a JwtException.
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parseClaims(token);
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), roles, expiresAt);
+        verifiedTokenCache.put(token, verified);
+        return verified;
+    }
+
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String extractUsername(String token) {
         try {
-            String username = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+            String username = parseClaims(token).getSubject();
             logger.debug("Extracted username from token: {}", username);
             return username;
         } catch (Exception e) {
@@ -60,7 +102,7 @@ public class JwtUtil {
 
     public String extractRole(String token) {
         try {
-            String role = (String) Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().get("role");
+            String role = (String) parseClaims(token).get("role");
             logger.debug("Extracted role from token: {}", role);
             return role;
         } catch (Exception e) {
@@ -0,0 +1,196 @@
+package com.ExamPort.ExamPort.Security;
+
+import com.ExamPort.ExamPort.Config.LoggingConfig;
+import com.ExamPort.ExamPort.Exception.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies every matching {@link RateLimitProperties} rule to a request and answers 429 with
+ * Retry-After as soon as one of the client's buckets is empty. Runs after JWT authentication so
+ * USER-keyed rules can see the principal; USERNAME-keyed rules buffer the (small) request body to
+ * read the submitted username and pass the buffered copy on. Not a bean on purpose: it is only
+ * added to the security filter chain.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        for (Map.Entry<String, RateLimitProperties.Rule> entry : properties.getRules().entrySet()) {
+            RateLimitProperties.Rule rule = entry.getValue();
+            if (!matches(rule, method, path)) {
+                continue;
+            }
+            if (rule.getKey() == RateLimitProperties.KeyType.USERNAME && !(request instanceof BufferedBodyRequest)) {
+                request = new BufferedBodyRequest(request);
+            }
+            long waitNanos = rateLimiter.tryAcquire(entry.getKey(), rule, clientKey(rule, request));
+            if (waitNanos > 0) {
+                reject(request, response, entry.getKey(), waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean matches(RateLimitProperties.Rule rule, String method, String path) {
+        if (rule.getPath() == null) {
+            return false;
+        }
+        if (rule.getMethod() != null && !rule.getMethod().isBlank() && !rule.getMethod().equalsIgnoreCase(method)) {
+            return false;
+        }
+        return pathMatcher.match(rule.getPath(), path);
+    }
+
+    private String clientKey(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getKey() == RateLimitProperties.KeyType.USER) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                return "user:" + auth.getName();
+            }
+        } else if (rule.getKey() == RateLimitProperties.KeyType.USERNAME) {
+            String username = submittedUsername((BufferedBodyRequest) request);
+            if (username != null) {
+                return "username:" + username;
+            }
+        }
+        return "ip:" + LoggingConfig.getClientIpAddress(request);
+    }
+
+    /**
+     * The {@code username} field of a JSON body, case-folded so "Alice" and "alice" share a
+     * bucket, or null when the body has none.
+     */
+    private String submittedUsername(BufferedBodyRequest request) {
+        try {
+            JsonNode username = objectMapper.readTree(request.body).path("username");
+            if (username.isTextual() && !username.asText().isBlank()) {
+                return username.asText().trim().toLowerCase(Locale.ROOT);
+            }
+        } catch (IOException e) {
+            logger.debug("Rate limit could not read a username from {}: {}", request.getRequestURI(), e.getMessage());
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String ruleName, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        logger.warn("Rate limit '{}' exceeded for {} {} from {}", ruleName, request.getMethod(),
+                    request.getRequestURI(), LoggingConfig.getClientIpAddress(request));
+
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .message("Too many requests. Please try again in " + retryAfterSeconds + " seconds.")
+                .path(request.getRequestURI())
+                .retryable(true)
+                .errorCode("RATE_LIMITED")
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Reads the body once so a rate-limit key can be taken from it, then serves the same bytes to
+     * the handler.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
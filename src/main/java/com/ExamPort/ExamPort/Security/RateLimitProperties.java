@@ -0,0 +1,98 @@
+package com.ExamPort.ExamPort.Security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route limits bound from {@code app.rate-limit.rules.<name>.*}. Every rule matching a
+ * request takes a token, in declaration order, and the first empty bucket rejects it; this lets a
+ * route carry a per-account limit under a much higher per-address ceiling. The rule name labels
+ * the rejection counters.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    public enum KeyType {
+        IP,
+        USER,
+        /** The {@code username} field of a JSON request body, for sign-in routes */
+        USERNAME
+    }
+
+    private boolean enabled = true;
+
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static class Rule {
+        /** Ant-style path pattern, e.g. /api/exams/{id}/submit */
+        private String path;
+        /** HTTP method to match; blank matches any */
+        private String method;
+        /** Burst size: requests allowed back-to-back from a full bucket */
+        private int capacity = 10;
+        /** Sustained rate the bucket refills at */
+        private double refillPerMinute = 10;
+        /** USER and USERNAME fall back to the client IP when there is no user or username */
+        private KeyType key = KeyType.IP;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerMinute() {
+            return refillPerMinute;
+        }
+
+        public void setRefillPerMinute(double refillPerMinute) {
+            this.refillPerMinute = refillPerMinute;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+    }
+}
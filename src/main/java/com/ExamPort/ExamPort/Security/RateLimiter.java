@@ -0,0 +1,174 @@
+package com.ExamPort.ExamPort.Security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process token buckets keyed by rule and client (IP or user).
+ *
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the GCRA
+ * formulation of a token bucket), updated with a CAS loop, so the hot path takes no locks.
+ * Idle buckets are evicted by a hashed time wheel: a bucket is queued in the slot where it
+ * will have fully refilled and is dropped when that slot comes round, since a full bucket
+ * is indistinguishable from a new one.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final int WHEEL_SLOTS = 64;
+    private static final long TICK_MILLIS = 1000;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Queue<String>[] wheel = new Queue[WHEEL_SLOTS];
+    private volatile long currentTick;
+
+    private final ConcurrentHashMap<String, LongAdder> allowedByRule = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> rejectedByRule = new ConcurrentHashMap<>();
+
+    public RateLimiter() {
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Takes one token for the client under the given rule.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String ruleName, RateLimitProperties.Rule rule, String clientKey) {
+        long now = System.nanoTime();
+        String key = ruleName + '|' + clientKey;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> {
+                Bucket created = new Bucket(rule, now);
+                schedule(k, ticksUntil(created.fullAfterNanos()));
+                return created;
+            });
+        }
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            allowedByRule.computeIfAbsent(ruleName, r -> new LongAdder()).increment();
+        } else {
+            rejectedByRule.computeIfAbsent(ruleName, r -> new LongAdder()).increment();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Advances the wheel one slot and evicts buckets in it that have fully refilled.
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        long tick = currentTick + 1;
+        currentTick = tick;
+        Queue<String> slot = wheel[(int) (tick % WHEEL_SLOTS)];
+        long now = System.nanoTime();
+        int evicted = 0;
+        // Only drain what was present at the start; rescheduled keys go to later slots
+        for (int pending = slot.size(); pending > 0; pending--) {
+            String key = slot.poll();
+            if (key == null) {
+                break;
+            }
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            long remaining = bucket.nanosUntilFull(now);
+            if (remaining <= 0) {
+                if (buckets.remove(key, bucket)) {
+                    evicted++;
+                }
+            } else {
+                schedule(key, ticksUntil(remaining));
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate-limit buckets, {} active", evicted, buckets.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeBuckets", buckets.size());
+        Map<String, Object> rules = new LinkedHashMap<>();
+        allowedByRule.forEach((rule, count) -> {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("allowed", count.sum());
+            LongAdder rejected = rejectedByRule.get(rule);
+            counts.put("rejected", rejected != null ? rejected.sum() : 0L);
+            rules.put(rule, counts);
+        });
+        rejectedByRule.forEach((rule, count) -> rules.putIfAbsent(rule, Map.of("allowed", 0L, "rejected", count.sum())));
+        stats.put("rules", rules);
+        return stats;
+    }
+
+    public long getRejectedCount(String ruleName) {
+        LongAdder rejected = rejectedByRule.get(ruleName);
+        return rejected != null ? rejected.sum() : 0L;
+    }
+
+    private void schedule(String key, long ticksAhead) {
+        long slot = currentTick + Math.max(1, Math.min(ticksAhead, WHEEL_SLOTS - 1));
+        wheel[(int) (slot % WHEEL_SLOTS)].offer(key);
+    }
+
+    private static long ticksUntil(long nanos) {
+        return nanos / TICK_NANOS + 1;
+    }
+
+    private static final class Bucket {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        // Theoretical arrival time: when the bucket would be back to full if no more requests came
+        private final AtomicLong tat;
+
+        Bucket(RateLimitProperties.Rule rule, long now) {
+            double perMinute = rule.getRefillPerMinute() > 0 ? rule.getRefillPerMinute() : 1;
+            this.intervalNanos = Math.max(1L, (long) (TimeUnit.MINUTES.toNanos(1) / perMinute));
+            this.toleranceNanos = intervalNanos * Math.max(0, rule.getCapacity() - 1);
+            this.tat = new AtomicLong(now);
+        }
+
+        long tryAcquire(long now) {
+            while (true) {
+                long current = tat.get();
+                long ahead = current - now;
+                if (ahead > toleranceNanos) {
+                    return ahead - toleranceNanos;
+                }
+                long next = Math.max(current, now) + intervalNanos;
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        long nanosUntilFull(long now) {
+            return tat.get() - now;
+        }
+
+        long fullAfterNanos() {
+            return toleranceNanos + intervalNanos;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.ExamPort.ExamPort.Security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,9 +19,22 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // BCrypt cost factor; hashes below it are upgraded on the next successful login
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -41,12 +56,16 @@ public class SecurityConfig {
                 .antMatchers("/api/auth/**", "/welcome", "/health", "/api/courses/public", "/api/test/**", "/api/public/**").permitAll()
                 .antMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                 
+                // Actuator is served on the internal management port only (management.server.port)
+                .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                
                 // Review endpoints - public access for landing page
                 .antMatchers(org.springframework.http.HttpMethod.GET, "/api/reviews/public", "/api/reviews/recent", "/api/reviews/statistics", "/api/reviews/test").permitAll()
                 
                 // Course endpoints
                 .antMatchers(org.springframework.http.HttpMethod.GET, "/api/courses/public").permitAll()
                 .antMatchers(org.springframework.http.HttpMethod.POST, "/api/courses/create").hasAnyRole("ADMIN", "INSTRUCTOR")
+                .antMatchers("/api/courses/*/roster", "/api/courses/*/roster/**").hasAnyRole("ADMIN", "INSTRUCTOR")
                 .antMatchers("/api/courses/**").authenticated()
                 
                 // Exam endpoints
@@ -59,7 +78,8 @@ public class SecurityConfig {
                 // Enrollment endpoints
                 .antMatchers("/api/enrollments/**").authenticated()
                 
-                // Payment endpoints
+                // Payment endpoints (webhook is authenticated by its HMAC signature)
+                .antMatchers(org.springframework.http.HttpMethod.POST, "/api/payments/webhook").permitAll()
                 .antMatchers("/api/payments/**").authenticated()
                 
                 // Allow contact form submissions without authentication
@@ -75,7 +95,9 @@ public class SecurityConfig {
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // After JWT authentication so per-user rules can key on the principal
+            .addFilterAfter(new RateLimitFilter(rateLimiter, rateLimitProperties, objectMapper), JwtAuthenticationFilter.class);
         return http.build();
     }
 }
@@ -0,0 +1,52 @@
+package com.ExamPort.ExamPort.Security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable result of a successful JWT verification: the subject, its granted
+ * authorities and the token expiry. Instances are shared between requests via
+ * {@link VerifiedTokenCache}, so nothing here may be mutated after construction.
+ */
+public final class VerifiedToken {
+
+    private final String username;
+    private final List<String> roles;
+    private final List<GrantedAuthority> authorities;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String username, List<String> roles, long expiresAtMillis) {
+        this.username = username;
+        this.roles = roles != null ? Collections.unmodifiableList(new ArrayList<>(roles)) : Collections.emptyList();
+        List<GrantedAuthority> granted = new ArrayList<>(this.roles.size());
+        for (String role : this.roles) {
+            granted.add(new SimpleGrantedAuthority(role));
+        }
+        this.authorities = Collections.unmodifiableList(granted);
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
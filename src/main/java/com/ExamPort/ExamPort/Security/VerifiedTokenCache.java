@@ -0,0 +1,111 @@
+package com.ExamPort.ExamPort.Security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded Caffeine cache of recently verified JWTs so repeat requests carrying
+ * the same bearer token skip signature verification and claims parsing. Reads
+ * take no shared lock, so the cache does not serialize authenticated requests.
+ *
+ * Entries are keyed by a SHA-256 digest of the token (the raw token is never
+ * retained) and expire together with the token itself. A max size of zero or
+ * less disables the cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final int maxEntries;
+    private final Cache<String, VerifiedToken> entries;
+
+    public VerifiedTokenCache(@Value("${app.jwt.verified-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxEntries))
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return remainingNanos(token);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return remainingNanos(token);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        logger.info("Verified JWT cache initialized with max {} entries", maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Returns the cached verification for the token, or null when it is unknown
+     * or has expired since it was cached.
+     */
+    public VerifiedToken get(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+        VerifiedToken cached = entries.getIfPresent(digest(token));
+        // Caffeine expires entries lazily; never hand out a token past its expiry
+        if (cached != null && cached.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!isEnabled() || verified.isExpired(System.currentTimeMillis())) {
+            return;
+        }
+        entries.put(digest(token), verified);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    private static long remainingNanos(VerifiedToken token) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.getExpiresAtMillis() - System.currentTimeMillis()));
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
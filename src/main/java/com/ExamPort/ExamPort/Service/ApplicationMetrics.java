@@ -0,0 +1,64 @@
+package com.ExamPort.ExamPort.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Business counters published with the HTTP, JVM and connection pool metrics at
+ * {@code /actuator/prometheus}. Each counter is tagged with an {@code outcome} so failure rates
+ * can be graphed next to the totals.
+ */
+@Component
+public class ApplicationMetrics {
+
+    public enum LoginOutcome { SUCCESS, BAD_CREDENTIALS, UNVERIFIED, ERROR }
+
+    public enum SubmissionOutcome { SUCCESS, DUPLICATE, REJECTED, ERROR }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<LoginOutcome, Counter> logins = new EnumMap<>(LoginOutcome.class);
+    private final Map<SubmissionOutcome, Counter> submissions = new EnumMap<>(SubmissionOutcome.class);
+    private Counter emailsSent;
+    private Counter emailsFailed;
+
+    @PostConstruct
+    public void init() {
+        // Registered up front so every outcome is exported as 0 before it first happens
+        for (LoginOutcome outcome : LoginOutcome.values()) {
+            logins.put(outcome, counter("examport.auth.logins", "Login attempts", outcome.name()));
+        }
+        for (SubmissionOutcome outcome : SubmissionOutcome.values()) {
+            submissions.put(outcome, counter("examport.exam.submissions", "Exam submissions", outcome.name()));
+        }
+        emailsSent = counter("examport.emails", "Emails handed to the SMTP server", "SENT");
+        emailsFailed = counter("examport.emails", "Emails handed to the SMTP server", "FAILED");
+    }
+
+    public void recordLogin(LoginOutcome outcome) {
+        logins.get(outcome).increment();
+    }
+
+    public void recordSubmission(SubmissionOutcome outcome) {
+        submissions.get(outcome).increment();
+    }
+
+    public void recordEmail(boolean sent) {
+        (sent ? emailsSent : emailsFailed).increment();
+    }
+
+    private Counter counter(String name, String description, String outcome) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("outcome", outcome.toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+}
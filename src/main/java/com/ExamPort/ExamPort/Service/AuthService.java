@@ -8,13 +8,14 @@ import com.ExamPort.ExamPort.Repository.VerificationTokenRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 @Service
 public class AuthService {
@@ -30,7 +31,13 @@ public class AuthService {
     @Autowired
     private EmailService emailService;
     
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    // Runs the hash upgrade's DB write so it does not hold a hashing thread
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
     
     /**
      * Generate and send email verification token
@@ -182,7 +189,7 @@ public class AuthService {
             
             // Update user password
             User user = resetToken.getUser();
-            user.setPassword(passwordEncoder.encode(newPassword));
+            user.setPassword(passwordHashingService.encode(newPassword));
             userRepository.save(user);
             
             // Mark token as used
@@ -201,6 +208,32 @@ public class AuthService {
         }
     }
     
+    /**
+     * Re-hash a successfully verified password when its stored hash uses an older, cheaper
+     * BCrypt cost. Hashes on the hashing pool, saves on the task executor, and never delays the
+     * login response.
+     */
+    public void upgradePasswordHashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsUpgrade(user.getPassword())) {
+            return;
+        }
+        try {
+            passwordHashingService.encodeAsync(rawPassword)
+                .thenAcceptAsync(hash -> {
+                    userRepository.updatePassword(user.getId(), hash);
+                    passwordHashingService.recordUpgrade();
+                    logger.info("Upgraded password hash cost for user: {}", user.getUsername());
+                }, taskExecutor)
+                .exceptionally(e -> {
+                    logger.warn("Failed to upgrade password hash for user: {}", user.getUsername(), e);
+                    return null;
+                });
+        } catch (Exception e) {
+            // Pool saturated - the upgrade will be retried on the next login
+            logger.debug("Skipping password hash upgrade for user: {}", user.getUsername());
+        }
+    }
+    
     /**
      * Check if token is valid
      */
@@ -0,0 +1,214 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs long request-triggered jobs (large rosters, bulk deletes) one at a time on a background
+ * thread and keeps their progress for polling.
+ *
+ * Jobs live in memory for {@code app.jobs.retention} after they finish; a restart loses queued
+ * and finished jobs, and callers re-submit. The queue is bounded and a full queue rejects new jobs.
+ */
+@Service
+public class BackgroundJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundJobService.class);
+
+    public enum JobStatus { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Work done by a job; the returned map is reported as the job's result.
+     */
+    @FunctionalInterface
+    public interface Work {
+        Map<String, Object> run(Progress progress) throws Exception;
+    }
+
+    @Value("${app.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.jobs.retention:PT1H}")
+    private Duration retention;
+
+    private ThreadPoolExecutor runner;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        runner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "background-job");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Queue a job. When called inside a transaction the job is only queued once that transaction
+     * commits, so it never runs against rows that are not visible yet.
+     *
+     * @param type short job type reported with the job, e.g. "roster"
+     * @param attributes identifying values reported with the job, e.g. the course ID
+     * @param total expected amount of work, or 0 if unknown
+     * @return the job ID to poll
+     * @throws RejectedExecutionException if too many jobs are already waiting
+     */
+    public String submit(String type, Map<String, Object> attributes, long total, Work work) {
+        if (runner.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Background job queue is full");
+        }
+        pruneFinishedJobs();
+        Job job = new Job(UUID.randomUUID().toString(), type, attributes, total);
+        jobs.put(job.id, job);
+        Runnable task = () -> run(job, work);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(job, task);
+                    } else {
+                        jobs.remove(job.id);
+                    }
+                }
+            });
+        } else {
+            enqueue(job, task);
+        }
+        logger.info("Queued {} job {} {}", type, job.id, attributes);
+        return job.id;
+    }
+
+    /**
+     * @return the job's status and progress, or null if it is unknown or expired
+     */
+    public Map<String, Object> getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.toMap() : null;
+    }
+
+    private void enqueue(Job job, Runnable task) {
+        try {
+            runner.execute(task);
+        } catch (RejectedExecutionException e) {
+            job.fail("Background job queue is full");
+            logger.warn("{} job {} rejected: queue full", job.type, job.id);
+        }
+    }
+
+    private void run(Job job, Work work) {
+        job.status = JobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            job.result = work.run(job.progress);
+            job.status = JobStatus.COMPLETED;
+        } catch (Exception e) {
+            logger.error("{} job {} {} failed", job.type, job.id, job.attributes, e);
+            job.fail(e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    /**
+     * Progress counter a running job advances as it goes.
+     */
+    public static final class Progress {
+        private final AtomicLong done = new AtomicLong();
+        private volatile long total;
+
+        Progress(long total) {
+            this.total = total;
+        }
+
+        public void add(long amount) {
+            done.addAndGet(amount);
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getDone() {
+            return done.get();
+        }
+    }
+
+    private static final class Job {
+        final String id;
+        final String type;
+        final Map<String, Object> attributes;
+        final Progress progress;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        volatile JobStatus status = JobStatus.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile Map<String, Object> result;
+        volatile String error;
+
+        Job(String id, String type, Map<String, Object> attributes, long total) {
+            this.id = id;
+            this.type = type;
+            this.attributes = attributes;
+            this.progress = new Progress(total);
+        }
+
+        void fail(String message) {
+            error = message;
+            status = JobStatus.FAILED;
+            if (finishedAt == null) {
+                finishedAt = LocalDateTime.now();
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("jobId", id);
+            map.put("type", type);
+            map.putAll(attributes);
+            map.put("status", status);
+            map.put("done", progress.getDone());
+            map.put("total", progress.total);
+            map.put("submittedAt", submittedAt);
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            if (result != null) {
+                map.put("result", result);
+            }
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lifecycle shared by the in-memory indexes: one background loader thread, a full load once the
+ * application is ready and on demand, and changes applied only after the transaction that made
+ * them commits. Subclasses keep their data in {@link SwappableIndex}es and schedule their own
+ * periodic rebuild.
+ */
+public abstract class BackgroundLoadedIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundLoadedIndex.class);
+
+    private final String name;
+    private final int queueCapacity;
+
+    private ThreadPoolExecutor loader;
+    private final AtomicBoolean rebuildInFlight = new AtomicBoolean();
+
+    /**
+     * @param name          loader thread name, also used in log messages
+     * @param queueCapacity loader tasks that may wait behind the running one
+     */
+    protected BackgroundLoadedIndex(String name, int queueCapacity) {
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+    }
+
+    protected abstract boolean isEnabled();
+
+    /**
+     * Load every index from the database. Runs on the loader thread.
+     */
+    protected abstract void rebuild();
+
+    @PostConstruct
+    public void init() {
+        loader = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (isEnabled()) {
+            startRebuild();
+        }
+    }
+
+    /**
+     * Start a full rebuild in the background.
+     * @return false if one is already running
+     */
+    public boolean startRebuild() {
+        if (!rebuildInFlight.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    logger.error("Rebuild of {} failed", name, e);
+                } finally {
+                    rebuildInFlight.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rebuildInFlight.set(false);
+            return false;
+        }
+    }
+
+    protected boolean isRebuilding() {
+        return rebuildInFlight.get();
+    }
+
+    /**
+     * Queue work on the loader thread, behind any running load.
+     * @return false if the queue is full or the index is shutting down
+     */
+    protected boolean runOnLoader(Runnable task) {
+        try {
+            loader.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Run the action once the current transaction commits, or now if there is none. Nothing runs
+     * while the index is disabled, and nothing runs for a rolled-back transaction.
+     */
+    protected void afterCommit(Runnable action) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
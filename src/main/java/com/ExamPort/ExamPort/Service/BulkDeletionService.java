@@ -0,0 +1,143 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Repository.CourseRepository;
+import com.ExamPort.ExamPort.Repository.UserRepository;
+import com.ExamPort.ExamPort.Repository.VerificationTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Set-based deletes for course enrollments and user accounts.
+ *
+ * Rows are removed with {@code DELETE ... LIMIT chunk-size} statements, each in its own short
+ * transaction, so a large course or an active student never holds row locks (or fills the undo
+ * log) for the whole delete and no entity is loaded just to be removed. Deletes larger than
+ * {@code async-threshold} rows run as a {@link BackgroundJobService} job.
+ */
+@Service
+public class BulkDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDeletionService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VerificationTokenRepository verificationTokenRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+
+    @Autowired
+    private BackgroundJobService backgroundJobService;
+
+    @Value("${app.bulk-delete.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.bulk-delete.async-threshold:5000}")
+    private long asyncThreshold;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        // Each chunk commits on its own, even when called from inside another transaction
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isLargeDelete(long rows) {
+        return rows > asyncThreshold;
+    }
+
+    /**
+     * Delete every enrollment of a course.
+     *
+     * @return number of enrollments deleted
+     */
+    public long deleteCourseEnrollments(Long courseId, BackgroundJobService.Progress progress) {
+        long deleted = deleteInChunks("DELETE FROM enrollments WHERE course_id = ? LIMIT ?", courseId, progress);
+        enrollmentIndex.reloadCourseAfterCommit(courseId);
+        logger.info("Deleted {} enrollments of course {}", deleted, courseId);
+        return deleted;
+    }
+
+    /**
+     * Queue the deletion of every enrollment of a course.
+     *
+     * @return the job ID to poll through {@link BackgroundJobService#getJob}
+     * @throws java.util.concurrent.RejectedExecutionException if too many jobs are already waiting
+     */
+    public String submitCourseEnrollmentDeletion(Long courseId, long expected) {
+        return backgroundJobService.submit("unenroll-all", Map.of("courseId", courseId), expected, progress -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("unenrolledCount", deleteCourseEnrollments(courseId, progress));
+            return result;
+        });
+    }
+
+    /**
+     * Delete a user and the rows that reference them. Reviews, tokens and instructor references
+     * (the tables with a foreign key to {@code users}) go first in one transaction, so the final
+     * delete of the user row has nothing left to trip over once the chunked deletes of results
+     * and enrollments have committed. A failure in that first step leaves the user untouched.
+     *
+     * @return number of rows removed or updated per table
+     */
+    public Map<String, Object> deleteUser(Long userId) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        chunkTransaction.executeWithoutResult(status -> {
+            counts.put("reviews", jdbcTemplate.update("DELETE FROM reviews WHERE user_id = ?", userId));
+            counts.put("verificationTokens", verificationTokenRepository.deleteByUserId(userId));
+            counts.put("coursesUnassigned", courseRepository.updateInstructorToNullByInstructorId(userId));
+        });
+
+        counts.put("results", deleteInChunks("DELETE FROM result WHERE user_id = ? LIMIT ?", userId, null));
+        counts.put("archivedResults", deleteInChunks("DELETE FROM result_archive WHERE user_id = ? LIMIT ?", userId, null));
+        counts.put("enrollments", deleteInChunks("DELETE FROM enrollments WHERE student_id = ? LIMIT ?", userId, null));
+        enrollmentIndex.removeStudentAfterCommit(userId);
+
+        chunkTransaction.executeWithoutResult(status -> {
+            counts.put("users", userRepository.deleteUserById(userId));
+            userDirectoryIndex.removeAfterCommit(userId);
+        });
+        logger.info("Deleted user {}: {}", userId, counts);
+        return counts;
+    }
+
+    private long deleteInChunks(String sql, Long id, BackgroundJobService.Progress progress) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = chunkTransaction.execute(status -> jdbcTemplate.update(sql, id, chunkSize));
+            total += deleted;
+            if (progress != null) {
+                progress.add(deleted);
+            }
+        } while (deleted == chunkSize);
+        return total;
+    }
+}
@@ -0,0 +1,234 @@
+package com.ExamPort.ExamPort.Service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Roaring-style compressed set of non-negative ints.
+ *
+ * Values are split by their high 16 bits into chunks. A chunk with at most 4096 values is a
+ * sorted {@code char[]} (2 bytes per value); a denser chunk switches to a 65536-bit bitmap
+ * (8 KB). Lookups are a binary search over the chunk keys followed by a binary search or a
+ * bit test. Not thread-safe; owners such as {@link EnrollmentIndex} guard access.
+ */
+final class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[0];
+    private Object[] chunks = new Object[0]; // char[] (sorted) or long[BITMAP_WORDS]
+    private int[] counts = new int[0];
+    private int chunkCount;
+    private long cardinality;
+
+    boolean contains(int value) {
+        int index = findChunk(highBits(value));
+        if (index < 0) {
+            return false;
+        }
+        char low = lowBits(value);
+        Object chunk = chunks[index];
+        if (chunk instanceof long[]) {
+            return (((long[]) chunk)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunk, 0, counts[index], low) >= 0;
+    }
+
+    /**
+     * @return true if the value was not already present
+     */
+    boolean add(int value) {
+        char high = highBits(value);
+        char low = lowBits(value);
+        int index = findChunk(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high);
+        }
+        Object chunk = chunks[index];
+        if (chunk instanceof long[]) {
+            long[] words = (long[]) chunk;
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            words[low >>> 6] |= bit;
+        } else {
+            char[] values = (char[]) chunk;
+            int count = counts[index];
+            int position = Arrays.binarySearch(values, 0, count, low);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (count == ARRAY_MAX) {
+                long[] words = toBitmap(values, count);
+                words[low >>> 6] |= 1L << low;
+                chunks[index] = words;
+            } else {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, count + (count >> 1))));
+                    chunks[index] = values;
+                }
+                System.arraycopy(values, position, values, position + 1, count - position);
+                values[position] = low;
+            }
+        }
+        counts[index]++;
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * @return true if the value was present
+     */
+    boolean remove(int value) {
+        int index = findChunk(highBits(value));
+        if (index < 0) {
+            return false;
+        }
+        char low = lowBits(value);
+        Object chunk = chunks[index];
+        if (chunk instanceof long[]) {
+            long[] words = (long[]) chunk;
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                return false;
+            }
+            words[low >>> 6] &= ~bit;
+            if (counts[index] - 1 == ARRAY_MAX) {
+                chunks[index] = toArray(words, ARRAY_MAX);
+            }
+        } else {
+            char[] values = (char[]) chunk;
+            int count = counts[index];
+            int position = Arrays.binarySearch(values, 0, count, low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, count - position - 1);
+        }
+        cardinality--;
+        if (--counts[index] == 0) {
+            removeChunk(index);
+        }
+        return true;
+    }
+
+    long cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Pass every value to the consumer in ascending order.
+     */
+    void forEach(IntConsumer consumer) {
+        for (int i = 0; i < chunkCount; i++) {
+            int high = keys[i] << 16;
+            Object chunk = chunks[i];
+            if (chunk instanceof long[]) {
+                long[] words = (long[]) chunk;
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    long bits = words[word];
+                    while (bits != 0) {
+                        consumer.accept(high | ((word << 6) + Long.numberOfTrailingZeros(bits)));
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunk;
+                for (int j = 0; j < counts[i]; j++) {
+                    consumer.accept(high | values[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Approximate heap bytes held by this bitmap, including array headers.
+     */
+    long sizeInBytes() {
+        long bytes = 16 + 3 * 16 + (long) keys.length * 2 + (long) chunks.length * 4 + (long) counts.length * 4 + 16;
+        for (int i = 0; i < chunkCount; i++) {
+            Object chunk = chunks[i];
+            bytes += chunk instanceof long[] ? 16 + BITMAP_WORDS * 8L : 16 + ((char[]) chunk).length * 2L;
+        }
+        return bytes;
+    }
+
+    /**
+     * Release spare capacity, e.g. after a bulk load.
+     */
+    void trim() {
+        keys = Arrays.copyOf(keys, chunkCount);
+        chunks = Arrays.copyOf(chunks, chunkCount);
+        counts = Arrays.copyOf(counts, chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            if (chunks[i] instanceof char[] && ((char[]) chunks[i]).length > counts[i]) {
+                chunks[i] = Arrays.copyOf((char[]) chunks[i], counts[i]);
+            }
+        }
+    }
+
+    private int findChunk(char high) {
+        return Arrays.binarySearch(keys, 0, chunkCount, high);
+    }
+
+    private void insertChunk(int index, char high) {
+        if (chunkCount == keys.length) {
+            int capacity = Math.max(4, chunkCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        System.arraycopy(counts, index, counts, index + 1, chunkCount - index);
+        keys[index] = high;
+        chunks[index] = new char[4];
+        counts[index] = 0;
+        chunkCount++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+        System.arraycopy(counts, index + 1, counts, index, chunkCount - index - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    private static long[] toBitmap(char[] values, int count) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int i = 0; i < count; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+        }
+        return words;
+    }
+
+    private static char[] toArray(long[] words, int count) {
+        char[] values = new char[count];
+        int position = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                values[position++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return values;
+    }
+
+    private static char highBits(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+}
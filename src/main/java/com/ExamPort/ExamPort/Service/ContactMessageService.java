@@ -28,6 +28,10 @@ public class ContactMessageService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Transactional
     public ContactMessage save(ContactMessage message) {
         logger.info("Saving contact message from: {} with subject: {}", message.getEmail(), message.getSubject());
         
@@ -77,6 +81,15 @@ public class ContactMessageService {
                                                       String referenceNumber, String searchTerm, Pageable pageable) {
         logger.info("Fetching contact messages with filters - email: {}, status: {}, referenceNumber: {}, searchTerm: {}", 
                    email, status, referenceNumber, searchTerm);
+        if (searchTerm != null) {
+            List<Long> ids = searchIndexService.searchContactMessages(searchTerm);
+            if (ids != null) {
+                if (ids.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+                return repository.findWithFiltersByIdIn(ids, email, status, startDate, endDate, referenceNumber, pageable);
+            }
+        }
         return repository.findWithFilters(email, status, startDate, endDate, referenceNumber, searchTerm, pageable);
     }
 
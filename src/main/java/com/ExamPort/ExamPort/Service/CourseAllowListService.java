@@ -0,0 +1,176 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Repository.CourseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Membership checks and counts for private course allow-lists.
+ *
+ * A course's allow-list is loaded once into a lower-cased hash set and kept in a Caffeine cache for
+ * {@code cache-ttl}, at most {@code cache-max-courses} courses, so repeated checks (exam lists,
+ * dashboards) do not touch the database. The list is counted before it is loaded: allow-lists
+ * larger than {@code cache-max-emails} are never read into memory, only their size is cached, and
+ * those checks use an indexed EXISTS query instead. Code
+ * that changes an allow-list calls {@link #invalidate}, which takes effect when its transaction
+ * commits.
+ */
+@Service
+public class CourseAllowListService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseAllowListService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Value("${app.allow-list.cache-ttl:PT5M}")
+    private Duration cacheTtl;
+
+    @Value("${app.allow-list.cache-max-courses:500}")
+    private int cacheMaxCourses;
+
+    @Value("${app.allow-list.cache-max-emails:20000}")
+    private int cacheMaxEmails;
+
+    private Cache<Long, CachedAllowList> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder existsQueries = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaxCourses)
+                .build();
+    }
+
+    /**
+     * Whether the email is on the course's allow-list (case-insensitive).
+     */
+    public boolean isAllowed(Long courseId, String email) {
+        if (courseId == null || email == null) {
+            return false;
+        }
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        CachedAllowList cached = cache.getIfPresent(courseId);
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            cached = cache.get(courseId, this::load);
+        }
+        return cached.emails != null ? cached.emails.contains(key) : existsQuery(courseId, email);
+    }
+
+    public long countAllowed(Long courseId) {
+        CachedAllowList cached = cache.getIfPresent(courseId);
+        if (cached != null) {
+            return cached.size;
+        }
+        return courseRepository.countAllowedEmailsByCourseId(courseId);
+    }
+
+    /**
+     * Allow-list sizes for several courses in one query; courses without allowed emails map to 0.
+     */
+    public Map<Long, Long> countAllowed(Collection<Long> courseIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (courseIds == null || courseIds.isEmpty()) {
+            return counts;
+        }
+        for (Long courseId : courseIds) {
+            counts.put(courseId, 0L);
+        }
+        for (Object[] row : courseRepository.countAllowedEmailsByCourseIds(courseIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Drop the cached allow-list of a course, after the current transaction commits if there is one.
+     */
+    public void invalidate(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        cache.invalidate(courseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Also after commit, in case a concurrent reader reloaded the old list in between
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(courseId);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long cachedEmails = 0;
+        for (CachedAllowList cached : cache.asMap().values()) {
+            cachedEmails += cached.emails != null ? cached.emails.size() : 0;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedCourses", cache.estimatedSize());
+        stats.put("cachedEmails", cachedEmails);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("existsQueries", existsQueries.sum());
+        return stats;
+    }
+
+    private CachedAllowList load(Long courseId) {
+        long size = courseRepository.countAllowedEmailsByCourseId(courseId);
+        if (size > cacheMaxEmails) {
+            // Remember only the size; membership for very large lists goes to the index
+            logger.debug("Allow-list of course {} has {} emails, checking membership by query", courseId, size);
+            return new CachedAllowList(null, size);
+        }
+        List<String> emails = courseRepository.findAllowedEmailsByCourseId(courseId);
+        Set<String> normalized = new HashSet<>(emails.size() * 2);
+        for (String email : emails) {
+            if (email != null) {
+                normalized.add(email.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        logger.debug("Loaded allow-list of course {} ({} emails)", courseId, emails.size());
+        return new CachedAllowList(normalized, emails.size());
+    }
+
+    private boolean existsQuery(Long courseId, String email) {
+        existsQueries.increment();
+        return courseRepository.isEmailAllowed(courseId, email.trim());
+    }
+
+    private static final class CachedAllowList {
+        final Set<String> emails;
+        final long size;
+
+        CachedAllowList(Set<String> emails, long size) {
+            this.emails = emails;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.EnrollmentStatus;
+import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import com.ExamPort.ExamPort.Repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a private course's email roster in bulk.
+ *
+ * Emails are resolved to students with chunked {@code IN} queries, diffed against the course's
+ * existing enrollments with a single query, and the missing enrollments are written with batched
+ * JDBC inserts. In replace mode, students no longer on the roster lose their free enrollment (paid
+ * enrollments are kept). Rosters above {@code async-threshold} emails run as a background job.
+ */
+@Service
+public class CourseRosterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseRosterService.class);
+
+    private static final int UNKNOWN_EMAIL_SAMPLE = 50;
+
+    public enum Mode { MERGE, REPLACE }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CourseAllowListService courseAllowListService;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private BackgroundJobService backgroundJobService;
+
+    // Bind parameters per IN query; MySQL has no hard limit but very long lists defeat the plan cache
+    @Value("${app.roster.lookup-chunk-size:1000}")
+    private int lookupChunkSize;
+
+    @Value("${app.roster.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.roster.async-threshold:1000}")
+    private int asyncThreshold;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isLargeRoster(Collection<String> emails) {
+        return emails != null && emails.size() > asyncThreshold;
+    }
+
+    /**
+     * Enroll every registered student on the roster who is not yet enrolled. Joins the caller's
+     * transaction when there is one.
+     */
+    public Map<String, Object> enrollRoster(Long courseId, Collection<String> emails) {
+        return transactionTemplate.execute(status -> apply(courseId, emails, Mode.MERGE, false));
+    }
+
+    /**
+     * Apply an uploaded roster to the course, updating its allowed emails as well as enrollments.
+     */
+    public Map<String, Object> applyRoster(Long courseId, Collection<String> emails, Mode mode) {
+        return transactionTemplate.execute(status -> apply(courseId, emails, mode, true));
+    }
+
+    /**
+     * Queue a roster for background processing, after the current transaction commits.
+     *
+     * @return the job ID to poll through {@link BackgroundJobService#getJob}
+     * @throws java.util.concurrent.RejectedExecutionException if too many jobs are already waiting
+     */
+    public String submitRosterJob(Long courseId, Collection<String> emails, Mode mode, boolean updateAllowedEmails) {
+        List<String> roster = new ArrayList<>(emails);
+        return backgroundJobService.submit("roster", Map.of("courseId", courseId, "mode", mode), roster.size(),
+                progress -> {
+                    Map<String, Object> result = transactionTemplate.execute(
+                            status -> apply(courseId, roster, mode, updateAllowedEmails));
+                    progress.add(roster.size());
+                    return result;
+                });
+    }
+
+    private Map<String, Object> apply(Long courseId, Collection<String> emails, Mode mode, boolean updateAllowedEmails) {
+        long startedAt = System.nanoTime();
+
+        // Dedupe case-insensitively, keeping the first spelling seen
+        Map<String, String> roster = new LinkedHashMap<>();
+        for (String email : emails) {
+            if (email != null && !email.isBlank()) {
+                roster.putIfAbsent(email.trim().toLowerCase(Locale.ROOT), email.trim());
+            }
+        }
+
+        Map<String, Long> studentIds = resolveStudents(roster.values());
+        List<String> unknown = new ArrayList<>();
+        for (Map.Entry<String, String> entry : roster.entrySet()) {
+            if (!studentIds.containsKey(entry.getKey())) {
+                unknown.add(entry.getValue());
+            }
+        }
+
+        Map<Long, String> enrolled = new HashMap<>();
+        for (Object[] row : enrollmentRepository.findStudentIdsAndEmailsByCourseId(courseId)) {
+            enrolled.put((Long) row[0], ((String) row[1]).toLowerCase(Locale.ROOT));
+        }
+
+        Set<Long> rosterStudentIds = new HashSet<>(studentIds.values());
+        List<Long> toEnroll = new ArrayList<>();
+        for (Long studentId : rosterStudentIds) {
+            if (!enrolled.containsKey(studentId)) {
+                toEnroll.add(studentId);
+            }
+        }
+        int[] inserted = insertEnrollments(courseId, toEnroll);
+        int added = inserted[0];
+        int addedUnconfirmed = inserted[1];
+
+        int removed = 0;
+        if (mode == Mode.REPLACE) {
+            List<Long> toRemove = new ArrayList<>();
+            for (Long studentId : enrolled.keySet()) {
+                if (!rosterStudentIds.contains(studentId)) {
+                    toRemove.add(studentId);
+                }
+            }
+            removed = removeFreeEnrollments(courseId, toRemove);
+        }
+        if (added > 0 || addedUnconfirmed > 0 || removed > 0) {
+            // Written with JDBC, so no entity callbacks reach the enrollment index
+            enrollmentIndex.reloadCourseAfterCommit(courseId);
+        }
+
+        if (updateAllowedEmails) {
+            updateAllowedEmails(courseId, roster, mode);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("courseId", courseId);
+        result.put("mode", mode);
+        result.put("rosterSize", roster.size());
+        result.put("added", added);
+        result.put("addedUnconfirmed", addedUnconfirmed);
+        result.put("removed", removed);
+        result.put("alreadyEnrolled", rosterStudentIds.size() - toEnroll.size());
+        result.put("unknown", unknown.size());
+        result.put("unknownEmails", unknown.size() > UNKNOWN_EMAIL_SAMPLE ? unknown.subList(0, UNKNOWN_EMAIL_SAMPLE) : unknown);
+        result.put("durationMillis", (System.nanoTime() - startedAt) / 1_000_000);
+        logger.info("Applied roster to course {} ({}): {} emails, {} added, {} unconfirmed, {} removed, {} unknown",
+                    courseId, mode, roster.size(), added, addedUnconfirmed, removed, unknown.size());
+        return result;
+    }
+
+    /**
+     * Lower-cased email to student ID for every registered user on the roster.
+     */
+    private Map<String, Long> resolveStudents(Collection<String> emails) {
+        Map<String, Long> studentIds = new HashMap<>();
+        List<String> all = new ArrayList<>(emails);
+        for (int from = 0; from < all.size(); from += lookupChunkSize) {
+            List<String> chunk = all.subList(from, Math.min(from + lookupChunkSize, all.size()));
+            for (Object[] row : userRepository.findIdAndEmailByEmailIn(chunk)) {
+                studentIds.put(((String) row[1]).toLowerCase(Locale.ROOT), (Long) row[0]);
+            }
+        }
+        return studentIds;
+    }
+
+    /**
+     * @return the rows the driver reported as inserted, and the rows it reported as
+     *         SUCCESS_NO_INFO (rewritten batches), which were either inserted or ignored as duplicates
+     */
+    private int[] insertEnrollments(Long courseId, List<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return new int[] {0, 0};
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String status = EnrollmentStatus.ENROLLED.name();
+        int inserted = 0;
+        int unconfirmed = 0;
+        // INSERT IGNORE: a student who enrolled between the diff and the insert hits the unique key and is skipped
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT IGNORE INTO enrollments (student_id, course_id, enrollment_date, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)",
+                studentIds, batchSize, (ps, studentId) -> {
+                    ps.setLong(1, studentId);
+                    ps.setLong(2, courseId);
+                    ps.setTimestamp(3, now);
+                    ps.setString(4, status);
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                });
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count >= 0) {
+                    inserted += count;
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    unconfirmed++;
+                }
+            }
+        }
+        return new int[] {inserted, unconfirmed};
+    }
+
+    private int removeFreeEnrollments(Long courseId, List<Long> studentIds) {
+        int removed = 0;
+        for (int from = 0; from < studentIds.size(); from += lookupChunkSize) {
+            List<Long> chunk = studentIds.subList(from, Math.min(from + lookupChunkSize, studentIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            List<Object> args = new ArrayList<>(chunk.size() + 2);
+            args.add(courseId);
+            args.add(EnrollmentStatus.ENROLLED.name());
+            args.addAll(chunk);
+            removed += jdbcTemplate.update(
+                    "DELETE FROM enrollments WHERE course_id = ? AND status = ? AND payment_transaction_id IS NULL " +
+                    "AND student_id IN (" + placeholders + ")", args.toArray());
+        }
+        return removed;
+    }
+
+    private void updateAllowedEmails(Long courseId, Map<String, String> roster, Mode mode) {
+        List<String> toInsert;
+        if (mode == Mode.REPLACE) {
+            jdbcTemplate.update("DELETE FROM course_allowed_emails WHERE course_id = ?", courseId);
+            toInsert = new ArrayList<>(roster.values());
+        } else {
+            Set<String> existing = new HashSet<>();
+            for (String email : jdbcTemplate.queryForList(
+                    "SELECT email FROM course_allowed_emails WHERE course_id = ?", String.class, courseId)) {
+                existing.add(email.toLowerCase(Locale.ROOT));
+            }
+            toInsert = new ArrayList<>();
+            for (Map.Entry<String, String> entry : roster.entrySet()) {
+                if (!existing.contains(entry.getKey())) {
+                    toInsert.add(entry.getValue());
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO course_allowed_emails (course_id, email) VALUES (?, ?)",
+                toInsert, batchSize, (ps, email) -> {
+                    ps.setLong(1, courseId);
+                    ps.setString(2, email);
+                });
+        courseAllowListService.invalidate(courseId);
+    }
+}
@@ -0,0 +1,268 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.EmailOutbox;
+import com.ExamPort.ExamPort.Entity.EmailOutboxStatus;
+import com.ExamPort.ExamPort.Repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the email outbox with a small pool of sender threads.
+ *
+ * Each poll claims a batch of due rows (a conditional UPDATE, so several nodes can share the
+ * table), splits it across the workers and sends over one pooled SMTP connection per worker
+ * thread (see {@link SmtpConnectionPool}). Failures are retried with exponential backoff; rows that
+ * exhaust their attempts or fail permanently move to DEAD for manual requeue.
+ *
+ * Besides the scheduled poll, EmailService calls {@link #wakeUp()} after the transaction that
+ * queued an email commits, so new emails go out without waiting for the next poll.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private SmtpConnectionPool smtpConnectionPool;
+
+    @Value("${app.email.from}")
+    private String fromEmail;
+
+    @Value("${app.email.outbox.workers:2}")
+    private int workerCount;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${app.email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${app.email.outbox.sending-timeout:PT10M}")
+    private Duration sendingTimeout;
+
+    private ThreadPoolExecutor workers;
+    private ExecutorService waker;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded by construction: the poller never queues more than one chunk per worker
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(workerCount),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        waker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-wakeup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Email outbox worker started with {} sender threads, batch size {}", workerCount, batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        waker.shutdown();
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs a poll on the wake-up thread. Only call this once the rows are committed, otherwise the
+     * poll can miss them; wake-ups that arrive while one is already queued are merged into it.
+     */
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            waker.execute(() -> {
+                wakeUpPending.set(false);
+                poll();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpPending.set(false); // shutting down; the rows stay PENDING for the next start
+        }
+    }
+
+    /**
+     * Synchronized so a wake-up and the scheduled poll never claim and split batches at the same time.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:2000}")
+    public synchronized void poll() {
+        if (inFlight.get() > 0) {
+            return; // previous batch still sending; leave due rows for other nodes
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int released = outboxRepository.releaseStale(now.minus(sendingTimeout),
+                    EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING);
+            if (released > 0) {
+                logger.warn("Released {} stale outbox emails left in SENDING", released);
+            }
+
+            List<Long> dueIds = outboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            if (dueIds.isEmpty()) {
+                return;
+            }
+            List<Long> claimed = new ArrayList<>(dueIds.size());
+            for (Long id : dueIds) {
+                if (outboxRepository.claim(id, now, EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING) == 1) {
+                    claimed.add(id);
+                }
+            }
+            if (claimed.isEmpty()) {
+                return;
+            }
+
+            List<EmailOutbox> batch = outboxRepository.findAllById(claimed);
+            int chunks = Math.min(workerCount, batch.size());
+            for (int i = 0; i < chunks; i++) {
+                List<EmailOutbox> chunk = new ArrayList<>();
+                for (int j = i; j < batch.size(); j += chunks) {
+                    chunk.add(batch.get(j));
+                }
+                inFlight.incrementAndGet();
+                workers.execute(() -> {
+                    try {
+                        sendChunk(chunk);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            logger.debug("Dispatched {} outbox emails to {} workers", batch.size(), chunks);
+        } catch (Exception e) {
+            logger.error("Email outbox poll failed", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<EmailOutboxStatus, Long> byStatus = new EnumMap<>(EmailOutboxStatus.class);
+        for (EmailOutboxStatus status : EmailOutboxStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (Object[] row : outboxRepository.countByStatus()) {
+            byStatus.put((EmailOutboxStatus) row[0], (Long) row[1]);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("byStatus", byStatus);
+        stats.put("sentSinceStartup", sent.sum());
+        stats.put("retriedSinceStartup", retried.sum());
+        stats.put("deadSinceStartup", dead.sum());
+        stats.put("smtpConnectionsOpened", smtpConnectionPool.getConnectionsOpened());
+        stats.put("inFlightChunks", inFlight.get());
+        return stats;
+    }
+
+    public boolean requeue(Long id) {
+        return outboxRepository.requeueDead(id, LocalDateTime.now(), EmailOutboxStatus.PENDING, EmailOutboxStatus.DEAD) == 1;
+    }
+
+    private void sendChunk(List<EmailOutbox> chunk) {
+        for (EmailOutbox email : chunk) {
+            FlightRecorderEvents.EmailDispatchedEvent event = new FlightRecorderEvents.EmailDispatchedEvent();
+            event.begin();
+            event.outboxId = email.getId();
+            event.emailType = email.getEmailType();
+            event.attempt = email.getAttempts() + 1;
+            try {
+                deliver(email);
+                event.sent = true;
+                event.commit();
+                outboxRepository.markSent(email.getId(), LocalDateTime.now(), EmailOutboxStatus.SENT);
+                sent.increment();
+                logger.info("Outbox email {} ({}) sent to {}", email.getId(), email.getEmailType(), email.getRecipient());
+            } catch (Exception e) {
+                if (!event.sent) {
+                    event.commit();
+                }
+                handleFailure(email, e);
+            }
+        }
+    }
+
+    private void deliver(EmailOutbox email) throws MessagingException {
+        MimeMessage message = smtpConnectionPool.createMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.isHtml(), "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        message.setSentDate(new Date());
+        message.saveChanges();
+        smtpConnectionPool.send(message);
+    }
+
+    private void handleFailure(EmailOutbox email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+        boolean permanent = e instanceof AddressException || e instanceof SendFailedException;
+        if (permanent || attempts >= maxAttempts) {
+            outboxRepository.markFailed(email.getId(), EmailOutboxStatus.DEAD, attempts, LocalDateTime.now(), error);
+            dead.increment();
+            logger.error("Outbox email {} ({}) to {} moved to DEAD after {} attempts: {}",
+                         email.getId(), email.getEmailType(), email.getRecipient(), attempts, error);
+            return;
+        }
+        long backoffMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+        // +/-20% jitter so a failed batch does not retry in lockstep
+        backoffMillis += (long) (backoffMillis * (ThreadLocalRandom.current().nextDouble() * 0.4 - 0.2));
+        LocalDateTime nextAttempt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+        outboxRepository.markFailed(email.getId(), EmailOutboxStatus.PENDING, attempts, nextAttempt, error);
+        retried.increment();
+        logger.warn("Outbox email {} ({}) to {} failed (attempt {}), retrying at {}: {}",
+                    email.getId(), email.getEmailType(), email.getRecipient(), attempts, nextAttempt, error);
+    }
+}
@@ -0,0 +1,159 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the HTML emails from the templates under {@code templates/email/}.
+ *
+ * Each template is split once at startup around its {@value #BODY_START} / {@value #BODY_END}
+ * markers. Everything before (doctype, head with the whole {@code <style>} block, fixed headings)
+ * and after (closing copy and footer) is kept as a ready-made string and copied verbatim into every
+ * message; only the section between the markers goes through Thymeleaf, whose parsed form is cached
+ * after the first render, so per-message work is limited to evaluating the variables.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateRenderer.class);
+
+    static final String BODY_START = "<!--/* body:start */-->";
+    static final String BODY_END = "<!--/* body:end */-->";
+
+    // Contains nothing Thymeleaf would escape, so it survives rendering verbatim
+    private static final String RECIPIENT_SLOT = "__EXAMWIZARDS_RECIPIENT_SLOT__";
+
+    public enum Template {
+        EXAM_RESULT("exam-result"),
+        EMAIL_VERIFICATION("email-verification"),
+        PASSWORD_RESET("password-reset"),
+        PAYMENT_RECEIPT("payment-receipt"),
+        CONTACT_NOTIFICATION("contact-notification"),
+        CONTACT_CONFIRMATION("contact-confirmation"),
+        CONTACT_STATUS_UPDATE("contact-status-update"),
+        EXAM_PUBLISHED("exam-published");
+
+        private final String fileName;
+
+        Template(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    private final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    private final Map<Template, CompiledTemplate> templates = new EnumMap<>(Template.class);
+
+    @PostConstruct
+    public void init() {
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCacheable(true);
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setEnableSpringELCompiler(true);
+
+        for (Template template : Template.values()) {
+            templates.put(template, load(template));
+        }
+        logger.info("Loaded {} email templates", templates.size());
+    }
+
+    public String render(Template template, Map<String, Object> variables) {
+        CompiledTemplate compiled = templates.get(template);
+        StringWriter writer = new StringWriter(compiled.expectedLength);
+        writer.write(compiled.head);
+        templateEngine.process(compiled.body, new Context(Locale.ENGLISH, variables), writer);
+        writer.write(compiled.footer);
+        String html = writer.toString();
+        // Grow the initial buffer to the largest message seen so later renders do not resize
+        if (html.length() > compiled.expectedLength) {
+            compiled.expectedLength = html.length();
+        }
+        return html;
+    }
+
+    /**
+     * Renders once for many recipients. The variable {@code slotVariable} is rendered as a
+     * placeholder and the output split around it, so each recipient only costs a concatenation.
+     */
+    public PersonalizedEmail renderPersonalized(Template template, Map<String, Object> variables, String slotVariable) {
+        Map<String, Object> withSlot = new HashMap<>(variables);
+        withSlot.put(slotVariable, RECIPIENT_SLOT);
+        return new PersonalizedEmail(render(template, withSlot).split(RECIPIENT_SLOT, -1));
+    }
+
+    private static CompiledTemplate load(Template template) {
+        String path = "templates/email/" + template.fileName + ".html";
+        String source;
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            source = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Email template not found: " + path, e);
+        }
+        int start = source.indexOf(BODY_START);
+        int end = source.indexOf(BODY_END);
+        if (start < 0 || end < start) {
+            throw new IllegalStateException("Email template " + path + " is missing its body markers");
+        }
+        return new CompiledTemplate(
+                source.substring(0, start).trim(),
+                source.substring(start + BODY_START.length(), end),
+                source.substring(end + BODY_END.length()).trim());
+    }
+
+    private static final class CompiledTemplate {
+        private final String head;
+        // Doubles as the StringTemplateResolver cache key; always passed as this same instance
+        private final String body;
+        private final String footer;
+        private volatile int expectedLength;
+
+        CompiledTemplate(String head, String body, String footer) {
+            this.head = head;
+            this.body = body;
+            this.footer = footer;
+            this.expectedLength = head.length() + body.length() + footer.length();
+        }
+    }
+
+    public static final class PersonalizedEmail {
+        private final String[] parts;
+        private final int fixedLength;
+
+        PersonalizedEmail(String[] parts) {
+            this.parts = parts;
+            int length = 0;
+            for (String part : parts) {
+                length += part.length();
+            }
+            this.fixedLength = length;
+        }
+
+        public String forRecipient(String value) {
+            String escaped = HtmlUtils.htmlEscape(value != null ? value : "");
+            StringBuilder html = new StringBuilder(fixedLength + (parts.length - 1) * escaped.length());
+            html.append(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                html.append(escaped).append(parts[i]);
+            }
+            return html.toString();
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.EnrollmentStatus;
+import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory index of enrollments for access checks and counts.
+ *
+ * Each course keeps two {@link CompressedBitmap}s of student IDs: students with an enrollment row
+ * in any status, and students whose enrollment is ENROLLED. The index is loaded at startup with a
+ * streaming query and rebuilt periodically. In between it is kept current by enrollment changes,
+ * which are applied once their transaction commits: entity events from {@link EnrollmentIndexListener}
+ * plus explicit calls from bulk updates that bypass the entity. Until the first load finishes,
+ * lookups go to the database.
+ *
+ * Loads run on the {@link BackgroundLoadedIndex} loader thread without blocking lookups; changes
+ * that commit during a load are replayed onto the new index by {@link SwappableIndex}. Each change
+ * carries the final state of one enrollment, so replaying it is safe.
+ *
+ * The index only sees changes committed on this node. With several nodes, a payment settled on
+ * another one (webhook worker, reconciliation) would be missing here until the next rebuild, so a
+ * negative answer from {@link #isEnrolled} or {@link #hasEnrollment} is confirmed against the
+ * database before access is denied. Cancellations and deletions made on other nodes still show
+ * up only at the next rebuild ({@code rebuild-interval-ms}); counts are answered from the index.
+ */
+@Service
+public class EnrollmentIndex extends BackgroundLoadedIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentIndex.class);
+
+    private static final String ENROLLED = EnrollmentStatus.ENROLLED.name();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Value("${app.enrollment-index.enabled:true}")
+    private boolean enabled;
+
+    private final SwappableIndex<Map<Long, CourseEnrollments>, Change> courses =
+            new SwappableIndex<>(new HashMap<>(), (index, change) -> change.applyTo(index));
+
+    private volatile long lastRebuildRows;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder databaseLookups = new LongAdder();
+    private final LongAdder confirmedNegatives = new LongAdder();
+    private final LongAdder correctedNegatives = new LongAdder();
+
+    public EnrollmentIndex() {
+        super("enrollment-index", 16);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return enabled;
+    }
+
+    // Safety net for changes made outside the application (manual SQL, cascades from other tables)
+    @Scheduled(fixedDelayString = "${app.enrollment-index.rebuild-interval-ms:3600000}",
+               initialDelayString = "${app.enrollment-index.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            startRebuild();
+        }
+    }
+
+    /**
+     * Whether the student has an enrollment in the course, in any status.
+     */
+    public boolean hasEnrollment(Long studentId, Long courseId) {
+        lookups.increment();
+        if (!courses.isReady() || !fitsInt(studentId)) {
+            databaseLookups.increment();
+            return enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId);
+        }
+        boolean indexed = courses.read(index -> {
+            CourseEnrollments course = index.get(courseId);
+            return course != null && course.all.contains(studentId.intValue());
+        });
+        return indexed || confirmNegative(enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId));
+    }
+
+    /**
+     * Whether the student is ENROLLED in the course.
+     */
+    public boolean isEnrolled(Long studentId, Long courseId) {
+        lookups.increment();
+        if (!courses.isReady() || !fitsInt(studentId)) {
+            databaseLookups.increment();
+            return enrollmentRepository.isStudentEnrolledInCourse(studentId, courseId);
+        }
+        boolean indexed = courses.read(index -> {
+            CourseEnrollments course = index.get(courseId);
+            return course != null && course.enrolled.contains(studentId.intValue());
+        });
+        return indexed || confirmNegative(enrollmentRepository.isStudentEnrolledInCourse(studentId, courseId));
+    }
+
+    /**
+     * The database's answer to a lookup the index answered no to; a yes means the change was
+     * committed on another node.
+     */
+    private boolean confirmNegative(boolean inDatabase) {
+        confirmedNegatives.increment();
+        if (inDatabase) {
+            correctedNegatives.increment();
+        }
+        return inDatabase;
+    }
+
+    /**
+     * Number of ENROLLED students in the course.
+     */
+    public long countEnrolled(Long courseId) {
+        lookups.increment();
+        if (!courses.isReady()) {
+            databaseLookups.increment();
+            return enrollmentRepository.countEnrolledStudentsByCourseId(courseId);
+        }
+        return courses.read(index -> {
+            CourseEnrollments course = index.get(courseId);
+            return course != null ? (long) course.enrolled.cardinality() : 0L;
+        });
+    }
+
+    /**
+     * Record the state of one enrollment once the current transaction commits.
+     * @param status the enrollment's status, or null if it was deleted
+     */
+    public void recordAfterCommit(Long courseId, Long studentId, EnrollmentStatus status) {
+        Change change = new Change(courseId, studentId, status != null ? status.name() : null, false);
+        afterCommit(() -> apply(change));
+    }
+
+    /**
+     * Drop a student from every course once the current transaction commits.
+     */
+    public void removeStudentAfterCommit(Long studentId) {
+        Change change = new Change(null, studentId, null, false);
+        afterCommit(() -> apply(change));
+    }
+
+    /**
+     * Reload one course from the database once the current transaction commits, for bulk changes
+     * whose individual rows are not known.
+     */
+    public void reloadCourseAfterCommit(Long courseId) {
+        Change change = new Change(courseId, null, null, true);
+        afterCommit(() -> apply(change));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        courses.read(index -> {
+            long enrolledEntries = 0;
+            long allEntries = 0;
+            long heapBytes = 0;
+            for (CourseEnrollments course : index.values()) {
+                enrolledEntries += course.enrolled.cardinality();
+                allEntries += course.all.cardinality();
+                heapBytes += course.all.sizeInBytes() + course.enrolled.sizeInBytes() + 48;
+            }
+            stats.put("enabled", enabled);
+            stats.put("ready", courses.isReady());
+            stats.put("rebuilding", isRebuilding());
+            stats.put("courses", index.size());
+            stats.put("enrolledEntries", enrolledEntries);
+            stats.put("enrollmentRows", allEntries);
+            stats.put("heapBytes", heapBytes);
+            return null;
+        });
+        stats.put("lastRebuildAt", courses.getLastLoadAt());
+        stats.put("lastRebuildMillis", courses.getLastLoadMillis());
+        stats.put("lastRebuildRows", lastRebuildRows);
+        stats.put("lookups", lookups.sum());
+        stats.put("databaseLookups", databaseLookups.sum());
+        stats.put("confirmedNegatives", confirmedNegatives.sum());
+        stats.put("correctedNegatives", correctedNegatives.sum());
+        stats.put("changesApplied", courses.getChangesApplied());
+        return stats;
+    }
+
+    @Override
+    protected void rebuild() {
+        long[] rows = new long[1];
+        Map<Long, CourseEnrollments> loaded = new HashMap<>();
+        List<Change> replayed = courses.load(() -> {
+            streamEnrollments("SELECT course_id, student_id, status FROM enrollments", null, resultSet -> {
+                CourseEnrollments course = loaded.computeIfAbsent(resultSet.getLong(1), id -> new CourseEnrollments());
+                course.apply(resultSet.getLong(2), resultSet.getString(3));
+                rows[0]++;
+            });
+            for (CourseEnrollments course : loaded.values()) {
+                course.trim();
+            }
+            return loaded;
+        });
+        // Bulk changes that committed while the scan ran may have been missed by it
+        for (Change change : replayed) {
+            if (change.reloadCourse) {
+                reloadCourse(change.courseId);
+            }
+        }
+        lastRebuildRows = rows[0];
+        logger.info("Enrollment index loaded {} enrollments for {} courses in {} ms",
+                    rows[0], loaded.size(), courses.getLastLoadMillis());
+    }
+
+    private void reloadCourse(Long courseId) {
+        courses.reload(() -> {
+            CourseEnrollments loaded = new CourseEnrollments();
+            streamEnrollments("SELECT course_id, student_id, status FROM enrollments WHERE course_id = ?", courseId,
+                    resultSet -> loaded.apply(resultSet.getLong(2), resultSet.getString(3)));
+            loaded.trim();
+            Map<Long, CourseEnrollments> single = new HashMap<>();
+            single.put(courseId, loaded);
+            return single;
+        }, (index, single) -> {
+            // Replayed changes for other courses may have landed in the scanned map; take only this course
+            CourseEnrollments course = single.get(courseId);
+            if (course != null) {
+                index.put(courseId, course);
+            } else {
+                index.remove(courseId);
+            }
+        });
+    }
+
+    private void streamEnrollments(String sql, Long courseId, RowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J streams rows one at a time instead of buffering the whole result
+            statement.setFetchSize(Integer.MIN_VALUE);
+            if (courseId != null) {
+                statement.setLong(1, courseId);
+            }
+            return statement;
+        }, (RowCallbackHandler) handler::handle);
+    }
+
+    private void apply(Change change) {
+        if (change.reloadCourse) {
+            // Kept for replay only: a rebuild that is running reloads the course once it swaps in
+            courses.apply(change);
+            if (courses.isReady()) {
+                // Off the committing thread; its connection belongs to the finished transaction
+                boolean queued = runOnLoader(() -> {
+                    try {
+                        reloadCourse(change.courseId);
+                    } catch (Exception e) {
+                        logger.error("Failed to reload enrollment index for course {}, rebuilding", change.courseId, e);
+                        startRebuild();
+                    }
+                });
+                if (!queued) {
+                    startRebuild();
+                }
+            }
+            return;
+        }
+        if (change.studentId != null && !fitsInt(change.studentId)) {
+            logger.warn("Student ID {} does not fit the enrollment index; lookups for it use the database", change.studentId);
+            return;
+        }
+        courses.apply(change);
+    }
+
+    private static boolean fitsInt(Long id) {
+        return id != null && id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet resultSet) throws java.sql.SQLException;
+    }
+
+    private static final class CourseEnrollments {
+        final CompressedBitmap all = new CompressedBitmap();
+        final CompressedBitmap enrolled = new CompressedBitmap();
+
+        void apply(long studentId, String status) {
+            if (!fitsInt(studentId)) {
+                return;
+            }
+            int id = (int) studentId;
+            if (status == null) {
+                all.remove(id);
+                enrolled.remove(id);
+                return;
+            }
+            all.add(id);
+            if (ENROLLED.equals(status)) {
+                enrolled.add(id);
+            } else {
+                enrolled.remove(id);
+            }
+        }
+
+        void trim() {
+            all.trim();
+            enrolled.trim();
+        }
+
+        boolean isEmpty() {
+            return all.isEmpty();
+        }
+    }
+
+    private static final class Change {
+        final Long courseId; // null: every course
+        final Long studentId;
+        final String status; // null: removed
+        final boolean reloadCourse;
+
+        Change(Long courseId, Long studentId, String status, boolean reloadCourse) {
+            this.courseId = courseId;
+            this.studentId = studentId;
+            this.status = status;
+            this.reloadCourse = reloadCourse;
+        }
+
+        void applyTo(Map<Long, CourseEnrollments> courses) {
+            if (reloadCourse) {
+                return; // the reload itself reads the committed rows
+            }
+            if (courseId == null) {
+                courses.values().removeIf(course -> {
+                    course.apply(studentId, null);
+                    return course.isEmpty();
+                });
+                return;
+            }
+            CourseEnrollments course = status != null
+                    ? courses.computeIfAbsent(courseId, id -> new CourseEnrollments())
+                    : courses.get(courseId);
+            if (course != null) {
+                course.apply(studentId, status);
+                if (course.isEmpty()) {
+                    courses.remove(courseId);
+                }
+            }
+        }
+    }
+}
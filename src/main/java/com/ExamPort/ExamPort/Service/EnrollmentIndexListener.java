@@ -0,0 +1,32 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.Enrollment;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Feeds enrollment inserts, updates and deletes made through JPA into {@link EnrollmentIndex}.
+ * Bulk JPQL and JDBC changes bypass entity callbacks and notify the index themselves.
+ */
+public class EnrollmentIndexListener {
+
+    // Resolved lazily: Hibernate creates listeners while the EntityManagerFactory is still being built
+    @Autowired
+    private ObjectProvider<EnrollmentIndex> enrollmentIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Enrollment enrollment) {
+        enrollmentIndex.getObject().recordAfterCommit(enrollment.getCourse().getId(), enrollment.getStudent().getId(),
+                                                      enrollment.getStatus());
+    }
+
+    @PostRemove
+    public void onRemoved(Enrollment enrollment) {
+        enrollmentIndex.getObject().recordAfterCommit(enrollment.getCourse().getId(), enrollment.getStudent().getId(), null);
+    }
+}
@@ -6,6 +6,7 @@ import com.ExamPort.ExamPort.Entity.EnrollmentStatus;
 import com.ExamPort.ExamPort.Entity.User;
 import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
 import com.ExamPort.ExamPort.Repository.CourseRepository;
+import com.ExamPort.ExamPort.Repository.PaymentLedgerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,7 +14,9 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +32,12 @@ public class EnrollmentService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private PaymentLedgerRepository paymentLedgerRepository;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
     /**
      * Enroll a student in a course
      */
@@ -74,7 +83,7 @@ public class EnrollmentService {
      * Check if a student is enrolled in a course
      */
     public boolean isStudentEnrolledInCourse(Long studentId, Long courseId) {
-        return enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId);
+        return enrollmentIndex.hasEnrollment(studentId, courseId);
     }
 
     /**
@@ -109,7 +118,7 @@ public class EnrollmentService {
      * Get enrollment count by course
      */
     public long getEnrollmentCountByCourse(Long courseId) {
-        return enrollmentRepository.countByCourseId(courseId);
+        return enrollmentIndex.countEnrolled(courseId);
     }
 
     /**
@@ -142,41 +151,7 @@ public class EnrollmentService {
      * Get enrollment statistics for instructor
      */
     public Map<String, Object> getInstructorEnrollmentStats(Long instructorId) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Get all courses by instructor
-        List<Course> instructorCourses = courseRepository.findByInstructorId(instructorId);
-        
-        long totalEnrollments = 0;
-        long totalRevenue = 0;
-        Map<String, Object> courseStats = new HashMap<>();
-        
-        for (Course course : instructorCourses) {
-            long courseEnrollments = getEnrollmentCountByCourse(course.getId());
-            totalEnrollments += courseEnrollments;
-            
-            // Calculate revenue for paid courses
-            if (course.getPricing() != null && course.getPricing().name().equals("PAID") && course.getPrice() != null) {
-                totalRevenue += courseEnrollments * course.getPrice().longValue();
-            }
-            
-            Map<String, Object> courseStat = new HashMap<>();
-            courseStat.put("courseName", course.getName());
-            courseStat.put("enrollments", courseEnrollments);
-            courseStat.put("pricing", course.getPricing() != null ? course.getPricing().name() : "FREE");
-            courseStat.put("price", course.getPrice());
-            courseStat.put("revenue", course.getPricing() != null && course.getPricing().name().equals("PAID") && course.getPrice() != null ? 
-                          courseEnrollments * course.getPrice().longValue() : 0);
-            
-            courseStats.put(course.getId().toString(), courseStat);
-        }
-        
-        stats.put("totalCourses", instructorCourses.size());
-        stats.put("totalEnrollments", totalEnrollments);
-        stats.put("totalRevenue", totalRevenue);
-        stats.put("courseStats", courseStats);
-        
-        return stats;
+        return buildInstructorStats(courseRepository.findByInstructorId(instructorId));
     }
 
     /**
@@ -217,38 +192,53 @@ public class EnrollmentService {
      * Get instructor statistics by username
      */
     public Map<String, Object> getInstructorStats(String username) {
-        // Get all courses by instructor username
-        List<Course> instructorCourses = courseRepository.findByInstructorUsername(username);
-        
-        Map<String, Object> stats = new HashMap<>();
-        
+        return buildInstructorStats(courseRepository.findByInstructorUsername(username));
+    }
+
+    /**
+     * Enrollment counts and settled revenue per course, each from one grouped query.
+     * Revenue is summed from the payments ledger, so it reflects what was actually paid.
+     */
+    private Map<String, Object> buildInstructorStats(List<Course> instructorCourses) {
+        Map<Long, Long> enrollmentCounts = new HashMap<>();
+        Map<Long, Long> revenuePaise = new HashMap<>();
+        if (!instructorCourses.isEmpty()) {
+            List<Long> courseIds = new ArrayList<>(instructorCourses.size());
+            for (Course course : instructorCourses) {
+                courseIds.add(course.getId());
+            }
+            for (Object[] row : enrollmentRepository.countEnrolledStudentsByMultipleCourseIds(courseIds)) {
+                enrollmentCounts.put((Long) row[0], (Long) row[1]);
+            }
+            for (Object[] row : paymentLedgerRepository.sumAmountByCourseIds(courseIds)) {
+                revenuePaise.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+
         long totalEnrollments = 0;
-        long totalRevenue = 0;
+        long totalRevenuePaise = 0;
         Map<String, Object> courseStats = new HashMap<>();
         
         for (Course course : instructorCourses) {
-            long courseEnrollments = getEnrollmentCountByCourse(course.getId());
+            long courseEnrollments = enrollmentCounts.getOrDefault(course.getId(), 0L);
+            long courseRevenuePaise = revenuePaise.getOrDefault(course.getId(), 0L);
             totalEnrollments += courseEnrollments;
-            
-            // Calculate revenue for paid courses
-            if (course.getPricing() != null && course.getPricing().name().equals("PAID") && course.getPrice() != null) {
-                totalRevenue += courseEnrollments * course.getPrice().longValue();
-            }
+            totalRevenuePaise += courseRevenuePaise;
             
             Map<String, Object> courseStat = new HashMap<>();
             courseStat.put("courseName", course.getName());
             courseStat.put("enrollments", courseEnrollments);
             courseStat.put("pricing", course.getPricing() != null ? course.getPricing().name() : "FREE");
             courseStat.put("price", course.getPrice());
-            courseStat.put("revenue", course.getPricing() != null && course.getPricing().name().equals("PAID") && course.getPrice() != null ? 
-                          courseEnrollments * course.getPrice().longValue() : 0);
+            courseStat.put("revenue", BigDecimal.valueOf(courseRevenuePaise, 2));
             
             courseStats.put(course.getId().toString(), courseStat);
         }
         
+        Map<String, Object> stats = new HashMap<>();
         stats.put("totalCourses", instructorCourses.size());
         stats.put("totalEnrollments", totalEnrollments);
-        stats.put("totalRevenue", totalRevenue);
+        stats.put("totalRevenue", BigDecimal.valueOf(totalRevenuePaise, 2));
         stats.put("courseStats", courseStats);
         
         return stats;
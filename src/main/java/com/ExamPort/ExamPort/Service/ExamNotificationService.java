@@ -0,0 +1,413 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.Course;
+import com.ExamPort.ExamPort.Entity.Exam;
+import com.ExamPort.ExamPort.Entity.ExamNotificationJob;
+import com.ExamPort.ExamPort.Entity.NotificationJobStatus;
+import com.ExamPort.ExamPort.Repository.CourseRepository;
+import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import com.ExamPort.ExamPort.Repository.ExamNotificationJobRepository;
+import com.ExamPort.ExamPort.Repository.Exam_repo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tells a course's students when a new exam is published.
+ *
+ * Publishing only records an {@link ExamNotificationJob}; a poller hands one job at a time to a
+ * background thread that pages through the ENROLLED students (by enrollment id) and then the
+ * course's allowed emails, skipping addresses already covered by an enrollment. The email is
+ * rendered once per exam and only the recipient's name is substituted per message. Each page is
+ * sent by a few sender threads, each on its own pooled SMTP connection, under a shared
+ * messages-per-second cap; the job's cursors and counters are checkpointed after every page, so a
+ * restart resumes from the last page (which may be sent twice).
+ */
+@Service
+public class ExamNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExamNotificationService.class);
+
+    @Autowired
+    private ExamNotificationJobRepository jobRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private Exam_repo examRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private SmtpConnectionPool smtpConnectionPool;
+
+    @Value("${app.email.from}")
+    private String fromEmail;
+
+    @Value("${app.email.enabled:true}")
+    private boolean emailEnabled;
+
+    @Value("${app.notifications.exam-published.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.exam-published.senders:3}")
+    private int senderCount;
+
+    @Value("${app.notifications.exam-published.page-size:200}")
+    private int pageSize;
+
+    @Value("${app.notifications.exam-published.max-per-second:10}")
+    private double maxPerSecond;
+
+    @Value("${app.notifications.exam-published.stale-after:PT2M}")
+    private Duration staleAfter;
+
+    private ThreadPoolExecutor jobRunner;
+    private ThreadPoolExecutor senders;
+    private final AtomicBoolean jobInFlight = new AtomicBoolean();
+    private final AtomicLong activeJobId = new AtomicLong();
+    private final AtomicLong nextSendSlot = new AtomicLong(System.nanoTime());
+    private long sendIntervalNanos;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        sendIntervalNanos = maxPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond) : 0L;
+        // Runs the job itself so the shared scheduler thread is never blocked by a long fan-out
+        jobRunner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1),
+                runnable -> daemon(runnable, "exam-notify-job"));
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded by construction: a page is split into at most one chunk per sender
+        senders = new ThreadPoolExecutor(senderCount, senderCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(senderCount),
+                runnable -> daemon(runnable, "exam-notify-sender-" + threadCount.incrementAndGet()));
+        logger.info("Exam notification jobs use {} senders, page size {}, max {} emails/second",
+                    senderCount, pageSize, maxPerSecond);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        jobRunner.shutdownNow();
+        senders.shutdownNow();
+        senders.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Record a notification job for a newly published exam. Each exam is announced at most once.
+     */
+    public void examPublished(Exam exam) {
+        if (!enabled || !emailEnabled) {
+            logger.debug("Exam publish notifications are disabled, skipping exam {}", exam.getExam_id());
+            return;
+        }
+        if (exam.getCourse() == null || exam.getCourse().getId() == null) {
+            logger.debug("Exam {} has no course, nobody to notify", exam.getExam_id());
+            return;
+        }
+        if (jobRepository.existsByExamId(exam.getExam_id())) {
+            return;
+        }
+        try {
+            ExamNotificationJob job = jobRepository.save(new ExamNotificationJob(exam.getExam_id(), exam.getCourse().getId()));
+            logger.info("Queued publish notification job {} for exam {} in course {}",
+                        job.getId(), exam.getExam_id(), exam.getCourse().getId());
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Publish notification for exam {} already queued", exam.getExam_id());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.exam-published.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled || jobInFlight.get()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime staleBefore = now.minus(staleAfter);
+            List<Long> runnable = jobRepository.findRunnableIds(NotificationJobStatus.PENDING,
+                    NotificationJobStatus.RUNNING, staleBefore, PageRequest.of(0, 5));
+            for (Long id : runnable) {
+                if (jobRepository.claim(id, now, staleBefore, NotificationJobStatus.PENDING, NotificationJobStatus.RUNNING) != 1) {
+                    continue;
+                }
+                jobInFlight.set(true);
+                activeJobId.set(id);
+                jobRunner.execute(() -> {
+                    try {
+                        runJob(id);
+                    } finally {
+                        activeJobId.set(0);
+                        jobInFlight.set(false);
+                    }
+                });
+                return;
+            }
+        } catch (Exception e) {
+            logger.error("Exam notification poll failed", e);
+        }
+    }
+
+    public List<Map<String, Object>> getRecentJobs(int limit) {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (ExamNotificationJob job : jobRepository.findAllByOrderByIdDesc(PageRequest.of(0, Math.max(1, Math.min(limit, 100))))) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", job.getId());
+            row.put("examId", job.getExamId());
+            row.put("courseId", job.getCourseId());
+            row.put("status", job.getStatus());
+            row.put("sent", job.getSentCount());
+            row.put("failed", job.getFailedCount());
+            row.put("skipped", job.getSkippedCount());
+            row.put("lastError", job.getLastError());
+            row.put("createdAt", job.getCreatedAt());
+            row.put("heartbeatAt", job.getHeartbeatAt());
+            row.put("completedAt", job.getCompletedAt());
+            jobs.add(row);
+        }
+        return jobs;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<NotificationJobStatus, Long> byStatus = new EnumMap<>(NotificationJobStatus.class);
+        for (NotificationJobStatus status : NotificationJobStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (Object[] row : jobRepository.countByStatus()) {
+            byStatus.put((NotificationJobStatus) row[0], (Long) row[1]);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("jobsByStatus", byStatus);
+        stats.put("activeJobId", activeJobId.get() != 0 ? activeJobId.get() : null);
+        stats.put("sentSinceStartup", sent.sum());
+        stats.put("failedSinceStartup", failed.sum());
+        stats.put("maxPerSecond", maxPerSecond);
+        return stats;
+    }
+
+    public boolean resume(Long id) {
+        return jobRepository.resumeFailed(id, NotificationJobStatus.PENDING, NotificationJobStatus.FAILED) == 1;
+    }
+
+    private void runJob(Long jobId) {
+        ExamNotificationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        String lastError = job.getLastError();
+        try {
+            Exam exam = examRepository.findById(job.getExamId()).orElse(null);
+            Course course = courseRepository.findById(job.getCourseId()).orElse(null);
+            if (exam == null || course == null) {
+                jobRepository.finish(jobId, NotificationJobStatus.FAILED, LocalDateTime.now(), "Exam or course no longer exists");
+                return;
+            }
+            logger.info("Running publish notification job {} for exam '{}' (resuming after enrollment {}, allowed email {})",
+                        jobId, exam.getTitle(), job.getLastEnrollmentId(), job.getAllowedEmailOffset());
+
+            EmailTemplateRenderer.PersonalizedEmail email = emailService.prepareExamPublishedEmail(exam, course);
+            String subject = "📝 New Exam: " + exam.getTitle() + " - " + course.getName();
+
+            // Phase 1: enrolled students, walked by enrollment id
+            long lastEnrollmentId = job.getLastEnrollmentId();
+            int allowedOffset = job.getAllowedEmailOffset();
+            while (allowedOffset == 0) {
+                List<Object[]> rows = enrollmentRepository.findEnrolledRecipientsAfter(course.getId(), lastEnrollmentId,
+                        PageRequest.of(0, pageSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Recipient> recipients = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    lastEnrollmentId = (Long) row[0];
+                    String name = row[2] != null ? (String) row[2] : (String) row[3];
+                    recipients.add(new Recipient((String) row[1], name));
+                }
+                PageResult result = sendPage(recipients, email, subject);
+                lastError = result.error != null ? result.error : lastError;
+                jobRepository.saveProgress(jobId, lastEnrollmentId, 0, result.sent, result.failed, 0, lastError, LocalDateTime.now());
+                if (rows.size() < pageSize) {
+                    break;
+                }
+            }
+
+            // Phase 2: invited emails that are not already covered by an enrollment
+            List<String> allowedEmails = normalizedAllowedEmails(courseRepository.findAllowedEmailsByCourseId(course.getId()));
+            while (allowedOffset < allowedEmails.size()) {
+                List<String> slice = allowedEmails.subList(allowedOffset, Math.min(allowedOffset + pageSize, allowedEmails.size()));
+                Set<String> enrolled = new HashSet<>(enrollmentRepository.findEnrolledEmailsIn(course.getId(), slice));
+                List<Recipient> recipients = new ArrayList<>(slice.size());
+                for (String address : slice) {
+                    if (!enrolled.contains(address)) {
+                        recipients.add(new Recipient(address, "Student"));
+                    }
+                }
+                PageResult result = sendPage(recipients, email, subject);
+                lastError = result.error != null ? result.error : lastError;
+                allowedOffset += slice.size();
+                jobRepository.saveProgress(jobId, lastEnrollmentId, allowedOffset, result.sent, result.failed,
+                        slice.size() - recipients.size(), lastError, LocalDateTime.now());
+            }
+
+            jobRepository.finish(jobId, NotificationJobStatus.COMPLETED, LocalDateTime.now(), lastError);
+            logger.info("Publish notification job {} for exam {} completed", jobId, job.getExamId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Left RUNNING on purpose: once its heartbeat goes stale the job is resumed
+            logger.warn("Publish notification job {} interrupted, will resume from its last checkpoint", jobId);
+        } catch (Exception e) {
+            logger.error("Publish notification job {} failed", jobId, e);
+            jobRepository.finish(jobId, NotificationJobStatus.FAILED, LocalDateTime.now(), truncate(describe(e)));
+        }
+    }
+
+    private PageResult sendPage(List<Recipient> recipients, EmailTemplateRenderer.PersonalizedEmail email, String subject)
+            throws InterruptedException, ExecutionException {
+        PageResult result = new PageResult();
+        if (recipients.isEmpty()) {
+            return result;
+        }
+        AtomicInteger pageSent = new AtomicInteger();
+        AtomicInteger pageFailed = new AtomicInteger();
+        AtomicReference<String> pageError = new AtomicReference<>();
+        int chunks = Math.min(senderCount, recipients.size());
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            int first = i;
+            futures.add(senders.submit(() -> {
+                for (int j = first; j < recipients.size(); j += chunks) {
+                    Recipient recipient = recipients.get(j);
+                    try {
+                        awaitSendPermit();
+                        send(recipient, email, subject);
+                        pageSent.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        pageFailed.incrementAndGet();
+                        pageError.set(truncate(recipient.email + ": " + describe(e)));
+                        logger.warn("Exam notification to {} failed: {}", recipient.email, e.getMessage());
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        result.sent = pageSent.get();
+        result.failed = pageFailed.get();
+        result.error = pageError.get();
+        sent.add(result.sent);
+        failed.add(result.failed);
+        return result;
+    }
+
+    private void send(Recipient recipient, EmailTemplateRenderer.PersonalizedEmail email, String subject) throws MessagingException {
+        MimeMessage message = smtpConnectionPool.createMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(recipient.email);
+        helper.setSubject(subject);
+        helper.setText(email.forRecipient(recipient.name), true);
+        message.setSentDate(new Date());
+        message.saveChanges();
+        smtpConnectionPool.send(message);
+    }
+
+    /**
+     * Global pacing across all sender threads: each send reserves the next slot on a shared
+     * timeline and sleeps until it comes round.
+     */
+    private void awaitSendPermit() throws InterruptedException {
+        if (sendIntervalNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot = nextSendSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + sendIntervalNanos);
+        long waitNanos = slot - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private static List<String> normalizedAllowedEmails(List<String> allowedEmails) {
+        // Sorted so the offset cursor means the same thing after a restart
+        TreeSet<String> emails = new TreeSet<>();
+        for (String email : allowedEmails) {
+            if (email != null && !email.isBlank()) {
+                emails.add(email.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return new ArrayList<>(emails);
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class Recipient {
+        private final String email;
+        private final String name;
+
+        Recipient(String email, String name) {
+            this.email = email;
+            this.name = name;
+        }
+    }
+
+    private static final class PageResult {
+        private int sent;
+        private int failed;
+        private String error;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ExamPort.ExamPort.Service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the exam submission path, shown under "ExamPort" in JDK Mission
+ * Control next to the JVM's own GC, lock and socket events. They cost nothing unless a recording
+ * is running (see {@link FlightRecorderService}). Each is a duration event: {@code begin()} where
+ * the work starts, fields filled in, {@code commit()} when it ends.
+ */
+public final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    @Name("examport.ExamSubmission")
+    @Label("Exam Submission")
+    @Category({"ExamPort", "Exams"})
+    @Description("From receiving an exam submission to building its response")
+    @StackTrace(false)
+    public static class ExamSubmissionEvent extends Event {
+        @Label("Exam ID")
+        public long examId;
+
+        @Label("Answers")
+        public int answerCount;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name("examport.Grading")
+    @Label("Grading")
+    @Category({"ExamPort", "Exams"})
+    @Description("Scoring one submission against the exam's questions")
+    @StackTrace(false)
+    public static class GradingEvent extends Event {
+        @Label("Exam ID")
+        public long examId;
+
+        @Label("Questions")
+        public int questionCount;
+
+        @Label("Score")
+        public double score;
+    }
+
+    @Name("examport.ResultPersisted")
+    @Label("Result Persisted")
+    @Category({"ExamPort", "Exams"})
+    @Description("Inserting a submission's result row, including the retry after an ID collision")
+    @StackTrace(false)
+    public static class ResultPersistedEvent extends Event {
+        @Label("Exam ID")
+        public long examId;
+
+        @Label("Result ID")
+        public long resultId;
+
+        @Label("Retries")
+        public int retries;
+
+        @Label("Saved")
+        public boolean saved;
+    }
+
+    @Name("examport.EmailQueued")
+    @Label("Email Queued")
+    @Category({"ExamPort", "Email"})
+    @Description("Writing a rendered email to the outbox in the caller's transaction")
+    @StackTrace(false)
+    public static class EmailQueuedEvent extends Event {
+        @Label("Email Type")
+        public String emailType;
+
+        @Label("HTML")
+        public boolean html;
+
+        @Label("Body Length")
+        @Description("Characters in the rendered body")
+        public int bodyLength;
+    }
+
+    @Name("examport.EmailDispatched")
+    @Label("Email Dispatched")
+    @Category({"ExamPort", "Email"})
+    @Description("Handing one outbox email to the SMTP server")
+    @StackTrace(false)
+    public static class EmailDispatchedEvent extends Event {
+        @Label("Outbox ID")
+        public long outboxId;
+
+        @Label("Email Type")
+        public String emailType;
+
+        @Label("Attempt")
+        public int attempt;
+
+        @Label("Sent")
+        public boolean sent;
+    }
+}
@@ -0,0 +1,183 @@
+package com.ExamPort.ExamPort.Service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * One on-demand JDK Flight Recorder recording, started and dumped from the admin API when exam
+ * close needs investigating. The recording is continuous but bounded: it keeps only the last
+ * {@code max-age} and at most {@code max-size} of data. Dumps are written to {@code dump-dir} on
+ * this node under generated names, for opening in JDK Mission Control. After each dump, dumps
+ * beyond the newest {@code dump-keep} or older than {@code dump-max-age} are deleted.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern DUMP_NAME = Pattern.compile("examport-\\d{8}-\\d{6}\\.jfr");
+
+    @Value("${app.jfr.settings:default}")
+    private String settings;
+
+    @Value("${app.jfr.max-age:PT30M}")
+    private Duration maxAge;
+
+    @Value("${app.jfr.max-size:250MB}")
+    private DataSize maxSize;
+
+    @Value("${app.jfr.dump-dir:logs/jfr}")
+    private String dumpDir;
+
+    @Value("${app.jfr.dump-keep:10}")
+    private int dumpKeep;
+
+    @Value("${app.jfr.dump-max-age:P7D}")
+    private Duration dumpMaxAge;
+
+    // Guarded by this
+    private Recording recording;
+    private LocalDateTime startedAt;
+    private Path lastDump;
+
+    /**
+     * Start the recording.
+     * @return false if one is already running
+     */
+    public synchronized boolean start() throws IOException, ParseException {
+        if (recording != null) {
+            return false;
+        }
+        Recording started = new Recording(Configuration.getConfiguration(settings));
+        started.setName("examport");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSize.toBytes());
+        started.start();
+        recording = started;
+        startedAt = LocalDateTime.now();
+        logger.info("Flight recording started ({} settings, last {} / {} kept)", settings, maxAge, maxSize);
+        return true;
+    }
+
+    /**
+     * Write what the running recording holds to a new file in the dump directory.
+     * @return the file, or null if no recording is running
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        Path directory = Paths.get(dumpDir);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("examport-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr").toAbsolutePath();
+        recording.dump(file);
+        lastDump = file;
+        logger.info("Flight recording dumped to {} ({} bytes)", file, Files.size(file));
+        pruneDumps(directory);
+        return file;
+    }
+
+    /**
+     * Delete dumps beyond the newest dump-keep and any older than dump-max-age. Only files named
+     * like our own dumps are touched.
+     */
+    private void pruneDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(file -> DUMP_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(FlightRecorderService::lastModified).reversed())
+                    .collect(Collectors.toList());
+        }
+        Instant cutoff = Instant.now().minus(dumpMaxAge);
+        int deleted = 0;
+        for (int i = 0; i < dumps.size(); i++) {
+            Path file = dumps.get(i);
+            if (i >= Math.max(dumpKeep, 1) || lastModified(file).isBefore(cutoff)) {
+                try {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                } catch (IOException e) {
+                    logger.warn("Could not delete old flight recording {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} old flight recording dumps from {}", deleted, directory.toAbsolutePath());
+        }
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    /**
+     * Dump the recording and stop it.
+     * @return the dump file, or null if no recording is running
+     */
+    public synchronized Path stop() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        try {
+            return dump();
+        } finally {
+            recording.close();
+            recording = null;
+            startedAt = null;
+            logger.info("Flight recording stopped");
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        RecordingState state = recording != null ? recording.getState() : null;
+        stats.put("recording", state == RecordingState.RUNNING);
+        stats.put("startedAt", startedAt);
+        stats.put("settings", settings);
+        stats.put("maxAge", maxAge.toString());
+        stats.put("maxSizeBytes", maxSize.toBytes());
+        stats.put("dumpDir", Paths.get(dumpDir).toAbsolutePath().toString());
+        stats.put("dumpKeep", dumpKeep);
+        stats.put("dumpMaxAge", dumpMaxAge.toString());
+        stats.put("lastDump", lastDump != null ? lastDump.toString() : null);
+        return stats;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ExamPort.ExamPort.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Word index over short text documents keyed by int ID.
+ *
+ * Text is split on anything that is not a letter or digit and lower-cased. Each term keeps a
+ * {@link CompressedBitmap} posting list of the documents containing it, and each document keeps
+ * its terms so it can be re-indexed or removed without the old text. A query matches documents
+ * that contain, for every query word, a term starting with that word. Not thread-safe;
+ * {@link SearchIndexService} guards access.
+ */
+final class InvertedIndex {
+
+    // Longer runs (encoded blobs, URLs) are cut so one document cannot bloat the term map
+    static final int MAX_TERM_LENGTH = 32;
+
+    private final TreeMap<String, CompressedBitmap> postings = new TreeMap<>();
+    private final Map<Integer, String[]> documents = new HashMap<>();
+
+    /**
+     * Index a document, replacing whatever was indexed under its ID before.
+     */
+    void put(int id, String... fields) {
+        remove(id);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String field : fields) {
+            terms.addAll(tokenize(field));
+        }
+        if (terms.isEmpty()) {
+            return;
+        }
+        String[] stored = new String[terms.size()];
+        int i = 0;
+        for (String term : terms) {
+            // Share the key instance so each distinct term is held once
+            String key = postings.ceilingKey(term);
+            if (key == null || !key.equals(term)) {
+                key = term;
+                postings.put(key, new CompressedBitmap());
+            }
+            postings.get(key).add(id);
+            stored[i++] = key;
+        }
+        documents.put(id, stored);
+    }
+
+    void remove(int id) {
+        String[] terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            CompressedBitmap posting = postings.get(term);
+            if (posting != null && posting.remove(id) && posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * IDs of documents matching every word of the query, highest ID first.
+     *
+     * @return the matches, or null if the query has no words or more than {@code limit} documents match
+     */
+    int[] search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return null;
+        }
+        List<CompressedBitmap> sets = new ArrayList<>(words.size());
+        for (String word : words) {
+            CompressedBitmap matches = prefixMatches(word);
+            if (matches.isEmpty()) {
+                return new int[0];
+            }
+            sets.add(matches);
+        }
+        sets.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+
+        // Walk the smallest set and probe the others
+        CompressedBitmap smallest = sets.get(0);
+        List<CompressedBitmap> others = sets.subList(1, sets.size());
+        int[] ids = new int[(int) Math.min(smallest.cardinality(), (long) limit + 1)];
+        int[] count = new int[1];
+        boolean[] overflow = new boolean[1];
+        smallest.forEach(id -> {
+            if (overflow[0]) {
+                return;
+            }
+            for (CompressedBitmap other : others) {
+                if (!other.contains(id)) {
+                    return;
+                }
+            }
+            if (count[0] == limit) {
+                overflow[0] = true;
+                return;
+            }
+            ids[count[0]++] = id;
+        });
+        if (overflow[0]) {
+            return null;
+        }
+        int[] result = new int[count[0]];
+        for (int i = 0; i < count[0]; i++) {
+            result[i] = ids[count[0] - 1 - i];
+        }
+        return result;
+    }
+
+    int documentCount() {
+        return documents.size();
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Approximate heap bytes held by the index.
+     */
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Map.Entry<String, CompressedBitmap> entry : postings.entrySet()) {
+            bytes += 40 + 40 + entry.getKey().length() + entry.getValue().sizeInBytes();
+        }
+        for (String[] terms : documents.values()) {
+            bytes += 48 + 16 + terms.length * 4L;
+        }
+        return bytes;
+    }
+
+    void trim() {
+        for (CompressedBitmap posting : postings.values()) {
+            posting.trim();
+        }
+    }
+
+    /**
+     * Distinct lower-cased words of the text, in order of first appearance.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        String folded = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, Math.min(i, start + MAX_TERM_LENGTH)));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    private CompressedBitmap prefixMatches(String word) {
+        NavigableMap<String, CompressedBitmap> range = postings.subMap(word, true, word + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        CompressedBitmap union = new CompressedBitmap();
+        for (CompressedBitmap posting : range.values()) {
+            posting.forEach(union::add);
+        }
+        return union;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ExamPort.ExamPort.Service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Remote payment provider used to open checkout orders and look up their payments. Implementations
+ * perform one blocking call
+ * per method with their own connect/read timeouts; isolation (bulkhead, circuit breaker, metrics) is applied
+ * around them by {@link PaymentGatewayClient}.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Creates an order and returns the provider's order ID.
+     *
+     * @throws PaymentGatewayException when the provider fails, times out or rejects the request
+     */
+    String createOrder(long amountInPaise, String currency, String receipt, Map<String, Object> notes);
+
+    /**
+     * The captured payment for an order, or empty if the order has not been paid.
+     *
+     * @throws PaymentGatewayException when the provider fails, times out or rejects the request
+     */
+    Optional<CapturedPayment> findCapturedPayment(String orderId);
+
+    String getName();
+
+    final class CapturedPayment {
+        private final String paymentId;
+        private final long amountPaise;
+
+        public CapturedPayment(String paymentId, long amountPaise) {
+            this.paymentId = paymentId;
+            this.amountPaise = amountPaise;
+        }
+
+        public String getPaymentId() { return paymentId; }
+        public long getAmountPaise() { return amountPaise; }
+    }
+}
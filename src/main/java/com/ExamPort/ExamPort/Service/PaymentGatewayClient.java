@@ -0,0 +1,242 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Exception.PaymentException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Isolates request threads from the payment provider.
+ *
+ * A bulkhead caps concurrent gateway calls so a slow provider can hold at most that many request
+ * threads; callers wait briefly for a permit and are then turned away. A count-based circuit
+ * breaker opens when the failure rate over the last calls crosses the threshold, fails fast while
+ * open, and lets a few trial calls through once the open period has passed. Both rejections surface
+ * as a retryable {@link PaymentException}.
+ */
+@Component
+public class PaymentGatewayClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentGatewayClient.class);
+
+    public enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    @Autowired
+    private PaymentGateway gateway;
+
+    @Value("${app.payment.bulkhead.max-concurrent:10}")
+    private int maxConcurrent;
+
+    @Value("${app.payment.bulkhead.max-wait:PT0.5S}")
+    private Duration maxWait;
+
+    @Value("${app.payment.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${app.payment.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${app.payment.circuit-breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${app.payment.circuit-breaker.open-duration:PT30S}")
+    private Duration openDuration;
+
+    @Value("${app.payment.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private Semaphore bulkhead;
+
+    // Circuit breaker state, guarded by this
+    private CircuitState state = CircuitState.CLOSED;
+    private boolean[] outcomes;
+    private int outcomeIndex;
+    private int recordedCalls;
+    private int failedCalls;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder circuitRejections = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        bulkhead = new Semaphore(maxConcurrent);
+        outcomes = new boolean[windowSize];
+        logger.info("Payment gateway '{}' behind bulkhead of {} calls, circuit breaker at {}% failures over {} calls",
+                    gateway.getName(), maxConcurrent, (int) (failureRateThreshold * 100), windowSize);
+    }
+
+    public String createOrder(long amountInPaise, String currency, String receipt, Map<String, Object> notes) {
+        return call("create payment order", () -> gateway.createOrder(amountInPaise, currency, receipt, notes));
+    }
+
+    public Optional<PaymentGateway.CapturedPayment> findCapturedPayment(String orderId) {
+        return call("look up payment order", () -> gateway.findCapturedPayment(orderId));
+    }
+
+    private <T> T call(String action, Supplier<T> gatewayCall) {
+        if (!acquireCircuitPermit()) {
+            circuitRejections.increment();
+            throw new PaymentException("Payment provider is temporarily unavailable. Please try again shortly.", true);
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            releaseUnusedCircuitPermit();
+            bulkheadRejections.increment();
+            logger.warn("Payment gateway bulkhead full ({} calls in flight), rejecting call", maxConcurrent);
+            throw new PaymentException("Payment service is busy. Please try again in a moment.", true);
+        }
+
+        calls.increment();
+        long startedAt = System.nanoTime();
+        try {
+            T result = gatewayCall.get();
+            recordOutcome(true);
+            successes.increment();
+            return result;
+        } catch (PaymentGatewayException e) {
+            failures.increment();
+            if (e.isTimeout()) {
+                timeouts.increment();
+            }
+            if (e.countsAsFailure()) {
+                recordOutcome(false);
+                throw new PaymentException("Failed to " + action + ": " + e.getMessage(), e, true);
+            }
+            recordOutcome(true); // provider answered; the request itself was bad
+            throw new PaymentException("Failed to " + action + ": " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            failures.increment();
+            recordOutcome(false);
+            throw new PaymentException("Failed to " + action + ": " + e.getMessage(), e, true);
+        } finally {
+            long latency = System.nanoTime() - startedAt;
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            bulkhead.release();
+        }
+    }
+
+    public synchronized CircuitState getCircuitState() {
+        return state;
+    }
+
+    public Map<String, Object> getStats() {
+        long finished = successes.sum() + failures.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("gateway", gateway.getName());
+        synchronized (this) {
+            stats.put("circuitState", state);
+            stats.put("windowCalls", recordedCalls);
+            stats.put("windowFailureRate", recordedCalls > 0 ? (double) failedCalls / recordedCalls : 0.0);
+        }
+        stats.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("calls", calls.sum());
+        stats.put("successes", successes.sum());
+        stats.put("failures", failures.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("errorRate", finished > 0 ? (double) failures.sum() / finished : 0.0);
+        stats.put("bulkheadRejections", bulkheadRejections.sum());
+        stats.put("circuitRejections", circuitRejections.sum());
+        stats.put("avgLatencyMillis", finished > 0 ? totalLatencyNanos.sum() / finished / 1_000_000.0 : 0.0);
+        stats.put("maxLatencyMillis", maxLatencyNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    private synchronized boolean acquireCircuitPermit() {
+        if (state == CircuitState.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openDuration.toNanos()) {
+                return false;
+            }
+            state = CircuitState.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+            logger.info("Payment gateway circuit half-open, allowing {} trial calls", halfOpenCalls);
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    private synchronized void releaseUnusedCircuitPermit() {
+        if (state == CircuitState.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private synchronized void recordOutcome(boolean success) {
+        if (state == CircuitState.HALF_OPEN) {
+            if (!success) {
+                open("trial call failed");
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                state = CircuitState.CLOSED;
+                resetWindow();
+                logger.info("Payment gateway circuit closed after {} successful trial calls", halfOpenCalls);
+            }
+            return;
+        }
+        if (state == CircuitState.OPEN) {
+            return; // a call that started before the circuit opened
+        }
+        if (recordedCalls == windowSize) {
+            if (!outcomes[outcomeIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[outcomeIndex] = success;
+        if (!success) {
+            failedCalls++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % windowSize;
+        if (recordedCalls >= minimumCalls && failedCalls >= failureRateThreshold * recordedCalls) {
+            open(failedCalls + " of last " + recordedCalls + " calls failed");
+        }
+    }
+
+    private void open(String reason) {
+        state = CircuitState.OPEN;
+        openedAtNanos = System.nanoTime();
+        resetWindow();
+        logger.warn("Payment gateway circuit opened for {}: {}", openDuration, reason);
+    }
+
+    private void resetWindow() {
+        outcomeIndex = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+    }
+}
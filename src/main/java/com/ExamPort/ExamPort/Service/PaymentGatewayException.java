@@ -0,0 +1,29 @@
+package com.ExamPort.ExamPort.Service;
+
+/**
+ * Failure reported by a {@link PaymentGateway}. Timeouts, connection errors and 5xx responses
+ * count against the circuit breaker; 4xx responses are the caller's fault and do not.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    private final boolean countsAsFailure;
+    private final boolean timeout;
+
+    public PaymentGatewayException(String message, boolean countsAsFailure) {
+        this(message, null, countsAsFailure, false);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause, boolean countsAsFailure, boolean timeout) {
+        super(message, cause);
+        this.countsAsFailure = countsAsFailure;
+        this.timeout = timeout;
+    }
+
+    public boolean countsAsFailure() {
+        return countsAsFailure;
+    }
+
+    public boolean isTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,302 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.EnrollmentStatus;
+import com.ExamPort.ExamPort.Exception.PaymentException;
+import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodically settles or expires enrollments stuck in PAYMENT_PENDING.
+ *
+ * A sweep pages through pending checkouts oldest first, skipping ones younger than
+ * {@code min-age} so the browser and webhook paths get the first chance. Each page is looked up at
+ * the gateway with a small pool of lookup threads (Razorpay has no batch order lookup). Paid
+ * orders are settled through {@link PaymentService#applyReconciledPayment}. Unpaid ones older than
+ * {@code expire-after} are cancelled, and the student can start a new checkout. The sweep stops
+ * early when the gateway starts failing and resumes on the next run.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${app.payment.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.payment.reconciliation.min-age:PT15M}")
+    private Duration minAge;
+
+    @Value("${app.payment.reconciliation.expire-after:PT24H}")
+    private Duration expireAfter;
+
+    @Value("${app.payment.reconciliation.page-size:100}")
+    private int pageSize;
+
+    @Value("${app.payment.reconciliation.concurrency:4}")
+    private int concurrency;
+
+    private ThreadPoolExecutor sweepRunner;
+    private ThreadPoolExecutor lookups;
+    private final AtomicBoolean sweepInFlight = new AtomicBoolean();
+
+    private volatile LocalDateTime lastSweepStartedAt;
+    private volatile LocalDateTime lastSweepFinishedAt;
+    private volatile Map<String, Object> lastSweep = Map.of();
+
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        // The sweep runs off the shared scheduler thread; gateway lookups can take seconds each
+        sweepRunner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1),
+                runnable -> daemon(runnable, "payment-reconcile"));
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded by construction: a page is split into at most one chunk per lookup thread
+        lookups = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(concurrency),
+                runnable -> daemon(runnable, "payment-reconcile-lookup-" + threadCount.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sweepRunner.shutdownNow();
+        lookups.shutdownNow();
+        lookups.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.reconciliation.interval-ms:600000}",
+               initialDelayString = "${app.payment.reconciliation.initial-delay-ms:60000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            startSweep();
+        }
+    }
+
+    /**
+     * Start a sweep in the background.
+     * @return false if one is already running
+     */
+    public boolean startSweep() {
+        if (!sweepInFlight.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            sweepRunner.execute(() -> {
+                try {
+                    sweep();
+                } catch (Exception e) {
+                    logger.error("Payment reconciliation sweep failed", e);
+                } finally {
+                    sweepInFlight.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            sweepInFlight.set(false);
+            return false;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", sweepInFlight.get());
+        stats.put("lastSweepStartedAt", lastSweepStartedAt);
+        stats.put("lastSweepFinishedAt", lastSweepFinishedAt);
+        stats.put("lastSweep", lastSweep);
+        stats.put("checkedSinceStartup", checked.sum());
+        stats.put("settledSinceStartup", settled.sum());
+        stats.put("expiredSinceStartup", expired.sum());
+        stats.put("errorsSinceStartup", errors.sum());
+        return stats;
+    }
+
+    private void sweep() throws InterruptedException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        lastSweepStartedAt = startedAt;
+        LocalDateTime cutoff = startedAt.minus(minAge);
+        LocalDateTime expireBefore = startedAt.minus(expireAfter);
+        SweepTotals totals = new SweepTotals();
+
+        LocalDateTime afterUpdatedAt = KEYSET_START;
+        long afterId = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Object[]> rows = enrollmentRepository.findPendingPaymentsAfter(EnrollmentStatus.PAYMENT_PENDING,
+                    cutoff, afterUpdatedAt, afterId, PageRequest.of(0, pageSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<PendingPayment> page = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                page.add(new PendingPayment((Long) row[0], (String) row[1], (LocalDateTime) row[2]));
+            }
+            PendingPayment last = page.get(page.size() - 1);
+            afterUpdatedAt = last.updatedAt;
+            afterId = last.enrollmentId;
+
+            if (!reconcilePage(page, expireBefore, totals)) {
+                logger.warn("Payment gateway unavailable, stopping reconciliation sweep early");
+                break;
+            }
+            if (rows.size() < pageSize) {
+                break;
+            }
+        }
+
+        lastSweepFinishedAt = LocalDateTime.now();
+        lastSweep = totals.toMap();
+        if (totals.checked.get() > 0) {
+            logger.info("Payment reconciliation checked {} pending enrollments: {} settled, {} expired, {} errors",
+                        totals.checked.get(), totals.settled.get(), totals.expired.get(), totals.errors.get());
+        }
+    }
+
+    /**
+     * @return false if the gateway rejected calls (circuit open or bulkhead full)
+     */
+    private boolean reconcilePage(List<PendingPayment> page, LocalDateTime expireBefore, SweepTotals totals)
+            throws InterruptedException {
+        AtomicBoolean gatewayUnavailable = new AtomicBoolean();
+        int chunks = Math.min(concurrency, page.size());
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            List<PendingPayment> chunk = new ArrayList<>();
+            for (int j = i; j < page.size(); j += chunks) {
+                chunk.add(page.get(j));
+            }
+            futures.add(lookups.submit(() -> {
+                for (PendingPayment pending : chunk) {
+                    if (gatewayUnavailable.get()) {
+                        return;
+                    }
+                    reconcile(pending, expireBefore, totals, gatewayUnavailable);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                logger.error("Reconciliation lookup failed", e.getCause());
+            }
+        }
+        return !gatewayUnavailable.get();
+    }
+
+    private void reconcile(PendingPayment pending, LocalDateTime expireBefore, SweepTotals totals,
+                           AtomicBoolean gatewayUnavailable) {
+        totals.checked.incrementAndGet();
+        checked.increment();
+        try {
+            if (pending.orderId == null) {
+                // Checkout started before orders were recorded; nothing to look up
+                expireIfOld(pending, expireBefore, totals);
+                return;
+            }
+            Optional<PaymentGateway.CapturedPayment> payment = paymentGatewayClient.findCapturedPayment(pending.orderId);
+            if (payment.isPresent()) {
+                PaymentService.PaymentTransition transition =
+                        paymentService.applyReconciledPayment(pending.enrollmentId, pending.orderId, payment.get());
+                if (transition == PaymentService.PaymentTransition.ENROLLED) {
+                    totals.settled.incrementAndGet();
+                    settled.increment();
+                    logger.info("Reconciled payment {} for order {} - enrollment {} completed",
+                                payment.get().getPaymentId(), pending.orderId, pending.enrollmentId);
+                }
+                return;
+            }
+            expireIfOld(pending, expireBefore, totals);
+        } catch (PaymentException e) {
+            totals.errors.incrementAndGet();
+            errors.increment();
+            if (e.isRetryable()) {
+                gatewayUnavailable.set(true);
+            }
+            logger.warn("Could not reconcile order {} for enrollment {}: {}", pending.orderId, pending.enrollmentId, e.getMessage());
+        } catch (Exception e) {
+            totals.errors.incrementAndGet();
+            errors.increment();
+            logger.error("Error reconciling order {} for enrollment {}", pending.orderId, pending.enrollmentId, e);
+        }
+    }
+
+    private void expireIfOld(PendingPayment pending, LocalDateTime expireBefore, SweepTotals totals) {
+        if (pending.updatedAt.isBefore(expireBefore) && paymentService.expirePendingPayment(pending.enrollmentId, pending.orderId)) {
+            totals.expired.incrementAndGet();
+            expired.increment();
+            logger.info("Expired abandoned checkout for enrollment {} (order {})", pending.enrollmentId, pending.orderId);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class PendingPayment {
+        private final Long enrollmentId;
+        private final String orderId;
+        private final LocalDateTime updatedAt;
+
+        PendingPayment(Long enrollmentId, String orderId, LocalDateTime updatedAt) {
+            this.enrollmentId = enrollmentId;
+            this.orderId = orderId;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class SweepTotals {
+        private final AtomicInteger checked = new AtomicInteger();
+        private final AtomicInteger settled = new AtomicInteger();
+        private final AtomicInteger expired = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("checked", checked.get());
+            map.put("settled", settled.get());
+            map.put("expired", expired.get());
+            map.put("errors", errors.get());
+            return map;
+        }
+    }
+}
@@ -2,10 +2,10 @@ package com.ExamPort.ExamPort.Service;
 
 import com.ExamPort.ExamPort.Entity.*;
 import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import com.ExamPort.ExamPort.Repository.PaymentLedgerRepository;
 import com.ExamPort.ExamPort.Repository.UserRepository;
 import com.ExamPort.ExamPort.Repository.CourseRepository;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
+import com.ExamPort.ExamPort.Exception.PaymentException;
 import com.razorpay.RazorpayException;
 import com.razorpay.Utils;
 import org.json.JSONObject;
@@ -17,6 +17,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -34,6 +37,9 @@ public class PaymentService {
     @Value("${razorpay.key.secret:}")
     private String razorpayKeySecret;
     
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+    
     @Autowired
     private EnrollmentRepository enrollmentRepository;
     
@@ -42,24 +48,18 @@ public class PaymentService {
     
     @Autowired
     private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseAllowListService courseAllowListService;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
     
     @Autowired
     private EmailService emailService;
     
-    private RazorpayClient razorpayClient;
-    
-    /**
-     * Initialize Razorpay client
-     */
-    private RazorpayClient getRazorpayClient() throws RazorpayException {
-        if (razorpayClient == null) {
-            if (razorpayKeyId.isEmpty() || razorpayKeySecret.isEmpty()) {
-                throw new RazorpayException("Razorpay credentials not configured");
-            }
-            razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-        }
-        return razorpayClient;
-    }
+    @Autowired
+    private PaymentLedgerRepository paymentLedgerRepository;
     
     /**
      * Create a payment order for course purchase
@@ -68,68 +68,62 @@ public class PaymentService {
      * @return PaymentOrderResponse containing order details
      */
     public PaymentOrderResponse createPaymentOrder(Course course, User student) {
+        logger.info("Creating payment order for course: {} by student: {}", course.getName(), student.getUsername());
+        
+        // Validate course is paid and public
+        if (course.getVisibility() != CourseVisibility.PUBLIC || course.getPricing() != CoursePricing.PAID) {
+            throw new IllegalArgumentException("Payment order can only be created for public paid courses");
+        }
+        
+        // Check if student is already enrolled
+        Optional<Enrollment> existingEnrollment = enrollmentRepository.findByStudent_IdAndCourse_Id(student.getId(), course.getId());
+        if (existingEnrollment.isPresent() && existingEnrollment.get().getStatus() == EnrollmentStatus.ENROLLED) {
+            throw new IllegalArgumentException("Student is already enrolled in this course");
+        }
+        
+        // Convert price to paise (Razorpay uses smallest currency unit)
+        int amountInPaise = course.getPrice().multiply(new BigDecimal("100")).intValue();
+        String receipt = "course_" + course.getId() + "_student_" + student.getId() + "_" + System.currentTimeMillis();
+        
+        // Add notes for tracking
+        Map<String, Object> notes = new LinkedHashMap<>();
+        notes.put("course_id", course.getId());
+        notes.put("student_id", student.getId());
+        notes.put("course_name", course.getName());
+        notes.put("student_email", student.getEmail());
+        
+        String orderId;
         try {
-            logger.info("Creating payment order for course: {} by student: {}", course.getName(), student.getUsername());
-            
-            // Validate course is paid and public
-            if (course.getVisibility() != CourseVisibility.PUBLIC || course.getPricing() != CoursePricing.PAID) {
-                throw new IllegalArgumentException("Payment order can only be created for public paid courses");
-            }
-            
-            // Check if student is already enrolled
-            Optional<Enrollment> existingEnrollment = enrollmentRepository.findByStudent_IdAndCourse_Id(student.getId(), course.getId());
-            if (existingEnrollment.isPresent() && existingEnrollment.get().getStatus() == EnrollmentStatus.ENROLLED) {
-                throw new IllegalArgumentException("Student is already enrolled in this course");
-            }
-            
-            // Create Razorpay order
-            RazorpayClient client = getRazorpayClient();
-            JSONObject orderRequest = new JSONObject();
-            
-            // Convert price to paise (Razorpay uses smallest currency unit)
-            int amountInPaise = course.getPrice().multiply(new BigDecimal("100")).intValue();
-            
-            orderRequest.put("amount", amountInPaise);
-            orderRequest.put("currency", "INR");
-            orderRequest.put("receipt", "course_" + course.getId() + "_student_" + student.getId() + "_" + System.currentTimeMillis());
-            
-            // Add notes for tracking
-            JSONObject notes = new JSONObject();
-            notes.put("course_id", course.getId());
-            notes.put("student_id", student.getId());
-            notes.put("course_name", course.getName());
-            notes.put("student_email", student.getEmail());
-            orderRequest.put("notes", notes);
-            
-            Order order = client.orders.create(orderRequest);
-            
-            // Create or update enrollment with payment pending status
-            Enrollment enrollment;
-            if (existingEnrollment.isPresent()) {
-                enrollment = existingEnrollment.get();
-                enrollment.setStatus(EnrollmentStatus.PAYMENT_PENDING);
-            } else {
-                enrollment = new Enrollment(student, course, EnrollmentStatus.PAYMENT_PENDING);
-            }
-            
-            enrollmentRepository.save(enrollment);
-            
-            logger.info("Payment order created successfully: {} for course: {}", order.get("id"), course.getName());
-            
-            return new PaymentOrderResponse(
-                order.get("id").toString(),
-                amountInPaise,
-                "INR",
-                course.getName(),
-                course.getDescription(),
-                student.getEmail(),
-                student.getFullName() != null ? student.getFullName() : student.getUsername()
-            );
-            
-        } catch (RazorpayException e) {
-            logger.error("Error creating payment order for course: {} by student: {}", course.getName(), student.getUsername(), e);
-            throw new RuntimeException("Failed to create payment order: " + e.getMessage());
+            orderId = paymentGatewayClient.createOrder(amountInPaise, "INR", receipt, notes);
+        } catch (PaymentException e) {
+            logger.error("Error creating payment order for course: {} by student: {} - {}",
+                        course.getName(), student.getUsername(), e.getMessage());
+            throw e;
         }
+        
+        // Create or update enrollment with payment pending status
+        Enrollment enrollment;
+        if (existingEnrollment.isPresent()) {
+            enrollment = existingEnrollment.get();
+            enrollment.setStatus(EnrollmentStatus.PAYMENT_PENDING);
+        } else {
+            enrollment = new Enrollment(student, course, EnrollmentStatus.PAYMENT_PENDING);
+        }
+        enrollment.setPaymentOrderId(orderId);
+        
+        enrollmentRepository.save(enrollment);
+        
+        logger.info("Payment order created successfully: {} for course: {}", orderId, course.getName());
+        
+        return new PaymentOrderResponse(
+            orderId,
+            amountInPaise,
+            "INR",
+            course.getName(),
+            course.getDescription(),
+            student.getEmail(),
+            student.getFullName() != null ? student.getFullName() : student.getUsername()
+        );
     }
     
     /**
@@ -160,54 +154,129 @@ public class PaymentService {
     }
     
     /**
-     * Process successful payment and complete enrollment
+     * Process successful payment and complete enrollment (browser verification path)
      * @param paymentId Razorpay payment ID
      * @param orderId Razorpay order ID
      * @param courseId Course ID
      * @param studentId Student ID
+     * @throws PaymentException if the order is not the one pending on this student's enrollment in the course
      */
     @Transactional
     public void processSuccessfulPayment(String paymentId, String orderId, Long courseId, Long studentId) {
         try {
             logger.info("Processing successful payment: {} for course: {} student: {}", paymentId, courseId, studentId);
             
-            // Find the enrollment
-            Optional<Enrollment> enrollmentOpt = enrollmentRepository.findByStudent_IdAndCourse_Id(studentId, courseId);
-            if (enrollmentOpt.isEmpty()) {
-                throw new IllegalArgumentException("Enrollment not found for student: " + studentId + " and course: " + courseId);
+            // The signature only proves the order was paid, so the enrollment must be found through
+            // the order: a signature from one course's order must not unlock another course
+            Optional<Enrollment> enrollmentOpt = enrollmentRepository.findByPaymentOrderId(orderId);
+            if (enrollmentOpt.isEmpty()
+                    || !enrollmentOpt.get().getStudent().getId().equals(studentId)
+                    || !enrollmentOpt.get().getCourse().getId().equals(courseId)) {
+                logger.warn("Order {} is not pending on the enrollment of student: {} in course: {}", orderId, studentId, courseId);
+                throw new PaymentException("Payment does not match the pending order for this course", false);
             }
             
-            Enrollment enrollment = enrollmentOpt.get();
-            
-            // Update enrollment status
-            enrollment.setStatus(EnrollmentStatus.ENROLLED);
-            enrollment.setPaymentTransactionId(paymentId);
-            
-            enrollmentRepository.save(enrollment);
-            
-            // Send payment receipt email
-            try {
-                Course course = enrollment.getCourse();
-                User student = enrollment.getStudent();
-                logger.info("Attempting to send payment receipt email to: {} for course: {} with transaction: {}", 
-                           student.getEmail(), course.getName(), paymentId);
-                
-                emailService.sendPaymentReceiptEmail(student, course, paymentId, orderId, course.getPrice());
-                logger.info("Payment receipt email sent successfully to student: {}", student.getEmail());
-            } catch (Exception emailError) {
-                logger.error("Failed to send payment receipt email for payment: {} to email: {} - Error: {}", 
-                           paymentId, enrollment.getStudent().getEmail(), emailError.getMessage(), emailError);
-                // Don't fail the payment processing if email fails
-            }
-            
-            logger.info("Successfully processed payment and enrolled student: {} in course: {}", studentId, courseId);
+            applyCapturedPayment(enrollmentOpt.get(), paymentId, orderId, null, PaymentSource.CHECKOUT);
             
+        } catch (PaymentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error processing successful payment: {} for course: {} student: {}", paymentId, courseId, studentId, e);
             throw new RuntimeException("Failed to process payment: " + e.getMessage());
         }
     }
     
+    /**
+     * Apply a verified webhook event (webhook worker path)
+     * @param orderId Razorpay order ID
+     * @param paymentId Razorpay payment ID
+     * @param captured true for a captured/paid payment, false for a failed one
+     * @param amountPaise Amount reported by the gateway, or null
+     * @param courseId Course ID from the order notes, used when the enrollment has moved on to a newer order
+     * @param studentId Student ID from the order notes
+     * @throws IllegalStateException when no enrollment is waiting on the order yet; the worker retries
+     */
+    @Transactional
+    public PaymentTransition applyWebhookPayment(String orderId, String paymentId, boolean captured, Long amountPaise,
+                                                 Long courseId, Long studentId) {
+        Optional<Enrollment> enrollmentOpt = enrollmentRepository.findByPaymentOrderId(orderId);
+        if (enrollmentOpt.isEmpty() && courseId != null && studentId != null) {
+            enrollmentOpt = enrollmentRepository.findByStudent_IdAndCourse_Id(studentId, courseId);
+        }
+        if (enrollmentOpt.isEmpty()) {
+            throw new IllegalStateException("No enrollment found for order: " + orderId);
+        }
+        
+        if (!captured) {
+            // Student can retry checkout; the enrollment stays PAYMENT_PENDING
+            logger.info("Payment {} failed for order: {} - enrollment {} left as {}",
+                       paymentId, orderId, enrollmentOpt.get().getId(), enrollmentOpt.get().getStatus());
+            return PaymentTransition.PAYMENT_FAILED;
+        }
+        return applyCapturedPayment(enrollmentOpt.get(), paymentId, orderId, amountPaise, PaymentSource.WEBHOOK);
+    }
+    
+    /**
+     * Settle a pending enrollment whose payment was found by the reconciliation sweep
+     */
+    @Transactional
+    public PaymentTransition applyReconciledPayment(Long enrollmentId, String orderId, PaymentGateway.CapturedPayment payment) {
+        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Enrollment not found: " + enrollmentId));
+        return applyCapturedPayment(enrollment, payment.getPaymentId(), orderId, payment.getAmountPaise(), PaymentSource.RECONCILIATION);
+    }
+    
+    /**
+     * Cancel an abandoned checkout. Only applies while the enrollment is still pending on the same
+     * order, so a payment or a fresh checkout that landed in the meantime wins.
+     * @return true if the enrollment was cancelled
+     */
+    @Transactional
+    public boolean expirePendingPayment(Long enrollmentId, String orderId) {
+        return enrollmentRepository.expirePending(enrollmentId, orderId, EnrollmentStatus.PAYMENT_PENDING,
+                EnrollmentStatus.CANCELLED, LocalDateTime.now()) == 1;
+    }
+    
+    /**
+     * The one place a paid enrollment is completed. Idempotent: whichever of the browser and the
+     * webhook arrives first enrolls the student and queues the receipt; the other is a no-op.
+     */
+    private PaymentTransition applyCapturedPayment(Enrollment enrollment, String paymentId, String orderId,
+                                                   Long amountPaise, PaymentSource source) {
+        if (enrollmentRepository.markPaid(enrollment.getId(), paymentId, EnrollmentStatus.ENROLLED, LocalDateTime.now()) == 0) {
+            if (enrollment.getStatus() == EnrollmentStatus.ENROLLED && enrollment.getPaymentTransactionId() != null
+                    && !enrollment.getPaymentTransactionId().equals(paymentId)) {
+                logger.warn("Enrollment {} already paid by {} - payment {} for order {} may need a refund",
+                           enrollment.getId(), enrollment.getPaymentTransactionId(), paymentId, orderId);
+            } else {
+                logger.debug("Enrollment {} already completed, ignoring duplicate payment {}", enrollment.getId(), paymentId);
+            }
+            return PaymentTransition.ALREADY_ENROLLED;
+        }
+        
+        Course course = enrollment.getCourse();
+        User student = enrollment.getStudent();
+        // markPaid is a bulk update, so no entity callback reaches the enrollment index
+        enrollmentIndex.recordAfterCommit(course.getId(), student.getId(), EnrollmentStatus.ENROLLED);
+        long settledPaise = amountPaise != null ? amountPaise
+                : course.getPrice().multiply(new BigDecimal("100")).longValue();
+        paymentLedgerRepository.save(new PaymentLedgerEntry(paymentId, orderId, enrollment.getId(), course.getId(),
+                student.getId(), settledPaise, "INR", source));
+        
+        // Send payment receipt email
+        try {
+            emailService.sendPaymentReceiptEmail(student, course, paymentId, orderId, BigDecimal.valueOf(settledPaise, 2));
+        } catch (Exception emailError) {
+            logger.error("Failed to queue payment receipt email for payment: {} to email: {} - Error: {}", 
+                       paymentId, student.getEmail(), emailError.getMessage(), emailError);
+            // Don't fail the payment processing if email fails
+        }
+        
+        logger.info("Successfully processed payment {} ({}) and enrolled student: {} in course: {}",
+                   paymentId, source, student.getId(), course.getId());
+        return PaymentTransition.ENROLLED;
+    }
+    
     /**
      * Get Razorpay public key for frontend
      * @return Razorpay key ID (public key)
@@ -243,7 +312,7 @@ public class PaymentService {
                 }
                 
                 String studentEmail = studentOpt.get().getEmail();
-                return course.getAllowedEmails() != null && course.getAllowedEmails().contains(studentEmail);
+                return courseAllowListService.isAllowed(courseId, studentEmail);
             }
             
             // For public courses
@@ -255,7 +324,7 @@ public class PaymentService {
                 
                 // Paid courses require enrollment with ENROLLED status
                 if (course.getPricing() == CoursePricing.PAID) {
-                    return enrollmentRepository.isStudentEnrolledInCourse(studentId, courseId);
+                    return enrollmentIndex.isEnrolled(studentId, courseId);
                 }
             }
             
@@ -267,6 +336,12 @@ public class PaymentService {
         }
     }
     
+    public enum PaymentTransition {
+        ENROLLED,          // this call completed the enrollment
+        ALREADY_ENROLLED,  // duplicate delivery or the other path got there first
+        PAYMENT_FAILED     // failed attempt; enrollment stays pending
+    }
+    
     /**
      * Response class for payment order creation
      */
@@ -0,0 +1,132 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.PaymentWebhookEvent;
+import com.ExamPort.ExamPort.Repository.PaymentWebhookEventRepository;
+import com.razorpay.Utils;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receives Razorpay webhooks. Only verifies the signature and writes the event to the inbox table,
+ * so the provider gets its acknowledgement in milliseconds; enrollment changes are applied
+ * afterwards by {@link PaymentWebhookWorker}.
+ */
+@Service
+public class PaymentWebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWebhookService.class);
+
+    private static final Set<String> CAPTURED_EVENTS = Set.of("payment.captured", "order.paid");
+    private static final String FAILED_EVENT = "payment.failed";
+
+    public enum Result { ACCEPTED, DUPLICATE, IGNORED, INVALID_SIGNATURE }
+
+    @Autowired
+    private PaymentWebhookEventRepository webhookRepository;
+
+    @Value("${razorpay.webhook.secret:}")
+    private String webhookSecret;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder ignored = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Result receive(String payload, String signature, String eventId) {
+        if (!isSignatureValid(payload, signature)) {
+            rejected.increment();
+            logger.warn("Rejected payment webhook {} with invalid signature", eventId);
+            return Result.INVALID_SIGNATURE;
+        }
+
+        JSONObject event = new JSONObject(payload);
+        String eventType = event.optString("event");
+        boolean captured = CAPTURED_EVENTS.contains(eventType);
+        if (!captured && !FAILED_EVENT.equals(eventType)) {
+            ignored.increment();
+            return Result.IGNORED;
+        }
+
+        JSONObject body = event.getJSONObject("payload");
+        JSONObject payment = body.getJSONObject("payment").getJSONObject("entity");
+        String paymentId = payment.getString("id");
+        String orderId = payment.optString("order_id", null);
+        if (orderId == null) {
+            ignored.increment(); // not a checkout payment
+            return Result.IGNORED;
+        }
+        if (webhookRepository.existsByPaymentId(paymentId)) {
+            duplicates.increment();
+            return Result.DUPLICATE;
+        }
+
+        PaymentWebhookEvent inboxEvent = new PaymentWebhookEvent(eventId, eventType, paymentId, orderId, captured,
+                payment.has("amount") ? payment.getLong("amount") : null, payload);
+        JSONObject notes = orderNotes(body, payment);
+        inboxEvent.setCourseId(noteAsLong(notes, "course_id"));
+        inboxEvent.setStudentId(noteAsLong(notes, "student_id"));
+        try {
+            webhookRepository.save(inboxEvent);
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent delivery of the same payment won the insert
+            duplicates.increment();
+            return Result.DUPLICATE;
+        }
+        accepted.increment();
+        logger.info("Queued payment webhook {} for payment: {} order: {}", eventType, paymentId, orderId);
+        return Result.ACCEPTED;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accepted", accepted.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("ignored", ignored.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    private boolean isSignatureValid(String payload, String signature) {
+        if (webhookSecret.isEmpty() || signature == null || signature.isEmpty()) {
+            return false;
+        }
+        try {
+            return Utils.verifyWebhookSignature(payload, signature, webhookSecret);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // order.paid carries the order with the notes set at creation; payment events only have the payment's own notes
+    private static JSONObject orderNotes(JSONObject body, JSONObject payment) {
+        JSONObject order = body.optJSONObject("order");
+        if (order != null && order.optJSONObject("entity") != null) {
+            JSONObject notes = order.getJSONObject("entity").optJSONObject("notes");
+            if (notes != null) {
+                return notes;
+            }
+        }
+        return payment.optJSONObject("notes");
+    }
+
+    private static Long noteAsLong(JSONObject notes, String key) {
+        if (notes == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(notes.optString(key, ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.PaymentWebhookEvent;
+import com.ExamPort.ExamPort.Entity.PaymentWebhookStatus;
+import com.ExamPort.ExamPort.Repository.PaymentWebhookEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies inbox webhook events to enrollments through {@link PaymentService#applyWebhookPayment}.
+ *
+ * Each poll claims a batch in arrival order and partitions it by order ID, so all events for one
+ * order go to the same worker and are applied in the order received. Events that cannot be applied
+ * yet (e.g. the enrollment row is not visible) are retried with backoff and moved to DEAD when
+ * attempts run out.
+ */
+@Component
+public class PaymentWebhookWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWebhookWorker.class);
+
+    @Autowired
+    private PaymentWebhookEventRepository webhookRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${app.payment.webhook.workers:2}")
+    private int workerCount;
+
+    @Value("${app.payment.webhook.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.payment.webhook.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.payment.webhook.initial-backoff:PT10S}")
+    private Duration initialBackoff;
+
+    @Value("${app.payment.webhook.max-backoff:PT10M}")
+    private Duration maxBackoff;
+
+    @Value("${app.payment.webhook.processing-timeout:PT5M}")
+    private Duration processingTimeout;
+
+    private ThreadPoolExecutor workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder enrolled = new LongAdder();
+    private final LongAdder noChange = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(workerCount),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payment-webhook-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.webhook.poll-interval-ms:1000}")
+    public void poll() {
+        if (inFlight.get() > 0) {
+            return; // keep per-order ordering: never overlap two batches on this node
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int released = webhookRepository.releaseStale(now.minus(processingTimeout),
+                    PaymentWebhookStatus.PENDING, PaymentWebhookStatus.PROCESSING);
+            if (released > 0) {
+                logger.warn("Released {} stale payment webhooks left in PROCESSING", released);
+            }
+
+            List<Long> dueIds = webhookRepository.findDueIds(PaymentWebhookStatus.PENDING, now, PageRequest.of(0, batchSize));
+            if (dueIds.isEmpty()) {
+                return;
+            }
+            List<Long> claimed = new ArrayList<>(dueIds.size());
+            for (Long id : dueIds) {
+                if (webhookRepository.claim(id, now, PaymentWebhookStatus.PENDING, PaymentWebhookStatus.PROCESSING) == 1) {
+                    claimed.add(id);
+                }
+            }
+            if (claimed.isEmpty()) {
+                return;
+            }
+
+            List<OrderPartition> partitions = partition(new ArrayList<>(webhookRepository.findAllById(claimed)));
+            for (OrderPartition partition : partitions) {
+                inFlight.incrementAndGet();
+                workers.execute(() -> {
+                    try {
+                        partition.events.forEach(this::apply);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            logger.error("Payment webhook poll failed", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<PaymentWebhookStatus, Long> byStatus = new EnumMap<>(PaymentWebhookStatus.class);
+        for (PaymentWebhookStatus status : PaymentWebhookStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (Object[] row : webhookRepository.countByStatus()) {
+            byStatus.put((PaymentWebhookStatus) row[0], (Long) row[1]);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("byStatus", byStatus);
+        stats.put("enrolledSinceStartup", enrolled.sum());
+        stats.put("noChangeSinceStartup", noChange.sum());
+        stats.put("retriedSinceStartup", retried.sum());
+        stats.put("deadSinceStartup", dead.sum());
+        return stats;
+    }
+
+    public boolean requeue(Long id) {
+        return webhookRepository.requeueDead(id, LocalDateTime.now(), PaymentWebhookStatus.PENDING, PaymentWebhookStatus.DEAD) == 1;
+    }
+
+    private List<OrderPartition> partition(List<PaymentWebhookEvent> batch) {
+        batch.sort(Comparator.comparing(PaymentWebhookEvent::getId)); // findAllById does not keep order
+        int count = Math.min(workerCount, batch.size());
+        List<OrderPartition> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(new OrderPartition());
+        }
+        for (PaymentWebhookEvent event : batch) {
+            partitions.get(Math.floorMod(event.getOrderId().hashCode(), count)).events.add(event);
+        }
+        partitions.removeIf(partition -> partition.events.isEmpty());
+        return partitions;
+    }
+
+    private void apply(PaymentWebhookEvent event) {
+        try {
+            PaymentService.PaymentTransition transition = paymentService.applyWebhookPayment(
+                    event.getOrderId(), event.getPaymentId(), event.isCaptured(), event.getAmountPaise(),
+                    event.getCourseId(), event.getStudentId());
+            webhookRepository.markProcessed(event.getId(), LocalDateTime.now(), PaymentWebhookStatus.PROCESSED);
+            if (transition == PaymentService.PaymentTransition.ENROLLED) {
+                enrolled.increment();
+            } else {
+                noChange.increment();
+            }
+            logger.info("Payment webhook {} ({}) for order {} applied: {}", event.getId(), event.getEventType(), event.getOrderId(), transition);
+        } catch (Exception e) {
+            handleFailure(event, e);
+        }
+    }
+
+    private void handleFailure(PaymentWebhookEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+        if (attempts >= maxAttempts) {
+            webhookRepository.markFailed(event.getId(), PaymentWebhookStatus.DEAD, attempts, LocalDateTime.now(), error);
+            dead.increment();
+            logger.error("Payment webhook {} for order {} moved to DEAD after {} attempts: {}",
+                         event.getId(), event.getOrderId(), attempts, error);
+            return;
+        }
+        long backoffMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+        LocalDateTime nextAttempt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+        webhookRepository.markFailed(event.getId(), PaymentWebhookStatus.PENDING, attempts, nextAttempt, error);
+        retried.increment();
+        logger.warn("Payment webhook {} for order {} failed (attempt {}), retrying at {}: {}",
+                    event.getId(), event.getOrderId(), attempts, nextAttempt, error);
+    }
+
+    private static final class OrderPartition {
+        private final List<PaymentWebhookEvent> events = new ArrayList<>();
+    }
+}
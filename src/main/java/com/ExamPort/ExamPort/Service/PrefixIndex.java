@@ -0,0 +1,182 @@
+package com.ExamPort.ExamPort.Service;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Sorted parallel arrays of (key, ID, value) entries for prefix lookups.
+ *
+ * Entries are ordered by key and then ID, so the entries for a prefix form one contiguous run
+ * found with two binary searches, and walking the whole index visits keys in order. Inserts and
+ * removals shift the arrays, which stays cheap for the few hundred thousand entries of a user
+ * directory. Not thread-safe; {@link UserDirectoryIndex} guards access.
+ */
+final class PrefixIndex<V> {
+
+    private String[] keys = new String[16];
+    private long[] ids = new long[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    void add(String key, long id, V value) {
+        int position = find(key, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == keys.length) {
+            int capacity = size + (size >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(values, position, values, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = id;
+        values[position] = value;
+        size++;
+    }
+
+    /**
+     * Add an entry without keeping the order, for bulk loads; call {@link #sort()} before any other use.
+     */
+    void append(String key, long id, V value) {
+        if (size == keys.length) {
+            int capacity = size + (size >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        ids[size] = id;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Restore the order after {@link #append} and drop duplicate entries.
+     */
+    void sort() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int cmp = keys[a].compareTo(keys[b]);
+            return cmp != 0 ? cmp : Long.compare(ids[a], ids[b]);
+        });
+        String[] sortedKeys = new String[Math.max(16, size)];
+        long[] sortedIds = new long[sortedKeys.length];
+        Object[] sortedValues = new Object[sortedKeys.length];
+        int count = 0;
+        for (Integer i : order) {
+            if (count > 0 && sortedIds[count - 1] == ids[i] && sortedKeys[count - 1].equals(keys[i])) {
+                continue;
+            }
+            sortedKeys[count] = keys[i];
+            sortedIds[count] = ids[i];
+            sortedValues[count] = values[i];
+            count++;
+        }
+        keys = sortedKeys;
+        ids = sortedIds;
+        values = sortedValues;
+        size = count;
+    }
+
+    void remove(String key, long id) {
+        int position = find(key, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+    }
+
+    /**
+     * Pass the value of every entry whose key starts with the prefix to the visitor, in key order,
+     * until the visitor returns false.
+     */
+    @SuppressWarnings("unchecked")
+    void forEachPrefix(String prefix, Predicate<V> visitor) {
+        for (int i = lowerBound(prefix); i < size && keys[i].startsWith(prefix); i++) {
+            if (!visitor.test((V) values[i])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Values of the entries whose key starts with the prefix, in key order, as a view that is only
+     * valid until the index is next modified.
+     */
+    List<V> prefixRange(String prefix) {
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+        return new AbstractList<V>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public V get(int index) {
+                return (V) values[from + index];
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Approximate heap bytes held by the arrays, not counting the keys and values they point to.
+     */
+    long sizeInBytes() {
+        return 3 * 16 + keys.length * 4L + ids.length * 8L + values.length * 4L;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int find(String key, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = keys[mid].compareTo(key);
+            if (cmp == 0) {
+                cmp = Long.compare(ids[mid], id);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Creates and looks up orders through the Razorpay REST API.
+ *
+ * The Razorpay SDK keeps a single static OkHttp client with fixed timeouts that cannot be changed,
+ * so the API is called directly with {@link HttpClient}, which has explicit connect and read
+ * timeouts. The client is built once at startup and shared by all request threads.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(RazorpayPaymentGateway.class);
+
+    @Value("${razorpay.key.id:}")
+    private String razorpayKeyId;
+
+    @Value("${razorpay.key.secret:}")
+    private String razorpayKeySecret;
+
+    @Value("${app.payment.razorpay.base-url:https://api.razorpay.com/v1}")
+    private String baseUrl;
+
+    @Value("${app.payment.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${app.payment.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    private HttpClient httpClient;
+    private URI ordersUri;
+    private String authorization;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+        ordersUri = URI.create(baseUrl + "/orders");
+        if (!razorpayKeyId.isEmpty() && !razorpayKeySecret.isEmpty()) {
+            authorization = "Basic " + Base64.getEncoder().encodeToString(
+                    (razorpayKeyId + ":" + razorpayKeySecret).getBytes(StandardCharsets.UTF_8));
+        } else {
+            logger.warn("Razorpay credentials not configured; payment orders will fail");
+        }
+        logger.info("Razorpay gateway ready (connect timeout {}, read timeout {})", connectTimeout, readTimeout);
+    }
+
+    @Override
+    public String createOrder(long amountInPaise, String currency, String receipt, Map<String, Object> notes) {
+        if (authorization == null) {
+            throw new PaymentGatewayException("Razorpay credentials not configured", false);
+        }
+        JSONObject orderRequest = new JSONObject();
+        orderRequest.put("amount", amountInPaise);
+        orderRequest.put("currency", currency);
+        orderRequest.put("receipt", receipt);
+        orderRequest.put("notes", new JSONObject(notes));
+
+        HttpRequest request = HttpRequest.newBuilder(ordersUri)
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(orderRequest.toString()))
+                .build();
+
+        JSONObject order = new JSONObject(send(request, "create order"));
+        return order.getString("id");
+    }
+
+    @Override
+    public Optional<CapturedPayment> findCapturedPayment(String orderId) {
+        if (authorization == null) {
+            throw new PaymentGatewayException("Razorpay credentials not configured", false);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders/" + orderId + "/payments"))
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+
+        JSONArray payments = new JSONObject(send(request, "fetch order payments")).optJSONArray("items");
+        if (payments != null) {
+            for (int i = 0; i < payments.length(); i++) {
+                JSONObject payment = payments.getJSONObject(i);
+                if ("captured".equals(payment.optString("status"))) {
+                    return Optional.of(new CapturedPayment(payment.getString("id"), payment.getLong("amount")));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private String send(HttpRequest request, String action) {
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (HttpTimeoutException e) {
+            throw new PaymentGatewayException("Razorpay did not respond within " + readTimeout, e, true, true);
+        } catch (IOException e) {
+            throw new PaymentGatewayException("Razorpay request failed: " + e.getMessage(), e, true, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while calling Razorpay", e, false, false);
+        }
+
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return response.body();
+        }
+        throw new PaymentGatewayException("Razorpay " + action + " returned HTTP " + status + ": " + errorDescription(response.body()),
+                status >= 500 || status == 429);
+    }
+
+    @Override
+    public String getName() {
+        return "razorpay";
+    }
+
+    private static String errorDescription(String body) {
+        try {
+            return new JSONObject(body).getJSONObject("error").optString("description", body);
+        } catch (Exception e) {
+            return body;
+        }
+    }
+}
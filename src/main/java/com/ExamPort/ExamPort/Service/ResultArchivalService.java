@@ -0,0 +1,169 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Repository.ResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves results of exams that closed more than {@code closed-for} ago from {@code result} into
+ * {@code result_archive}, keeping the hot table and its indexes sized to current exams.
+ *
+ * Each batch copies up to {@code batch-size} rows and deletes them from {@code result} in one short
+ * transaction, so a result is always in exactly one of the two tables. Runs nightly as a
+ * {@link BackgroundJobService} job; history reads in {@code ResultRepository} union both tables.
+ */
+@Service
+public class ResultArchivalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultArchivalService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BackgroundJobService backgroundJobService;
+
+    @Value("${app.results.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.results.archive.closed-for:P365D}")
+    private Duration closedFor;
+
+    @Value("${app.results.archive.batch-size:1000}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong totalArchived = new AtomicLong();
+    private volatile String lastJobId;
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunArchived;
+    private volatile int lastRunExams;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.results.archive.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            startArchival();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Result archival skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queue an archival run.
+     *
+     * @return the job ID to poll, or null if a run is already queued or running
+     * @throws RejectedExecutionException if too many jobs are already waiting
+     */
+    public synchronized String startArchival() {
+        if (isRunning()) {
+            return null;
+        }
+        lastJobId = backgroundJobService.submit("result-archival", Map.of(), 0, this::archive);
+        return lastJobId;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("closedFor", closedFor.toString());
+        stats.put("running", isRunning());
+        stats.put("lastJobId", lastJobId);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunExams", lastRunExams);
+        stats.put("lastRunArchived", lastRunArchived);
+        stats.put("totalArchived", totalArchived.get());
+        stats.put("hotRows", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM result", Long.class));
+        stats.put("archivedRows", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM result_archive", Long.class));
+        return stats;
+    }
+
+    private boolean isRunning() {
+        Map<String, Object> job = lastJobId != null ? backgroundJobService.getJob(lastJobId) : null;
+        if (job == null) {
+            return false;
+        }
+        Object status = job.get("status");
+        return status == BackgroundJobService.JobStatus.QUEUED || status == BackgroundJobService.JobStatus.RUNNING;
+    }
+
+    private Map<String, Object> archive(BackgroundJobService.Progress progress) {
+        // end_date is stored as yyyy-MM-dd, so it compares correctly as a string
+        String cutoff = LocalDate.now().minusDays(closedFor.toDays()).toString();
+        List<Long> examIds = jdbcTemplate.queryForList(
+                "SELECT e.exam_id FROM exam e WHERE e.end_date IS NOT NULL AND e.end_date <> '' AND e.end_date < ? " +
+                "AND EXISTS (SELECT 1 FROM result r WHERE r.exam_exam_id = e.exam_id)", Long.class, cutoff);
+        progress.setTotal(examIds.size());
+        logger.info("Archiving results of {} exams closed before {}", examIds.size(), cutoff);
+
+        long archived = 0;
+        for (Long examId : examIds) {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> moveBatch(examId));
+                archived += moved;
+            } while (moved == batchSize);
+            progress.add(1);
+        }
+
+        totalArchived.addAndGet(archived);
+        lastRunAt = LocalDateTime.now();
+        lastRunExams = examIds.size();
+        lastRunArchived = archived;
+        logger.info("Archived {} results of {} exams", archived, examIds.size());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("exams", examIds.size());
+        result.put("archived", archived);
+        result.put("cutoff", cutoff);
+        return result;
+    }
+
+    private int moveBatch(Long examId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM result WHERE exam_exam_id = ? ORDER BY id LIMIT ? FOR UPDATE",
+                Long.class, examId, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+        jdbcTemplate.update("INSERT INTO result_archive (" + ResultRepository.HISTORY_COLUMNS + ", archived_at) " +
+                "SELECT " + ResultRepository.HISTORY_COLUMNS + ", ? FROM result WHERE id IN (" + placeholders + ")", args.toArray());
+        jdbcTemplate.update("DELETE FROM result WHERE id IN (" + placeholders + ")", ids.toArray());
+        return ids.size();
+    }
+}
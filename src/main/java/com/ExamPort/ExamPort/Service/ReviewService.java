@@ -15,6 +15,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +33,9 @@ public class ReviewService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private SearchIndexService searchIndexService;
+    
     /**
      * Submit a new review
      */
@@ -228,10 +232,17 @@ public class ReviewService {
     }
     
     /**
-     * Search reviews by content
+     * Search reviews by content, through the search index once it is loaded
      */
     public List<Review> searchReviews(String searchTerm) {
-        return reviewRepository.searchReviewsByContent(searchTerm);
+        List<Long> ids = searchIndexService.searchReviews(searchTerm);
+        if (ids == null) {
+            return reviewRepository.searchReviewsByContent(searchTerm);
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return reviewRepository.findApprovedByIdIn(ids);
     }
     
     /**
@@ -0,0 +1,42 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.ContactMessage;
+import com.ExamPort.ExamPort.Entity.Review;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Feeds review and contact message saves and deletes made through JPA into {@link SearchIndexService}.
+ */
+public class SearchIndexListener {
+
+    // Resolved lazily: Hibernate creates listeners while the EntityManagerFactory is still being built
+    @Autowired
+    private ObjectProvider<SearchIndexService> searchIndexService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        if (entity instanceof Review) {
+            Review review = (Review) entity;
+            searchIndexService.getObject().recordReviewAfterCommit(review.getId(), review.getContent());
+        } else if (entity instanceof ContactMessage) {
+            ContactMessage message = (ContactMessage) entity;
+            searchIndexService.getObject().recordContactMessageAfterCommit(message.getId(), message.getName(),
+                                                                           message.getSubject(), message.getMessage());
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        if (entity instanceof Review) {
+            searchIndexService.getObject().removeReviewAfterCommit(((Review) entity).getId());
+        } else if (entity instanceof ContactMessage) {
+            searchIndexService.getObject().removeContactMessageAfterCommit(((ContactMessage) entity).getId());
+        }
+    }
+}
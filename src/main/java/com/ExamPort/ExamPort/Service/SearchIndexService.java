@@ -0,0 +1,245 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory word indexes for admin text search over review content and contact messages
+ * (name, subject and message), replacing {@code LIKE '%term%'} scans of TEXT columns.
+ *
+ * Searches return matching IDs, newest first, for the caller to fetch from the database along
+ * with its other filters. Each index is loaded at startup with a streaming query and rebuilt
+ * periodically; in between, saves and deletes reported by {@link SearchIndexListener} are applied
+ * once their transaction commits, and replayed onto a load that is running at the time. Searches
+ * return null, meaning "use the database query", until the first load finishes, when the query has
+ * no words, or when more than {@code max-candidates} documents match.
+ */
+@Service
+public class SearchIndexService extends BackgroundLoadedIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search-index.max-candidates:5000}")
+    private int maxCandidates;
+
+    private final TextIndex reviews = new TextIndex("reviews", "SELECT id, content FROM reviews");
+    private final TextIndex contactMessages = new TextIndex("contactMessages",
+            "SELECT id, name, subject, message FROM contact_message");
+
+    public SearchIndexService() {
+        super("search-index", 4);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return enabled;
+    }
+
+    // Safety net for changes that bypass entity callbacks (manual SQL, bulk JPQL)
+    @Scheduled(fixedDelayString = "${app.search-index.rebuild-interval-ms:21600000}",
+               initialDelayString = "${app.search-index.rebuild-interval-ms:21600000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            startRebuild();
+        }
+    }
+
+    /**
+     * IDs of reviews whose content matches the search, newest first, or null to use the database.
+     * Matches are not filtered by approval or active flags.
+     */
+    public List<Long> searchReviews(String searchTerm) {
+        return reviews.search(searchTerm);
+    }
+
+    /**
+     * IDs of contact messages whose name, subject or message matches the search, newest first,
+     * or null to use the database.
+     */
+    public List<Long> searchContactMessages(String searchTerm) {
+        return contactMessages.search(searchTerm);
+    }
+
+    public void recordReviewAfterCommit(Long id, String content) {
+        afterCommit(reviews, new Change(id, new String[] {content}));
+    }
+
+    public void removeReviewAfterCommit(Long id) {
+        afterCommit(reviews, new Change(id, null));
+    }
+
+    public void recordContactMessageAfterCommit(Long id, String name, String subject, String message) {
+        afterCommit(contactMessages, new Change(id, new String[] {name, subject, message}));
+    }
+
+    public void removeContactMessageAfterCommit(Long id) {
+        afterCommit(contactMessages, new Change(id, null));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("rebuilding", isRebuilding());
+        stats.put("maxCandidates", maxCandidates);
+        stats.put(reviews.name, reviews.getStats());
+        stats.put(contactMessages.name, contactMessages.getStats());
+        return stats;
+    }
+
+    @Override
+    protected void rebuild() {
+        reviews.rebuild();
+        contactMessages.rebuild();
+    }
+
+    private void afterCommit(TextIndex index, Change change) {
+        if (change.id != null) {
+            afterCommit(() -> index.apply(change));
+        }
+    }
+
+    private static boolean fitsInt(Long id) {
+        return id != null && id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * The indexed text of one document after a save, or null fields after a delete.
+     */
+    private static final class Change {
+        final Long id;
+        final String[] fields;
+
+        Change(Long id, String[] fields) {
+            this.id = id;
+            this.fields = fields;
+        }
+
+        void applyTo(InvertedIndex index) {
+            if (fields != null) {
+                index.put(id.intValue(), fields);
+            } else {
+                index.remove(id.intValue());
+            }
+        }
+    }
+
+    /**
+     * One table's index with its load query and counters.
+     */
+    private final class TextIndex {
+        final String name;
+        final String sql;
+
+        final SwappableIndex<InvertedIndex, Change> index =
+                new SwappableIndex<>(new InvertedIndex(), (target, change) -> change.applyTo(target));
+
+        final LongAdder searches = new LongAdder();
+        final LongAdder databaseSearches = new LongAdder();
+
+        TextIndex(String name, String sql) {
+            this.name = name;
+            this.sql = sql;
+        }
+
+        List<Long> search(String searchTerm) {
+            searches.increment();
+            if (!enabled || !index.isReady()) {
+                databaseSearches.increment();
+                return null;
+            }
+            int[] ids = index.read(current -> current.search(searchTerm, maxCandidates));
+            if (ids == null) {
+                databaseSearches.increment();
+                return null;
+            }
+            List<Long> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add((long) id);
+            }
+            return result;
+        }
+
+        void apply(Change change) {
+            if (!fitsInt(change.id)) {
+                // Searches could miss this row from now on, so stop answering them from memory
+                logger.warn("ID {} does not fit the {} search index; searching the database until the next rebuild",
+                            change.id, name);
+                index.markNotReady();
+                return;
+            }
+            index.apply(change);
+        }
+
+        void rebuild() {
+            InvertedIndex loaded = new InvertedIndex();
+            boolean[] outOfRange = new boolean[1];
+            // A failed scan keeps the current index; one with IDs beyond the int range stops it being used
+            index.load(() -> {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                                              ResultSet.CONCUR_READ_ONLY);
+                    // MySQL Connector/J streams rows one at a time instead of buffering the whole result
+                    statement.setFetchSize(Integer.MIN_VALUE);
+                    return statement;
+                }, (RowCallbackHandler) resultSet -> {
+                    long id = resultSet.getLong(1);
+                    if (!fitsInt(id)) {
+                        outOfRange[0] = true;
+                        return;
+                    }
+                    int columns = resultSet.getMetaData().getColumnCount();
+                    String[] fields = new String[columns - 1];
+                    for (int i = 2; i <= columns; i++) {
+                        fields[i - 2] = resultSet.getString(i);
+                    }
+                    loaded.put((int) id, fields);
+                });
+                loaded.trim();
+                return outOfRange[0] ? null : loaded;
+            });
+            if (outOfRange[0]) {
+                logger.warn("Search index {} has IDs beyond the int range; searching the database instead", name);
+            } else {
+                logger.info("Search index {} loaded {} documents ({} terms) in {} ms",
+                            name, loaded.documentCount(), loaded.termCount(), index.getLastLoadMillis());
+            }
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            index.read(current -> {
+                stats.put("ready", index.isReady());
+                stats.put("documents", current.documentCount());
+                stats.put("terms", current.termCount());
+                stats.put("heapBytes", current.sizeInBytes());
+                return null;
+            });
+            stats.put("lastRebuildAt", index.getLastLoadAt());
+            stats.put("lastRebuildMillis", index.getLastLoadMillis());
+            stats.put("searches", searches.sum());
+            stats.put("databaseSearches", databaseSearches.sum());
+            stats.put("changesApplied", index.getChangesApplied());
+            return stats;
+        }
+    }
+}
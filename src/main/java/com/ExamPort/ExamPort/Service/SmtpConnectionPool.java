@@ -0,0 +1,142 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One long-lived SMTP connection per sending thread, shared by the outbox worker and the bulk
+ * notification jobs. A connection is reused until it has sat idle past the timeout, which avoids
+ * a TLS handshake per message; a failed send reconnects once before giving up.
+ */
+@Component
+public class SmtpConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private ApplicationMetrics applicationMetrics;
+
+    @Value("${app.email.smtp.connection-idle-timeout:PT30S}")
+    private Duration connectionIdleTimeout;
+
+    private final ThreadLocal<PooledTransport> transports = new ThreadLocal<>();
+    private final Set<PooledTransport> openTransports = ConcurrentHashMap.newKeySet();
+    private final LongAdder connections = new LongAdder();
+
+    @PreDestroy
+    public void shutdown() {
+        for (PooledTransport pooled : openTransports) {
+            pooled.close();
+        }
+    }
+
+    public MimeMessage createMessage() {
+        if (mailSender instanceof JavaMailSenderImpl) {
+            return new MimeMessage(((JavaMailSenderImpl) mailSender).getSession());
+        }
+        return mailSender.createMimeMessage();
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        try {
+            sendPooled(message);
+            applicationMetrics.recordEmail(true);
+        } catch (MessagingException | RuntimeException e) {
+            applicationMetrics.recordEmail(false);
+            throw e;
+        }
+    }
+
+    public long getConnectionsOpened() {
+        return connections.sum();
+    }
+
+    public int getOpenConnections() {
+        return openTransports.size();
+    }
+
+    private void sendPooled(MimeMessage message) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            mailSender.send(message);
+            return;
+        }
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        PooledTransport pooled = transport(sender);
+        try {
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+        } catch (SendFailedException e) {
+            throw e; // server rejected the addresses; the connection itself is fine
+        } catch (MessagingException e) {
+            // Connection likely dropped by the server; reconnect once and retry
+            logger.debug("SMTP send failed on pooled connection, reconnecting: {}", e.getMessage());
+            pooled.close();
+            pooled = transport(sender);
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+        }
+        pooled.lastUsedNanos = System.nanoTime();
+    }
+
+    private PooledTransport transport(JavaMailSenderImpl sender) throws MessagingException {
+        PooledTransport pooled = transports.get();
+        if (pooled != null && pooled.isUsable(connectionIdleTimeout.toNanos())) {
+            return pooled;
+        }
+        if (pooled != null) {
+            pooled.close();
+        }
+        Session session = sender.getSession();
+        Transport transport = session.getTransport(sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+        transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+        connections.increment();
+        pooled = new PooledTransport(transport);
+        transports.set(pooled);
+        openTransports.add(pooled);
+        return pooled;
+    }
+
+    private final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        // Deliberately not Transport.isConnected(): for SMTP that costs a NOOP round trip per message.
+        // Servers drop idle connections, so reconnect after the idle timeout or on a failed send.
+        boolean isUsable(long idleTimeoutNanos) {
+            return System.nanoTime() - lastUsedNanos < idleTimeoutNanos;
+        }
+
+        void close() {
+            openTransports.remove(this);
+            if (transports.get() == this) {
+                transports.remove();
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
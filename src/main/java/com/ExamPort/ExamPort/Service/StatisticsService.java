@@ -44,7 +44,7 @@ public class StatisticsService {
             logger.debug("Total users count: {}", totalUsers);
             
             // Total exam attempts/results
-            long totalExamAttempts = resultRepository.count();
+            long totalExamAttempts = resultRepository.countIncludingArchive();
             logger.debug("Total exam attempts count: {}", totalExamAttempts);
             
             // Total courses available
@@ -0,0 +1,95 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Razorpay ({@code app.payment.gateway=stub}) for development and load tests.
+ * Latency and failure rate are configurable so slow and failing provider behaviour can be
+ * reproduced; a call slower than the read timeout fails the same way a real timeout would.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubPaymentGateway.class);
+
+    @Value("${app.payment.stub.latency:PT0.05S}")
+    private Duration latency;
+
+    @Value("${app.payment.stub.latency-jitter:PT0S}")
+    private Duration latencyJitter;
+
+    @Value("${app.payment.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    // Chance that an order looked up by reconciliation turns out to have been paid
+    @Value("${app.payment.stub.paid-rate:0.0}")
+    private double paidRate;
+
+    @Value("${app.payment.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> orderAmounts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        logger.warn("Using stub payment gateway (latency {}, jitter {}, failure rate {}) - no real orders are created",
+                    latency, latencyJitter, failureRate);
+    }
+
+    @Override
+    public String createOrder(long amountInPaise, String currency, String receipt, Map<String, Object> notes) {
+        simulateCall();
+        String orderId = "order_stub_" + Long.toString(System.currentTimeMillis(), 36) + "_" + sequence.incrementAndGet();
+        orderAmounts.put(orderId, amountInPaise);
+        return orderId;
+    }
+
+    @Override
+    public Optional<CapturedPayment> findCapturedPayment(String orderId) {
+        simulateCall();
+        if (paidRate <= 0 || ThreadLocalRandom.current().nextDouble() >= paidRate) {
+            return Optional.empty();
+        }
+        long amount = orderAmounts.getOrDefault(orderId, 0L);
+        return Optional.of(new CapturedPayment("pay_stub_" + orderId.substring(orderId.lastIndexOf('_') + 1), amount));
+    }
+
+    private void simulateCall() {
+        long delayMillis = latency.toMillis();
+        if (!latencyJitter.isZero()) {
+            delayMillis += ThreadLocalRandom.current().nextLong(latencyJitter.toMillis() + 1);
+        }
+        boolean timedOut = delayMillis > readTimeout.toMillis();
+        try {
+            Thread.sleep(Math.min(delayMillis, readTimeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while calling stub gateway", e, false, false);
+        }
+        if (timedOut) {
+            throw new PaymentGatewayException("Stub gateway did not respond within " + readTimeout, null, true, true);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new PaymentGatewayException("Stub gateway returned HTTP 502", true);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+}
@@ -0,0 +1,181 @@
+package com.ExamPort.ExamPort.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * One in-memory index behind a read/write lock, replaced by background loads without blocking
+ * lookups.
+ *
+ * Committed changes are applied to the current index. While a load is scanning the database they
+ * are also kept, and replayed onto the loaded index before it replaces the current one, so a
+ * change that commits after the scan read its row is not lost. Each change must carry the final
+ * state of what it touches, so that applying it twice is harmless.
+ *
+ * @param <T> the index structure
+ * @param <C> a change to it
+ */
+final class SwappableIndex<T, C> {
+
+    private final BiConsumer<T, C> applier;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private T current;
+    private final List<C> changesDuringLoad = new ArrayList<>();
+    private int loadsInFlight;
+
+    private volatile boolean ready;
+    private volatile LocalDateTime lastLoadAt;
+    private volatile long lastLoadMillis;
+
+    private final LongAdder changesApplied = new LongAdder();
+
+    SwappableIndex(T initial, BiConsumer<T, C> applier) {
+        this.current = initial;
+        this.applier = applier;
+    }
+
+    /**
+     * Whether a load has completed, so lookups can be answered from memory.
+     */
+    boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Stop answering lookups from memory until the next successful load.
+     */
+    void markNotReady() {
+        ready = false;
+    }
+
+    <R> R read(Function<T, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a committed change, keeping it for replay if a load is running.
+     */
+    void apply(C change) {
+        lock.writeLock().lock();
+        try {
+            applier.accept(current, change);
+            if (loadsInFlight > 0) {
+                changesDuringLoad.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changesApplied.increment();
+    }
+
+    /**
+     * Run a full scan, replay the changes that committed meanwhile onto its result and swap it in.
+     * A scan that returns null keeps the current index but stops lookups using it; one that
+     * throws keeps the current index as it is.
+     *
+     * @return the changes replayed onto the new index
+     */
+    List<C> load(Supplier<T> scan) {
+        long startedAt = System.nanoTime();
+        beginLoad();
+        List<C> replayed = Collections.emptyList();
+        T loaded = null;
+        boolean scanned = false;
+        try {
+            loaded = scan.get();
+            scanned = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (scanned && loaded == null) {
+                    ready = false;
+                } else if (scanned) {
+                    replayed = new ArrayList<>(changesDuringLoad);
+                    for (C change : replayed) {
+                        applier.accept(loaded, change);
+                    }
+                    current = loaded;
+                    ready = true;
+                }
+                endLoad();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lastLoadAt = LocalDateTime.now();
+        lastLoadMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        return replayed;
+    }
+
+    /**
+     * Scan part of the index, replay the changes that committed meanwhile onto it and merge it
+     * into the current index.
+     *
+     * @param merge called under the write lock with the current index and the scanned part
+     */
+    void reload(Supplier<T> scan, BiConsumer<T, T> merge) {
+        beginLoad();
+        T loaded = null;
+        boolean scanned = false;
+        try {
+            loaded = scan.get();
+            scanned = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (scanned) {
+                    for (C change : changesDuringLoad) {
+                        applier.accept(loaded, change);
+                    }
+                    merge.accept(current, loaded);
+                }
+                endLoad();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    LocalDateTime getLastLoadAt() {
+        return lastLoadAt;
+    }
+
+    long getLastLoadMillis() {
+        return lastLoadMillis;
+    }
+
+    long getChangesApplied() {
+        return changesApplied.sum();
+    }
+
+    private void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            loadsInFlight++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void endLoad() {
+        if (--loadsInFlight == 0) {
+            changesDuringLoad.clear();
+        }
+    }
+}
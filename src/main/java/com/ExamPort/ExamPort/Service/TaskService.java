@@ -22,6 +22,8 @@ public class TaskService {
 	Exam_repo exam;
 	@Autowired
 	QuestionRepository questionRepository;
+	@Autowired
+	ExamNotificationService examNotificationService;
 
 	public void AddExam(Exam e) {
         logger.info("Adding new exam: {}", e.getTitle());
@@ -46,6 +48,10 @@ public class TaskService {
             exam.save(e);
             logger.info("Exam saved successfully: {} with {} questions", e.getTitle(), 
                        e.getQuestions() != null ? e.getQuestions().size() : 0);
+            
+            if (e.isIsactive()) {
+                examNotificationService.examPublished(e);
+            }
         } catch (Exception ex) {
             logger.error("Error adding exam: {}", e.getTitle(), ex);
             throw ex;
@@ -89,6 +95,14 @@ public class TaskService {
 	}
 	
 	public Exam updateExam(Exam e) {
+        return updateExam(e, exam.findById(e.getExam_id()).map(Exam::isIsactive).orElse(false));
+	}
+	
+	/**
+	 * Saves the exam and announces it if it has just gone live. wasActive must be read from the
+	 * stored exam before any incoming field is copied onto it.
+	 */
+	public Exam updateExam(Exam e, boolean wasActive) {
         logger.info("Updating exam: {}", e.getTitle());
         
         try {
@@ -110,6 +124,11 @@ public class TaskService {
             Exam savedExam = exam.save(e);
             logger.info("Exam updated successfully: {} with {} questions", savedExam.getTitle(), 
                        savedExam.getQuestions() != null ? savedExam.getQuestions().size() : 0);
+            
+            // Announce the exam the first time it goes live
+            if (!wasActive && savedExam.isIsactive()) {
+                examNotificationService.examPublished(savedExam);
+            }
             return savedExam;
         } catch (Exception ex) {
             logger.error("Error updating exam: {}", e.getTitle(), ex);
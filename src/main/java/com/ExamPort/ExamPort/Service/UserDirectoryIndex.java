@@ -0,0 +1,397 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.User;
+import com.ExamPort.ExamPort.Repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * In-memory directory of users for the admin user search and autocomplete.
+ *
+ * Keeps a summary of every user plus {@link PrefixIndex}es over the lower-cased username, email,
+ * full name and each later word of the full name, so a prefix search is a couple of binary
+ * searches and results come back ordered by username without touching the database. Loaded at
+ * startup with a streaming query and rebuilt periodically; in between, saves and deletes from
+ * {@link UserDirectoryIndexListener} and {@link BulkDeletionService} are applied once their
+ * transaction commits, and replayed onto a load that is running at the time. Until the first load
+ * finishes, searches run a prefix {@code LIKE} query instead.
+ */
+@Service
+public class UserDirectoryIndex extends BackgroundLoadedIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectoryIndex.class);
+
+    private static final Comparator<Entry> BY_USERNAME =
+            Comparator.comparing((Entry entry) -> entry.usernameKey).thenComparingLong(entry -> entry.id);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.user-directory.enabled:true}")
+    private boolean enabled;
+
+    private final SwappableIndex<Directory, Change> directory =
+            new SwappableIndex<>(new Directory(), Directory::apply);
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder databaseSearches = new LongAdder();
+
+    public UserDirectoryIndex() {
+        super("user-directory", 4);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return enabled;
+    }
+
+    // Safety net for changes made outside the application
+    @Scheduled(fixedDelayString = "${app.user-directory.rebuild-interval-ms:3600000}",
+               initialDelayString = "${app.user-directory.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            startRebuild();
+        }
+    }
+
+    /**
+     * Users whose username, email, full name or a word of their full name starts with the query,
+     * ordered by username.
+     *
+     * @param query prefix to match, case-insensitive; blank matches every user
+     * @param role  role to keep, case-insensitive, or null for all roles
+     */
+    public Page<Entry> search(String query, String role, int page, int size) {
+        searches.increment();
+        String prefix = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        String roleKey = role != null && !role.isBlank() ? role.trim().toLowerCase(Locale.ROOT) : null;
+        Pageable pageable = PageRequest.of(page, size);
+        if (!enabled || !directory.isReady()) {
+            databaseSearches.increment();
+            Pageable byUsername = PageRequest.of(page, size, Sort.by("username"));
+            return userRepository.searchByPrefix(prefix, roleKey, byUsername).map(Entry::of);
+        }
+        return directory.read(current -> prefix.isEmpty()
+                ? current.list(roleKey, pageable) : current.search(prefix, roleKey, pageable));
+    }
+
+    /**
+     * Record the current state of a user once the current transaction commits.
+     */
+    public void recordAfterCommit(User user) {
+        if (user.getId() != null) {
+            Change change = new Change(user.getId(), Entry.of(user));
+            afterCommit(() -> directory.apply(change));
+        }
+    }
+
+    /**
+     * Drop a user once the current transaction commits.
+     */
+    public void removeAfterCommit(Long userId) {
+        Change change = new Change(userId, null);
+        afterCommit(() -> directory.apply(change));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        directory.read(current -> {
+            stats.put("enabled", enabled);
+            stats.put("ready", directory.isReady());
+            stats.put("rebuilding", isRebuilding());
+            stats.put("users", current.users.size());
+            stats.put("usersByRole", new LinkedHashMap<>(current.roleCounts));
+            stats.put("prefixEntries", current.byUsername.size() + current.byEmail.size() + current.byName.size());
+            stats.put("indexBytes", current.byUsername.sizeInBytes() + current.byEmail.sizeInBytes()
+                                    + current.byName.sizeInBytes());
+            return null;
+        });
+        stats.put("lastRebuildAt", directory.getLastLoadAt());
+        stats.put("lastRebuildMillis", directory.getLastLoadMillis());
+        stats.put("searches", searches.sum());
+        stats.put("databaseSearches", databaseSearches.sum());
+        stats.put("changesApplied", directory.getChangesApplied());
+        return stats;
+    }
+
+    @Override
+    protected void rebuild() {
+        Directory loaded = new Directory();
+        // A failed scan keeps the current directory
+        directory.load(() -> {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT id, username, email, full_name, role, phone_number, email_verified FROM users",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // MySQL Connector/J streams rows one at a time instead of buffering the whole result
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> loaded.append(Entry.of(resultSet)));
+            loaded.sort();
+            return loaded;
+        });
+        logger.info("User directory loaded {} users in {} ms", loaded.users.size(), directory.getLastLoadMillis());
+    }
+
+    /**
+     * Search summary of one user, as returned by {@link #search}.
+     */
+    public static final class Entry {
+        private final long id;
+        private final String username;
+        private final String email;
+        private final String fullName;
+        private final String role;
+        private final String phoneNumber;
+        private final boolean emailVerified;
+
+        // Lower-cased index keys
+        private final String usernameKey;
+        private final String emailKey;
+        private final String nameKey;
+        private final String roleKey;
+
+        Entry(long id, String username, String email, String fullName, String role, String phoneNumber,
+              boolean emailVerified) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+            this.fullName = fullName;
+            this.role = role;
+            this.phoneNumber = phoneNumber;
+            this.emailVerified = emailVerified;
+            this.usernameKey = fold(username);
+            this.emailKey = fold(email);
+            this.nameKey = fold(fullName);
+            this.roleKey = fold(role);
+        }
+
+        static Entry of(User user) {
+            return new Entry(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(), user.getRole(),
+                             user.getPhoneNumber(), user.isEmailVerified());
+        }
+
+        static Entry of(ResultSet resultSet) throws SQLException {
+            return new Entry(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                             resultSet.getString(4), resultSet.getString(5), resultSet.getString(6),
+                             resultSet.getBoolean(7));
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getPhoneNumber() {
+            return phoneNumber;
+        }
+
+        public boolean isEmailVerified() {
+            return emailVerified;
+        }
+
+        // Later words of the full name, so "smi" finds "John Smith"
+        List<String> nameWordKeys() {
+            List<String> words = new ArrayList<>();
+            if (nameKey.isEmpty()) {
+                return words;
+            }
+            String[] parts = nameKey.split("\\s+");
+            for (int i = 1; i < parts.length; i++) {
+                if (!parts[i].isEmpty()) {
+                    words.add(parts[i]);
+                }
+            }
+            return words;
+        }
+
+        private static String fold(String value) {
+            return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+        }
+    }
+
+    /**
+     * The state of one user after a save, or a null entry after a delete.
+     */
+    private static final class Change {
+        final long id;
+        final Entry entry;
+
+        Change(long id, Entry entry) {
+            this.id = id;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Users by ID with their prefix indexes and role counts.
+     */
+    private static final class Directory {
+        final Map<Long, Entry> users = new HashMap<>();
+        final PrefixIndex<Entry> byUsername = new PrefixIndex<>();
+        final PrefixIndex<Entry> byEmail = new PrefixIndex<>();
+        final PrefixIndex<Entry> byName = new PrefixIndex<>();
+        final Map<String, Integer> roleCounts = new HashMap<>();
+
+        // Bulk load; sort() must follow
+        void append(Entry entry) {
+            users.put(entry.id, entry);
+            byUsername.append(entry.usernameKey, entry.id, entry);
+            byEmail.append(entry.emailKey, entry.id, entry);
+            if (!entry.nameKey.isEmpty()) {
+                byName.append(entry.nameKey, entry.id, entry);
+            }
+            for (String word : entry.nameWordKeys()) {
+                byName.append(word, entry.id, entry);
+            }
+            roleCounts.merge(entry.roleKey, 1, Integer::sum);
+        }
+
+        void sort() {
+            byUsername.sort();
+            byEmail.sort();
+            byName.sort();
+        }
+
+        void apply(Change change) {
+            Entry previous = users.remove(change.id);
+            if (previous != null) {
+                byUsername.remove(previous.usernameKey, previous.id);
+                byEmail.remove(previous.emailKey, previous.id);
+                byName.remove(previous.nameKey, previous.id);
+                for (String word : previous.nameWordKeys()) {
+                    byName.remove(word, previous.id);
+                }
+                roleCounts.computeIfPresent(previous.roleKey, (role, count) -> count > 1 ? count - 1 : null);
+            }
+            Entry entry = change.entry;
+            if (entry != null) {
+                users.put(entry.id, entry);
+                byUsername.add(entry.usernameKey, entry.id, entry);
+                byEmail.add(entry.emailKey, entry.id, entry);
+                if (!entry.nameKey.isEmpty()) {
+                    byName.add(entry.nameKey, entry.id, entry);
+                }
+                for (String word : entry.nameWordKeys()) {
+                    byName.add(word, entry.id, entry);
+                }
+                roleCounts.merge(entry.roleKey, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * Every user, optionally of one role, walking the username index up to the requested page.
+         */
+        Page<Entry> list(String roleKey, Pageable pageable) {
+            long total = roleKey == null ? users.size() : roleCounts.getOrDefault(roleKey, 0);
+            long offset = pageable.getOffset();
+            List<Entry> content = new ArrayList<>(pageable.getPageSize());
+            long[] seen = new long[1];
+            byUsername.forEachPrefix("", entry -> {
+                if (roleKey != null && !roleKey.equals(entry.roleKey)) {
+                    return true;
+                }
+                if (seen[0]++ >= offset) {
+                    content.add(entry);
+                }
+                return content.size() < pageable.getPageSize();
+            });
+            return new PageImpl<>(content, pageable, total);
+        }
+
+        /**
+         * Username matches come out of their index already in username order; users matched only
+         * by email or name are sorted separately and merged in, up to the requested page.
+         */
+        Page<Entry> search(String prefix, String roleKey, Pageable pageable) {
+            List<Entry> byUsernameMatches;
+            if (roleKey == null) {
+                byUsernameMatches = byUsername.prefixRange(prefix);
+            } else {
+                byUsernameMatches = new ArrayList<>();
+                byUsername.forEachPrefix(prefix, entry -> {
+                    if (roleKey.equals(entry.roleKey)) {
+                        byUsernameMatches.add(entry);
+                    }
+                    return true;
+                });
+            }
+            Set<Entry> others = new HashSet<>();
+            Predicate<Entry> collectOthers = entry -> {
+                if ((roleKey == null || roleKey.equals(entry.roleKey)) && !entry.usernameKey.startsWith(prefix)) {
+                    others.add(entry);
+                }
+                return true;
+            };
+            byEmail.forEachPrefix(prefix, collectOthers);
+            byName.forEachPrefix(prefix, collectOthers);
+            List<Entry> otherMatches = new ArrayList<>(others);
+            otherMatches.sort(BY_USERNAME);
+
+            long offset = pageable.getOffset();
+            long end = offset + pageable.getPageSize();
+            List<Entry> content = new ArrayList<>(pageable.getPageSize());
+            int i = 0;
+            int j = 0;
+            for (long position = 0; position < end; position++) {
+                Entry next;
+                if (i < byUsernameMatches.size() && (j >= otherMatches.size()
+                        || BY_USERNAME.compare(byUsernameMatches.get(i), otherMatches.get(j)) <= 0)) {
+                    next = byUsernameMatches.get(i++);
+                } else if (j < otherMatches.size()) {
+                    next = otherMatches.get(j++);
+                } else {
+                    break;
+                }
+                if (position >= offset) {
+                    content.add(next);
+                }
+            }
+            return new PageImpl<>(content, pageable, byUsernameMatches.size() + otherMatches.size());
+        }
+    }
+}
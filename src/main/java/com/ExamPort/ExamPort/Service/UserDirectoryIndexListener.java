@@ -0,0 +1,31 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.User;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Feeds registrations, profile edits and deletes made through JPA into {@link UserDirectoryIndex}.
+ * User deletion goes through a bulk JPQL delete, so {@link BulkDeletionService} notifies the index itself.
+ */
+public class UserDirectoryIndexListener {
+
+    // Resolved lazily: Hibernate creates listeners while the EntityManagerFactory is still being built
+    @Autowired
+    private ObjectProvider<UserDirectoryIndex> userDirectoryIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(User user) {
+        userDirectoryIndex.getObject().recordAfterCommit(user);
+    }
+
+    @PostRemove
+    public void onRemoved(User user) {
+        userDirectoryIndex.getObject().removeAfterCommit(user.getId());
+    }
+}
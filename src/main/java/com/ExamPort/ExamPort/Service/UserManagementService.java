@@ -6,8 +6,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -30,46 +30,25 @@ public class UserManagementService {
     @Autowired
     private ResultRepository resultRepository;
     
+    @Autowired
+    private BulkDeletionService bulkDeletionService;
+    
     /**
-     * Delete a user and all related data safely
+     * Delete a user and all related data safely. Related rows are removed with set-based
+     * deletes in short chunked transactions, see {@link BulkDeletionService#deleteUser}.
      */
-    @Transactional
     public boolean deleteUserSafely(Long userId) {
         try {
             logger.info("Starting safe deletion of user with ID: {}", userId);
             
             // Check if user exists
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
+            if (!userRepository.existsById(userId)) {
                 logger.warn("User with ID {} not found", userId);
                 return false;
             }
             
-            User user = userOpt.get();
-            logger.info("Deleting user: {} ({})", user.getUsername(), user.getEmail());
-            
-            // Step 1: Delete verification tokens
-            int deletedTokens = verificationTokenRepository.deleteByUser(user);
-            logger.info("Deleted {} verification tokens for user {}", deletedTokens, userId);
-            
-            // Step 2: Delete enrollments where user is a student
-            int deletedEnrollments = enrollmentRepository.deleteByStudent(user);
-            logger.info("Deleted {} enrollments for user {}", deletedEnrollments, userId);
-            
-            // Step 3: Delete results for this user
-            int deletedResults = resultRepository.deleteByUserId(userId);
-            logger.info("Deleted {} results for user {}", deletedResults, userId);
-            
-            // Step 4: Handle courses where user is an instructor
-            // Option A: Delete courses (if no enrollments)
-            // Option B: Set instructor to null (if you want to keep courses)
-            // For now, let's set instructor to null to preserve courses
-            int updatedCourses = courseRepository.updateInstructorToNull(user);
-            logger.info("Updated {} courses to remove instructor reference for user {}", updatedCourses, userId);
-            
-            // Step 5: Finally delete the user
-            userRepository.delete(user);
-            logger.info("Successfully deleted user: {} (ID: {})", user.getUsername(), userId);
+            Map<String, Object> counts = bulkDeletionService.deleteUser(userId);
+            logger.info("Successfully deleted user ID {} and related data: {}", userId, counts);
             
             return true;
             
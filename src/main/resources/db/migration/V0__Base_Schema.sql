@@ -0,0 +1,110 @@
+-- Core tables that predate the versioned migrations (previously created by Hibernate ddl-auto).
+-- Only runs on an empty schema: existing databases are baselined at version 0 and skip it.
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    full_name VARCHAR(100),
+    phone_number VARCHAR(10),
+    avatar_url VARCHAR(255),
+    gender VARCHAR(10),
+    email_verified BIT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_users_username (username),
+    UNIQUE KEY uk_users_email (email),
+    INDEX idx_users_phone_number (phone_number)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS verification_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    token VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expiry_time DATETIME(6) NOT NULL,
+    token_type VARCHAR(255) NOT NULL,
+    used BIT NOT NULL DEFAULT 0,
+    created_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_verification_tokens_token (token),
+    CONSTRAINT fk_verification_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS reviews (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    rating INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    is_approved BIT NOT NULL DEFAULT 1,
+    is_active BIT NOT NULL DEFAULT 1,
+    CONSTRAINT fk_reviews_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+-- visibility, pricing, price and description are added by V1
+CREATE TABLE IF NOT EXISTS courses (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    instructor_id BIGINT,
+    UNIQUE KEY uk_courses_name (name),
+    CONSTRAINT fk_courses_instructor FOREIGN KEY (instructor_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS course_allowed_emails (
+    course_id BIGINT NOT NULL,
+    email VARCHAR(255),
+    CONSTRAINT fk_course_allowed_emails_course FOREIGN KEY (course_id) REFERENCES courses (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS exam (
+    exam_id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    course_id BIGINT,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    start_date VARCHAR(255),
+    start_time VARCHAR(255),
+    end_date VARCHAR(255),
+    end_time VARCHAR(255),
+    instructions VARCHAR(2000),
+    total_marks INT,
+    created_at DATETIME(6) NOT NULL,
+    duration INT NOT NULL,
+    exam_modifier VARCHAR(255),
+    isactive BIT NOT NULL,
+    CONSTRAINT fk_exam_course FOREIGN KEY (course_id) REFERENCES courses (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS question (
+    que_id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    question VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    marks INT,
+    ex_id BIGINT,
+    CONSTRAINT fk_question_exam FOREIGN KEY (ex_id) REFERENCES exam (exam_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS exam_option (
+    option_id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    option_number INT NOT NULL,
+    available_option VARCHAR(255) NOT NULL,
+    qid BIGINT,
+    CONSTRAINT fk_exam_option_question FOREIGN KEY (qid) REFERENCES question (que_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS question_correct_options (
+    question_que_id BIGINT NOT NULL,
+    correct_option_index INT,
+    CONSTRAINT fk_question_correct_options_question FOREIGN KEY (question_que_id) REFERENCES question (que_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS result (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    answers TEXT,
+    attempt_date DATETIME(6),
+    feedback TEXT,
+    passed BIT,
+    score DOUBLE,
+    time_taken INT,
+    user_rank INT,
+    exam_exam_id BIGINT,
+    user_id BIGINT
+) ENGINE=InnoDB;
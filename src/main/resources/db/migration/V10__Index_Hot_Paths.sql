@@ -0,0 +1,83 @@
+-- Indexes for the hot lookups. Single-column indexes are skipped when any existing index
+-- (e.g. the one InnoDB creates for a foreign key) already leads with that column.
+
+-- A student's results and the one-attempt-per-exam check
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'result'
+               AND index_name = 'idx_result_user_exam'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Index idx_result_user_exam already exists''',
+                   'CREATE INDEX idx_result_user_exam ON result (user_id, exam_exam_id)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Exam leaderboards and statistics, ordered by score
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'result'
+               AND index_name = 'idx_result_exam_score'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Index idx_result_exam_score already exists''',
+                   'CREATE INDEX idx_result_exam_score ON result (exam_exam_id, score)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Enrolled students of a course
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'enrollments'
+               AND index_name = 'idx_enrollments_course_status'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Index idx_enrollments_course_status already exists''',
+                   'CREATE INDEX idx_enrollments_course_status ON enrollments (course_id, status)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- A student's enrollments
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'enrollments'
+               AND column_name = 'student_id'
+               AND seq_in_index = 1
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''An index on enrollments.student_id already exists''',
+                   'CREATE INDEX idx_enrollments_student ON enrollments (student_id)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Exams of a course
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'exam'
+               AND column_name = 'course_id'
+               AND seq_in_index = 1
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''An index on exam.course_id already exists''',
+                   'CREATE INDEX idx_exam_course ON exam (course_id)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Expired token cleanup
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'verification_tokens'
+               AND column_name = 'expiry_time'
+               AND seq_in_index = 1
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''An index on verification_tokens.expiry_time already exists''',
+                   'CREATE INDEX idx_verification_tokens_expiry_time ON verification_tokens (expiry_time)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- V1 created enrollments.status as ENUM('ENROLLED', 'PAYMENT_PENDING'), which rejects CANCELLED
+SET @exist := (SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_name = 'enrollments'
+               AND column_name = 'status'
+               AND data_type = 'enum'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist = 0, 'SELECT ''Column enrollments.status is not an ENUM''',
+                   'ALTER TABLE enrollments MODIFY COLUMN status VARCHAR(20) NOT NULL DEFAULT ''ENROLLED''');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,7 @@
+-- One-time fixes for accounts created before email verification and lower-case roles,
+-- previously re-applied on every startup by DatabaseMigrationService
+UPDATE users SET email_verified = TRUE WHERE email_verified = FALSE;
+
+UPDATE users SET role = 'admin' WHERE role IN ('ROLE_ADMIN', 'ADMIN');
+UPDATE users SET role = 'student' WHERE role IN ('ROLE_STUDENT', 'STUDENT');
+UPDATE users SET role = 'instructor' WHERE role IN ('ROLE_INSTRUCTOR', 'INSTRUCTOR');
@@ -0,0 +1,17 @@
+-- Results of long-closed exams, moved out of the hot result table by ResultArchivalService.
+-- Same columns and IDs as result, so history reads can UNION ALL both tables.
+CREATE TABLE IF NOT EXISTS result_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    answers TEXT,
+    attempt_date DATETIME(6),
+    feedback TEXT,
+    passed BIT,
+    score DOUBLE,
+    time_taken INT,
+    user_rank INT,
+    exam_exam_id BIGINT,
+    user_id BIGINT,
+    archived_at DATETIME(6) NOT NULL,
+    INDEX idx_result_archive_user_exam (user_id, exam_exam_id),
+    INDEX idx_result_archive_exam_score (exam_exam_id, score)
+) ENGINE=InnoDB;
@@ -1,17 +1,43 @@
 -- Add reference_number column to contact_message table
-ALTER TABLE contact_message ADD COLUMN reference_number VARCHAR(50) UNIQUE;
+SET @exist := (SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_name = 'contact_message'
+               AND column_name = 'reference_number'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Column reference_number already exists''',
+                   'ALTER TABLE contact_message ADD COLUMN reference_number VARCHAR(50) UNIQUE');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
 
--- Create index for faster lookups
-CREATE INDEX idx_contact_message_reference_number ON contact_message(reference_number);
+-- Create index for faster lookups, unless one (e.g. the unique key) already covers the column
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'contact_message'
+               AND column_name = 'reference_number'
+               AND seq_in_index = 1
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Index on reference_number already exists''',
+                   'CREATE INDEX idx_contact_message_reference_number ON contact_message(reference_number)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
 
 -- Update existing records with generated reference numbers
 -- This will generate reference numbers for existing records
-UPDATE contact_message 
-SET reference_number = CONCAT('REF-', 
+UPDATE contact_message
+SET reference_number = CONCAT('REF-',
     DATE_FORMAT(submitted_at, '%Y%m%d'), '-',
     DATE_FORMAT(submitted_at, '%H%i%s'), '-',
     LPAD(id % 1000, 3, '0'))
 WHERE reference_number IS NULL;
 
--- Make the column NOT NULL after updating existing records
-ALTER TABLE contact_message MODIFY COLUMN reference_number VARCHAR(50) NOT NULL UNIQUE;
\ No newline at end of file
+-- Make the column NOT NULL after updating existing records (the unique key above is kept)
+SET @exist := (SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_name = 'contact_message'
+               AND column_name = 'reference_number'
+               AND is_nullable = 'YES'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist = 0, 'SELECT ''Column reference_number is already NOT NULL''',
+                   'ALTER TABLE contact_message MODIFY COLUMN reference_number VARCHAR(50) NOT NULL');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
\ No newline at end of file
@@ -1,37 +1,62 @@
 -- Fix AUTO_INCREMENT for primary key fields
--- Handle ALL foreign key constraints properly
-
--- Step 1: Drop ALL foreign key constraints that reference que_id
-ALTER TABLE exam_option DROP FOREIGN KEY FK5v5uvc47r0e02i4i329c0timh;
-ALTER TABLE exam_option DROP FOREIGN KEY FK8klmro2xx63jstv0k2lhe42j3;
-ALTER TABLE exam_option DROP FOREIGN KEY FKky5sj7tsnlu9xie9xyctavd9x;
-ALTER TABLE question_correct_options DROP FOREIGN KEY FKqw7r17qu3j9ro4yqraj19blag;
-
--- Step 2: Drop foreign key constraints that reference exam_id
-ALTER TABLE question DROP FOREIGN KEY FKhupso6ldavcx993tfnrjsdl1p;
-
--- Step 2: Modify the question table to add AUTO_INCREMENT
-ALTER TABLE question MODIFY COLUMN que_id BIGINT NOT NULL AUTO_INCREMENT;
-
--- Step 3: Fix the exam table
-ALTER TABLE exam MODIFY COLUMN exam_id BIGINT NOT NULL AUTO_INCREMENT;
-
--- Step 4: Fix the exam_option table option_id
-ALTER TABLE exam_option MODIFY COLUMN option_id BIGINT NOT NULL AUTO_INCREMENT;
-
--- Step 5: Recreate ALL the foreign key constraints
-ALTER TABLE exam_option ADD CONSTRAINT FK5v5uvc47r0e02i4i329c0timh 
-    FOREIGN KEY (qid) REFERENCES question(que_id);
-
-ALTER TABLE exam_option ADD CONSTRAINT FK8klmro2xx63jstv0k2lhe42j3 
-    FOREIGN KEY (q_id) REFERENCES question(que_id);
-
-ALTER TABLE exam_option ADD CONSTRAINT FKky5sj7tsnlu9xie9xyctavd9x 
-    FOREIGN KEY (q_id) REFERENCES question(que_id);
-
-ALTER TABLE question_correct_options ADD CONSTRAINT FKqw7r17qu3j9ro4yqraj19blag 
-    FOREIGN KEY (question_que_id) REFERENCES question(que_id);
-
--- Step 6: Recreate the foreign key constraint for exam_id  
-ALTER TABLE question ADD CONSTRAINT FKhupso6ldavcx993tfnrjsdl1p 
-    FOREIGN KEY (ex_id) REFERENCES exam(exam_id);
\ No newline at end of file
+-- Only columns that are still missing AUTO_INCREMENT are modified, so this is safe to re-run.
+-- Foreign key checks are off while referenced key columns are modified in place, instead of
+-- dropping and recreating each constraint by its generated name.
+SET FOREIGN_KEY_CHECKS = 0;
+
+SET @missing := (SELECT COUNT(*) FROM information_schema.columns 
+                 WHERE table_name = 'users' 
+                 AND column_name = 'id' 
+                 AND extra NOT LIKE '%auto_increment%' 
+                 AND table_schema = database());
+SET @sqlstmt := IF(@missing = 0, 'SELECT ''users.id already has AUTO_INCREMENT''', 
+                   'ALTER TABLE users MODIFY COLUMN id BIGINT NOT NULL AUTO_INCREMENT');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @missing := (SELECT COUNT(*) FROM information_schema.columns 
+                 WHERE table_name = 'verification_tokens' 
+                 AND column_name = 'id' 
+                 AND extra NOT LIKE '%auto_increment%' 
+                 AND table_schema = database());
+SET @sqlstmt := IF(@missing = 0, 'SELECT ''verification_tokens.id already has AUTO_INCREMENT''', 
+                   'ALTER TABLE verification_tokens MODIFY COLUMN id BIGINT NOT NULL AUTO_INCREMENT');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @missing := (SELECT COUNT(*) FROM information_schema.columns 
+                 WHERE table_name = 'exam' 
+                 AND column_name = 'exam_id' 
+                 AND extra NOT LIKE '%auto_increment%' 
+                 AND table_schema = database());
+SET @sqlstmt := IF(@missing = 0, 'SELECT ''exam.exam_id already has AUTO_INCREMENT''', 
+                   'ALTER TABLE exam MODIFY COLUMN exam_id BIGINT NOT NULL AUTO_INCREMENT');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @missing := (SELECT COUNT(*) FROM information_schema.columns 
+                 WHERE table_name = 'question' 
+                 AND column_name = 'que_id' 
+                 AND extra NOT LIKE '%auto_increment%' 
+                 AND table_schema = database());
+SET @sqlstmt := IF(@missing = 0, 'SELECT ''question.que_id already has AUTO_INCREMENT''', 
+                   'ALTER TABLE question MODIFY COLUMN que_id BIGINT NOT NULL AUTO_INCREMENT');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @missing := (SELECT COUNT(*) FROM information_schema.columns 
+                 WHERE table_name = 'exam_option' 
+                 AND column_name = 'option_id' 
+                 AND extra NOT LIKE '%auto_increment%' 
+                 AND table_schema = database());
+SET @sqlstmt := IF(@missing = 0, 'SELECT ''exam_option.option_id already has AUTO_INCREMENT''', 
+                   'ALTER TABLE exam_option MODIFY COLUMN option_id BIGINT NOT NULL AUTO_INCREMENT');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file
@@ -0,0 +1,18 @@
+-- Resumable "new exam published" fan-out, one row per exam
+CREATE TABLE IF NOT EXISTS exam_notification_job (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    exam_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    last_enrollment_id BIGINT NOT NULL DEFAULT 0,
+    allowed_email_offset INT NOT NULL DEFAULT 0,
+    sent_count INT NOT NULL DEFAULT 0,
+    failed_count INT NOT NULL DEFAULT 0,
+    skipped_count INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    heartbeat_at DATETIME(6),
+    created_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    UNIQUE KEY uk_exam_notification_job_exam (exam_id),
+    INDEX idx_exam_notification_job_status (status, heartbeat_at)
+);
@@ -0,0 +1,33 @@
+-- Verified Razorpay webhooks awaiting PaymentWebhookWorker, one row per payment
+CREATE TABLE IF NOT EXISTS payment_webhook_inbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(64),
+    event_type VARCHAR(50) NOT NULL,
+    payment_id VARCHAR(64) NOT NULL,
+    order_id VARCHAR(64) NOT NULL,
+    course_id BIGINT,
+    student_id BIGINT,
+    captured BIT NOT NULL,
+    amount_paise BIGINT,
+    payload LONGTEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    locked_at DATETIME(6),
+    last_error VARCHAR(1000),
+    received_at DATETIME(6) NOT NULL,
+    processed_at DATETIME(6),
+    UNIQUE KEY uk_payment_webhook_inbox_payment (payment_id),
+    INDEX idx_payment_webhook_inbox_status_next_attempt (status, next_attempt_at)
+);
+
+-- Order the enrollment is waiting on, so webhooks can find it
+SET @exist := (SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_name = 'enrollments'
+               AND column_name = 'payment_order_id'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Column payment_order_id already exists''',
+                   'ALTER TABLE enrollments ADD COLUMN payment_order_id VARCHAR(64) NULL AFTER payment_transaction_id, ADD INDEX idx_enrollments_payment_order_id (payment_order_id)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
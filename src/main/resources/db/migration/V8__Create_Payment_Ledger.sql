@@ -0,0 +1,37 @@
+-- Settled payments; instructor revenue is summed from here
+CREATE TABLE IF NOT EXISTS payment_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    payment_id VARCHAR(64) NOT NULL,
+    order_id VARCHAR(64),
+    enrollment_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    amount_paise BIGINT NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    source VARCHAR(20) NOT NULL,
+    settled_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_payment_ledger_payment (payment_id),
+    INDEX idx_payment_ledger_course (course_id)
+);
+
+-- Paid enrollments from before the ledger, at the course's current price
+INSERT IGNORE INTO payment_ledger (payment_id, order_id, enrollment_id, course_id, student_id, amount_paise, currency, source, settled_at)
+SELECT e.payment_transaction_id, e.payment_order_id, e.id, e.course_id, e.student_id,
+       ROUND(c.price * 100), 'INR', 'BACKFILL', e.updated_at
+FROM enrollments e
+JOIN courses c ON c.id = e.course_id
+WHERE e.status = 'ENROLLED'
+  AND e.payment_transaction_id IS NOT NULL
+  AND c.pricing = 'PAID'
+  AND c.price IS NOT NULL;
+
+-- Reconciliation sweep pages pending checkouts by age
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'enrollments'
+               AND index_name = 'idx_enrollments_status_updated_at'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Index idx_enrollments_status_updated_at already exists''',
+                   'CREATE INDEX idx_enrollments_status_updated_at ON enrollments (status, updated_at)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
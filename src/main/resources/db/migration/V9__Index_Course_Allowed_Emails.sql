@@ -0,0 +1,10 @@
+-- Allow-list membership checks look up (course_id, email)
+SET @exist := (SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_name = 'course_allowed_emails'
+               AND index_name = 'idx_course_allowed_emails_course_email'
+               AND table_schema = database());
+SET @sqlstmt := IF(@exist > 0, 'SELECT ''Index idx_course_allowed_emails_course_email already exists''',
+                   'CREATE INDEX idx_course_allowed_emails_course_email ON course_allowed_emails (course_id, email)');
+PREPARE stmt FROM @sqlstmt;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
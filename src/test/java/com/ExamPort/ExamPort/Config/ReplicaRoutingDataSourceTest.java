@@ -0,0 +1,171 @@
+package com.ExamPort.ExamPort.Config;
+
+import com.ExamPort.ExamPort.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two schemas on the embedded server standing in for the primary and the
+ * replica; each holds one row naming it, so a query shows which one served it. Wired the way
+ * {@link ReplicaDataSourceConfig} wires it, behind a {@link LazyConnectionDataSourceProxy}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration STICKY_WINDOW = Duration.ofMillis(500);
+
+    private static DataSource primary;
+    private static DataSource replicaSchema;
+
+    private SwitchableDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactions;
+
+    @BeforeAll
+    static void createSchemas() {
+        primary = schemaNamed("routing_primary");
+        replicaSchema = schemaNamed("routing_replica");
+    }
+
+    @BeforeEach
+    void setUp() {
+        replica = new SwitchableDataSource(replicaSchema);
+        // Replication lag cannot be produced on a single server; the health check only tests reachability
+        routing = new ReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(5), STICKY_WINDOW, false);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(readOnly()).isEqualTo("replica");
+        assertThat(routing.getStats()).containsEntry("replicaConnections", 1L);
+    }
+
+    @Test
+    void writesAndNonTransactionalQueriesUseThePrimary() {
+        assertThat(readWrite()).isEqualTo("primary");
+        assertThat(jdbc.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+        assertThat(routing.getStats()).containsEntry("replicaConnections", 0L);
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        replica.available = false;
+
+        assertThat(readOnly()).isEqualTo("primary");
+        assertThat(routing.isReplicaHealthy()).isFalse();
+        assertThat(routing.getStats()).containsEntry("connectionFailures", 1L);
+
+        // Later reads skip the replica without trying it until a health check passes
+        assertThat(readOnly()).isEqualTo("primary");
+        assertThat(routing.getStats()).containsEntry("connectionFailures", 1L).containsEntry("unhealthyFallbacks", 1L);
+
+        routing.checkReplica();
+        assertThat(routing.isReplicaHealthy()).isFalse();
+
+        replica.available = true;
+        routing.checkReplica();
+        assertThat(routing.isReplicaHealthy()).isTrue();
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void readsStayOnThePrimaryForTheWriterDuringTheStickyWindow() throws InterruptedException {
+        signIn("writer");
+        readWrite();
+
+        assertThat(readOnly()).isEqualTo("primary");
+        assertThat(routing.getStats()).containsEntry("stickyFallbacks", 1L).containsEntry("stickyUsers", 1);
+
+        signIn("someone-else");
+        assertThat(readOnly()).isEqualTo("replica");
+
+        signIn("writer");
+        Thread.sleep(STICKY_WINDOW.toMillis() + 100);
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotMakeReadsSticky() {
+        signIn("writer");
+        transactions.executeWithoutResult(status -> {
+            jdbc.queryForObject("SELECT name FROM node", String.class);
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    private String readOnly() {
+        transactions.setReadOnly(true);
+        try {
+            return transactions.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        } finally {
+            transactions.setReadOnly(false);
+        }
+    }
+
+    private String readWrite() {
+        return transactions.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_STUDENT")));
+    }
+
+    private static DataSource schemaNamed(String schema) {
+        TestDatabase database = TestDatabase.get();
+        DataSource dataSource = new DriverManagerDataSource(database.createSchema(schema),
+                database.getUsername(), database.getPassword());
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20) NOT NULL)");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", schema.substring(schema.indexOf('_') + 1));
+        return dataSource;
+    }
+
+    /**
+     * A replica that can be taken down and brought back.
+     */
+    private static final class SwitchableDataSource extends DelegatingDataSource {
+        volatile boolean available = true;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!available) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ExamPort.ExamPort.Config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements run on the current thread until closed, to hold an endpoint or a
+ * service method to a query budget. {@code MockMvc} runs the request on the calling thread, so
+ * a scope around {@code perform} sees every statement of the request:
+ * <pre>
+ * try (SqlStatementScope scope = SqlStatementScope.open()) {
+ *     mockMvc.perform(get("/api/exams"));
+ *     scope.assertStatementsAtMost(5);
+ *     scope.assertRepeatsAtMost(1);
+ * }
+ * </pre>
+ * Scopes nest: an enclosing scope also counts what inner ones (such as the per-request stats of
+ * {@link SqlStatementFilter}) see.
+ */
+public final class SqlStatementScope implements AutoCloseable {
+
+    private final SqlStatementStats stats;
+
+    private SqlStatementScope(SqlStatementStats stats) {
+        this.stats = stats;
+    }
+
+    public static SqlStatementScope open() {
+        SqlStatementStats stats = new SqlStatementStats();
+        SqlStatementStats.attach(stats);
+        return new SqlStatementScope(stats);
+    }
+
+    public SqlStatementStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @throws AssertionError if more than {@code maxStatements} statements ran
+     */
+    public void assertStatementsAtMost(int maxStatements) {
+        if (stats.getStatementCount() > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                    + stats.getStatementCount() + " ran: " + describe(stats.getRepeatedShapes(1)));
+        }
+    }
+
+    /**
+     * @throws AssertionError if any statement shape ran more than {@code maxRepeats} times
+     */
+    public void assertRepeatsAtMost(int maxRepeats) {
+        Map<String, Integer> repeated = stats.getRepeatedShapes(maxRepeats + 1);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Expected no SQL statement to run more than " + maxRepeats
+                    + " times (likely N+1): " + describe(repeated));
+        }
+    }
+
+    @Override
+    public void close() {
+        SqlStatementStats.detach(stats);
+    }
+
+    private static String describe(Map<String, Integer> shapes) {
+        List<String> lines = shapes.entrySet().stream()
+                .map(entry -> entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.toList());
+        return String.join("; ", lines);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ExamPort.ExamPort.Controller;
+
+import com.ExamPort.ExamPort.Config.SqlStatementScope;
+import com.ExamPort.ExamPort.Security.JwtUtil;
+import com.ExamPort.ExamPort.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds the requests of an exam sitting to a query budget, so a change that adds a query per
+ * question or per enrollment fails here instead of under the load test. The exam has enough
+ * questions that a per-question query would blow the budget.
+ */
+@SpringBootTest(properties = {
+        "app.rate-limit.enabled=false",
+        "app.payment.gateway=stub",
+        "razorpay.key.id=test",
+        "razorpay.key.secret=test",
+        "spring.mail.host=127.0.0.1",
+        "spring.mail.port=1",
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "app.email.admin=admin@examport.test",
+        "app.email.outbox.initial-backoff=PT1H",
+        "management.server.port=-1"
+})
+@AutoConfigureMockMvc
+class ExamQueryBudgetTest {
+
+    private static final int QUESTIONS = 20;
+    private static final String STUDENT = "budget-student";
+
+    private static long examId;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws SQLException {
+        TestDatabase database = TestDatabase.get();
+        String url = database.createMigratedSchema("exam_query_budget_test");
+        seed(url, database.getUsername(), database.getPassword());
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", database::getUsername);
+        registry.add("spring.datasource.password", database::getPassword);
+    }
+
+    @BeforeEach
+    void signIn() {
+        token = "Bearer " + jwtUtil.generateToken(STUDENT, "student");
+    }
+
+    @Test
+    void examAccessCheckStaysWithinBudget() throws Exception {
+        try (SqlStatementScope scope = SqlStatementScope.open()) {
+            mockMvc.perform(get("/api/exams/" + examId + "/access").header("Authorization", token))
+                    .andExpect(status().isOk());
+            scope.assertStatementsAtMost(4);
+            scope.assertRepeatsAtMost(2);
+        }
+    }
+
+    @Test
+    void examWithQuestionsStaysWithinBudget() throws Exception {
+        try (SqlStatementScope scope = SqlStatementScope.open()) {
+            mockMvc.perform(get("/api/exams/" + examId).header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.questions.length()").value(QUESTIONS));
+            scope.assertStatementsAtMost(10);
+            scope.assertRepeatsAtMost(2);
+        }
+    }
+
+    @Test
+    void enrolledExamsStayWithinBudget() throws Exception {
+        try (SqlStatementScope scope = SqlStatementScope.open()) {
+            mockMvc.perform(get("/api/exams/student/enrolled").header("Authorization", token))
+                    .andExpect(status().isOk());
+            scope.assertStatementsAtMost(10);
+            scope.assertRepeatsAtMost(2);
+        }
+    }
+
+    /**
+     * A student enrolled in one course whose exam is open now and has {@link #QUESTIONS}
+     * single-choice questions with four options each.
+     */
+    private static void seed(String url, String user, String password) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            long instructorId = insert(connection,
+                    "INSERT INTO users (username, email, password, role, email_verified) VALUES ('budget-instructor', 'instructor@examport.test', 'x', 'instructor', 1)");
+            long studentId = insert(connection,
+                    "INSERT INTO users (username, email, password, role, email_verified) VALUES ('" + STUDENT + "', 'student@examport.test', 'x', 'student', 1)");
+            long courseId = insert(connection,
+                    "INSERT INTO courses (name, instructor_id, visibility, pricing) VALUES ('Budget course', " + instructorId + ", 'PUBLIC', 'FREE')");
+            insert(connection, "INSERT INTO enrollments (student_id, course_id, status) VALUES (" + studentId + ", " + courseId + ", 'ENROLLED')");
+
+            DateTimeFormatter date = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            DateTimeFormatter time = DateTimeFormatter.ofPattern("HH:mm");
+            LocalDateTime start = now.minusMinutes(5);
+            LocalDateTime end = now.plusHours(3);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO exam (course_id, title, start_date, start_time, end_date, end_time, total_marks, created_at, duration, isactive) "
+                            + "VALUES (?, 'Budget exam', ?, ?, ?, ?, ?, ?, 60, 1)", Statement.RETURN_GENERATED_KEYS)) {
+                statement.setLong(1, courseId);
+                statement.setString(2, start.format(date));
+                statement.setString(3, start.format(time));
+                statement.setString(4, end.format(date));
+                statement.setString(5, end.format(time));
+                statement.setInt(6, QUESTIONS * 2);
+                statement.setTimestamp(7, Timestamp.valueOf(now));
+                statement.executeUpdate();
+                examId = generatedKey(statement);
+            }
+            for (int i = 1; i <= QUESTIONS; i++) {
+                long questionId = insert(connection,
+                        "INSERT INTO question (question, type, marks, ex_id) VALUES ('Question " + i + "', 'mcq', 2, " + examId + ")");
+                for (int o = 1; o <= 4; o++) {
+                    insert(connection, "INSERT INTO exam_option (option_number, available_option, qid) VALUES (" + o + ", 'Option " + o + "', " + questionId + ")");
+                }
+                insert(connection, "INSERT INTO question_correct_options (question_que_id, correct_option_index) VALUES (" + questionId + ", 0)");
+            }
+        }
+    }
+
+    private static long insert(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql, Statement.RETURN_GENERATED_KEYS);
+            return generatedKey(statement);
+        }
+    }
+
+    private static long generatedKey(Statement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            return keys.next() ? keys.getLong(1) : 0;
+        }
+    }
+}
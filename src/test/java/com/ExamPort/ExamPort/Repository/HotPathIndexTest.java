@@ -0,0 +1,225 @@
+package com.ExamPort.ExamPort.Repository;
+
+import com.ExamPort.ExamPort.TestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hot lookups must use the indexes from V10 instead of scanning their tables. Checked with
+ * EXPLAIN on the migrated schema, seeded and analyzed so the optimizer has a real choice to make.
+ * Where an older index already leads with the same column, V10 skips its own and either counts.
+ */
+class HotPathIndexTest {
+
+    private static final int STUDENTS = 300;
+    private static final int COURSES = 20;
+    private static final int EXAMS_PER_COURSE = 5;
+    private static final int TOKENS = 5000;
+
+    private static String url;
+    private static LocalDateTime now;
+    private static long studentId;
+    private static long courseId;
+    private static long examId;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        url = TestDatabase.get().createMigratedSchema("hot_path_index_test");
+        now = LocalDateTime.now();
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            long instructorId = insertUsers(connection, "instructor", 1).get(0);
+            List<Long> students = insertUsers(connection, "student", STUDENTS);
+            List<Long> courses = insertCourses(connection, instructorId);
+            List<Long> exams = insertExams(connection, courses);
+            insertEnrollments(connection, students, courses);
+            insertResults(connection, students, exams);
+            insertTokens(connection, students.get(0));
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE users, courses, exam, enrollments, result, verification_tokens");
+            }
+            studentId = students.get(STUDENTS / 2);
+            courseId = courses.get(COURSES / 2);
+            examId = exams.get(exams.size() / 2);
+        }
+    }
+
+    @Test
+    void oneAttemptCheckUsesTheUserExamIndex() throws SQLException {
+        assertThat(explain("SELECT COUNT(*) FROM result WHERE user_id = ? AND exam_exam_id = ?", studentId, examId))
+                .isEqualTo("idx_result_user_exam");
+    }
+
+    @Test
+    void examResultsByScoreUseTheExamScoreIndex() throws SQLException {
+        assertThat(explain("SELECT id, score FROM result WHERE exam_exam_id = ? ORDER BY score DESC", examId))
+                .isEqualTo("idx_result_exam_score");
+    }
+
+    @Test
+    void enrolledCountUsesTheCourseStatusIndex() throws SQLException {
+        assertThat(explain("SELECT COUNT(*) FROM enrollments WHERE course_id = ? AND status = 'ENROLLED'", courseId))
+                .isEqualTo("idx_enrollments_course_status");
+    }
+
+    @Test
+    void studentEnrollmentsUseAStudentIndex() throws SQLException {
+        assertThat(explain("SELECT id, course_id FROM enrollments WHERE student_id = ?", studentId))
+                .isIn("idx_enrollments_student", "idx_student_enrollments", "unique_enrollment");
+    }
+
+    @Test
+    void courseExamsUseACourseIndex() throws SQLException {
+        assertThat(explain("SELECT exam_id, title FROM exam WHERE course_id = ?", courseId))
+                .isIn("idx_exam_course", "fk_exam_course");
+    }
+
+    @Test
+    void expiredTokenCleanupUsesTheExpiryIndex() throws SQLException {
+        // The statement Hibernate generates for deleteExpiredTokens
+        assertThat(explain("DELETE FROM verification_tokens WHERE expiry_time < ?", Timestamp.valueOf(now)))
+                .isEqualTo("idx_verification_tokens_expiry_time");
+    }
+
+    /**
+     * The index the first table of the plan is read through, or null for a full scan.
+     */
+    private static String explain(String sql, Object... parameters) throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                assertThat(plan.next()).isTrue();
+                assertThat(plan.getString("type")).as("access type of %s", sql).isNotEqualTo("ALL");
+                return plan.getString("key");
+            }
+        }
+    }
+
+    private static List<Long> insertUsers(Connection connection, String role, int count) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (username, email, password, role) VALUES (?, ?, 'x', ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < count; i++) {
+                statement.setString(1, role + i);
+                statement.setString(2, role + i + "@examport.test");
+                statement.setString(3, role);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            return generatedKeys(statement);
+        }
+    }
+
+    private static List<Long> insertCourses(Connection connection, long instructorId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO courses (name, instructor_id, visibility, pricing) VALUES (?, ?, 'PUBLIC', 'FREE')",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < COURSES; i++) {
+                statement.setString(1, "Course " + i);
+                statement.setLong(2, instructorId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            return generatedKeys(statement);
+        }
+    }
+
+    private static List<Long> insertExams(Connection connection, List<Long> courses) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO exam (course_id, title, created_at, duration, isactive) VALUES (?, ?, ?, 60, 1)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (long course : courses) {
+                for (int i = 0; i < EXAMS_PER_COURSE; i++) {
+                    statement.setLong(1, course);
+                    statement.setString(2, "Exam " + i + " of course " + course);
+                    statement.setTimestamp(3, Timestamp.valueOf(now));
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+            return generatedKeys(statement);
+        }
+    }
+
+    /**
+     * Every student in a quarter of the courses; one enrollment in five still awaits payment.
+     */
+    private static void insertEnrollments(Connection connection, List<Long> students, List<Long> courses) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO enrollments (student_id, course_id, status) VALUES (?, ?, ?)")) {
+            for (int s = 0; s < students.size(); s++) {
+                for (int c = s % 4; c < courses.size(); c += 4) {
+                    statement.setLong(1, students.get(s));
+                    statement.setLong(2, courses.get(c));
+                    statement.setString(3, (s + c) % 5 == 0 ? "PAYMENT_PENDING" : "ENROLLED");
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void insertResults(Connection connection, List<Long> students, List<Long> exams) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO result (user_id, exam_exam_id, score, attempt_date) VALUES (?, ?, ?, ?)")) {
+            for (int s = 0; s < students.size(); s++) {
+                for (int e = s % 10; e < exams.size(); e += 10) {
+                    statement.setLong(1, students.get(s));
+                    statement.setLong(2, exams.get(e));
+                    statement.setDouble(3, (s * 31 + e * 7) % 101);
+                    statement.setTimestamp(4, Timestamp.valueOf(now.minusDays(e)));
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * One token in a hundred has expired, as between two cleanup runs.
+     */
+    private static void insertTokens(Connection connection, long userId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO verification_tokens (token, user_id, expiry_time, token_type, created_at) VALUES (?, ?, ?, 'EMAIL_VERIFICATION', ?)")) {
+            for (int i = 0; i < TOKENS; i++) {
+                LocalDateTime expiry = i % 100 == 0 ? now.minusHours(1 + i % 24) : now.plusMinutes(1 + i % 1440);
+                statement.setString(1, "token-" + i);
+                statement.setLong(2, userId);
+                statement.setTimestamp(3, Timestamp.valueOf(expiry));
+                statement.setTimestamp(4, Timestamp.valueOf(expiry.minusDays(1)));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static List<Long> generatedKeys(Statement statement) throws SQLException {
+        List<Long> keys = new ArrayList<>();
+        try (ResultSet rs = statement.getGeneratedKeys()) {
+            while (rs.next()) {
+                keys.add(rs.getLong(1));
+            }
+        }
+        return keys;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, TestDatabase.get().getUsername(), TestDatabase.get().getPassword());
+    }
+}
@@ -0,0 +1,95 @@
+package com.ExamPort.ExamPort.Security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sign-in limits: per submitted username, under a per-address ceiling, so students behind one
+ * NAT address do not share a bucket.
+ */
+class RateLimitFilterTest {
+
+    private final List<String> handledBodies = new ArrayList<>();
+    private final FilterChain chain = (request, response) ->
+            handledBodies.add(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRules().put("login-ip", rule(20, RateLimitProperties.KeyType.IP));
+        properties.getRules().put("login", rule(3, RateLimitProperties.KeyType.USERNAME));
+        filter = new RateLimitFilter(new RateLimiter(), properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void emptyUsernameBucketAnswers429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(login("10.0.0.1", "alice").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = login("10.0.0.1", "Alice");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("20");
+        assertThat(rejected.getContentAsString()).contains("RATE_LIMITED");
+        assertThat(login("10.0.0.2", "alice").getStatus()).as("the username is the key, not the address").isEqualTo(429);
+    }
+
+    @Test
+    void studentsBehindOneAddressSignInUpToTheAddressCeiling() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(login("10.0.0.1", "student" + i).getStatus()).isEqualTo(200);
+        }
+        assertThat(handledBodies).hasSize(20).allMatch(body -> body.contains("\"password\""));
+
+        assertThat(login("10.0.0.1", "student20").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.2", "student20").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void bodyWithoutAUsernameFallsBackToTheAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("10.0.0.1", "not json").getStatus()).isEqualTo(200);
+        }
+        assertThat(send("10.0.0.1", "{}").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.1", "bob").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse login(String address, String username) throws Exception {
+        return send(address, "{\"username\":\"" + username + "\",\"password\":\"secret\"}");
+    }
+
+    private MockHttpServletResponse send(String address, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(address);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static RateLimitProperties.Rule rule(int capacity, RateLimitProperties.KeyType key) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setMethod("POST");
+        rule.setPath("/api/auth/login");
+        rule.setCapacity(capacity);
+        rule.setRefillPerMinute(capacity);
+        rule.setKey(key);
+        return rule;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ExamPort.ExamPort.Security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter();
+
+    @Test
+    void fullBucketAllowsItsCapacityBackToBackThenReportsTheWait() {
+        RateLimitProperties.Rule rule = rule(3, 60);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("test", rule, "ip:a")).isZero();
+        }
+        long waitNanos = rateLimiter.tryAcquire("test", rule, "ip:a");
+
+        // One token a second
+        assertThat(waitNanos).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.getRejectedCount("test")).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire("test", rule, "ip:b")).as("other clients have their own bucket").isZero();
+    }
+
+    @Test
+    void emptyBucketRefillsAtTheConfiguredRate() throws InterruptedException {
+        // One token every 50 ms
+        RateLimitProperties.Rule rule = rule(1, 1200);
+        assertThat(rateLimiter.tryAcquire("test", rule, "ip:a")).isZero();
+        long waitNanos = rateLimiter.tryAcquire("test", rule, "ip:a");
+        assertThat(waitNanos).isPositive();
+
+        TimeUnit.NANOSECONDS.sleep(waitNanos + TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(rateLimiter.tryAcquire("test", rule, "ip:a")).isZero();
+        assertThat(rateLimiter.tryAcquire("test", rule, "ip:a")).isPositive();
+    }
+
+    @Test
+    void wheelEvictsRefilledBucketsAndKeepsDrainedOnes() throws InterruptedException {
+        // Refills within a millisecond, so it is full by the first tick
+        RateLimitProperties.Rule fast = rule(1, 60_000);
+        // Needs a minute to refill, so it is rescheduled on every tick that reaches it
+        RateLimitProperties.Rule slow = rule(1, 1);
+        rateLimiter.tryAcquire("fast", fast, "ip:a");
+        rateLimiter.tryAcquire("slow", slow, "ip:a");
+        assertThat(rateLimiter.getStats()).containsEntry("activeBuckets", 2);
+
+        TimeUnit.MILLISECONDS.sleep(5);
+        for (int i = 0; i < 64; i++) {
+            rateLimiter.tick();
+        }
+
+        assertThat(rateLimiter.getStats()).containsEntry("activeBuckets", 1);
+        // The drained bucket survived eviction and is still empty
+        assertThat(rateLimiter.tryAcquire("slow", slow, "ip:a")).isPositive();
+    }
+
+    private static RateLimitProperties.Rule rule(int capacity, double refillPerMinute) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setCapacity(capacity);
+        rule.setRefillPerMinute(refillPerMinute);
+        return rule;
+    }
+}
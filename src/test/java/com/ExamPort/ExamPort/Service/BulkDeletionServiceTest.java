@@ -0,0 +1,114 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Repository.CourseRepository;
+import com.ExamPort.ExamPort.Repository.UserRepository;
+import com.ExamPort.ExamPort.Repository.VerificationTokenRepository;
+import com.ExamPort.ExamPort.TestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deletes a user who left a review, tokens, a course, results and enrollments behind, against the
+ * migrated schema so every foreign key to {@code users} is in play. The repositories are mocked
+ * with the SQL their queries generate.
+ */
+class BulkDeletionServiceTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private BulkDeletionService service;
+
+    @BeforeAll
+    static void createSchema() {
+        TestDatabase database = TestDatabase.get();
+        String url = database.createMigratedSchema("bulk_deletion_test");
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, database.getUsername(), database.getPassword()));
+    }
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.deleteUserById(anyLong())).thenAnswer(invocation ->
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", invocation.<Long>getArgument(0)));
+        VerificationTokenRepository verificationTokenRepository = mock(VerificationTokenRepository.class);
+        when(verificationTokenRepository.deleteByUserId(anyLong())).thenAnswer(invocation ->
+                jdbcTemplate.update("DELETE FROM verification_tokens WHERE user_id = ?", invocation.<Long>getArgument(0)));
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        when(courseRepository.updateInstructorToNullByInstructorId(anyLong())).thenAnswer(invocation ->
+                jdbcTemplate.update("UPDATE courses SET instructor_id = NULL WHERE instructor_id = ?", invocation.<Long>getArgument(0)));
+
+        service = new BulkDeletionService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "verificationTokenRepository", verificationTokenRepository);
+        ReflectionTestUtils.setField(service, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(service, "enrollmentIndex", mock(EnrollmentIndex.class));
+        ReflectionTestUtils.setField(service, "userDirectoryIndex", mock(UserDirectoryIndex.class));
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        service.init();
+    }
+
+    @Test
+    void deletesAUserWithAReviewAndEveryOtherReference() {
+        long userId = insertUser("reviewer");
+        long otherId = insertUser("bystander");
+        jdbcTemplate.update("INSERT INTO reviews (user_id, content, rating, created_at, updated_at) VALUES (?, 'Great', 5, NOW(), NOW())", userId);
+        jdbcTemplate.update("INSERT INTO reviews (user_id, content, rating, created_at, updated_at) VALUES (?, 'Fine', 4, NOW(), NOW())", otherId);
+        jdbcTemplate.update("INSERT INTO verification_tokens (token, user_id, expiry_time, token_type, created_at) VALUES ('t-" + userId + "', ?, NOW(), 'EMAIL_VERIFICATION', NOW())", userId);
+        jdbcTemplate.update("INSERT INTO courses (name, instructor_id, visibility, pricing) VALUES ('Course of " + userId + "', ?, 'PUBLIC', 'FREE')", userId);
+        long courseId = jdbcTemplate.queryForObject("SELECT id FROM courses WHERE instructor_id = ?", Long.class, userId);
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id, status) VALUES (?, ?, 'ENROLLED')", userId, courseId);
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO result (score, user_id) VALUES (?, ?)", i, userId);
+        }
+
+        Map<String, Object> counts = service.deleteUser(userId);
+
+        assertThat(counts).containsEntry("reviews", 1).containsEntry("verificationTokens", 1)
+                .containsEntry("coursesUnassigned", 1).containsEntry("results", 5L)
+                .containsEntry("enrollments", 1L).containsEntry("users", 1);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE id = ?", userId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM reviews WHERE user_id = ?", otherId)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM courses WHERE id = ? AND instructor_id IS NULL", courseId)).isEqualTo(1);
+    }
+
+    @Test
+    void failureBeforeTheChunkedDeletesLeavesTheUserWhole() {
+        long userId = insertUser("unlucky");
+        jdbcTemplate.update("INSERT INTO reviews (user_id, content, rating, created_at, updated_at) VALUES (?, 'Good', 4, NOW(), NOW())", userId);
+        jdbcTemplate.update("INSERT INTO result (score, user_id) VALUES (1, ?)", userId);
+        CourseRepository failing = mock(CourseRepository.class);
+        when(failing.updateInstructorToNullByInstructorId(anyLong())).thenThrow(new IllegalStateException("connection lost"));
+        ReflectionTestUtils.setField(service, "courseRepository", failing);
+
+        assertThatThrownBy(() -> service.deleteUser(userId)).hasMessage("connection lost");
+
+        assertThat(count("SELECT COUNT(*) FROM users WHERE id = ?", userId)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM reviews WHERE user_id = ?", userId)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM result WHERE user_id = ?", userId)).isEqualTo(1);
+    }
+
+    private static long insertUser(String username) {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, role) VALUES (?, ?, 'x', 'student')",
+                username, username + "@examport.test");
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    private static long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ExamPort.ExamPort.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedBitmapTest {
+
+    @Test
+    void chunkSwitchesToABitmapAboveTheArrayLimitAndBack() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        // Every other value, so the chunk spans most of its 65536 range
+        for (int i = 0; i < 4096; i++) {
+            assertThat(bitmap.add(i * 2)).isTrue();
+        }
+        assertThat(firstChunk(bitmap)).isInstanceOf(char[].class);
+
+        assertThat(bitmap.add(8191)).isTrue();
+        assertThat(firstChunk(bitmap)).isInstanceOf(long[].class);
+        assertThat(bitmap.cardinality()).isEqualTo(4097);
+
+        assertThat(bitmap.remove(8191)).isTrue();
+        assertThat(firstChunk(bitmap)).isInstanceOf(char[].class);
+        assertThat(bitmap.cardinality()).isEqualTo(4096);
+        for (int i = 0; i < 4096; i++) {
+            assertThat(bitmap.contains(i * 2)).isTrue();
+            assertThat(bitmap.contains(i * 2 + 1)).isFalse();
+        }
+
+        // A full array chunk converts again on the next add
+        assertThat(bitmap.add(1)).isTrue();
+        assertThat(firstChunk(bitmap)).isInstanceOf(long[].class);
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(8190)).isTrue();
+    }
+
+    @Test
+    void duplicateAddsAndMissingRemovesChangeNothing() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        assertThat(bitmap.add(42)).isTrue();
+        assertThat(bitmap.add(42)).isFalse();
+        assertThat(bitmap.remove(43)).isFalse();
+        assertThat(bitmap.remove(70000)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(1);
+
+        for (int i = 0; i < 5000; i++) {
+            bitmap.add(i);
+        }
+        assertThat(bitmap.add(42)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(5000);
+    }
+
+    @Test
+    void removingTheLastValueDropsTheChunk() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(5);
+        bitmap.add(65536 + 5);
+        bitmap.add(2 * 65536 + 5);
+
+        assertThat(bitmap.remove(65536 + 5)).isTrue();
+        assertThat(chunkCount(bitmap)).isEqualTo(2);
+        assertThat(bitmap.contains(5)).isTrue();
+        assertThat(bitmap.contains(2 * 65536 + 5)).isTrue();
+
+        bitmap.remove(5);
+        bitmap.remove(2 * 65536 + 5);
+        assertThat(chunkCount(bitmap)).isZero();
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(bitmap.contains(5)).isFalse();
+
+        // A bitmap chunk emptied value by value is dropped as well
+        for (int i = 0; i < 5000; i++) {
+            bitmap.add(i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertThat(bitmap.remove(i)).isTrue();
+        }
+        assertThat(chunkCount(bitmap)).isZero();
+        assertThat(bitmap.cardinality()).isZero();
+
+        bitmap.add(7);
+        assertThat(bitmap.contains(7)).isTrue();
+    }
+
+    @Test
+    void forEachVisitsValuesInAscendingOrderAcrossChunkTypes() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        // A bitmap chunk, a sparse array chunk and the largest int, added out of order
+        for (int i = 6000; i >= 0; i--) {
+            add(bitmap, expected, 3 * 65536 + i);
+        }
+        add(bitmap, expected, 65536 + 9);
+        add(bitmap, expected, 65536 + 1);
+        add(bitmap, expected, Integer.MAX_VALUE);
+        add(bitmap, expected, 0);
+
+        assertThat(values(bitmap)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void matchesATreeSetUnderRandomAddsAndRemoves() {
+        Random random = new Random(42);
+        CompressedBitmap bitmap = new CompressedBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int step = 0; step < 200_000; step++) {
+            // Three chunks: values cluster so chunks cross the array limit in both directions
+            int value = random.nextInt(3) * 65536 + random.nextInt(9000);
+            if (random.nextInt(100) < 55) {
+                assertThat(bitmap.add(value)).isEqualTo(expected.add(value));
+            } else {
+                assertThat(bitmap.remove(value)).isEqualTo(expected.remove(value));
+            }
+            if (step % 50_000 == 0) {
+                bitmap.trim();
+            }
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        assertThat(values(bitmap)).containsExactlyElementsOf(expected);
+        for (int value = 0; value < 3 * 65536; value += 7) {
+            assertThat(bitmap.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+
+    private static void add(CompressedBitmap bitmap, TreeSet<Integer> expected, int value) {
+        bitmap.add(value);
+        expected.add(value);
+    }
+
+    private static List<Integer> values(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+
+    private static Object firstChunk(CompressedBitmap bitmap) {
+        return ((Object[]) ReflectionTestUtils.getField(bitmap, "chunks"))[0];
+    }
+
+    private static int chunkCount(CompressedBitmap bitmap) {
+        return (Integer) ReflectionTestUtils.getField(bitmap, "chunkCount");
+    }
+}
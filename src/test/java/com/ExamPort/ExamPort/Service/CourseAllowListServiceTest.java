@@ -0,0 +1,77 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseAllowListServiceTest {
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private CourseAllowListService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CourseAllowListService();
+        ReflectionTestUtils.setField(service, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(service, "cacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "cacheMaxCourses", 500);
+        ReflectionTestUtils.setField(service, "cacheMaxEmails", 3);
+        service.init();
+    }
+
+    @Test
+    void smallListIsLoadedOnceAndCheckedInMemory() {
+        when(courseRepository.countAllowedEmailsByCourseId(1L)).thenReturn(2L);
+        when(courseRepository.findAllowedEmailsByCourseId(1L)).thenReturn(List.of("Alice@Example.com", "bob@example.com"));
+
+        assertThat(service.isAllowed(1L, " alice@example.COM ")).isTrue();
+        assertThat(service.isAllowed(1L, "carol@example.com")).isFalse();
+        assertThat(service.countAllowed(1L)).isEqualTo(2L);
+
+        verify(courseRepository).findAllowedEmailsByCourseId(1L);
+        verify(courseRepository, times(1)).countAllowedEmailsByCourseId(1L);
+        verify(courseRepository, never()).isEmailAllowed(anyLong(), anyString());
+    }
+
+    @Test
+    void listAboveTheLimitIsCountedButNeverLoaded() {
+        when(courseRepository.countAllowedEmailsByCourseId(2L)).thenReturn(50_000L);
+        when(courseRepository.isEmailAllowed(2L, "alice@example.com")).thenReturn(true);
+
+        assertThat(service.isAllowed(2L, "alice@example.com")).isTrue();
+        assertThat(service.isAllowed(2L, "bob@example.com")).isFalse();
+        assertThat(service.countAllowed(2L)).isEqualTo(50_000L);
+
+        verify(courseRepository, never()).findAllowedEmailsByCourseId(anyLong());
+        verify(courseRepository, times(1)).countAllowedEmailsByCourseId(2L);
+        assertThat(service.getStats()).containsEntry("cachedCourses", 1L).containsEntry("cachedEmails", 0L)
+                .containsEntry("existsQueries", 2L);
+    }
+
+    @Test
+    void invalidateReloadsOnTheNextCheck() {
+        when(courseRepository.countAllowedEmailsByCourseId(1L)).thenReturn(1L);
+        when(courseRepository.findAllowedEmailsByCourseId(1L))
+                .thenReturn(List.of("alice@example.com"))
+                .thenReturn(List.of("bob@example.com"));
+        assertThat(service.isAllowed(1L, "bob@example.com")).isFalse();
+
+        service.invalidate(1L);
+
+        assertThat(service.isAllowed(1L, "bob@example.com")).isTrue();
+        verify(courseRepository, times(2)).findAllowedEmailsByCourseId(1L);
+    }
+}
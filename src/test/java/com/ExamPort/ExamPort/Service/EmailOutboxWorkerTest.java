@@ -0,0 +1,170 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.EmailOutbox;
+import com.ExamPort.ExamPort.Entity.EmailOutboxStatus;
+import com.ExamPort.ExamPort.Repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sends claimed outbox rows through the pooled SMTP connections to a GreenMail server and logs
+ * the delivery rate of a full batch. The repository is mocked; the SMTP side is real.
+ */
+class EmailOutboxWorkerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorkerTest.class);
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+    private final ApplicationMetrics applicationMetrics = mock(ApplicationMetrics.class);
+    private SmtpConnectionPool smtpConnectionPool;
+    private EmailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = newWorker(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.shutdown();
+        smtpConnectionPool.shutdown();
+    }
+
+    @Test
+    void pollDeliversClaimedEmailsOverOneConnectionPerWorker() throws Exception {
+        List<EmailOutbox> emails = queue(5);
+
+        worker.poll();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 5)).isTrue();
+        for (EmailOutbox email : emails) {
+            verify(outboxRepository, timeout(5000)).markSent(eq(email.getId()), any(), eq(EmailOutboxStatus.SENT));
+        }
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(5);
+        assertThat(received).extracting(MimeMessage::getSubject)
+                .containsExactlyInAnyOrderElementsOf(emails.stream().map(EmailOutbox::getSubject).collect(Collectors.toList()));
+        assertThat(received[0].getFrom()[0].toString()).isEqualTo("noreply@examport.test");
+        // Two worker threads, so at most two connections for the whole batch
+        assertThat(smtpConnectionPool.getConnectionsOpened()).isBetween(1L, 2L);
+        verify(outboxRepository, never()).markFailed(any(), any(), anyInt(), any(), anyString());
+    }
+
+    @Test
+    void batchThroughputReusesOneConnectionPerWorker() throws Exception {
+        int count = 50; // one full batch
+        List<EmailOutbox> emails = queue(count);
+
+        long startedAt = System.nanoTime();
+        worker.poll();
+        assertThat(greenMail.waitForIncomingEmail(10000, count)).isTrue();
+        for (EmailOutbox email : emails) {
+            verify(outboxRepository, timeout(5000)).markSent(eq(email.getId()), any(), eq(EmailOutboxStatus.SENT));
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        logger.info("Delivered {} emails in {} ms ({} emails/s) over {} SMTP connections", count,
+                Math.round(seconds * 1000), Math.round(count / seconds), smtpConnectionPool.getConnectionsOpened());
+        assertThat(smtpConnectionPool.getConnectionsOpened()).isLessThanOrEqualTo(2L);
+    }
+
+    @Test
+    void wakeUpDeliversWithoutWaitingForTheScheduledPoll() throws Exception {
+        List<EmailOutbox> emails = queue(1);
+
+        worker.wakeUp();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString())
+                .isEqualTo(emails.get(0).getRecipient());
+        verify(outboxRepository, timeout(5000)).markSent(eq(emails.get(0).getId()), any(), eq(EmailOutboxStatus.SENT));
+    }
+
+    @Test
+    void unreachableServerLeavesTheEmailPendingForRetry() throws Exception {
+        tearDown();
+        // Nothing listens on GreenMail's SMTP port plus one
+        worker = newWorker(ServerSetupTest.SMTP.getPort() + 1);
+        List<EmailOutbox> emails = queue(1);
+
+        worker.poll();
+
+        verify(outboxRepository, timeout(5000)).markFailed(eq(emails.get(0).getId()), eq(EmailOutboxStatus.PENDING),
+                eq(1), any(), anyString());
+        verify(outboxRepository, never()).markSent(any(), any(), any());
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    /**
+     * Make the mocked repository hand out {@code count} due rows on the next poll.
+     */
+    private List<EmailOutbox> queue(int count) {
+        List<EmailOutbox> emails = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            EmailOutbox email = new EmailOutbox("TEST", "student" + id + "@examport.test",
+                    "Exam reminder " + id, "<p>Your exam starts soon.</p>", true);
+            email.setId(id);
+            emails.add(email);
+        }
+        List<Long> ids = LongStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+        when(outboxRepository.findDueIds(eq(EmailOutboxStatus.PENDING), any(), any())).thenReturn(ids).thenReturn(List.of());
+        when(outboxRepository.claim(any(), any(), eq(EmailOutboxStatus.PENDING), eq(EmailOutboxStatus.SENDING))).thenReturn(1);
+        when(outboxRepository.findAllById(ids)).thenReturn(emails);
+        return emails;
+    }
+
+    private EmailOutboxWorker newWorker(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpPort);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+
+        smtpConnectionPool = new SmtpConnectionPool();
+        ReflectionTestUtils.setField(smtpConnectionPool, "mailSender", mailSender);
+        ReflectionTestUtils.setField(smtpConnectionPool, "applicationMetrics", applicationMetrics);
+        ReflectionTestUtils.setField(smtpConnectionPool, "connectionIdleTimeout", Duration.ofSeconds(30));
+
+        EmailOutboxWorker worker = new EmailOutboxWorker();
+        ReflectionTestUtils.setField(worker, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(worker, "smtpConnectionPool", smtpConnectionPool);
+        ReflectionTestUtils.setField(worker, "fromEmail", "noreply@examport.test");
+        ReflectionTestUtils.setField(worker, "workerCount", 2);
+        ReflectionTestUtils.setField(worker, "batchSize", 50);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 8);
+        ReflectionTestUtils.setField(worker, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(worker, "maxBackoff", Duration.ofHours(1));
+        ReflectionTestUtils.setField(worker, "sendingTimeout", Duration.ofMinutes(10));
+        worker.init();
+        return worker;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.EnrollmentStatus;
+import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Access answers from a loaded index: yes comes from memory, no is confirmed in the database.
+ */
+class EnrollmentIndexTest {
+
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    private EnrollmentIndex index;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() {
+        index = new EnrollmentIndex();
+        ReflectionTestUtils.setField(index, "enrollmentRepository", enrollmentRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        // An empty load, as on a node that has not seen any enrollment yet
+        SwappableIndex courses = (SwappableIndex) ReflectionTestUtils.getField(index, "courses");
+        courses.load(HashMap::new);
+    }
+
+    @Test
+    void enrollmentsKnownToTheIndexNeedNoQuery() {
+        index.recordAfterCommit(10L, 1L, EnrollmentStatus.ENROLLED);
+
+        assertThat(index.isEnrolled(1L, 10L)).isTrue();
+        assertThat(index.hasEnrollment(1L, 10L)).isTrue();
+        verify(enrollmentRepository, never()).isStudentEnrolledInCourse(1L, 10L);
+        verify(enrollmentRepository, never()).existsByStudentIdAndCourseId(1L, 10L);
+    }
+
+    @Test
+    void paymentSettledOnAnotherNodeIsNotDenied() {
+        when(enrollmentRepository.isStudentEnrolledInCourse(2L, 10L)).thenReturn(true);
+        when(enrollmentRepository.existsByStudentIdAndCourseId(2L, 10L)).thenReturn(true);
+
+        assertThat(index.isEnrolled(2L, 10L)).isTrue();
+        assertThat(index.hasEnrollment(2L, 10L)).isTrue();
+        assertThat(index.getStats()).containsEntry("confirmedNegatives", 2L).containsEntry("correctedNegatives", 2L);
+    }
+
+    @Test
+    void pendingEnrollmentIsDeniedAfterTheDatabaseAgrees() {
+        index.recordAfterCommit(10L, 3L, EnrollmentStatus.PAYMENT_PENDING);
+
+        assertThat(index.isEnrolled(3L, 10L)).isFalse();
+        verify(enrollmentRepository).isStudentEnrolledInCourse(3L, 10L);
+        assertThat(index.getStats()).containsEntry("confirmedNegatives", 1L).containsEntry("correctedNegatives", 0L);
+    }
+
+    @Test
+    void countsComeFromTheIndexOnly() {
+        index.recordAfterCommit(10L, 1L, EnrollmentStatus.ENROLLED);
+        index.recordAfterCommit(10L, 2L, EnrollmentStatus.ENROLLED);
+        index.recordAfterCommit(10L, 3L, EnrollmentStatus.PAYMENT_PENDING);
+
+        assertThat(index.countEnrolled(10L)).isEqualTo(2L);
+        verify(enrollmentRepository, never()).countEnrolledStudentsByCourseId(10L);
+    }
+}
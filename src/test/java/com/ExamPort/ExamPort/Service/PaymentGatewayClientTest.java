@@ -0,0 +1,146 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Exception.PaymentException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulkhead and circuit breaker in front of the stub gateway, whose latency and failure rate are
+ * switched between calls. The bulkhead allows 2 calls and waits 100 ms for a permit; the breaker
+ * opens at 50% failures over at least 4 calls, stays open 200 ms and closes after 2 trial calls.
+ */
+class PaymentGatewayClientTest {
+
+    private final StubPaymentGateway gateway = new StubPaymentGateway();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private PaymentGatewayClient client;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gateway, "latency", Duration.ZERO);
+        ReflectionTestUtils.setField(gateway, "latencyJitter", Duration.ZERO);
+        ReflectionTestUtils.setField(gateway, "failureRate", 0.0);
+        ReflectionTestUtils.setField(gateway, "paidRate", 0.0);
+        ReflectionTestUtils.setField(gateway, "readTimeout", Duration.ofMillis(300));
+
+        client = new PaymentGatewayClient();
+        ReflectionTestUtils.setField(client, "gateway", gateway);
+        ReflectionTestUtils.setField(client, "maxConcurrent", 2);
+        ReflectionTestUtils.setField(client, "maxWait", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(client, "windowSize", 10);
+        ReflectionTestUtils.setField(client, "minimumCalls", 4);
+        ReflectionTestUtils.setField(client, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(client, "openDuration", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(client, "halfOpenCalls", 2);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callsBeyondTheBulkheadWaitMaxWaitThenAreTurnedAway() throws Exception {
+        ReflectionTestUtils.setField(gateway, "latency", Duration.ofMillis(250));
+        List<Future<String>> inFlight = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            inFlight.add(executor.submit(() -> client.createOrder(9900, "INR", "receipt", Map.of())));
+        }
+        awaitInFlight(2);
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> client.createOrder(9900, "INR", "receipt", Map.of()))
+                .isInstanceOfSatisfying(PaymentException.class, e -> assertThat(e.isRetryable()).isTrue())
+                .hasMessageContaining("busy");
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertThat(waitedMillis).isBetween(90L, 240L);
+        for (Future<String> call : inFlight) {
+            assertThat(call.get(1, TimeUnit.SECONDS)).startsWith("order_stub_");
+        }
+        assertThat(client.getStats()).containsEntry("bulkheadRejections", 1L).containsEntry("inFlight", 0);
+        // Rejections do not count against the provider
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.CLOSED);
+    }
+
+    @Test
+    void circuitOpensAtTheFailureRateFailsFastThenClosesAfterTrialCalls() throws Exception {
+        // 2 successes and 2 failures: 50% over the 4 minimum calls
+        client.createOrder(100, "INR", "r1", Map.of());
+        client.createOrder(100, "INR", "r2", Map.of());
+        ReflectionTestUtils.setField(gateway, "failureRate", 1.0);
+        assertThatThrownBy(() -> client.createOrder(100, "INR", "r3", Map.of())).isInstanceOf(PaymentException.class);
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.CLOSED);
+        assertThatThrownBy(() -> client.createOrder(100, "INR", "r4", Map.of())).isInstanceOf(PaymentException.class);
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.OPEN);
+
+        // While open, calls fail without reaching the (now healthy) provider
+        ReflectionTestUtils.setField(gateway, "failureRate", 0.0);
+        ReflectionTestUtils.setField(gateway, "latency", Duration.ofMillis(100));
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> client.findCapturedPayment("order_1"))
+                .isInstanceOfSatisfying(PaymentException.class, e -> assertThat(e.isRetryable()).isTrue())
+                .hasMessageContaining("temporarily unavailable");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isLessThan(50L);
+        assertThat(client.getStats()).containsEntry("calls", 4L).containsEntry("circuitRejections", 1L);
+
+        // After the open period, the half-open trial calls succeed and close it
+        ReflectionTestUtils.setField(gateway, "latency", Duration.ZERO);
+        TimeUnit.MILLISECONDS.sleep(250);
+        client.findCapturedPayment("order_1");
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.HALF_OPEN);
+        client.findCapturedPayment("order_1");
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.CLOSED);
+    }
+
+    @Test
+    void failedTrialCallReopensTheCircuit() throws Exception {
+        ReflectionTestUtils.setField(gateway, "failureRate", 1.0);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.findCapturedPayment("order_1")).isInstanceOf(PaymentException.class);
+        }
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.OPEN);
+
+        TimeUnit.MILLISECONDS.sleep(250);
+        assertThatThrownBy(() -> client.findCapturedPayment("order_1")).isInstanceOf(PaymentException.class);
+
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.OPEN);
+    }
+
+    @Test
+    void readTimeoutCountsAsAFailure() {
+        // Slower than the 300 ms read timeout
+        ReflectionTestUtils.setField(gateway, "latency", Duration.ofMillis(500));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.findCapturedPayment("order_1"))
+                    .isInstanceOfSatisfying(PaymentException.class, e -> assertThat(e.isRetryable()).isTrue())
+                    .hasMessageContaining("did not respond");
+        }
+
+        assertThat(client.getStats()).containsEntry("timeouts", 4L).containsEntry("failures", 4L);
+        assertThat(client.getCircuitState()).isEqualTo(PaymentGatewayClient.CircuitState.OPEN);
+    }
+
+    private void awaitInFlight(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!client.getStats().get("inFlight").equals(calls)) {
+            assertThat(System.nanoTime()).as("%d calls in flight", calls).isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
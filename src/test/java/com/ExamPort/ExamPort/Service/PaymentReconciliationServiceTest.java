@@ -0,0 +1,154 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Reconciliation sweeps against the migrated schema with the stub gateway. The stub reports every
+ * order unpaid unless a test says otherwise; the lookup pool has one thread so a page is looked up
+ * in order.
+ */
+@SpringBootTest(properties = {
+        "app.rate-limit.enabled=false",
+        "app.payment.gateway=stub",
+        "app.payment.stub.latency=PT0S",
+        "app.payment.circuit-breaker.minimum-calls=1000",
+        "app.payment.reconciliation.enabled=false",
+        "app.payment.reconciliation.concurrency=1",
+        "razorpay.key.id=test",
+        "razorpay.key.secret=test",
+        "spring.mail.host=127.0.0.1",
+        "spring.mail.port=1",
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "app.email.admin=admin@examport.test",
+        "app.email.outbox.initial-backoff=PT1H",
+        "management.server.port=-1"
+})
+class PaymentReconciliationServiceTest {
+
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Autowired
+    private PaymentReconciliationService reconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private StubPaymentGateway gateway;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase database = TestDatabase.get();
+        String url = database.createMigratedSchema("payment_reconciliation_test");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", database::getUsername);
+        registry.add("spring.datasource.password", database::getPassword);
+    }
+
+    @BeforeEach
+    void clearPayments() {
+        jdbcTemplate.update("DELETE FROM payment_ledger");
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        jdbcTemplate.update("DELETE FROM enrollments");
+    }
+
+    @Test
+    void paidOrderIsSettledOnceAcrossSweeps() {
+        long enrollmentId = pendingEnrollment("order_paid", LocalDateTime.now().minusHours(1));
+        doReturn(Optional.of(new PaymentGateway.CapturedPayment("pay_paid", 49900L))).when(gateway).findCapturedPayment("order_paid");
+
+        sweep();
+        assertThat(lastSweep()).containsEntry("checked", 1).containsEntry("settled", 1).containsEntry("errors", 0);
+        sweep();
+
+        assertThat(status(enrollmentId)).isEqualTo("ENROLLED");
+        assertThat(jdbcTemplate.queryForList("SELECT payment_id, amount_paise, source FROM payment_ledger WHERE enrollment_id = ?", enrollmentId))
+                .containsExactly(Map.of("payment_id", "pay_paid", "amount_paise", 49900L, "source", "RECONCILIATION"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE email_type = 'PAYMENT_RECEIPT'", Long.class))
+                .isEqualTo(1);
+        // The settled enrollment is no longer pending, so the second sweep had nothing to look up
+        assertThat(lastSweep()).containsEntry("checked", 0);
+        verify(gateway).findCapturedPayment("order_paid");
+    }
+
+    @Test
+    void abandonedCheckoutIsCancelledAndARecentOneIsLeftPending() {
+        long abandoned = pendingEnrollment("order_abandoned", LocalDateTime.now().minusDays(2));
+        long recent = pendingEnrollment("order_recent", LocalDateTime.now().minusHours(1));
+
+        sweep();
+
+        assertThat(status(abandoned)).isEqualTo("CANCELLED");
+        assertThat(status(recent)).isEqualTo("PAYMENT_PENDING");
+        assertThat(lastSweep()).containsEntry("checked", 2).containsEntry("expired", 1).containsEntry("settled", 0);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payment_ledger", Long.class)).isZero();
+    }
+
+    @Test
+    void retryableGatewayErrorStopsThePage() {
+        long failing = pendingEnrollment("order_failing", LocalDateTime.now().minusDays(3));
+        long skipped = pendingEnrollment("order_skipped", LocalDateTime.now().minusDays(2));
+        doThrow(new PaymentGatewayException("Stub gateway returned HTTP 502", true)).when(gateway).findCapturedPayment("order_failing");
+
+        sweep();
+
+        assertThat(lastSweep()).containsEntry("checked", 1).containsEntry("errors", 1).containsEntry("expired", 0);
+        verify(gateway, never()).findCapturedPayment("order_skipped");
+        assertThat(status(failing)).isEqualTo("PAYMENT_PENDING");
+        assertThat(status(skipped)).as("left for the next sweep").isEqualTo("PAYMENT_PENDING");
+    }
+
+    private void sweep() {
+        PaymentReconciliationService target = AopTestUtils.getTargetObject(reconciliationService);
+        ReflectionTestUtils.invokeMethod(target, "sweep");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> lastSweep() {
+        return (Map<String, Object>) reconciliationService.getStats().get("lastSweep");
+    }
+
+    private String status(long enrollmentId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM enrollments WHERE id = ?", String.class, enrollmentId);
+    }
+
+    /**
+     * A student's paid checkout for a new 499.00 course, last touched at {@code updatedAt}. The
+     * course has no instructor, as after the instructor's account is deleted.
+     */
+    private long pendingEnrollment(String orderId, LocalDateTime updatedAt) {
+        int n = names.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO users (username, email, password, role, email_verified) VALUES (?, ?, 'x', 'student', 1)",
+                "reconcile-student-" + n, "student" + n + "@examport.test");
+        long studentId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, "reconcile-student-" + n);
+        jdbcTemplate.update("INSERT INTO courses (name, visibility, pricing, price) VALUES (?, 'PUBLIC', 'PAID', 499.00)", "Paid course " + n);
+        long courseId = jdbcTemplate.queryForObject("SELECT id FROM courses WHERE name = ?", Long.class, "Paid course " + n);
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id, status, payment_order_id, updated_at) VALUES (?, ?, 'PAYMENT_PENDING', ?, ?)",
+                studentId, courseId, orderId, Timestamp.valueOf(updatedAt));
+        return jdbcTemplate.queryForObject("SELECT id FROM enrollments WHERE payment_order_id = ?", Long.class, orderId);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ExamPort.ExamPort.Service;
+
+import com.ExamPort.ExamPort.Entity.Course;
+import com.ExamPort.ExamPort.Entity.Enrollment;
+import com.ExamPort.ExamPort.Entity.EnrollmentStatus;
+import com.ExamPort.ExamPort.Entity.PaymentLedgerEntry;
+import com.ExamPort.ExamPort.Entity.User;
+import com.ExamPort.ExamPort.Exception.PaymentException;
+import com.ExamPort.ExamPort.Repository.EnrollmentRepository;
+import com.ExamPort.ExamPort.Repository.PaymentLedgerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The browser verification path settles only the enrollment the signed order belongs to.
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    private static final long STUDENT_ID = 7L;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PaymentLedgerRepository paymentLedgerRepository;
+
+    @Mock
+    private EnrollmentIndex enrollmentIndex;
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private PaymentService paymentService;
+
+    private User student;
+    private Enrollment cheapEnrollment;
+
+    @BeforeEach
+    void setUp() {
+        student = new User();
+        student.setId(STUDENT_ID);
+        cheapEnrollment = pendingEnrollment(1L, course(10L, "99.00"), "order_cheap");
+    }
+
+    @Test
+    void completesTheEnrollmentTheOrderBelongsTo() {
+        when(enrollmentRepository.findByPaymentOrderId("order_cheap")).thenReturn(Optional.of(cheapEnrollment));
+        when(enrollmentRepository.markPaid(eq(1L), eq("pay_1"), eq(EnrollmentStatus.ENROLLED), any())).thenReturn(1);
+
+        paymentService.processSuccessfulPayment("pay_1", "order_cheap", 10L, STUDENT_ID);
+
+        ArgumentCaptor<PaymentLedgerEntry> ledger = ArgumentCaptor.forClass(PaymentLedgerEntry.class);
+        verify(paymentLedgerRepository).save(ledger.capture());
+        assertThat(ledger.getValue().getCourseId()).isEqualTo(10L);
+        assertThat(ledger.getValue().getAmountPaise()).isEqualTo(9900L);
+    }
+
+    @Test
+    void rejectsASignedOrderSubmittedForAnotherCourse() {
+        // The cheap course's valid order replayed with the expensive pending course's ID
+        when(enrollmentRepository.findByPaymentOrderId("order_cheap")).thenReturn(Optional.of(cheapEnrollment));
+
+        assertThatThrownBy(() -> paymentService.processSuccessfulPayment("pay_1", "order_cheap", 20L, STUDENT_ID))
+                .isInstanceOf(PaymentException.class)
+                .hasMessageContaining("does not match");
+
+        verify(enrollmentRepository, never()).markPaid(anyLong(), anyString(), any(), any());
+        verify(paymentLedgerRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsAnOrderThatIsNotPendingOnAnyEnrollment() {
+        when(enrollmentRepository.findByPaymentOrderId("order_unknown")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> paymentService.processSuccessfulPayment("pay_1", "order_unknown", 10L, STUDENT_ID))
+                .isInstanceOf(PaymentException.class);
+
+        verify(enrollmentRepository, never()).markPaid(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    void rejectsAnotherStudentsOrder() {
+        when(enrollmentRepository.findByPaymentOrderId("order_cheap")).thenReturn(Optional.of(cheapEnrollment));
+
+        assertThatThrownBy(() -> paymentService.processSuccessfulPayment("pay_1", "order_cheap", 10L, STUDENT_ID + 1))
+                .isInstanceOf(PaymentException.class);
+
+        verify(enrollmentRepository, never()).markPaid(anyLong(), anyString(), any(), any());
+    }
+
+    private Enrollment pendingEnrollment(long id, Course course, String orderId) {
+        Enrollment enrollment = new Enrollment(student, course, EnrollmentStatus.PAYMENT_PENDING);
+        enrollment.setId(id);
+        enrollment.setPaymentOrderId(orderId);
+        return enrollment;
+    }
+
+    private static Course course(long id, String price) {
+        Course course = new Course();
+        course.setId(id);
+        course.setName("Course " + id);
+        course.setPrice(new BigDecimal(price));
+        return course;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ExamPort.ExamPort;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One MariaDB server per test JVM (MySQL wire-compatible, so the application's driver and
+ * migrations run unchanged), started by MariaDB4j on first use and stopped when the JVM exits.
+ * Each test class takes its own schema, so classes do not see each other's rows. The load test
+ * under src/loadtest runs against the same server.
+ */
+public final class TestDatabase {
+
+    private static TestDatabase instance;
+
+    private final int port;
+
+    private TestDatabase(int port) {
+        this.port = port;
+    }
+
+    public static synchronized TestDatabase get() {
+        if (instance == null) {
+            instance = start();
+        }
+        return instance;
+    }
+
+    private static TestDatabase start() {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0);
+        // The default of 151 is below what a large load test's pools can open
+        config.addArg("--max-connections=1000");
+        config.addArg("--innodb-buffer-pool-size=256M");
+        // MySQL 8's default; MariaDB's latin1 rejects the emoji in the email subjects
+        config.addArg("--character-set-server=utf8mb4");
+        config.addArg("--collation-server=utf8mb4_general_ci");
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mariadbd refuses to run as root unless told to (CI containers usually are root)
+            config.addArg("--user=root");
+        }
+        try {
+            DB db = DB.newEmbeddedDB(config.build());
+            db.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    db.stop();
+                } catch (ManagedProcessException e) {
+                    // The JVM is exiting; MariaDB4j removes its files on its own
+                }
+            }, "test-database-stop"));
+            return new TestDatabase(db.getConfiguration().getPort());
+        } catch (ManagedProcessException e) {
+            throw new IllegalStateException("Could not start the embedded MariaDB server", e);
+        }
+    }
+
+    /**
+     * Drop and recreate an empty schema. Over JDBC rather than DB.createDB, which shells out to
+     * the mariadb client and needs libncurses5.
+     *
+     * @return its JDBC URL
+     */
+    public String createSchema(String schema) {
+        try (Connection connection = DriverManager.getConnection("jdbc:mysql://localhost:" + port + "/?useSSL=false", getUsername(), getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + schema);
+            statement.execute("CREATE DATABASE " + schema);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create schema " + schema, e);
+        }
+        return getJdbcUrl(schema);
+    }
+
+    /**
+     * Create the schema and run the application's Flyway migrations on it.
+     *
+     * @return its JDBC URL
+     */
+    public String createMigratedSchema(String schema) {
+        String url = createSchema(schema);
+        Flyway.configure()
+                .dataSource(url, getUsername(), getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        return url;
+    }
+
+    public String getJdbcUrl(String schema) {
+        return "jdbc:mysql://localhost:" + port + "/" + schema + "?useSSL=false&allowPublicKeyRetrieval=true";
+    }
+
+    public String getUsername() {
+        return "root";
+    }
+
+    public String getPassword() {
+        return "";
+    }
+}